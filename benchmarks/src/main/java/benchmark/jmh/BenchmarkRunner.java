@@ -0,0 +1,37 @@
+package benchmark.jmh;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Lance les benchmarks avec le profileur GC (taux d'allocation, octets alloués par opération)
+// et enregistre les résultats en JSON horodaté dans results/, pour comparer les exécutions entre elles.
+// Usage : java -jar benchmarks.jar [regex des benchmarks] [dossier de résultats]
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws RunnerException, IOException {
+		String include = args.length > 0 ? args[0] : "benchmark\\.jmh\\..*Benchmark";
+		Path results = Paths.get(args.length > 1 ? args[1] : "results");
+		Files.createDirectories(results);
+		Path output = results.resolve("jmh-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".json");
+
+		Options options = new OptionsBuilder()
+				.include(include)
+				.addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.JSON)
+				.result(output.toString())
+				.build();
+		new Runner(options).run();
+		System.out.println("Résultats : " + output.toAbsolutePath());
+	}
+}
@@ -0,0 +1,67 @@
+package benchmark.jmh;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import callGraph.CallGraph;
+import callGraph.CallGraphGenerator;
+import parser.AnalysisEnvironment;
+import parser.AnalysisProfile;
+
+// Extraction des arcs (bindings complets) et écriture du DOT, séparément
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CallGraphBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class Graph {
+		@Param({ "1", "4" })
+		public int threads;
+
+		AnalysisEnvironment environment;
+		CallGraph graph;
+		Path dotFile;
+
+		@Setup(Level.Trial)
+		public void setUp(CorpusState corpus) throws IOException {
+			environment = AnalysisEnvironment.forProfile(corpus.root.toString(), AnalysisProfile.CALL_GRAPH);
+			graph = CallGraphGenerator.collectGraph(environment, corpus.files, threads);
+			dotFile = Files.createTempFile("callgraph-", ".dot");
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() throws IOException {
+			Files.deleteIfExists(dotFile);
+		}
+	}
+
+	@Benchmark
+	public CallGraph extractEdges(CorpusState corpus, Graph graph) throws IOException {
+		return CallGraphGenerator.collectGraph(graph.environment, corpus.files, graph.threads);
+	}
+
+	@Benchmark
+	public File writeDot(Graph graph) throws IOException {
+		return CallGraphGenerator.writeDotFile(graph.graph, graph.dotFile.toString());
+	}
+}
@@ -0,0 +1,95 @@
+package benchmark.jmh;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import generator.CodebaseGenerator;
+import generator.GeneratorConfig;
+import parser.Parser;
+
+// Corpus fixe pour les benchmarks. Par défaut, un projet synthétique (generator) de taille proportionnelle à N,
+// autonome : tous ses appels se résolvent avec le seul JRE, bindings et graphe d'appel sont donc complets.
+// -Dcorpus.seed=<graine> change la graine (défaut : 1).
+// Avec -Dcorpus.source=<dossier>, cet arbre de sources est recopié N fois, chaque copie dans son propre
+// paquetage copieK : package, imports et noms qualifiés vers ses propres paquetages sont préfixés d'autant.
+// Les dépendances externes de l'arbre (JDT, JGraphT...) ne sont pas sur le classpath du corpus et restent non résolues.
+// Même entrée et même nombre de copies donnent toujours le même corpus.
+public class Corpus {
+	private static final Pattern PACKAGE = Pattern.compile("^\\s*package\\s+([\\w.]+)\\s*;", Pattern.MULTILINE);
+
+	public static Path build(int copies) throws IOException {
+		String source = System.getProperty("corpus.source");
+		if (source == null) {
+			long seed = Long.parseLong(System.getProperty("corpus.seed", "1"));
+			GeneratorConfig config = new GeneratorConfig().withSeed(seed).withPackages(10 * copies);
+			return CodebaseGenerator.generateTemp(config).getRoot();
+		}
+		return copies(Paths.get(source).toAbsolutePath(), copies);
+	}
+
+	private static Path copies(Path source, int copies) throws IOException {
+		List<File> files = Parser.getJavaFilesForFolder(source.toFile());
+		files.sort(Comparator.comparing(File::getPath));
+
+		// Premiers segments des paquetages de l'arbre : seuls les noms qui commencent par l'un d'eux sont préfixés
+		Set<String> roots = new TreeSet<String>();
+		for (File file : files) {
+			Matcher matcher = PACKAGE.matcher(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+			if (matcher.find()) {
+				roots.add(matcher.group(1).split("\\.")[0]);
+			}
+		}
+		Pattern imports = null;
+		Pattern qualified = null;
+		if (!roots.isEmpty()) {
+			String alternatives = "(?:" + String.join("|", roots) + ")";
+			imports = Pattern.compile("^(\\s*import\\s+(?:static\\s+)?)(" + alternatives + "\\.)", Pattern.MULTILINE);
+			// Nom qualifié dans le code : paquetages en minuscule puis un type (parser.Parser, callGraph.render.Svg) ;
+			// une variable homonyme d'un paquetage (parser.setSource(...)) ne correspond pas
+			qualified = Pattern.compile("(?<![\\w.$])(" + alternatives + "(?:\\.[a-z_]\\w*)*\\.[A-Z])");
+		}
+
+		Path root = Files.createTempDirectory("corpus-" + copies + "-");
+		for (int copy = 0; copy < copies; copy++) {
+			String prefix = "copie" + copy;
+			for (File file : files) {
+				String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+				Matcher matcher = PACKAGE.matcher(content);
+				String relative = source.relativize(file.toPath()).toString();
+				if (matcher.find()) {
+					content = matcher.replaceFirst("package " + prefix + "." + matcher.group(1) + ";");
+				} else {
+					content = "package " + prefix + ";\n" + content;
+				}
+				if (imports != null) {
+					content = imports.matcher(content).replaceAll("$1" + prefix + ".$2");
+					content = qualified.matcher(content).replaceAll(prefix + ".$1");
+				}
+				Path target = root.resolve(prefix).resolve(relative);
+				Files.createDirectories(target.getParent());
+				Files.write(target, content.getBytes(StandardCharsets.UTF_8));
+			}
+		}
+		return root;
+	}
+
+	public static void delete(Path root) throws IOException {
+		if (root == null || !Files.exists(root)) {
+			return;
+		}
+		try (Stream<Path> paths = Files.walk(root)) {
+			paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+	}
+}
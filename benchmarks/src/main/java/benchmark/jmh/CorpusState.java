@@ -0,0 +1,45 @@
+package benchmark.jmh;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import parser.Parser;
+
+// Corpus partagé par les benchmarks, en trois tailles (nombre de copies de l'arbre de référence)
+@State(Scope.Benchmark)
+public class CorpusState {
+	@Param({ "1", "4", "16" })
+	public int copies;
+
+	public Path root;
+	public List<File> files;
+	public char[][] sources;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		root = Corpus.build(copies);
+		files = Parser.getJavaFilesForFolder(root.toFile());
+		sources = new char[files.size()][];
+		for (int i = 0; i < sources.length; i++) {
+			sources[i] = new String(Files.readAllBytes(files.get(i).toPath()), StandardCharsets.UTF_8).toCharArray();
+		}
+		// Parser.parse lit l'environnement du projet courant
+		Parser.projectSourcePath = root.toString();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		Corpus.delete(root);
+	}
+}
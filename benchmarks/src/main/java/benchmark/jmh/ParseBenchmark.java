@@ -0,0 +1,65 @@
+package benchmark.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import parser.AnalysisEnvironment;
+import parser.BindingLevel;
+import parser.Parser;
+
+// Parser.parse sur un fichier par opération (les fichiers du corpus sont pris à tour de rôle) : fichiers/s
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+
+	@State(Scope.Thread)
+	public static class Cursor {
+		int next;
+		ASTParser syntaxParser;
+		AnalysisEnvironment syntax;
+
+		@Setup
+		public void setUp(CorpusState corpus) {
+			syntax = new AnalysisEnvironment(corpus.root.toString(), BindingLevel.SYNTAX_ONLY);
+			syntaxParser = ASTParser.newParser(AST.JLS4);
+		}
+
+		int nextIndex(CorpusState corpus) {
+			int index = next;
+			next = (next + 1) % corpus.sources.length;
+			return index;
+		}
+	}
+
+	// Chemin historique : bindings résolus, environnement complet ; le chemin du fichier sert de nom d'unité,
+	// sans quoi JDT ne résout rien et la comparaison mesurerait deux parsings syntaxiques
+	@Benchmark
+	public CompilationUnit parseWithBindings(CorpusState corpus, Cursor cursor) {
+		int index = cursor.nextIndex(corpus);
+		return Parser.parse(corpus.files.get(index).getAbsolutePath(), corpus.sources[index]);
+	}
+
+	// Profil statistiques : syntaxe seule, parser réutilisé
+	@Benchmark
+	public CompilationUnit parseSyntaxOnly(CorpusState corpus, Cursor cursor) {
+		cursor.syntax.configure(cursor.syntaxParser);
+		cursor.syntaxParser.setSource(corpus.sources[cursor.nextIndex(corpus)]);
+		return (CompilationUnit) cursor.syntaxParser.createAST(null);
+	}
+}
@@ -0,0 +1,38 @@
+package benchmark.jmh;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import metrics.MetricsTable;
+import parser.Parser;
+
+// Pipeline de statistiques de Parser.main (sans l'affichage) sur tout le corpus, selon le nombre de threads
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StatisticsPipelineBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class Threads {
+		@Param({ "1", "2", "4", "8" })
+		public int threads;
+	}
+
+	@Benchmark
+	public MetricsTable statistics(CorpusState corpus, Threads threads) throws IOException {
+		return Parser.computeTable(corpus.files, threads.threads);
+	}
+}
@@ -0,0 +1,82 @@
+package benchmark.jmh;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import parser.AnalysisEnvironment;
+import parser.BindingLevel;
+import parser.Parser;
+import visitor.FieldAccessVisitor;
+import visitor.MethodDeclarationVisitor;
+import visitor.MethodInvocationVisitor;
+import visitor.MetricsVisitor;
+import visitor.PackageDeclarationVisitor;
+import visitor.TypeDeclarationVisitor;
+import visitor.VariableDeclarationFragmentVisitor;
+
+// Un parcours complet du corpus (AST déjà construits) par opération, pour chaque visiteur du paquetage visitor
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VisitorBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class Units {
+		@Param({ "TypeDeclarationVisitor", "MethodDeclarationVisitor", "MethodInvocationVisitor", "PackageDeclarationVisitor",
+				"FieldAccessVisitor", "VariableDeclarationFragmentVisitor", "MetricsVisitor" })
+		public String visitor;
+
+		List<CompilationUnit> units;
+
+		// Le parcours ne dépend pas des bindings : AST syntaxiques, plus légers à garder en mémoire
+		@Setup(Level.Trial)
+		public void setUp(CorpusState corpus) throws IOException {
+			units = new ArrayList<CompilationUnit>();
+			Parser.parseAll(new AnalysisEnvironment(corpus.root.toString(), BindingLevel.SYNTAX_ONLY), corpus.files,
+					(path, unit) -> units.add(unit));
+		}
+
+		ASTVisitor newVisitor() {
+			switch (visitor) {
+				case "TypeDeclarationVisitor": return new TypeDeclarationVisitor();
+				case "MethodDeclarationVisitor": return new MethodDeclarationVisitor();
+				case "MethodInvocationVisitor": return new MethodInvocationVisitor();
+				case "PackageDeclarationVisitor": return new PackageDeclarationVisitor();
+				case "FieldAccessVisitor": return new FieldAccessVisitor();
+				case "VariableDeclarationFragmentVisitor": return new VariableDeclarationFragmentVisitor();
+				case "MetricsVisitor": return MetricsVisitor.withDefaultCollectors();
+				default: throw new IllegalArgumentException(visitor);
+			}
+		}
+	}
+
+	// Un visiteur neuf par unité, comme dans les helpers de Parser
+	@Benchmark
+	public void walkCorpus(Units units, Blackhole blackhole) {
+		for (CompilationUnit unit : units.units) {
+			ASTVisitor visitor = units.newVisitor();
+			unit.accept(visitor);
+			blackhole.consume(visitor);
+		}
+	}
+}
@@ -1,7 +1,67 @@
+import batch.BatchMain;
+import callGraph.CallGraphGenerator;
 import cli.ASTServiceCLI;
+import history.HistoryMain;
+import instrumentation.Instrumentation;
+import parser.Parser;
+import parser.classpath.ClasspathResolver;
+import server.ServerMain;
+
+import java.util.Arrays;
 
 public class Main {
     public static void main(String[] args) {
+        // --project <chemin> : mode batch sans menu (voir BatchMain), Swing et la CLI ne sont jamais chargés
+        if (BatchMain.isBatch(args)) {
+            System.exit(BatchMain.run(args));
+        }
+        // --serve <chemin> : serveur de requêtes HTTP local (voir ServerMain)
+        if (ServerMain.isServer(args)) {
+            System.exit(ServerMain.run(args));
+        }
+        // --history <dépôt> : métriques à chaque commit d'un dépôt git local (voir HistoryMain)
+        if (HistoryMain.isHistory(args)) {
+            System.exit(HistoryMain.run(args));
+        }
+
+        // --instrument [--slowest N] [--metrics-json fichier] : mesures par phase, résumé à la sortie
+        try {
+            Instrumentation.configure(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Erreur: " + e.getMessage());
+            System.err.println("Usage: [--threads N] [--renderer auto|svg|dot] [--no-classpath] [--instrument] [--slowest N]");
+            System.exit(1);
+        }
+
+        // --no-classpath : bindings sans les dépendances du build (sources + JRE seulement)
+        if (Arrays.asList(args).contains("--no-classpath")) {
+            ClasspathResolver.enabled = false;
+        }
+
+        // --threads N : nombre de threads pour l'analyse des projets
+        for (int i = 0; i < args.length - 1; i++) {
+            if ("--threads".equals(args[i])) {
+                try {
+                    Parser.threads = Parser.parseThreads(args[i + 1]);
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Erreur: " + e.getMessage());
+                    System.err.println("Usage: [--threads N] [--renderer auto|svg|dot] [--no-classpath] [--instrument] [--slowest N]");
+                    System.exit(1);
+                }
+            }
+            // --renderer auto|svg|dot : rendu de l'image du graphe d'appel
+            if ("--renderer".equals(args[i])) {
+                String renderer = args[i + 1].toUpperCase();
+                try {
+                    CallGraphGenerator.renderer = "DOT".equals(renderer) ? CallGraphGenerator.Renderer.GRAPHVIZ : CallGraphGenerator.Renderer.valueOf(renderer);
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Erreur: rendu inconnu " + args[i + 1]);
+                    System.err.println("Usage: [--threads N] [--renderer auto|svg|dot] [--no-classpath] [--instrument] [--slowest N]");
+                    System.exit(1);
+                }
+            }
+        }
+
         //Lancement de la CLI
         ASTServiceCLI astServiceCLI = new ASTServiceCLI();
         astServiceCLI.run();
@@ -0,0 +1,49 @@
+package batch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import parser.AnalysisProfile;
+import parser.BindingLevel;
+
+// Analyses disponibles en mode batch, chacune avec le profil (et donc le niveau de bindings) qu'elle exige
+public enum Analysis {
+	FILES(AnalysisProfile.STATISTICS),
+	METHODS(AnalysisProfile.STATISTICS),
+	STATS(AnalysisProfile.STATISTICS),
+	RANKING(AnalysisProfile.STATISTICS),
+	CALLGRAPH(AnalysisProfile.CALL_GRAPH),
+	ANALYTICS(AnalysisProfile.CALL_GRAPH);
+
+	private final AnalysisProfile profile;
+
+	Analysis(AnalysisProfile profile) {
+		this.profile = profile;
+	}
+
+	public AnalysisProfile getProfile() {
+		return profile;
+	}
+
+	// Niveau de bindings le plus bas qui suffit à toutes les analyses
+	public static BindingLevel bindingLevel(Iterable<Analysis> analyses) {
+		List<AnalysisProfile> profiles = new ArrayList<AnalysisProfile>();
+		for (Analysis analysis : analyses) {
+			profiles.add(analysis.profile);
+		}
+		return AnalysisProfile.required(profiles);
+	}
+
+	public String getName() {
+		return name().toLowerCase();
+	}
+
+	public static Analysis parse(String name) {
+		for (Analysis analysis : values()) {
+			if (analysis.getName().equals(name.trim().toLowerCase())) {
+				return analysis;
+			}
+		}
+		throw new IllegalArgumentException("Analyse inconnue : " + name);
+	}
+}
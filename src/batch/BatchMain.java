@@ -0,0 +1,242 @@
+package batch;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import instrumentation.Instrumentation;
+import parser.classpath.ClasspathResolver;
+
+// Mode non interactif, pour la CI : aucune classe du menu ni de Swing n'est chargée.
+//
+//   --project <chemin>          projet Java (son dossier src s'il existe)
+//   --analyses stats,files,...  files, methods, stats, ranking, callgraph, analytics (défaut : stats)
+//   --threads N                 threads d'analyse (défaut : 1)
+//   --format json|ndjson        sortie (défaut : ndjson)
+//   --output <fichier>          sortie dans un fichier plutôt que sur stdout
+//   --percent P                 pourcentage gardé par l'analyse ranking (défaut : 10)
+//
+// Plusieurs projets (chaque sous-dossier de <dossier> est un projet, voir ProjectScheduler) :
+//   --projects <dossier>        remplace --project ; analyses stats et callgraph uniquement (les autres : code 2)
+//   --active N                  projets ouverts en même temps (défaut : 2 x threads)
+//   --memory-mb M               budget global des AST vivants (défaut : 512)
+//
+// Bindings : les dépendances du pom.xml / build.gradle sont lues dans le dépôt local (voir ClasspathResolver)
+//   --no-classpath              sources + JRE seulement, comme avant
+//
+// Mesures (voir Instrumentation), résumé sur stderr pour ne pas mélanger avec les enregistrements :
+//   --instrument                temps par phase, compteurs et fichiers les plus lents
+//   --slowest N                 taille du classement des fichiers lents (défaut : 10)
+//   --metrics-json <fichier>    export JSON des mesures (active --instrument)
+//
+// Code de retour : 0 succès, 1 échec de l'analyse, 2 arguments invalides
+public class BatchMain {
+	public static final int OK = 0;
+	public static final int FAILURE = 1;
+	public static final int USAGE = 2;
+
+	public static boolean isBatch(String[] args) {
+		for (String arg : args) {
+			if ("--project".equals(arg) || "--projects".equals(arg)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public static void main(String[] args) {
+		System.exit(run(args));
+	}
+
+	public static int run(String[] args) {
+		int code = analyze(args);
+		Instrumentation.finish(System.err);
+		return code;
+	}
+
+	private static int analyze(String[] args) {
+		String project = null;
+		Set<Analysis> analyses = EnumSet.of(Analysis.STATS);
+		int threads = 1;
+		RecordWriter.Format format = RecordWriter.Format.NDJSON;
+		String output = null;
+		float percent = 10;
+		String projects = null;
+		int maxActive = 0;
+		long memoryMb = 512;
+
+		try {
+			Instrumentation.configure(args);
+			for (int i = 0; i < args.length; i++) {
+				switch (args[i]) {
+					case "--project":
+						project = value(args, ++i);
+						break;
+					case "--analyses":
+						analyses = EnumSet.noneOf(Analysis.class);
+						for (String name : value(args, ++i).split(",")) {
+							analyses.add(Analysis.parse(name));
+						}
+						break;
+					case "--threads":
+						threads = Integer.parseInt(value(args, ++i));
+						break;
+					case "--format":
+						format = RecordWriter.Format.valueOf(value(args, ++i).toUpperCase());
+						break;
+					case "--output":
+						output = value(args, ++i);
+						break;
+					case "--percent":
+						percent = Float.parseFloat(value(args, ++i));
+						break;
+					case "--projects":
+						projects = value(args, ++i);
+						break;
+					case "--active":
+						maxActive = Integer.parseInt(value(args, ++i));
+						break;
+					case "--memory-mb":
+						memoryMb = Long.parseLong(value(args, ++i));
+						break;
+					case "--no-classpath":
+						ClasspathResolver.enabled = false;
+						break;
+					case "--slowest":
+					case "--metrics-json":
+						// Lus par Instrumentation.configure
+						value(args, ++i);
+						break;
+					default:
+						// Options de Main (--renderer ...) : ignorées ici
+						break;
+				}
+			}
+			if ((project == null && projects == null) || analyses.isEmpty()) {
+				throw new IllegalArgumentException("--project (ou --projects) et au moins une analyse sont requis");
+			}
+			if (projects != null) {
+				for (Analysis analysis : analyses) {
+					if (!ProjectScheduler.SUPPORTED.contains(analysis)) {
+						throw new IllegalArgumentException("analyse " + analysis.getName() + " non disponible avec --projects (stats, callgraph seulement)");
+					}
+				}
+			}
+		} catch (IllegalArgumentException e) {
+			System.err.println("Erreur: " + e.getMessage());
+			System.err.println("Usage: --project <chemin> [--analyses files,methods,stats,ranking,callgraph,analytics] [--threads N] [--format json|ndjson] [--output fichier] [--percent P]");
+			System.err.println("       --projects <dossier> [--analyses stats,callgraph] [--threads N] [--active N] [--memory-mb M] [--format json|ndjson] [--output fichier]");
+			return USAGE;
+		}
+
+		if (projects != null) {
+			ProjectScheduler scheduler = new ProjectScheduler(threads, maxActive > 0 ? maxActive : 2 * threads, memoryMb << 20, analyses);
+			return runProjects(new File(projects), scheduler, analyses, format, output);
+		}
+
+		File source = new File(project, "src").isDirectory() ? new File(project, "src") : new File(project);
+		if (!source.isDirectory()) {
+			System.err.println("Erreur: " + project + " n'est pas un dossier");
+			return USAGE;
+		}
+
+		BatchRunner runner = new BatchRunner(source.getAbsolutePath(), analyses, threads, percent);
+		try (OutputStream stream = output == null ? new FileOutputStream(FileDescriptor.out) : new FileOutputStream(output);
+			 RecordWriter writer = new RecordWriter(new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8)), format)) {
+			writer.begin(source.getAbsolutePath(), analyses);
+			runner.run(writer);
+		} catch (IOException | RuntimeException e) {
+			System.err.println("Erreur: analyse de " + project + " interrompue : " + e);
+			return FAILURE;
+		}
+		return OK;
+	}
+
+	// Un enregistrement "project" par projet, dans l'ordre de fin, puis le rapport agrégé
+	private static int runProjects(File root, ProjectScheduler scheduler, Set<Analysis> analyses, RecordWriter.Format format, String output) {
+		File[] children = root.listFiles(File::isDirectory);
+		if (children == null) {
+			System.err.println("Erreur: " + root + " n'est pas un dossier");
+			return USAGE;
+		}
+		Arrays.sort(children);
+		List<File> sources = new ArrayList<File>();
+		for (File child : children) {
+			sources.add(new File(child, "src").isDirectory() ? new File(child, "src") : child);
+		}
+
+		long start = System.nanoTime();
+		try (OutputStream stream = output == null ? new FileOutputStream(FileDescriptor.out) : new FileOutputStream(output);
+			 RecordWriter writer = new RecordWriter(new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8)), format)) {
+			writer.begin(root.getAbsolutePath(), analyses);
+			List<ProjectReport> reports = scheduler.run(sources, report -> {
+				try {
+					writer.record(report.toRecord());
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+			writer.record(aggregate(reports, scheduler, System.nanoTime() - start));
+		} catch (IOException | RuntimeException e) {
+			System.err.println("Erreur: analyse de " + root + " interrompue : " + e);
+			return FAILURE;
+		}
+		return OK;
+	}
+
+	// Rapport multi-projets : totaux, débit et projets les plus gros
+	static RecordWriter.Record aggregate(List<ProjectReport> reports, ProjectScheduler scheduler, long elapsedNanos) {
+		int failed = 0;
+		long files = 0, classes = 0, lines = 0, methods = 0, nodes = 0, edges = 0;
+		for (ProjectReport report : reports) {
+			failed += report.isFailed() ? 1 : 0;
+			files += report.getFiles();
+			classes += report.getClasses();
+			lines += report.getLines();
+			methods += report.getMethods();
+			nodes += report.getNodes();
+			edges += report.getEdges();
+		}
+
+		List<ProjectReport> largest = new ArrayList<ProjectReport>(reports);
+		largest.sort(Comparator.comparingInt(ProjectReport::getLines).reversed());
+		List<String> names = new ArrayList<String>();
+		for (ProjectReport report : largest.subList(0, Math.min(10, largest.size()))) {
+			names.add(report.getName());
+		}
+
+		double minutes = elapsedNanos / 60e9;
+		return new RecordWriter.Record("report")
+				.field("projects", reports.size())
+				.field("failed", failed)
+				.field("files", files)
+				.field("classes", classes)
+				.field("lines", lines)
+				.field("methods", methods)
+				.field("nodes", nodes)
+				.field("edges", edges)
+				.field("largest", names)
+				.field("elapsedMs", elapsedNanos / 1_000_000)
+				.field("projectsPerMinute", reports.size() / minutes)
+				.field("peakAstMb", scheduler.getBudget().getPeakBytes() >> 20);
+	}
+
+	private static String value(String[] args, int i) {
+		if (i >= args.length) {
+			throw new IllegalArgumentException("valeur manquante pour " + args[i - 1]);
+		}
+		return args[i];
+	}
+}
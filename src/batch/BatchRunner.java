@@ -0,0 +1,237 @@
+package batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import callGraph.CallGraph;
+import callGraph.CallGraphBuilder;
+import callGraph.EdgeBuffer;
+import callGraph.SymbolTable;
+import callGraph.analysis.CallGraphIndex;
+import facts.FileFacts;
+import metrics.MetricsTable;
+import metrics.QuantileSketch;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import parser.AnalysisEnvironment;
+import parser.BindingLevel;
+import parser.ParallelAnalyzer;
+import parser.Parser;
+import ranking.ClassMetric;
+import ranking.RankingEngine;
+import visitor.MethodMetric;
+
+// Exécute les analyses demandées sur un projet et écrit les enregistrements au fil de l'eau :
+// les résultats par fichier (file, method, edge) sortent dès que l'unité est analysée,
+// les agrégats (stats, ranking, callgraph) une fois tous les fichiers vus.
+public class BatchRunner {
+	private final String sourcePath;
+	private final Set<Analysis> analyses;
+	private final int threads;
+	private final float percent;
+
+	// Taille des listes (cycles, fan-in, fan-out) de l'analyse analytics
+	static final int TOP = 10;
+
+	public BatchRunner(String sourcePath, Set<Analysis> analyses, int threads, float percent) {
+		this.sourcePath = sourcePath;
+		this.analyses = EnumSet.copyOf(analyses);
+		this.threads = threads;
+		this.percent = percent;
+	}
+
+	// Les bindings (et donc l'environnement JDT complet) ne sont demandés que si une analyse les lit
+	public BindingLevel getBindingLevel() {
+		return Analysis.bindingLevel(analyses);
+	}
+
+	public void run(RecordWriter writer) throws IOException {
+		long start = System.nanoTime();
+		List<File> files = Parser.getJavaFilesForFolder(new File(sourcePath));
+		AnalysisEnvironment environment = AnalysisEnvironment.forProject(sourcePath, getBindingLevel());
+
+		Map<String, Integer> indexes = new HashMap<String, Integer>();
+		for (int i = 0; i < files.size(); i++) {
+			indexes.put(files.get(i).getAbsolutePath(), i);
+		}
+
+		// Faits gardés (en tableaux primitifs) seulement si un agrégat en a besoin, rangés dans l'ordre des fichiers
+		FileFacts[] slots = analyses.contains(Analysis.STATS) || analyses.contains(Analysis.RANKING) ? new FileFacts[files.size()] : null;
+		CallGraphBuilder builder = analyses.contains(Analysis.CALLGRAPH) || analyses.contains(Analysis.ANALYTICS) ? new CallGraphBuilder() : null;
+
+		BiConsumer<String, CompilationUnit> consumer = (path, unit) -> {
+			int index = indexes.get(path);
+			FileFacts facts = FileFacts.extract(path, files.get(index).lastModified(), null, unit);
+			try {
+				emit(writer, facts);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			if (slots != null) {
+				slots[index] = facts;
+			}
+			if (builder != null) {
+				builder.addAll(facts.getCallers(), facts.getCallees());
+			}
+		};
+
+		try {
+			if (threads > 1) {
+				new ParallelAnalyzer(environment, threads).analyze(files,
+						(index, unit) -> consumer.accept(files.get(index).getAbsolutePath(), unit));
+			} else {
+				Parser.parseAll(environment, files, consumer);
+			}
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+
+		if (slots != null) {
+			MetricsTable table = new MetricsTable();
+			for (FileFacts facts : slots) {
+				if (facts != null) {
+					table.add(facts);
+				}
+			}
+			if (analyses.contains(Analysis.STATS)) {
+				writer.record(stats(table));
+			}
+			if (analyses.contains(Analysis.RANKING)) {
+				ranking(writer, RankingEngine.fromTable(table));
+			}
+		}
+		if (builder != null) {
+			CallGraph graph = builder.build();
+			if (analyses.contains(Analysis.CALLGRAPH)) {
+				writer.record(new RecordWriter.Record("callgraph").field("nodes", graph.nodeCount()).field("edges", graph.edgeCount()));
+			}
+			if (analyses.contains(Analysis.ANALYTICS)) {
+				writer.record(analytics(CallGraphIndex.build(graph)));
+			}
+		}
+
+		writer.record(new RecordWriter.Record("summary")
+				.field("files", files.size())
+				.field("bindings", environment.getBindingLevel().name())
+				.field("threads", threads)
+				.field("elapsedMs", (System.nanoTime() - start) / 1_000_000));
+	}
+
+	// Enregistrements par fichier, écrits dès que le fichier est analysé
+	private void emit(RecordWriter writer, FileFacts facts) throws IOException {
+		SymbolTable symbols = facts.getSymbols();
+		if (analyses.contains(Analysis.FILES)) {
+			int params = 0;
+			for (int p : facts.getMethodParams()) {
+				params += p;
+			}
+			List<String> packages = new ArrayList<String>();
+			for (int p : facts.getPackages()) {
+				packages.add(symbols.name(p));
+			}
+			writer.record(new RecordWriter.Record("file")
+					.field("path", facts.getPath())
+					.field("classes", facts.getTypeNames().length)
+					.field("lines", facts.getAmountLines())
+					.field("methods", facts.getMethodNames().length)
+					.field("attributes", facts.getAmountAttributs())
+					.field("parameters", params)
+					.field("packages", packages));
+		}
+		if (analyses.contains(Analysis.METHODS)) {
+			int[] names = facts.getMethodNames();
+			for (int m = 0; m < names.length; m++) {
+				int type = facts.getMethodTypes()[m];
+				writer.record(new RecordWriter.Record("method")
+						.field("file", facts.getPath())
+						.field("class", type < 0 ? null : symbols.name(facts.getTypeNames()[type]))
+						.field("method", symbols.name(names[m]))
+						.field("parameters", facts.getMethodParams()[m])
+						.field("lineSpan", facts.getMethodLines()[m])
+						.field("complexity", facts.getMethodComplexity()[m])
+						.field("nesting", facts.getMethodNesting()[m])
+						.field("statements", facts.getMethodStatements()[m])
+						.field("invocations", facts.getMethodInvocations()[m]));
+			}
+		}
+		if (analyses.contains(Analysis.CALLGRAPH)) {
+			int[] callers = facts.getCallers();
+			int[] callees = facts.getCallees();
+			Set<Long> seen = new HashSet<Long>();
+			for (int e = 0; e < callers.length; e++) {
+				if (seen.add(EdgeBuffer.pack(callers[e], callees[e]))) {
+					writer.record(new RecordWriter.Record("edge")
+							.field("caller", symbols.name(callers[e]))
+							.field("callee", symbols.name(callees[e])));
+				}
+			}
+		}
+	}
+
+	// Mêmes valeurs que Parser.displayStatistics
+	public static RecordWriter.Record stats(MetricsTable table) {
+		double methods = table.amountMethods();
+		RecordWriter.Record record = new RecordWriter.Record("stats")
+				.field("classes", table.amountClass())
+				.field("lines", table.amountLines())
+				.field("methods", table.amountMethods())
+				.field("packages", table.packages().size())
+				.field("avgMethodsPerClass", Math.ceil(methods / table.amountClass()))
+				.field("avgLinesPerMethod", Math.ceil(table.amountLinesByMethods() / methods))
+				.field("avgAttributesPerClass", Math.ceil((double) table.amountAttributs() / table.amountClass()))
+				.field("maxParameters", table.maxParamsPerMethod());
+		// Distribution par méthode : complexityP50, complexityP90, complexityP99, complexityMax...
+		for (MethodMetric metric : MethodMetric.values()) {
+			QuantileSketch sketch = table.quantiles().get(metric);
+			String name = metric.name().toLowerCase();
+			record.field(name + "P50", sketch.quantile(0.5))
+					.field(name + "P90", sketch.quantile(0.9))
+					.field(name + "P99", sketch.quantile(0.99))
+					.field(name + "Max", sketch.max());
+		}
+		return record;
+	}
+
+	// Cycles de récursion et méthodes les plus appelées / appelantes
+	public static RecordWriter.Record analytics(CallGraphIndex index) {
+		List<int[]> cycles = index.recursionCycles();
+		List<String> described = new ArrayList<String>();
+		for (int[] cycle : cycles.subList(0, Math.min(TOP, cycles.size()))) {
+			described.add(String.join(" <-> ", index.names(cycle)));
+		}
+		return new RecordWriter.Record("analytics")
+				.field("components", index.componentCount())
+				.field("recursionCycles", cycles.size())
+				.field("largestCycles", described)
+				.field("topFanIn", withDegrees(index, index.topFanIn(TOP), true))
+				.field("topFanOut", withDegrees(index, index.topFanOut(TOP), false))
+				.field("indexMs", index.getBuildNanos() / 1_000_000);
+	}
+
+	private static List<String> withDegrees(CallGraphIndex index, int[] nodes, boolean fanIn) {
+		List<String> names = new ArrayList<String>();
+		for (int node : nodes) {
+			names.add(index.name(node) + " (" + (fanIn ? index.fanIn(node) : index.fanOut(node)) + ")");
+		}
+		return names;
+	}
+
+	private void ranking(RecordWriter writer, RankingEngine engine) throws IOException {
+		BitSet topMethods = engine.topPercent(ClassMetric.METHODS, percent);
+		BitSet topAttributes = engine.topPercent(ClassMetric.ATTRIBUTES, percent);
+		writer.record(new RecordWriter.Record("ranking")
+				.field("percent", (double) percent)
+				.field("methods", engine.names(topMethods, ClassMetric.METHODS))
+				.field("attributes", engine.names(topAttributes, ClassMetric.ATTRIBUTES))
+				.field("both", engine.names(RankingEngine.and(topMethods, topAttributes), ClassMetric.METHODS)));
+	}
+}
@@ -0,0 +1,72 @@
+package batch;
+
+// Résultat de l'analyse d'un projet par ProjectScheduler
+public class ProjectReport {
+	final String name;
+	final String path;
+	int files;
+	int classes;
+	int lines;
+	int methods;
+	int packages;
+	int nodes;
+	int edges;
+	long elapsedMs;
+	String error;
+
+	ProjectReport(String name, String path) {
+		this.name = name;
+		this.path = path;
+	}
+
+	public RecordWriter.Record toRecord() {
+		return new RecordWriter.Record("project")
+				.field("name", name)
+				.field("path", path)
+				.field("files", files)
+				.field("classes", classes)
+				.field("lines", lines)
+				.field("methods", methods)
+				.field("packages", packages)
+				.field("nodes", nodes)
+				.field("edges", edges)
+				.field("elapsedMs", elapsedMs)
+				.field("error", error);
+	}
+
+	public boolean isFailed() {
+		return error != null;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getFiles() {
+		return files;
+	}
+
+	public int getClasses() {
+		return classes;
+	}
+
+	public int getLines() {
+		return lines;
+	}
+
+	public int getMethods() {
+		return methods;
+	}
+
+	public int getNodes() {
+		return nodes;
+	}
+
+	public int getEdges() {
+		return edges;
+	}
+
+	public long getElapsedMs() {
+		return elapsedMs;
+	}
+}
@@ -0,0 +1,255 @@
+package batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+import callGraph.CallGraph;
+import callGraph.CallGraphBuilder;
+import callGraph.SymbolTable;
+import facts.FileFacts;
+import instrumentation.Instrumentation;
+import metrics.MetricsTable;
+import parser.AnalysisEnvironment;
+import parser.AstBudget;
+import parser.BindingLevel;
+import parser.Parser;
+import parser.SourceReader;
+
+// Analyse de plusieurs projets dans la même JVM avec un seul pool de workers.
+//  - chaque projet a son AnalysisEnvironment : aucun état statique partagé (Parser.projectSourcePath n'est pas lu)
+//  - au plus maxActive projets ouverts en même temps ; les workers prennent un fichier à tour de rôle
+//    dans chacun (round-robin), un petit projet n'attend donc pas la fin d'un gros
+//  - les AST vivants de tous les projets tiennent dans un AstBudget global
+//  - un projet terminé est résumé (ProjectReport) et ses faits sont libérés aussitôt
+public class ProjectScheduler {
+	// Seules analyses résumées dans un ProjectReport ; les autres exigent les faits complets d'un projet
+	public static final Set<Analysis> SUPPORTED = Collections.unmodifiableSet(EnumSet.of(Analysis.STATS, Analysis.CALLGRAPH));
+
+	private final int threads;
+	private final int maxActive;
+	private final AstBudget budget;
+	private final Set<Analysis> analyses;
+
+	private final Deque<Project> pending = new ArrayDeque<Project>();
+	private final List<Project> active = new ArrayList<Project>();
+	private int cursor = 0;
+
+	// Un projet en cours : fichiers à distribuer, faits rangés par indice de fichier.
+	// Ses noms ont leur propre table, libérée avec le projet : SymbolTable.shared() grossirait de projet en projet.
+	static class Project {
+		final SymbolTable symbols = new SymbolTable();
+		final ProjectReport report;
+		final AnalysisEnvironment environment;
+		final List<File> files;
+		final AtomicInteger remaining;
+		final CallGraphBuilder builder;
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		FileFacts[] slots;
+		int next = 0;
+		long start;
+
+		Project(ProjectReport report, AnalysisEnvironment environment, List<File> files, boolean graph) {
+			this.report = report;
+			this.environment = environment;
+			this.files = files;
+			this.remaining = new AtomicInteger(files.size());
+			this.builder = graph ? new CallGraphBuilder(symbols) : null;
+			this.slots = new FileFacts[files.size()];
+		}
+	}
+
+	static class Work {
+		final Project project;
+		final int index;
+
+		Work(Project project, int index) {
+			this.project = project;
+			this.index = index;
+		}
+	}
+
+	public ProjectScheduler(int threads, int maxActive, long astMemoryBytes, Set<Analysis> analyses) {
+		for (Analysis analysis : analyses) {
+			if (!SUPPORTED.contains(analysis)) {
+				throw new IllegalArgumentException("Analyse " + analysis.getName() + " non disponible avec --projects (stats, callgraph seulement)");
+			}
+		}
+		this.threads = Math.max(1, threads);
+		this.maxActive = Math.max(1, maxActive);
+		this.budget = new AstBudget(astMemoryBytes);
+		this.analyses = EnumSet.copyOf(analyses);
+	}
+
+	// Analyse les projets (dossiers de sources) ; listener reçoit chaque rapport dès que son projet est terminé
+	public List<ProjectReport> run(List<File> projectSources, Consumer<ProjectReport> listener) throws IOException {
+		BindingLevel bindingLevel = Analysis.bindingLevel(analyses);
+		boolean graph = analyses.contains(Analysis.CALLGRAPH);
+		List<ProjectReport> reports = Collections.synchronizedList(new ArrayList<ProjectReport>());
+		Consumer<ProjectReport> done = report -> {
+			reports.add(report);
+			synchronized (listener) {
+				listener.accept(report);
+			}
+		};
+
+		ExecutorService workers = Executors.newFixedThreadPool(threads);
+		try {
+			// Inventaire des fichiers, en parallèle sur le même pool
+			List<Future<Project>> listings = new ArrayList<Future<Project>>();
+			for (File source : projectSources) {
+				listings.add(workers.submit(() -> {
+					ProjectReport report = new ProjectReport(source.getParentFile() != null && "src".equals(source.getName())
+							? source.getParentFile().getName() : source.getName(), source.getAbsolutePath());
+					AnalysisEnvironment environment = AnalysisEnvironment.forProject(source.getAbsolutePath(), bindingLevel);
+					return new Project(report, environment, Parser.getJavaFilesForFolder(source), graph);
+				}));
+			}
+			for (Future<Project> listing : listings) {
+				Project project = listing.get();
+				if (project.files.isEmpty()) {
+					done.accept(project.report);
+				} else {
+					pending.add(project);
+				}
+			}
+
+			List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+			for (int t = 0; t < threads; t++) {
+				tasks.add(() -> work(done));
+			}
+			for (Future<Void> future : workers.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Analyse interrompue", e);
+		} catch (ExecutionException e) {
+			throw new IOException(e.getCause());
+		} finally {
+			workers.shutdownNow();
+		}
+		return reports;
+	}
+
+	private Void work(Consumer<ProjectReport> done) throws InterruptedException {
+		ASTParser parser = ASTParser.newParser(AST.JLS4);
+		try (SourceReader reader = new SourceReader()) {
+			work(parser, reader, done);
+		}
+		return null;
+	}
+
+	private void work(ASTParser parser, SourceReader reader, Consumer<ProjectReport> done) throws InterruptedException {
+		Work work;
+		while ((work = next()) != null) {
+			Project project = work.project;
+			File file = project.files.get(work.index);
+			try {
+				long start = Instrumentation.start();
+				char[] content = reader.read(file);
+				int permits = budget.acquire(content.length);
+				try {
+					long read = Instrumentation.start();
+					project.environment.configure(parser, file.getAbsolutePath());
+					parser.setSource(content);
+					CompilationUnit unit = (CompilationUnit) parser.createAST(null);
+					long parsed = Instrumentation.start();
+					FileFacts facts = FileFacts.extract(project.symbols, file.getAbsolutePath(), file.lastModified(), null, unit);
+					project.slots[work.index] = facts;
+					if (project.builder != null) {
+						project.builder.addAll(facts.getCallers(), facts.getCallees());
+					}
+					if (Instrumentation.isEnabled()) {
+						// La lecture inclut l'attente du budget mémoire
+						Instrumentation.file(file.getPath(), reader.bytes(), read - start, parsed - read, System.nanoTime() - parsed);
+					}
+				} finally {
+					budget.release(permits);
+				}
+			} catch (InterruptedException e) {
+				throw e;
+			} catch (Throwable e) {
+				// L'échec (Error comprise) reste propre au projet : son rapport est quand même émis, les autres continuent
+				project.failure.compareAndSet(null, e);
+			}
+
+			if (project.remaining.decrementAndGet() == 0) {
+				done.accept(finish(project));
+			}
+		}
+	}
+
+	// Prochain fichier à analyser : un par projet actif à tour de rôle, nouveaux projets admis quand une place se libère
+	private synchronized Work next() {
+		while (active.size() < maxActive && !pending.isEmpty()) {
+			Project project = pending.poll();
+			project.start = System.nanoTime();
+			active.add(project);
+		}
+		if (active.isEmpty()) {
+			return null;
+		}
+
+		cursor %= active.size();
+		Project project = active.get(cursor);
+		int index = project.next++;
+		if (project.next == project.files.size()) {
+			// Plus rien à distribuer : le projet finit ses fichiers en cours et laisse sa place
+			active.remove(cursor);
+		} else {
+			cursor++;
+		}
+		return new Work(project, index);
+	}
+
+	private ProjectReport finish(Project project) {
+		ProjectReport report = project.report;
+		report.files = project.files.size();
+		report.elapsedMs = (System.nanoTime() - project.start) / 1_000_000;
+		if (project.failure.get() != null) {
+			report.error = String.valueOf(project.failure.get());
+		}
+
+		MetricsTable table = new MetricsTable(project.symbols);
+		for (FileFacts facts : project.slots) {
+			if (facts != null) {
+				table.add(facts);
+			}
+		}
+		project.slots = null;
+		report.classes = table.amountClass();
+		report.lines = table.amountLines();
+		report.methods = table.amountMethods();
+		report.packages = table.packages().size();
+
+		if (project.builder != null) {
+			CallGraph graph = project.builder.build();
+			report.nodes = graph.nodeCount();
+			report.edges = graph.edgeCount();
+		}
+		return report;
+	}
+
+	public AstBudget getBudget() {
+		return budget;
+	}
+}
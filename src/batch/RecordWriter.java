@@ -0,0 +1,124 @@
+package batch;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+
+// Écriture en flux des résultats : un objet JSON par ligne (ndjson) ou un document JSON unique
+// dont le tableau "records" est rempli au fur et à mesure. Chaque enregistrement est vidé dès qu'il est écrit.
+// Les appels peuvent venir de plusieurs workers : record() est synchronisé.
+public class RecordWriter implements AutoCloseable {
+	public enum Format { JSON, NDJSON }
+
+	private final Writer out;
+	private final Format format;
+	private boolean first = true;
+
+	public RecordWriter(Writer out, Format format) {
+		this.out = out;
+		this.format = format;
+	}
+
+	// En-tête du document JSON (aucun en ndjson, chaque ligne porte son type)
+	public synchronized void begin(String project, Collection<Analysis> analyses) throws IOException {
+		if (format != Format.JSON) {
+			return;
+		}
+		StringBuilder json = new StringBuilder("{\"project\":").append(Record.quote(project)).append(",\"analyses\":[");
+		int i = 0;
+		for (Analysis analysis : analyses) {
+			json.append(i++ > 0 ? "," : "").append(Record.quote(analysis.getName()));
+		}
+		out.write(json.append("],\"records\":[\n").toString());
+		out.flush();
+	}
+
+	public synchronized void record(Record record) throws IOException {
+		if (format == Format.JSON && !first) {
+			out.write(",\n");
+		}
+		first = false;
+		out.write(record.toJson());
+		if (format == Format.NDJSON) {
+			out.write('\n');
+		}
+		out.flush();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (format == Format.JSON) {
+			out.write("\n]}\n");
+		}
+		out.flush();
+	}
+
+	// Objet JSON plat construit champ par champ
+	public static class Record {
+		private final StringBuilder json = new StringBuilder("{");
+
+		public Record(String type) {
+			if (type != null) {
+				field("type", type);
+			}
+		}
+
+		public Record field(String name, String value) {
+			return raw(name, value == null ? "null" : quote(value));
+		}
+
+		public Record field(String name, long value) {
+			return raw(name, String.valueOf(value));
+		}
+
+		public Record field(String name, boolean value) {
+			return raw(name, String.valueOf(value));
+		}
+
+		public Record field(String name, double value) {
+			return raw(name, Double.isFinite(value) ? String.valueOf(value) : "null");
+		}
+
+		public Record field(String name, Collection<String> values) {
+			StringBuilder array = new StringBuilder("[");
+			int i = 0;
+			for (String value : values) {
+				array.append(i++ > 0 ? "," : "").append(quote(value));
+			}
+			return raw(name, array.append(']').toString());
+		}
+
+		private Record raw(String name, String value) {
+			if (json.length() > 1) {
+				json.append(',');
+			}
+			json.append(quote(name)).append(':').append(value);
+			return this;
+		}
+
+		public String toJson() {
+			return json.toString() + "}";
+		}
+
+		static String quote(String value) {
+			StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+			for (int i = 0; i < value.length(); i++) {
+				char c = value.charAt(i);
+				switch (c) {
+					case '"': quoted.append("\\\""); break;
+					case '\\': quoted.append("\\\\"); break;
+					case '\n': quoted.append("\\n"); break;
+					case '\r': quoted.append("\\r"); break;
+					case '\t': quoted.append("\\t"); break;
+					default:
+						if (c < 0x20) {
+							quoted.append(String.format("\\u%04x", (int) c));
+						} else {
+							quoted.append(c);
+						}
+				}
+			}
+			return quoted.append('"').toString();
+		}
+	}
+}
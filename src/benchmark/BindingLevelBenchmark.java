@@ -0,0 +1,54 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import parser.AnalysisEnvironment;
+import parser.BindingLevel;
+import parser.Parser;
+import parser.ProjectMetrics;
+
+// Compare le coût des niveaux de bindings pour les statistiques : temps et pic de heap par mode,
+// et vérifie que les statistiques obtenues sont identiques.
+// Usage : BindingLevelBenchmark <chemin src> [itérations] [threads]
+public class BindingLevelBenchmark {
+
+	public static void main(String[] args) throws IOException {
+		String sourcePath = args[0];
+		int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+		int threads = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+		List<File> javaFiles = Parser.getJavaFilesForFolder(new File(sourcePath));
+
+		// Tour de chauffe dans chaque mode (chargement des classes JDT, JIT)
+		for (BindingLevel level : BindingLevel.values()) {
+			Parser.computeMetrics(new AnalysisEnvironment(sourcePath, level), javaFiles, threads);
+		}
+
+		System.out.println(javaFiles.size() + " fichiers, " + iterations + " itérations, " + threads + " thread(s)");
+		System.out.println("mode\t\ttemps moyen (ms)\tpic heap (Mo)\tclasses\tméthodes");
+		ProjectMetrics reference = null;
+		for (BindingLevel level : BindingLevel.values()) {
+			AnalysisEnvironment environment = new AnalysisEnvironment(sourcePath, level);
+			long total = 0;
+			long peak = 0;
+			ProjectMetrics metrics = null;
+			for (int i = 0; i < iterations; i++) {
+				HeapPeak.reset();
+				long start = System.nanoTime();
+				metrics = Parser.computeMetrics(environment, javaFiles, threads);
+				total += System.nanoTime() - start;
+				peak = Math.max(peak, HeapPeak.peak());
+			}
+
+			System.out.println(level + "\t" + String.format("%.2f", total / 1e6 / iterations) + "\t\t" + (peak >> 20)
+					+ "\t\t" + metrics.getAmountClass() + "\t" + (long) metrics.getAmountMethods());
+			if (reference == null) {
+				reference = metrics;
+			} else if (reference.getAmountClass() != metrics.getAmountClass() || reference.getAmountLines() != metrics.getAmountLines()
+					|| reference.getAmountMethods() != metrics.getAmountMethods()) {
+				System.out.println("[!] Statistiques différentes de " + BindingLevel.SYNTAX_ONLY);
+			}
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+// Pic d'occupation du heap entre reset() et peak(), d'après les pools mémoire de la JVM
+public class HeapPeak {
+
+	// Pics remis à zéro après un GC pour que chaque mesure parte du même heap
+	public static void reset() {
+		System.gc();
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				pool.resetPeakUsage();
+			}
+		}
+	}
+
+	// Somme des pics des pools du heap : majorant du pic réel (les pools n'atteignent pas leur pic en même temps)
+	public static long peak() {
+		long peak = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+				peak += pool.getPeakUsage().getUsed();
+			}
+		}
+		return peak;
+	}
+}
@@ -0,0 +1,94 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+
+import generator.CodebaseGenerator;
+import generator.GeneratedCodebase;
+import generator.GeneratorConfig;
+import parser.SourceReader;
+import parser.SourceWalker;
+
+// Recherche + lecture des sources : ancien chemin (listFiles récursif, readFileToString().toCharArray())
+// contre SourceWalker + SourceReader. Temps, collections GC et nombre de caractères lus (doivent être égaux).
+// Usage : IngestionBenchmark [chemin src] — sans argument, un projet synthétique de 50 000 fichiers est généré
+public class IngestionBenchmark {
+	static final int ROUNDS = 5;
+
+	public static void main(String[] args) throws IOException {
+		GeneratedCodebase generated = null;
+		File root;
+		if (args.length > 0) {
+			root = new File(args[0]);
+		} else {
+			generated = CodebaseGenerator.generateTemp(new GeneratorConfig().withPackages(500).withClassesPerPackage(100).withMethodsPerClass(5));
+			root = generated.getRoot().toFile();
+		}
+
+		try {
+			System.out.println("tour\tancien (ms)\tGC\tNIO (ms)\tGC\tfichiers\tcaractères identiques");
+			for (int round = 1; round <= ROUNDS; round++) {
+				long gc = collections();
+				long start = System.nanoTime();
+				long legacyChars = legacy(root);
+				long legacyTime = System.nanoTime() - start;
+				long legacyGc = collections() - gc;
+
+				gc = collections();
+				start = System.nanoTime();
+				List<File> files = SourceWalker.javaFiles(root);
+				long chars = 0;
+				try (SourceReader reader = new SourceReader()) {
+					for (File file : files) {
+						reader.decode(file.toPath());
+						chars += reader.length();
+					}
+				}
+				long nioTime = System.nanoTime() - start;
+				long nioGc = collections() - gc;
+
+				System.out.println(round + "\t" + String.format("%.1f", legacyTime / 1e6) + "\t" + legacyGc + "\t"
+						+ String.format("%.1f", nioTime / 1e6) + "\t" + nioGc + "\t" + files.size() + "\t" + (legacyChars == chars));
+			}
+		} finally {
+			if (generated != null) {
+				generated.delete();
+			}
+		}
+	}
+
+	static long legacy(File root) throws IOException {
+		long chars = 0;
+		for (File file : legacyFiles(root)) {
+			chars += FileUtils.readFileToString(file, "UTF-8").toCharArray().length;
+		}
+		return chars;
+	}
+
+	// Parcours d'origine de Parser.getJavaFilesForFolder (suffixe corrigé pour comparer les mêmes fichiers)
+	static List<File> legacyFiles(File folder) {
+		List<File> javaFiles = new ArrayList<File>();
+		for (File fileEntry : folder.listFiles()) {
+			if (fileEntry.isDirectory()) {
+				javaFiles.addAll(legacyFiles(fileEntry));
+			} else if (fileEntry.getName().endsWith(".java")) {
+				javaFiles.add(fileEntry);
+			}
+		}
+		return javaFiles;
+	}
+
+	static long collections() {
+		long count = 0;
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += Math.max(0, collector.getCollectionCount());
+		}
+		return count;
+	}
+}
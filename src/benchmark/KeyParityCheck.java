@@ -0,0 +1,75 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import callGraph.CallGraph;
+import callGraph.CallGraphGenerator;
+import parser.AnalysisEnvironment;
+import parser.AnalysisProfile;
+import parser.Parser;
+
+// Vérifie que le graphe d'appel ne dépend pas du nombre de threads : surcharges, méthodes homonymes et
+// méthodes de classes anonymes doivent rester des noeuds distincts en parallèle comme en séquentiel (createASTs).
+// Usage : KeyParityCheck [threads]
+public class KeyParityCheck {
+	static final String[][] SOURCES = {
+			{ "p/A.java", "package p;\n\npublic class A {\n"
+					+ "\tpublic static int f(int x) { return x; }\n"
+					+ "\tpublic static int f(String s) { return s.length(); }\n"
+					+ "\tpublic static int run() { return f(1) + f(\"a\") + B.run(); }\n}\n" },
+			{ "p/B.java", "package p;\n\npublic class B {\n"
+					+ "\tpublic static int run() { return A.f(2); }\n"
+					+ "\tpublic static int f(int x) { return x + 1; }\n}\n" },
+			{ "q/C.java", "package q;\n\nimport p.A;\n\npublic class C {\n"
+					+ "\tpublic int run(int n) { return A.f(n) + p.B.f(n) + A.f(\"c\"); }\n}\n" },
+			{ "p/D.java", "package p;\n\npublic class D {\n"
+					+ "\tRunnable first = new Runnable() { public void run() { A.f(1); } };\n"
+					+ "\tRunnable second = new Runnable() { public void run() { B.f(2); } };\n}\n" } };
+
+	public static void main(String[] args) throws IOException {
+		int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+		Path root = Files.createTempDirectory("key-parity");
+		try {
+			for (String[] source : SOURCES) {
+				Path file = root.resolve(source[0]);
+				Files.createDirectories(file.getParent());
+				Files.write(file, source[1].getBytes(StandardCharsets.UTF_8));
+			}
+			List<File> files = Parser.getJavaFilesForFolder(root.toFile());
+			AnalysisEnvironment environment = AnalysisEnvironment.forProfile(root.toString(), AnalysisProfile.CALL_GRAPH);
+			CallGraph sequential = CallGraphGenerator.collectGraph(environment, files, 1);
+			CallGraph parallel = CallGraphGenerator.collectGraph(environment, files, threads);
+
+			Set<String> expected = new TreeSet<String>(sequential.edgeNames());
+			Set<String> actual = new TreeSet<String>(parallel.edgeNames());
+			System.out.println("séquentiel : " + sequential.nodeCount() + " noeuds, " + expected.size() + " arcs");
+			System.out.println(threads + " threads : " + parallel.nodeCount() + " noeuds, " + actual.size() + " arcs");
+			// A.f(int), A.f(String), A.run, B.run, B.f(int), C.run(int), D$1.run, D$2.run :
+			// ni les surcharges ni les méthodes des classes anonymes ne doivent fusionner
+			boolean ok = expected.equals(actual) && sequential.nodeCount() == 8;
+			if (!ok) {
+				Set<String> missing = new TreeSet<String>(expected);
+				missing.removeAll(actual);
+				Set<String> extra = new TreeSet<String>(actual);
+				extra.removeAll(expected);
+				System.out.println("absents en parallèle : " + missing);
+				System.out.println("en trop en parallèle : " + extra);
+				System.exit(1);
+			}
+			System.out.println("OK");
+		} finally {
+			try (Stream<Path> paths = Files.walk(root)) {
+				paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+			}
+		}
+	}
+}
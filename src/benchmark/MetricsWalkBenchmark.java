@@ -0,0 +1,76 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+import parser.Parser;
+import visitor.MetricsVisitor;
+
+// Compare les anciens helpers de Parser (un parcours chacun) au MetricsVisitor (un seul parcours)
+// Usage : MetricsWalkBenchmark <chemin src> [itérations]
+public class MetricsWalkBenchmark {
+
+	public static void main(String[] args) throws IOException {
+		Parser.projectSourcePath = args[0];
+		int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+		List<CompilationUnit> units = new ArrayList<CompilationUnit>();
+		Parser.parseAll(Parser.getJavaFilesForFolder(new File(args[0])), (path, unit) -> units.add(unit));
+
+		List<Consumer<CompilationUnit>> legacyHelpers = new ArrayList<Consumer<CompilationUnit>>();
+		legacyHelpers.add(Parser::getNumberOfClasses);
+		legacyHelpers.add(Parser::getNumberOfLines);
+		legacyHelpers.add(Parser::getNumberOfMethods);
+		legacyHelpers.add(Parser::getPackages);
+		legacyHelpers.add(Parser::getNumberOfLinesByMethods);
+		legacyHelpers.add(Parser::getNumberOfAttributs);
+		legacyHelpers.add(parse -> Parser.addClassMethods(parse, new HashMap<String, Integer>()));
+		legacyHelpers.add(parse -> Parser.addClassAttributes(parse, new HashMap<String, Integer>()));
+		legacyHelpers.add(Parser::getMethodParams);
+
+		long legacyWalks = 0;
+		long legacyTime = 0;
+		long fusedWalks = 0;
+		long fusedTime = 0;
+
+		for (int i = 0; i < iterations; i++) {
+			long start = System.nanoTime();
+			for (CompilationUnit unit : units) {
+				// Chaque helper crée son propre visiteur et reparcourt toute l'unité
+				for (Consumer<CompilationUnit> helper : legacyHelpers) {
+					helper.accept(unit);
+					legacyWalks++;
+				}
+			}
+			legacyTime += System.nanoTime() - start;
+
+			start = System.nanoTime();
+			MetricsVisitor visitor = MetricsVisitor.withDefaultCollectors();
+			for (CompilationUnit unit : units) {
+				unit.accept(visitor);
+			}
+			fusedWalks += visitor.getWalks();
+			fusedTime += System.nanoTime() - start;
+		}
+
+		long visits = (long) units.size() * iterations;
+		Map<String, String> rows = new LinkedHashMap<String, String>();
+		rows.put("Fichiers", String.valueOf(units.size()));
+		rows.put("Parcours par fichier (helpers)", String.valueOf(visits == 0 ? 0 : legacyWalks / visits));
+		rows.put("Parcours par fichier (MetricsVisitor)", String.valueOf(visits == 0 ? 0 : fusedWalks / visits));
+		rows.put("Temps moyen helpers (ms)", String.format("%.2f", legacyTime / 1e6 / iterations));
+		rows.put("Temps moyen MetricsVisitor (ms)", String.format("%.2f", fusedTime / 1e6 / iterations));
+
+		for (Map.Entry<String, String> row : rows.entrySet()) {
+			System.out.println("[⚫] " + row.getKey() + ": " + row.getValue());
+		}
+	}
+}
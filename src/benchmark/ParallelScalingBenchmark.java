@@ -0,0 +1,77 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import callGraph.CallGraphGenerator;
+import metrics.MethodQuantiles;
+import metrics.QuantileSketch;
+import parser.Parser;
+import parser.ProjectMetrics;
+import visitor.MethodMetric;
+
+// Mesure le temps des statistiques et du graphe d'appel pour 1, 2, 4, 8 et 16 threads,
+// et vérifie que chaque résultat parallèle est identique au mode séquentiel.
+// Usage : ParallelScalingBenchmark <chemin src>
+public class ParallelScalingBenchmark {
+	static final int[] THREADS = { 1, 2, 4, 8, 16 };
+
+	public static void main(String[] args) throws IOException {
+		Parser.projectSourcePath = args[0];
+		CallGraphGenerator.projectSourcePath = args[0];
+		List<File> javaFiles = Parser.getJavaFilesForFolder(new File(args[0]));
+
+		// Référence séquentielle (batch createASTs)
+		ProjectMetrics reference = Parser.computeMetrics(javaFiles, 1);
+		Set<String> referenceEdges = CallGraphGenerator.collectGraph(javaFiles, 1).edgeNames();
+
+		System.out.println("threads\tstats (ms)\tgraphe (ms)\tspeedup\tidentique");
+		double baseline = 0;
+		for (int threads : THREADS) {
+			long start = System.nanoTime();
+			ProjectMetrics metrics = Parser.computeMetrics(javaFiles, threads);
+			long statsTime = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			Set<String> edges = CallGraphGenerator.collectGraph(javaFiles, threads).edgeNames();
+			long graphTime = System.nanoTime() - start;
+
+			double total = (statsTime + graphTime) / 1e6;
+			if (threads == 1) {
+				baseline = total;
+			}
+			boolean same = sameMetrics(reference, metrics) && referenceEdges.equals(edges);
+			System.out.println(threads + "\t" + String.format("%.1f", statsTime / 1e6) + "\t"
+					+ String.format("%.1f", graphTime / 1e6) + "\t" + String.format("%.2fx", baseline / total) + "\t" + same);
+		}
+	}
+
+	static boolean sameMetrics(ProjectMetrics a, ProjectMetrics b) {
+		return a.getAmountClass() == b.getAmountClass()
+				&& a.getAmountLines() == b.getAmountLines()
+				&& a.getAmountMethods() == b.getAmountMethods()
+				&& a.getAmountLinesByMethods() == b.getAmountLinesByMethods()
+				&& a.getAmountAttributs() == b.getAmountAttributs()
+				&& a.getMaxParamAmount() == b.getMaxParamAmount()
+				&& a.getPackages().equals(b.getPackages())
+				&& new ArrayList<>(a.getClassesMethods().entrySet()).equals(new ArrayList<>(b.getClassesMethods().entrySet()))
+				&& new ArrayList<>(a.getClassesAttributes().entrySet()).equals(new ArrayList<>(b.getClassesAttributes().entrySet()))
+				&& sameQuantiles(a.getQuantiles(), b.getQuantiles());
+	}
+
+	// Les résumés fusionnés des threads doivent donner exactement les quantiles du mode séquentiel
+	static boolean sameQuantiles(MethodQuantiles a, MethodQuantiles b) {
+		for (MethodMetric metric : MethodMetric.values()) {
+			QuantileSketch x = a.get(metric);
+			QuantileSketch y = b.get(metric);
+			if (x.count() != y.count() || x.max() != y.max() || x.quantile(0.5) != y.quantile(0.5)
+					|| x.quantile(0.9) != y.quantile(0.9) || x.quantile(0.99) != y.quantile(0.99)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
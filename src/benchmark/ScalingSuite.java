@@ -0,0 +1,102 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import callGraph.CallGraph;
+import callGraph.CallGraphGenerator;
+import generator.CodebaseGenerator;
+import generator.GeneratedCodebase;
+import generator.GeneratorConfig;
+import generator.GraphShape;
+import metrics.MetricsTable;
+import parser.AnalysisEnvironment;
+import parser.AnalysisProfile;
+import parser.Parser;
+
+// Suite de montée en charge sur des projets générés (graine fixe) : statistiques de Parser et graphe d'appel
+// à des tailles doublées à chaque palier, avec temps, pic de heap et vérification des résultats
+// contre ce que le générateur a écrit (classes, méthodes, paquetages, arcs distincts).
+// Même graine = mêmes sources : les résultats sont comparables d'un commit à l'autre.
+// Usage : ScalingSuite [graine] [threads] [échelle max] [random|layered|scale_free]
+// Échelle max par défaut : 64, soit 7 paliers jusqu'à environ 960 000 lignes (prévoir -Xmx en conséquence).
+public class ScalingSuite {
+	// Une unité d'échelle : 10 paquetages x 20 classes x 10 méthodes, environ 15 000 lignes
+	static final int PACKAGES_PER_SCALE = 10;
+	static final int DEFAULT_MAX_SCALE = 64;
+	static final String RESULTS_DIRECTORY = "resources/benchmarks";
+
+	public static void main(String[] args) throws IOException {
+		long seed = args.length > 0 ? Long.parseLong(args[0]) : 42;
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		int maxScale = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_MAX_SCALE;
+		GraphShape shape = args.length > 3 ? GraphShape.valueOf(args[3].toUpperCase()) : GraphShape.RANDOM;
+
+		Path output = Paths.get(RESULTS_DIRECTORY, "scaling-seed" + seed + "-" + shape.name().toLowerCase() + ".csv");
+		Files.createDirectories(output.getParent());
+		boolean failed = false;
+		try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(output, StandardCharsets.UTF_8))) {
+			csv.println("scale,files,lines,methods,edges,stats_ms,stats_heap_mb,graph_ms,graph_heap_mb,ok");
+			System.out.println("échelle\tfichiers\tlignes\tstats (ms)\theap (Mo)\tgraphe (ms)\theap (Mo)\tvérification");
+
+			for (int scale = 1; scale <= maxScale; scale *= 2) {
+				GeneratorConfig config = new GeneratorConfig().withSeed(seed).withShape(shape).withPackages(PACKAGES_PER_SCALE * scale);
+				GeneratedCodebase codebase = CodebaseGenerator.generateTemp(config);
+				try {
+					String root = codebase.getRoot().toString();
+					List<File> files = Parser.getJavaFilesForFolder(new File(root));
+					Parser.projectSourcePath = root;
+
+					HeapPeak.reset();
+					long start = System.nanoTime();
+					MetricsTable table = Parser.computeTable(files, threads);
+					long statsTime = System.nanoTime() - start;
+					long statsHeap = HeapPeak.peak();
+
+					HeapPeak.reset();
+					start = System.nanoTime();
+					CallGraph graph = CallGraphGenerator.collectGraph(AnalysisEnvironment.forProfile(root, AnalysisProfile.CALL_GRAPH), files, threads);
+					long graphTime = System.nanoTime() - start;
+					long graphHeap = HeapPeak.peak();
+
+					String check = verify(codebase, table, graph);
+					failed |= !check.isEmpty();
+					System.out.println(scale + "\t" + files.size() + "\t\t" + codebase.getLines() + "\t" + statsTime / 1_000_000 + "\t\t" + (statsHeap >> 20)
+							+ "\t\t" + graphTime / 1_000_000 + "\t\t" + (graphHeap >> 20) + "\t\t" + (check.isEmpty() ? "OK" : check));
+					csv.println(scale + "," + files.size() + "," + codebase.getLines() + "," + codebase.getMethods() + "," + graph.edgeCount()
+							+ "," + statsTime / 1_000_000 + "," + (statsHeap >> 20) + "," + graphTime / 1_000_000 + "," + (graphHeap >> 20) + "," + check.isEmpty());
+				} finally {
+					codebase.delete();
+				}
+			}
+		}
+		System.out.println("Résultats : " + output);
+		if (failed) {
+			System.exit(1);
+		}
+	}
+
+	// Écarts entre l'analyse et le contenu généré (chaîne vide si tout concorde)
+	static String verify(GeneratedCodebase codebase, MetricsTable table, CallGraph graph) {
+		StringBuilder errors = new StringBuilder();
+		if (table.amountClass() != codebase.getClasses()) {
+			errors.append(" classes ").append(table.amountClass()).append("/").append(codebase.getClasses());
+		}
+		if (table.amountMethods() != codebase.getMethods()) {
+			errors.append(" méthodes ").append(table.amountMethods()).append("/").append(codebase.getMethods());
+		}
+		if (table.packages().size() != codebase.getPackages()) {
+			errors.append(" paquetages ").append(table.packages().size()).append("/").append(codebase.getPackages());
+		}
+		if (graph.edgeCount() != codebase.getEdges()) {
+			errors.append(" arcs ").append(graph.edgeCount()).append("/").append(codebase.getEdges());
+		}
+		return errors.toString().trim();
+	}
+}
@@ -0,0 +1,75 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import callGraph.SymbolTable;
+
+// Heap retenu par les noms des faits : une String neuve par occurrence (comme les renvoie JDT)
+// contre des identifiants int dans une SymbolTable partagée.
+// Les noms sont tirés d'un vocabulaire fini, avec la même répétition qu'un gros projet :
+// chaque fichier appelle surtout des méthodes déclarées ailleurs.
+// Usage : SymbolTableBenchmark [fichiers] [occurrences par fichier] [noms distincts]
+public class SymbolTableBenchmark {
+
+	public static void main(String[] args) {
+		int files = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+		int perFile = args.length > 1 ? Integer.parseInt(args[1]) : 120;
+		int distinct = args.length > 2 ? Integer.parseInt(args[2]) : 60_000;
+
+		String[] vocabulary = new String[distinct];
+		for (int i = 0; i < distinct; i++) {
+			vocabulary[i] = "org.example.module" + (i % 40) + ".Type" + (i / 25) + ".method" + (i % 25) + "(java.lang.String,int)";
+		}
+
+		long baseline = used();
+		List<String[]> strings = new ArrayList<String[]>(files);
+		Random random = new Random(42);
+		long start = System.nanoTime();
+		for (int f = 0; f < files; f++) {
+			String[] names = new String[perFile];
+			for (int n = 0; n < perFile; n++) {
+				names[n] = new String(vocabulary[random.nextInt(distinct)].toCharArray());
+			}
+			strings.add(names);
+		}
+		long stringTime = System.nanoTime() - start;
+		long stringHeap = used() - baseline;
+		strings = null;
+
+		baseline = used();
+		SymbolTable symbols = new SymbolTable();
+		List<int[]> ids = new ArrayList<int[]>(files);
+		random = new Random(42);
+		start = System.nanoTime();
+		List<String> batch = new ArrayList<String>(perFile);
+		for (int f = 0; f < files; f++) {
+			batch.clear();
+			for (int n = 0; n < perFile; n++) {
+				batch.add(new String(vocabulary[random.nextInt(distinct)].toCharArray()));
+			}
+			ids.add(symbols.intern(batch));
+		}
+		long symbolTime = System.nanoTime() - start;
+		long symbolHeap = used() - baseline;
+
+		System.out.println(files + " fichiers x " + perFile + " noms, " + symbols.size() + " distincts");
+		System.out.println("String[]    : " + stringHeap / (1024 * 1024) + " Mo, " + stringTime / 1_000_000 + " ms");
+		System.out.println("SymbolTable : " + symbolHeap / (1024 * 1024) + " Mo (table " + symbols.footprint() / (1024 * 1024)
+				+ " Mo), " + symbolTime / 1_000_000 + " ms");
+		System.out.println("Rapport     : " + String.format("%.1f", (double) stringHeap / symbolHeap) + "x");
+		// Garde les structures vivantes jusqu'à la mesure
+		if (ids.size() != files) {
+			throw new IllegalStateException();
+		}
+	}
+
+	private static long used() {
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,100 @@
+package callGraph;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import instrumentation.Counter;
+import instrumentation.Instrumentation;
+import instrumentation.Phase;
+
+// Graphe d'appel en CSR : les successeurs de n sont targets[offsets[n]] .. targets[offsets[n + 1] - 1].
+// Un arc coûte 4 octets (plus 4 octets par noeud pour offsets) ; le DOT n'est qu'une vue sur ce modèle.
+public class CallGraph {
+	// Noeud -> symbole de la table partagée ; les noms ne sont pas recopiés dans le graphe
+	private final DenseIds nodes;
+	private final int[] offsets;
+	private final int[] targets;
+
+	public interface EdgeConsumer {
+		void accept(int from, int to);
+	}
+
+	CallGraph(DenseIds nodes, int[] offsets, int[] targets) {
+		this.nodes = nodes;
+		this.offsets = offsets;
+		this.targets = targets;
+	}
+
+	public static CallGraph build(DenseIds nodes, EdgeBuffer buffer) {
+		long start = Instrumentation.start();
+		long[] edges = buffer.sortedDistinct();
+		int[] offsets = new int[nodes.size() + 1];
+		int[] targets = new int[edges.length];
+		for (int i = 0; i < edges.length; i++) {
+			offsets[EdgeBuffer.from(edges[i]) + 1]++;
+			targets[i] = EdgeBuffer.to(edges[i]);
+		}
+		for (int n = 0; n < nodes.size(); n++) {
+			offsets[n + 1] += offsets[n];
+		}
+		Instrumentation.count(Counter.EDGES, edges.length);
+		Instrumentation.end(Phase.GRAPH_BUILD, start);
+		return new CallGraph(nodes, offsets, targets);
+	}
+
+	// Graphe déjà en CSR (relu d'un instantané) : ni tri ni dédoublonnage
+	public static CallGraph of(DenseIds nodes, int[] offsets, int[] targets) {
+		return new CallGraph(nodes, offsets, targets);
+	}
+
+	public int nodeCount() {
+		return offsets.length - 1;
+	}
+
+	public int edgeCount() {
+		return targets.length;
+	}
+
+	public int outDegree(int node) {
+		return offsets[node + 1] - offsets[node];
+	}
+
+	public int firstEdge(int node) {
+		return offsets[node];
+	}
+
+	public int endEdge(int node) {
+		return offsets[node + 1];
+	}
+
+	public int target(int edge) {
+		return targets[edge];
+	}
+
+	public void forEachEdge(EdgeConsumer consumer) {
+		for (int node = 0; node < nodeCount(); node++) {
+			for (int edge = offsets[node]; edge < offsets[node + 1]; edge++) {
+				consumer.accept(node, targets[edge]);
+			}
+		}
+	}
+
+	public String name(int node) {
+		return nodes.name(node);
+	}
+
+	public int find(String name) {
+		return nodes.find(name);
+	}
+
+	public DenseIds getNodes() {
+		return nodes;
+	}
+
+	// Arcs sous forme "appelant -> appelé", pour comparer deux graphes construits dans un ordre différent
+	public Set<String> edgeNames() {
+		Set<String> names = new HashSet<String>();
+		forEachEdge((from, to) -> names.add(name(from) + " -> " + name(to)));
+		return names;
+	}
+}
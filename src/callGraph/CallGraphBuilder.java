@@ -0,0 +1,40 @@
+package callGraph;
+
+import java.util.List;
+
+// Accumule les arcs (symboles d'une SymbolTable, shared() par défaut) puis produit le CallGraph CSR ;
+// utilisable depuis plusieurs threads
+public class CallGraphBuilder {
+	private final DenseIds nodes;
+	private final EdgeBuffer edges = new EdgeBuffer();
+
+	public CallGraphBuilder() {
+		this(SymbolTable.shared());
+	}
+
+	public CallGraphBuilder(SymbolTable symbols) {
+		this.nodes = new DenseIds(symbols);
+	}
+
+	public synchronized void add(String caller, String callee) {
+		SymbolTable symbols = nodes.getSymbols();
+		edges.add(nodes.intern(symbols.intern(caller)), nodes.intern(symbols.intern(callee)));
+	}
+
+	// Arcs d'un fichier ajoutés d'un coup : un seul verrou par unité
+	public synchronized void addAll(int[] callers, int[] callees) {
+		for (int i = 0; i < callers.length; i++) {
+			edges.add(nodes.intern(callers[i]), nodes.intern(callees[i]));
+		}
+	}
+
+	public synchronized void addAll(List<String[]> pairs) {
+		for (String[] pair : pairs) {
+			add(pair[0], pair[1]);
+		}
+	}
+
+	public synchronized CallGraph build() {
+		return CallGraph.build(nodes, edges);
+	}
+}
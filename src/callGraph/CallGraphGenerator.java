@@ -1,101 +1,125 @@
 package callGraph;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Set;
-import org.apache.commons.io.FileUtils;
+import java.util.List;
+import callGraph.export.ExportFormat;
+import callGraph.export.GraphExport;
+import callGraph.render.SvgRenderer;
+import facts.FactCache;
+import instrumentation.Instrumentation;
+import instrumentation.Phase;
 import org.eclipse.jdt.core.dom.CompilationUnit;
-import org.eclipse.jdt.core.dom.MethodDeclaration;
-import org.eclipse.jdt.core.dom.MethodInvocation;
+import parser.AnalysisEnvironment;
+import parser.AnalysisProfile;
+import parser.ParallelAnalyzer;
 import parser.Parser;
 import utils.ColorHelper;
-import visitor.MethodDeclarationVisitor;
-import visitor.MethodInvocationVisitor;
+import visitor.MetricsVisitor;
+import visitor.collector.CallEdgeCollector;
 
 public class CallGraphGenerator {
 
     public static String projectSourcePath;
 
+    // Rendu de l'image : SVG interne, Graphviz (dot -Tpng) ou choix automatique
+    public enum Renderer { AUTO, SVG, GRAPHVIZ }
+
+    public static Renderer renderer = Renderer.AUTO;
+
+    // Au-delà, Graphviz devient trop lent : AUTO bascule sur le rendu interne
+    static final int GRAPHVIZ_MAX_EDGES = 2000;
+
     public static void generateCallGraph(String projectPath) throws IOException {
+        generateCallGraph(projectPath, Parser.threads);
+    }
+
+    public static void generateCallGraph(String projectPath, int threads) throws IOException {
         projectSourcePath = projectPath;
 
         final File sourceFolder = new File(projectSourcePath);
         ArrayList<File> javaFiles = Parser.getJavaFilesForFolder(sourceFolder);
 
-        Set<String> edges = new HashSet<>();
-
-        for (File fileEntry : javaFiles) {
-            String content = FileUtils.readFileToString(fileEntry, "UTF-8");
-            CompilationUnit parse = Parser.parse(content.toCharArray());
-
-            MethodDeclarationVisitor methodVisitor = new MethodDeclarationVisitor();
-            parse.accept(methodVisitor);
+        writeDotFile(collectGraph(javaFiles, threads));
+    }
 
-            for (MethodDeclaration method : methodVisitor.getMethods()) {
-                MethodInvocationVisitor invocationVisitor = new MethodInvocationVisitor();
-                method.accept(invocationVisitor);
+    // Graphe d'appel : batch JDT en séquentiel, pipeline parallèle sinon
+    public static CallGraph collectGraph(List<File> javaFiles, int threads) throws IOException {
+        return collectGraph(AnalysisEnvironment.forProfile(projectSourcePath, AnalysisProfile.CALL_GRAPH), javaFiles, threads);
+    }
 
-                for (MethodInvocation invocation : invocationVisitor.getMethods()) {
-                    String caller = method.getName().toString();
-                    String callee = invocation.getName().toString();
-                    edges.add("\"" + caller + "\" -> \"" + callee + "\";");
-                }
-            }
+    // Les unités sont traitées au fil de l'eau dans l'environnement du projet, sans état partagé
+    public static CallGraph collectGraph(AnalysisEnvironment environment, List<File> javaFiles, int threads) throws IOException {
+        CallGraphBuilder builder = new CallGraphBuilder();
+        if (threads <= 1) {
+            Parser.parseAll(environment, javaFiles, (path, parse) -> addEdges(parse, builder));
+        } else {
+            new ParallelAnalyzer(environment, threads).analyze(javaFiles, (index, parse) -> addEdges(parse, builder));
         }
-
-        writeDotFile(edges);
+        return builder.build();
     }
 
-    private static void writeDotFile(Set<String> edges) throws IOException {
-        File dotFile = new File("resources/graphs/callgraph.dot");
-        dotFile.getParentFile().mkdirs();
-
-        try (FileWriter writer = new FileWriter(dotFile)) {
-            writer.write("digraph CallGraph {\n");
-            writer.write("node [shape=rectangle, style=filled];\n");
-
-            String classColor = "lightblue";
-            String methodColor = "lightgreen";
-
-            Set<String> nodes = new HashSet<>();
+    // Ajoute les arcs appelant -> appelé d'une unité, identifiés par leurs bindings
+    public static void addEdges(CompilationUnit parse, CallGraphBuilder builder) {
+        CallEdgeCollector collector = new CallEdgeCollector();
+        parse.accept(new MetricsVisitor(collector));
+        builder.addAll(collector.getCallers(), collector.getCallees());
+    }
 
-            for (String edge : edges) {
-                writer.write(edge + "\n");
-                String[] nodesInEdge = edge.replace("\"", "").split(" -> ");
-                nodes.add(nodesInEdge[0]);
-                nodes.add(nodesInEdge[1]);
-            }
+    // Graphe d'appel à partir des faits déjà en cache, sans reparser le projet
+    public static void generateCallGraph(FactCache cache) throws IOException {
+        generateCallGraph(cache.getProjectPath(), cache.graph());
+    }
 
-            for (String node : nodes) {
-                if (Character.isUpperCase(node.charAt(0))) {
-                    writer.write("\"" + node + "\" [fillcolor=" + classColor + ", style=filled];\n");
-                } else {
-                    writer.write("\"" + node + "\" [fillcolor=" + methodColor + ", style=filled];\n");
-                }
-            }
+    // Graphe déjà construit (relu d'un instantané par exemple)
+    public static void generateCallGraph(String projectPath, CallGraph graph) throws IOException {
+        projectSourcePath = projectPath;
+        writeDotFile(graph);
+    }
 
-            addLegend(writer, classColor, methodColor);
+    private static void writeDotFile(CallGraph graph) throws IOException {
+        File dotFile = writeDotFile(graph, "resources/graphs/callgraph.dot");
 
-            writer.write("}\n");
+        boolean graphviz = renderer == Renderer.GRAPHVIZ
+                || (renderer == Renderer.AUTO && graph.edgeCount() <= GRAPHVIZ_MAX_EDGES && isGraphvizInstalled());
+        if (graphviz) {
+            generateGraphImage(dotFile);
+        } else {
+            generateSvgImage(graph);
         }
-
-        generateGraphImage(dotFile);
     }
 
+    // Mise en page et rendu dans la JVM, sans relire le fichier DOT
+    private static void generateSvgImage(CallGraph graph) throws IOException {
+        String outputImagePath = "resources/graphs/callgraph.svg";
+        long start = Instrumentation.start();
+        SvgRenderer.render(graph, Paths.get(outputImagePath));
+        Instrumentation.end(Phase.RENDER, start);
+        System.out.println("\n Graphe d'appel généré: " + ColorHelper.info(outputImagePath));
+    }
 
-    private static void addLegend(FileWriter writer, String classColor, String methodColor) throws IOException {
-        writer.write("subgraph cluster_legend {\n");
-        writer.write("label=\"Légende\";\n");
-        writer.write("key [label=<<TABLE BORDER=\"0\" CELLBORDER=\"1\" CELLSPACING=\"0\">\n");
-        writer.write("<TR><TD BGCOLOR=\"" + classColor + "\">Classe</TD></TR>\n");
-        writer.write("<TR><TD BGCOLOR=\"" + methodColor + "\">Méthode</TD></TR>\n");
-        writer.write("</TABLE>>, shape=plaintext]\n");
-        writer.write("}\n");
+    private static boolean isGraphvizInstalled() {
+        try {
+            Process process = new ProcessBuilder("dot", "-V").redirectErrorStream(true).start();
+            process.getInputStream().readAllBytes();
+            return process.waitFor() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
     }
 
+    // Écrit le fichier DOT seul, sans lancer Graphviz (utilisé par le mode surveillance)
+    public static File writeDotFile(CallGraph graph, String path) throws IOException {
+        long start = Instrumentation.start();
+        File dotFile = GraphExport.export(graph, ExportFormat.DOT, Paths.get(path), false).toFile();
+        Instrumentation.end(Phase.DOT_WRITE, start);
+        return dotFile;
+    }
 
     private static void generateGraphImage(File dotFile) throws IOException {
         String outputImagePath = "resources/graphs/callgraph.png";
@@ -103,8 +127,10 @@ public class CallGraphGenerator {
         pb.inheritIO();
         Process process = pb.start();
 
+        long start = Instrumentation.start();
         try {
             process.waitFor();
+            Instrumentation.end(Phase.RENDER, start);
             System.out.println("\n Graphe d'appel généré: " + ColorHelper.info(outputImagePath));
         } catch (InterruptedException e) {
             e.printStackTrace();
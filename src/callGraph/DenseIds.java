@@ -0,0 +1,96 @@
+package callGraph;
+
+import java.util.Arrays;
+
+// Renumérotation dense (0, 1, 2...) d'un sous-ensemble des symboles d'une SymbolTable :
+// les noeuds d'un graphe ou les classes d'une table de métriques, sans recopier ni rehacher les noms.
+// Non synchronisée : l'appelant protège les ajouts concurrents (voir CallGraphBuilder).
+public class DenseIds {
+	private final SymbolTable symbols;
+	// Identifiant dense -> symbole
+	private int[] order = new int[64];
+	private int size;
+	// Table à adressage ouvert symbole -> identifiant dense : keys[i] = symbole + 1, 0 = case vide
+	private int[] keys = new int[128];
+	private int[] values = new int[128];
+
+	public DenseIds(SymbolTable symbols) {
+		this.symbols = symbols;
+	}
+
+	public int intern(int symbol) {
+		int slot = slot(symbol);
+		if (keys[slot] != 0) {
+			return values[slot];
+		}
+		if (size == order.length) {
+			order = Arrays.copyOf(order, size * 2);
+		}
+		order[size] = symbol;
+		keys[slot] = symbol + 1;
+		values[slot] = size;
+		size++;
+		if (size * 2 > keys.length) {
+			rehash();
+		}
+		return size - 1;
+	}
+
+	// -1 si le symbole n'a pas d'identifiant dense
+	public int find(int symbol) {
+		int slot = slot(symbol);
+		return keys[slot] == 0 ? -1 : values[slot];
+	}
+
+	public int find(String name) {
+		int symbol = symbols.find(name);
+		return symbol < 0 ? -1 : find(symbol);
+	}
+
+	public int symbol(int id) {
+		return order[id];
+	}
+
+	public String name(int id) {
+		return symbols.name(order[id]);
+	}
+
+	public String[] names() {
+		String[] names = new String[size];
+		for (int id = 0; id < size; id++) {
+			names[id] = name(id);
+		}
+		return names;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public SymbolTable getSymbols() {
+		return symbols;
+	}
+
+	private int slot(int symbol) {
+		int mask = keys.length - 1;
+		int slot = (symbol * 0x9E3779B9) >>> 7 & mask;
+		while (keys[slot] != 0 && keys[slot] != symbol + 1) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void rehash() {
+		int[] oldKeys = keys;
+		int[] oldValues = values;
+		keys = new int[oldKeys.length * 2];
+		values = new int[oldValues.length * 2];
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != 0) {
+				int slot = slot(oldKeys[i] - 1);
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package callGraph;
+
+import java.util.Arrays;
+
+// Tampon d'arcs primitif : chaque arc tient dans un long (appelant << 32 | appelé)
+public class EdgeBuffer {
+	private long[] edges = new long[1024];
+	private int size = 0;
+
+	public void add(int from, int to) {
+		if (size == edges.length) {
+			edges = Arrays.copyOf(edges, edges.length * 2);
+		}
+		edges[size++] = pack(from, to);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public static long pack(int from, int to) {
+		return ((long) from << 32) | (to & 0xFFFFFFFFL);
+	}
+
+	public static int from(long edge) {
+		return (int) (edge >>> 32);
+	}
+
+	public static int to(long edge) {
+		return (int) edge;
+	}
+
+	// Arcs triés par appelant puis appelé, sans doublons
+	long[] sortedDistinct() {
+		long[] sorted = Arrays.copyOf(edges, size);
+		Arrays.sort(sorted);
+		int distinct = 0;
+		for (int i = 0; i < sorted.length; i++) {
+			if (i == 0 || sorted[i] != sorted[i - 1]) {
+				sorted[distinct++] = sorted[i];
+			}
+		}
+		return Arrays.copyOf(sorted, distinct);
+	}
+}
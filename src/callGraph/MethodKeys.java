@@ -0,0 +1,67 @@
+package callGraph;
+
+import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+
+// Clé complète d'une méthode à partir de son binding : paquetage.Classe.methode(TypeParam1,TypeParam2)
+// Deux surcharges ou deux méthodes homonymes de classes différentes ont donc des clés distinctes.
+public class MethodKeys {
+
+	// Retombe sur le nom simple quand JDT n'a pas pu résoudre le binding
+	public static String of(IMethodBinding binding, String simpleName) {
+		if (binding == null) {
+			return simpleName;
+		}
+		IMethodBinding declaration = binding.getMethodDeclaration();
+		if (declaration != null) {
+			binding = declaration;
+		}
+
+		StringBuilder key = new StringBuilder();
+		ITypeBinding declaringClass = binding.getDeclaringClass();
+		if (declaringClass != null) {
+			key.append(typeName(declaringClass)).append('.');
+		}
+		key.append(binding.getName()).append('(');
+		ITypeBinding[] parameters = binding.getParameterTypes();
+		for (int i = 0; i < parameters.length; i++) {
+			if (i > 0) {
+				key.append(',');
+			}
+			key.append(typeName(parameters[i]));
+		}
+		return key.append(')').toString();
+	}
+
+	// Nom simple de la méthode contenu dans une clé
+	public static String simpleName(String key) {
+		int end = key.indexOf('(');
+		if (end < 0) {
+			end = key.length();
+		}
+		return key.substring(key.lastIndexOf('.', end) + 1, end);
+	}
+
+	// Classe déclarante contenue dans une clé (chaîne vide si la méthode n'a pas été résolue)
+	public static String declaringClass(String key) {
+		int end = key.indexOf('(');
+		int dot = key.lastIndexOf('.', end < 0 ? key.length() : end);
+		return dot < 0 ? "" : key.substring(0, dot);
+	}
+
+	// Une classe anonyme ou locale n'a pas de nom qualifié (ni de nom simple pour l'anonyme) : on prend son nom
+	// binaire (p.A$1, p.A$1Local), unique dans le projet, sinon la clé du binding. Sans cela toutes les
+	// méthodes run() ou compare() de classes anonymes fusionneraient en un seul noeud ".run()".
+	private static String typeName(ITypeBinding type) {
+		ITypeBinding erasure = type.getErasure();
+		if (erasure != null) {
+			type = erasure;
+		}
+		String name = type.getQualifiedName();
+		if (!name.isEmpty()) {
+			return name;
+		}
+		String binaryName = type.getBinaryName();
+		return binaryName != null ? binaryName : type.getKey();
+	}
+}
@@ -0,0 +1,206 @@
+package callGraph;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+// Associe chaque nom à un identifiant entier dense (0, 1, 2...).
+// Les noms sont rangés une seule fois, en UTF-8 bout à bout dans un tableau d'octets, et retrouvés par une
+// table de hachage à adressage ouvert : pas de String, d'Integer ni d'entrée de HashMap par nom.
+// shared() sert aux analyses ponctuelles ; un FactCache ou un projet de --projects a sa propre table,
+// libérée avec lui (voir FileFacts.getSymbols).
+public class SymbolTable {
+	private static final SymbolTable SHARED = new SymbolTable();
+
+	private byte[] arena = new byte[4096];
+	private int used;
+	// Le nom id occupe arena[offsets[id], offsets[id + 1])
+	private int[] offsets = new int[65];
+	private int[] hashes = new int[64];
+	private int size;
+	// id + 1 par case, 0 = case vide ; taux de remplissage <= 1/2
+	private int[] slots = new int[128];
+	// Encodage UTF-8 du nom recherché, réutilisé d'un appel à l'autre
+	private byte[] scratch = new byte[256];
+
+	public static SymbolTable shared() {
+		return SHARED;
+	}
+
+	public synchronized int intern(String name) {
+		int length = encode(name);
+		return intern(scratch, 0, length);
+	}
+
+	// Tous les noms d'une unité sous un seul verrou
+	public synchronized int[] intern(List<String> names) {
+		int[] ids = new int[names.size()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = intern(names.get(i));
+		}
+		return ids;
+	}
+
+	// Nom déjà encodé en UTF-8 (index sur disque) : interné sans passer par String
+	public synchronized int intern(byte[] bytes, int offset, int length) {
+		int hash = hash(bytes, offset, length);
+		int slot = lookup(bytes, offset, length, hash);
+		if (slots[slot] != 0) {
+			return slots[slot] - 1;
+		}
+
+		int id = size;
+		if (used + length > arena.length) {
+			arena = Arrays.copyOf(arena, Math.max(used + length, arena.length * 2));
+		}
+		System.arraycopy(bytes, offset, arena, used, length);
+		used += length;
+		if (id == hashes.length) {
+			hashes = Arrays.copyOf(hashes, hashes.length * 2);
+			offsets = Arrays.copyOf(offsets, hashes.length + 1);
+		}
+		offsets[id + 1] = used;
+		hashes[id] = hash;
+		size++;
+		slots[slot] = id + 1;
+		if (size * 2 > slots.length) {
+			rehash();
+		}
+		return id;
+	}
+
+	// Nom de longueur length lu à la position courante du tampon
+	public synchronized int intern(ByteBuffer in, int length) {
+		if (scratch.length < length) {
+			scratch = new byte[Math.max(length, scratch.length * 2)];
+		}
+		in.get(scratch, 0, length);
+		return intern(scratch, 0, length);
+	}
+
+	// -1 si le nom n'a jamais été interné
+	public synchronized int find(String name) {
+		int length = encode(name);
+		int slot = lookup(scratch, 0, length, hash(scratch, 0, length));
+		return slots[slot] - 1;
+	}
+
+	public synchronized String name(int id) {
+		if (id < 0 || id >= size) {
+			throw new IndexOutOfBoundsException("symbole inconnu : " + id);
+		}
+		return new String(arena, offsets[id], offsets[id + 1] - offsets[id], StandardCharsets.UTF_8);
+	}
+
+	public synchronized String[] names() {
+		String[] names = new String[size];
+		for (int id = 0; id < size; id++) {
+			names[id] = name(id);
+		}
+		return names;
+	}
+
+	// Longueur puis octets UTF-8, comme DataOutputStream.writeInt + write : relu par intern(ByteBuffer, int)
+	public synchronized void write(DataOutput out, int id) throws IOException {
+		out.writeInt(offsets[id + 1] - offsets[id]);
+		out.write(arena, offsets[id], offsets[id + 1] - offsets[id]);
+	}
+
+	// Copie des octets UTF-8 du nom
+	public synchronized byte[] bytes(int id) {
+		return Arrays.copyOfRange(arena, offsets[id], offsets[id + 1]);
+	}
+
+	// Table complète telle qu'en mémoire, relisable sans reconstruction (voir facts.Snapshot) :
+	// nb noms | nb cases | offsets[nb + 1] | hashes[nb] | cases[nb cases] | octets UTF-8
+	public synchronized void writeTo(DataOutput out) throws IOException {
+		// Les tableaux d'entiers copiés en bloc plutôt qu'un writeInt par valeur
+		ByteBuffer header = ByteBuffer.allocate(4 * (2 + (size + 1) + size + slots.length));
+		header.putInt(size).putInt(slots.length);
+		header.asIntBuffer().put(offsets, 0, size + 1).put(hashes, 0, size).put(slots);
+		out.write(header.array());
+		out.write(arena, 0, used);
+	}
+
+	public synchronized int size() {
+		return size;
+	}
+
+	// Octets occupés par les noms et les index (hors en-têtes de tableaux)
+	public synchronized long footprint() {
+		return arena.length + 4L * (offsets.length + hashes.length + slots.length) + scratch.length;
+	}
+
+	private int lookup(byte[] bytes, int offset, int length, int hash) {
+		int mask = slots.length - 1;
+		int slot = mix(hash) & mask;
+		while (slots[slot] != 0) {
+			int id = slots[slot] - 1;
+			if (hashes[id] == hash && Arrays.equals(arena, offsets[id], offsets[id + 1], bytes, offset, offset + length)) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void rehash() {
+		int[] grown = new int[slots.length * 2];
+		int mask = grown.length - 1;
+		for (int id = 0; id < size; id++) {
+			int slot = mix(hashes[id]) & mask;
+			while (grown[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			grown[slot] = id + 1;
+		}
+		slots = grown;
+	}
+
+	// Encode name dans scratch (même résultat que getBytes(UTF_8), y compris '?' pour un surrogate isolé)
+	private int encode(String name) {
+		int length = name.length();
+		if (scratch.length < length * 3) {
+			scratch = new byte[Math.max(length * 3, scratch.length * 2)];
+		}
+		int n = 0;
+		for (int i = 0; i < length; i++) {
+			char c = name.charAt(i);
+			if (c < 0x80) {
+				scratch[n++] = (byte) c;
+			} else if (c < 0x800) {
+				scratch[n++] = (byte) (0xC0 | (c >> 6));
+				scratch[n++] = (byte) (0x80 | (c & 0x3F));
+			} else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(name.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, name.charAt(++i));
+				scratch[n++] = (byte) (0xF0 | (codePoint >> 18));
+				scratch[n++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+				scratch[n++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+				scratch[n++] = (byte) (0x80 | (codePoint & 0x3F));
+			} else if (Character.isSurrogate(c)) {
+				scratch[n++] = '?';
+			} else {
+				scratch[n++] = (byte) (0xE0 | (c >> 12));
+				scratch[n++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+				scratch[n++] = (byte) (0x80 | (c & 0x3F));
+			}
+		}
+		return n;
+	}
+
+	// Hachage des octets UTF-8 et première case sondée : partagés avec les lecteurs de writeTo
+	public static int hash(byte[] bytes, int offset, int length) {
+		int hash = 0x811C9DC5;
+		for (int i = offset; i < offset + length; i++) {
+			hash = (hash ^ bytes[i]) * 0x01000193;
+		}
+		return hash;
+	}
+
+	public static int mix(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+}
@@ -0,0 +1,491 @@
+package callGraph.analysis;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jgrapht.Graph;
+import org.jgrapht.alg.connectivity.GabowStrongConnectivityInspector;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+
+import callGraph.CallGraph;
+
+// Index de requêtes sur le graphe d'appel, construit en une passe à partir du CSR :
+//  - composantes fortement connexes (JGraphT, Gabow) -> cycles de récursion
+//  - graphe condensé (DAG des composantes) et fermeture transitive en BitSet, une ligne par composante
+//  - fan-in / fan-out triés une fois pour toutes
+//  - plus courts chemins d'appel (BFS sur le CSR, arrêté dès la cible atteinte), seulement si la fermeture
+//    dit que le chemin existe
+// Au-delà de CLOSURE_LIMIT composantes, la fermeture complète serait quadratique en mémoire :
+// les lignes sont alors calculées à la demande, sans verrou, et gardées dans un cache concurrent borné.
+// Les tableaux de travail des parcours sont alloués une fois par thread (voir Scratch).
+public class CallGraphIndex {
+	static final int CLOSURE_LIMIT = 20_000;
+	static final int CLOSURE_CACHE_SIZE = 4096;
+	// Gabow (JGraphT) parcourt le graphe récursivement : pile dédiée pour les longues chaînes d'appel
+	static final long SCC_STACK_SIZE = 512L << 20;
+
+	private final CallGraph graph;
+	private final Graph<Integer, DefaultEdge> jgraph;
+
+	private final int[] component;
+	private final int componentCount;
+	private final int[] memberOffsets;
+	private final int[] members;
+	private final BitSet recursive;
+
+	private final int[] dagOffsets;
+	private final int[] dagTargets;
+	private final BitSet[] closure;
+	private final ConcurrentHashMap<Integer, BitSet> closureCache;
+	private final ThreadLocal<Scratch> scratch;
+
+	private final int[] inDegree;
+	private final int[] byFanIn;
+	private final int[] byFanOut;
+	private final long buildNanos;
+
+	private CallGraphIndex(CallGraph graph) {
+		long start = System.nanoTime();
+		this.graph = graph;
+		int n = graph.nodeCount();
+
+		jgraph = new DefaultDirectedGraph<Integer, DefaultEdge>(DefaultEdge.class);
+		for (int node = 0; node < n; node++) {
+			jgraph.addVertex(node);
+		}
+		inDegree = new int[n];
+		graph.forEachEdge((from, to) -> {
+			jgraph.addEdge(from, to);
+			inDegree[to]++;
+		});
+
+		// Composantes, numérotées dans l'ordre rendu par JGraphT
+		List<Set<Integer>> sets = stronglyConnectedSets(jgraph);
+		componentCount = sets.size();
+		component = new int[n];
+		memberOffsets = new int[componentCount + 1];
+		members = new int[n];
+		int position = 0;
+		for (int c = 0; c < componentCount; c++) {
+			memberOffsets[c] = position;
+			for (int node : sets.get(c)) {
+				component[node] = c;
+				members[position++] = node;
+			}
+		}
+		memberOffsets[componentCount] = position;
+
+		// Une composante est récursive si elle a plusieurs méthodes ou une méthode qui s'appelle elle-même
+		recursive = new BitSet(componentCount);
+		for (int c = 0; c < componentCount; c++) {
+			if (memberOffsets[c + 1] - memberOffsets[c] > 1) {
+				recursive.set(c);
+			}
+		}
+		graph.forEachEdge((from, to) -> {
+			if (from == to) {
+				recursive.set(component[from]);
+			}
+		});
+
+		// Graphe condensé en CSR (arcs entre composantes distinctes, doublons retirés)
+		dagOffsets = new int[componentCount + 1];
+		List<int[]> successors = new ArrayList<int[]>(componentCount);
+		BitSet seen = new BitSet(componentCount);
+		int[] buffer = new int[Math.max(1, componentCount)];
+		int dagEdges = 0;
+		for (int c = 0; c < componentCount; c++) {
+			int count = 0;
+			for (int m = memberOffsets[c]; m < memberOffsets[c + 1]; m++) {
+				int node = members[m];
+				for (int e = graph.firstEdge(node); e < graph.endEdge(node); e++) {
+					int target = component[graph.target(e)];
+					if (target != c && !seen.get(target)) {
+						seen.set(target);
+						buffer[count++] = target;
+					}
+				}
+			}
+			for (int i = 0; i < count; i++) {
+				seen.clear(buffer[i]);
+			}
+			int[] targets = new int[count];
+			System.arraycopy(buffer, 0, targets, 0, count);
+			successors.add(targets);
+			dagEdges += count;
+		}
+		dagTargets = new int[dagEdges];
+		for (int c = 0; c < componentCount; c++) {
+			int[] targets = successors.get(c);
+			dagOffsets[c + 1] = dagOffsets[c] + targets.length;
+			System.arraycopy(targets, 0, dagTargets, dagOffsets[c], targets.length);
+		}
+
+		if (componentCount <= CLOSURE_LIMIT) {
+			closure = fullClosure();
+			closureCache = null;
+		} else {
+			closure = null;
+			closureCache = new ConcurrentHashMap<Integer, BitSet>();
+		}
+		scratch = ThreadLocal.withInitial(() -> new Scratch(componentCount, n));
+
+		byFanIn = sortByDegree(inDegree);
+		int[] outDegree = new int[n];
+		for (int node = 0; node < n; node++) {
+			outDegree[node] = graph.outDegree(node);
+		}
+		byFanOut = sortByDegree(outDegree);
+		buildNanos = System.nanoTime() - start;
+	}
+
+	public static CallGraphIndex build(CallGraph graph) {
+		return new CallGraphIndex(graph);
+	}
+
+	private static List<Set<Integer>> stronglyConnectedSets(Graph<Integer, DefaultEdge> jgraph) {
+		List<List<Set<Integer>>> result = new ArrayList<List<Set<Integer>>>();
+		// Toute erreur du thread (StackOverflowError comprise) est relancée ici, pas masquée par un résultat vide
+		Throwable[] failure = new Throwable[1];
+		Thread thread = new Thread(null, () -> {
+			try {
+				result.add(new GabowStrongConnectivityInspector<Integer, DefaultEdge>(jgraph).stronglyConnectedSets());
+			} catch (Throwable e) {
+				failure[0] = e;
+			}
+		}, "call-graph-scc", SCC_STACK_SIZE);
+		thread.start();
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Calcul des composantes interrompu", e);
+		}
+		if (failure[0] instanceof RuntimeException) {
+			throw (RuntimeException) failure[0];
+		}
+		if (failure[0] instanceof Error) {
+			throw (Error) failure[0];
+		}
+		if (failure[0] != null) {
+			throw new IllegalStateException("Calcul des composantes en échec", failure[0]);
+		}
+		return result.get(0);
+	}
+
+	// Ordre topologique du DAG (Kahn), puis lignes de la fermeture en ordre inverse :
+	// closure[c] = union sur les successeurs d de {d} ∪ closure[d], plus c lui-même si c est récursive
+	private BitSet[] fullClosure() {
+		BitSet[] rows = new BitSet[componentCount];
+		for (int c : reverseTopologicalOrder()) {
+			BitSet row = new BitSet(componentCount);
+			for (int e = dagOffsets[c]; e < dagOffsets[c + 1]; e++) {
+				int d = dagTargets[e];
+				row.set(d);
+				row.or(rows[d]);
+			}
+			if (recursive.get(c)) {
+				row.set(c);
+			}
+			rows[c] = row;
+		}
+		return rows;
+	}
+
+	private int[] reverseTopologicalOrder() {
+		int[] incoming = new int[componentCount];
+		for (int target : dagTargets) {
+			incoming[target]++;
+		}
+		int[] order = new int[componentCount];
+		int head = 0;
+		int tail = 0;
+		for (int c = 0; c < componentCount; c++) {
+			if (incoming[c] == 0) {
+				order[tail++] = c;
+			}
+		}
+		while (head < tail) {
+			int c = order[head++];
+			for (int e = dagOffsets[c]; e < dagOffsets[c + 1]; e++) {
+				if (--incoming[dagTargets[e]] == 0) {
+					order[tail++] = dagTargets[e];
+				}
+			}
+		}
+		for (int i = 0, j = componentCount - 1; i < j; i++, j--) {
+			int swap = order[i];
+			order[i] = order[j];
+			order[j] = swap;
+		}
+		return order;
+	}
+
+	// Tableaux de travail d'un thread : pile du DFS sur le DAG, file et parents du BFS sur le CSR.
+	// mark[node] == stamp marque les noeuds vus par le BFS courant, sans effacer le tableau entre deux requêtes.
+	private static final class Scratch {
+		final int componentCount;
+		final int nodeCount;
+		int[] stack;
+		int[] queue;
+		int[] parent;
+		int[] mark;
+		int stamp;
+
+		Scratch(int componentCount, int nodeCount) {
+			this.componentCount = componentCount;
+			this.nodeCount = nodeCount;
+		}
+
+		int[] stack() {
+			if (stack == null) {
+				stack = new int[componentCount];
+			}
+			return stack;
+		}
+
+		int nextStamp() {
+			if (mark == null) {
+				queue = new int[nodeCount];
+				parent = new int[nodeCount];
+				mark = new int[nodeCount];
+			}
+			if (++stamp == 0) {
+				Arrays.fill(mark, 0);
+				stamp = 1;
+			}
+			return stamp;
+		}
+	}
+
+	// Ligne de la fermeture d'une composante (calculée à la demande au-delà de CLOSURE_LIMIT).
+	// Deux threads peuvent calculer la même ligne en même temps : le premier arrivé est gardé.
+	private BitSet closureRow(int c) {
+		if (closure != null) {
+			return closure[c];
+		}
+		BitSet row = closureCache.get(c);
+		if (row != null) {
+			return row;
+		}
+
+		row = new BitSet(componentCount);
+		int[] stack = scratch.get().stack();
+		int size = 0;
+		for (int e = dagOffsets[c]; e < dagOffsets[c + 1]; e++) {
+			row.set(dagTargets[e]);
+			stack[size++] = dagTargets[e];
+		}
+		while (size > 0) {
+			int d = stack[--size];
+			for (int e = dagOffsets[d]; e < dagOffsets[d + 1]; e++) {
+				int next = dagTargets[e];
+				if (!row.get(next)) {
+					row.set(next);
+					stack[size++] = next;
+				}
+			}
+		}
+		if (recursive.get(c)) {
+			row.set(c);
+		}
+		// Cache plein : on retire une ligne quelconque plutôt que de tenir un ordre LRU sous verrou
+		if (closureCache.size() >= CLOSURE_CACHE_SIZE) {
+			Iterator<Integer> eldest = closureCache.keySet().iterator();
+			if (eldest.hasNext()) {
+				eldest.next();
+				eldest.remove();
+			}
+		}
+		BitSet previous = closureCache.putIfAbsent(c, row);
+		return previous != null ? previous : row;
+	}
+
+	// Noeuds triés par degré décroissant (tri par dénombrement), à égalité dans l'ordre des identifiants
+	private static int[] sortByDegree(int[] degree) {
+		int max = 0;
+		for (int d : degree) {
+			max = Math.max(max, d);
+		}
+		int[] start = new int[max + 2];
+		for (int d : degree) {
+			start[max - d + 1]++;
+		}
+		for (int i = 1; i < start.length; i++) {
+			start[i] += start[i - 1];
+		}
+		int[] sorted = new int[degree.length];
+		for (int node = 0; node < degree.length; node++) {
+			sorted[start[max - degree[node]]++] = node;
+		}
+		return sorted;
+	}
+
+	// Requêtes
+
+	// Existe-t-il un chemin d'au moins un appel de from vers to ?
+	public boolean reaches(int from, int to) {
+		return closureRow(component[from]).get(component[to]);
+	}
+
+	// Méthodes atteignables depuis from (par au moins un appel)
+	public BitSet reachableFrom(int from) {
+		BitSet nodes = new BitSet(graph.nodeCount());
+		BitSet row = closureRow(component[from]);
+		for (int c = row.nextSetBit(0); c >= 0; c = row.nextSetBit(c + 1)) {
+			for (int m = memberOffsets[c]; m < memberOffsets[c + 1]; m++) {
+				nodes.set(members[m]);
+			}
+		}
+		return nodes;
+	}
+
+	// Plus court chemin d'appel (noeuds de from à to inclus), vide s'il n'existe pas
+	public int[] shortestPath(int from, int to) {
+		if (from == to) {
+			return new int[] { from };
+		}
+		if (!reaches(from, to)) {
+			return new int[0];
+		}
+		// BFS sur le CSR, arrêté dès que to est atteint
+		Scratch work = scratch.get();
+		int stamp = work.nextStamp();
+		int[] queue = work.queue;
+		int[] parent = work.parent;
+		int[] mark = work.mark;
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = from;
+		mark[from] = stamp;
+		while (head < tail) {
+			int node = queue[head++];
+			for (int e = graph.firstEdge(node); e < graph.endEdge(node); e++) {
+				int next = graph.target(e);
+				if (mark[next] == stamp) {
+					continue;
+				}
+				mark[next] = stamp;
+				parent[next] = node;
+				if (next == to) {
+					return pathTo(parent, from, to);
+				}
+				queue[tail++] = next;
+			}
+		}
+		return new int[0];
+	}
+
+	private static int[] pathTo(int[] parent, int from, int to) {
+		int length = 1;
+		for (int node = to; node != from; node = parent[node]) {
+			length++;
+		}
+		int[] nodes = new int[length];
+		int node = to;
+		for (int i = length - 1; i > 0; i--) {
+			nodes[i] = node;
+			node = parent[node];
+		}
+		nodes[0] = from;
+		return nodes;
+	}
+
+	// Composantes récursives (cycles d'appel), les plus grandes d'abord ; chaque tableau liste les méthodes du cycle
+	public List<int[]> recursionCycles() {
+		List<int[]> cycles = new ArrayList<int[]>();
+		for (int c = recursive.nextSetBit(0); c >= 0; c = recursive.nextSetBit(c + 1)) {
+			int[] cycle = new int[memberOffsets[c + 1] - memberOffsets[c]];
+			System.arraycopy(members, memberOffsets[c], cycle, 0, cycle.length);
+			cycles.add(cycle);
+		}
+		Collections.sort(cycles, (a, b) -> Integer.compare(b.length, a.length));
+		return cycles;
+	}
+
+	public boolean isRecursive(int node) {
+		return recursive.get(component[node]);
+	}
+
+	public int[] topFanIn(int k) {
+		return prefix(byFanIn, k);
+	}
+
+	public int[] topFanOut(int k) {
+		return prefix(byFanOut, k);
+	}
+
+	private static int[] prefix(int[] sorted, int k) {
+		int[] top = new int[Math.max(0, Math.min(k, sorted.length))];
+		System.arraycopy(sorted, 0, top, 0, top.length);
+		return top;
+	}
+
+	public int fanIn(int node) {
+		return inDegree[node];
+	}
+
+	public int fanOut(int node) {
+		return graph.outDegree(node);
+	}
+
+	// Identifiant exact, sinon toutes les méthodes dont la clé contient la requête (ex. "Parser.parse")
+	public List<Integer> resolve(String query) {
+		List<Integer> matches = new ArrayList<Integer>();
+		int exact = graph.find(query);
+		if (exact >= 0) {
+			matches.add(exact);
+			return matches;
+		}
+		for (int node = 0; node < graph.nodeCount(); node++) {
+			if (graph.name(node).contains(query)) {
+				matches.add(node);
+			}
+		}
+		return matches;
+	}
+
+	public List<String> names(int[] nodes) {
+		List<String> names = new ArrayList<String>(nodes.length);
+		for (int node : nodes) {
+			names.add(graph.name(node));
+		}
+		return names;
+	}
+
+	public String name(int node) {
+		return graph.name(node);
+	}
+
+	public int component(int node) {
+		return component[node];
+	}
+
+	public int componentCount() {
+		return componentCount;
+	}
+
+	public boolean hasFullClosure() {
+		return closure != null;
+	}
+
+	public long getBuildNanos() {
+		return buildNanos;
+	}
+
+	public CallGraph getGraph() {
+		return graph;
+	}
+
+	// Vue JGraphT du graphe (sommets = identifiants des méthodes), pour les algorithmes non indexés ici
+	public Graph<Integer, DefaultEdge> asJGraphT() {
+		return jgraph;
+	}
+}
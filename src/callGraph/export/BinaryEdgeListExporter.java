@@ -0,0 +1,66 @@
+package callGraph.export;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import callGraph.CallGraph;
+
+// Liste d'arcs binaire compacte (.cgel) :
+// "CGEL" | version | nb noeuds | nb arcs | noeuds (varint id, varint taille, UTF-8) | arcs
+// Les arcs arrivent triés par appelant : on écrit l'écart avec l'appelant précédent puis l'appelé, en varint.
+public class BinaryEdgeListExporter implements GraphExporter {
+	public static final int MAGIC = 0x4347454C; // "CGEL"
+	public static final int VERSION = 1;
+
+	private final DataOutputStream out;
+	private CallGraph graph;
+	private int previousFrom = 0;
+
+	public BinaryEdgeListExporter(OutputStream out) {
+		this.out = new DataOutputStream(out);
+	}
+
+	@Override
+	public void begin(CallGraph graph, int nodeCount, long edgeCount) throws IOException {
+		this.graph = graph;
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(nodeCount);
+		out.writeLong(edgeCount);
+	}
+
+	@Override
+	public void node(int node) throws IOException {
+		byte[] name = graph.name(node).getBytes(StandardCharsets.UTF_8);
+		writeVarInt(node);
+		writeVarInt(name.length);
+		out.write(name);
+	}
+
+	@Override
+	public void edge(int from, int to) throws IOException {
+		writeVarInt(from - previousFrom);
+		writeVarInt(to);
+		previousFrom = from;
+	}
+
+	@Override
+	public void end() throws IOException {
+		out.flush();
+	}
+
+	private void writeVarInt(int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+}
@@ -0,0 +1,63 @@
+package callGraph.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import callGraph.CallGraph;
+import callGraph.MethodKeys;
+
+// Format Graphviz, avec les couleurs et la légende historiques de CallGraphGenerator
+public class DotExporter implements GraphExporter {
+	static final String CLASS_COLOR = "lightblue";
+	static final String METHOD_COLOR = "lightgreen";
+
+	private final Writer writer;
+	private CallGraph graph;
+
+	public DotExporter(OutputStream out) {
+		this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public void begin(CallGraph graph, int nodeCount, long edgeCount) throws IOException {
+		this.graph = graph;
+		writer.write("digraph CallGraph {\n");
+		writer.write("node [shape=rectangle, style=filled];\n");
+	}
+
+	@Override
+	public void node(int node) throws IOException {
+		String name = graph.name(node);
+		String color = Character.isUpperCase(MethodKeys.simpleName(name).charAt(0)) ? CLASS_COLOR : METHOD_COLOR;
+		writer.write(quote(name) + " [fillcolor=" + color + ", style=filled];\n");
+	}
+
+	@Override
+	public void edge(int from, int to) throws IOException {
+		writer.write(quote(graph.name(from)) + " -> " + quote(graph.name(to)) + ";\n");
+	}
+
+	@Override
+	public void end() throws IOException {
+		writer.write("subgraph cluster_legend {\n");
+		writer.write("label=\"Légende\";\n");
+		writer.write("key [label=<<TABLE BORDER=\"0\" CELLBORDER=\"1\" CELLSPACING=\"0\">\n");
+		writer.write("<TR><TD BGCOLOR=\"" + CLASS_COLOR + "\">Classe</TD></TR>\n");
+		writer.write("<TR><TD BGCOLOR=\"" + METHOD_COLOR + "\">Méthode</TD></TR>\n");
+		writer.write("</TABLE>>, shape=plaintext]\n");
+		writer.write("}\n");
+		writer.write("}\n");
+	}
+
+	static String quote(String name) {
+		return "\"" + name.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+}
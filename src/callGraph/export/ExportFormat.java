@@ -0,0 +1,31 @@
+package callGraph.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public enum ExportFormat {
+	DOT("dot"),
+	GRAPHML("graphml"),
+	BINARY("cgel");
+
+	private final String extension;
+
+	ExportFormat(String extension) {
+		this.extension = extension;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+
+	public GraphExporter open(OutputStream out) throws IOException {
+		switch (this) {
+			case GRAPHML:
+				return new GraphMLExporter(out);
+			case BINARY:
+				return new BinaryEdgeListExporter(out);
+			default:
+				return new DotExporter(out);
+		}
+	}
+}
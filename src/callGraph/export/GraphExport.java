@@ -0,0 +1,154 @@
+package callGraph.export;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.zip.GZIPOutputStream;
+
+import callGraph.CallGraph;
+import callGraph.MethodKeys;
+import callGraph.SymbolTable;
+
+// Export en flux du CallGraph : les noeuds et les arcs sont lus dans le CSR et écrits au fur et à mesure
+// dans un canal NIO tamponné, éventuellement compressé. La mémoire utilisée ne dépend pas du nombre d'arcs.
+public class GraphExport {
+	static final int BUFFER_SIZE = 1 << 16;
+
+	public enum Partition {
+		PACKAGE, CLASS
+	}
+
+	public static Path export(CallGraph graph, ExportFormat format, Path file, boolean gzip) throws IOException {
+		BitSet linked = linkedNodes(graph);
+		try (GraphExporter exporter = format.open(open(file, gzip))) {
+			exporter.begin(graph, linked.cardinality(), graph.edgeCount());
+			for (int node = linked.nextSetBit(0); node >= 0; node = linked.nextSetBit(node + 1)) {
+				exporter.node(node);
+			}
+			for (int node = 0; node < graph.nodeCount(); node++) {
+				for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+					exporter.edge(node, graph.target(edge));
+				}
+			}
+			exporter.end();
+		}
+		return file;
+	}
+
+	// Un fichier par paquetage ou par classe (arcs sortant des méthodes de la partition),
+	// plus un fichier index.tsv : partition, fichier, noeuds, arcs.
+	// Les partitions sont écrites l'une après l'autre : un seul fichier ouvert à la fois.
+	public static Path exportPartitioned(CallGraph graph, ExportFormat format, Path directory, Partition partition, boolean gzip) throws IOException {
+		Files.createDirectories(directory);
+
+		// Regroupe les noeuds par partition (tri par dénombrement sur des int[])
+		SymbolTable partitions = new SymbolTable();
+		int[] partitionOf = new int[graph.nodeCount()];
+		for (int node = 0; node < partitionOf.length; node++) {
+			partitionOf[node] = partitions.intern(partitionName(graph.name(node), partition));
+		}
+		int[] starts = new int[partitions.size() + 1];
+		for (int p : partitionOf) {
+			starts[p + 1]++;
+		}
+		for (int p = 0; p < partitions.size(); p++) {
+			starts[p + 1] += starts[p];
+		}
+		int[] nodes = new int[partitionOf.length];
+		int[] cursor = starts.clone();
+		for (int node = 0; node < partitionOf.length; node++) {
+			nodes[cursor[partitionOf[node]]++] = node;
+		}
+
+		Path indexFile = directory.resolve("index.tsv");
+		String extension = "." + format.getExtension() + (gzip ? ".gz" : "");
+		BitSet members = new BitSet(graph.nodeCount());
+		try (Writer index = new OutputStreamWriter(open(indexFile, false), StandardCharsets.UTF_8)) {
+			index.write("partition\tfile\tnodes\tedges\n");
+			for (int p = 0; p < partitions.size(); p++) {
+				// Noeuds de la partition et appelés externes, pour que chaque fichier soit autonome
+				long edgeCount = 0;
+				members.clear();
+				for (int i = starts[p]; i < starts[p + 1]; i++) {
+					int node = nodes[i];
+					if (graph.outDegree(node) == 0) {
+						continue;
+					}
+					members.set(node);
+					edgeCount += graph.outDegree(node);
+					for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+						members.set(graph.target(edge));
+					}
+				}
+				if (edgeCount == 0) {
+					continue;
+				}
+
+				String name = partitions.name(p).isEmpty() ? "_unresolved" : partitions.name(p);
+				String fileName = String.format("%05d-%s%s", p, sanitize(name), extension);
+				try (GraphExporter exporter = format.open(open(directory.resolve(fileName), gzip))) {
+					exporter.begin(graph, members.cardinality(), edgeCount);
+					for (int node = members.nextSetBit(0); node >= 0; node = members.nextSetBit(node + 1)) {
+						exporter.node(node);
+					}
+					for (int i = starts[p]; i < starts[p + 1]; i++) {
+						int node = nodes[i];
+						for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+							exporter.edge(node, graph.target(edge));
+						}
+					}
+					exporter.end();
+				}
+				index.write(name + "\t" + fileName + "\t" + members.cardinality() + "\t" + edgeCount + "\n");
+			}
+		}
+		return indexFile;
+	}
+
+	// Flux de sortie tamponné sur un FileChannel, compressé en gzip si demandé
+	public static OutputStream open(Path file, boolean gzip) throws IOException {
+		if (file.getParent() != null) {
+			Files.createDirectories(file.getParent());
+		}
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+		return gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+	}
+
+	// Noeuds reliés par au moins un arc (les autres ne sont pas exportés)
+	static BitSet linkedNodes(CallGraph graph) {
+		BitSet linked = new BitSet(graph.nodeCount());
+		for (int node = 0; node < graph.nodeCount(); node++) {
+			if (graph.outDegree(node) > 0) {
+				linked.set(node);
+				for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+					linked.set(graph.target(edge));
+				}
+			}
+		}
+		return linked;
+	}
+
+	static String partitionName(String key, Partition partition) {
+		String declaringClass = MethodKeys.declaringClass(key);
+		if (partition == Partition.CLASS) {
+			return declaringClass;
+		}
+		int dot = declaringClass.lastIndexOf('.');
+		return dot < 0 ? (declaringClass.isEmpty() ? "" : "(default)") : declaringClass.substring(0, dot);
+	}
+
+	private static String sanitize(String name) {
+		String safe = name.replaceAll("[^A-Za-z0-9._-]", "_");
+		return safe.length() > 100 ? safe.substring(0, 100) : safe;
+	}
+}
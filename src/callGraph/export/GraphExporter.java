@@ -0,0 +1,18 @@
+package callGraph.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import callGraph.CallGraph;
+
+// Reçoit le graphe en flux : en-tête, noeuds, puis arcs triés par appelant. Rien n'est conservé en mémoire.
+public interface GraphExporter extends Closeable {
+
+	void begin(CallGraph graph, int nodeCount, long edgeCount) throws IOException;
+
+	void node(int node) throws IOException;
+
+	void edge(int from, int to) throws IOException;
+
+	void end() throws IOException;
+}
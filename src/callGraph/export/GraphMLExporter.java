@@ -0,0 +1,52 @@
+package callGraph.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import callGraph.CallGraph;
+
+// Format GraphML : identifiants n<id>, nom complet de la méthode dans l'attribut "name"
+public class GraphMLExporter implements GraphExporter {
+	private final Writer writer;
+	private CallGraph graph;
+
+	public GraphMLExporter(OutputStream out) {
+		this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public void begin(CallGraph graph, int nodeCount, long edgeCount) throws IOException {
+		this.graph = graph;
+		writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		writer.write("<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\">\n");
+		writer.write("<key id=\"name\" for=\"node\" attr.name=\"name\" attr.type=\"string\"/>\n");
+		writer.write("<graph id=\"CallGraph\" edgedefault=\"directed\">\n");
+	}
+
+	@Override
+	public void node(int node) throws IOException {
+		writer.write("<node id=\"n" + node + "\"><data key=\"name\">" + escape(graph.name(node)) + "</data></node>\n");
+	}
+
+	@Override
+	public void edge(int from, int to) throws IOException {
+		writer.write("<edge source=\"n" + from + "\" target=\"n" + to + "\"/>\n");
+	}
+
+	@Override
+	public void end() throws IOException {
+		writer.write("</graph>\n</graphml>\n");
+	}
+
+	static String escape(String text) {
+		return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+}
@@ -0,0 +1,307 @@
+package callGraph.render;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+// Simulation de forces sur des disques (position + rayon) :
+// répulsion entre voisins trouvés par une grille (coût linéaire, hors gros noeuds), ressorts le long des arcs,
+// gravité vers le centre de groupe et, si demandé, confinement dans un disque englobant.
+// La répulsion, qui domine le coût, est calculée en parallèle : chaque noeud n'écrit que son propre déplacement.
+class ForceSimulation {
+	private final double[] x;
+	private final double[] y;
+	private final double[] radius;
+	private final int[] from;
+	private final int[] to;
+	private final double[] weight;
+
+	private int[] group;
+	private int groupCount;
+	private boolean confined = false;
+	private double centerX;
+	private double centerY;
+	private double centerRadius;
+	private boolean parallel = true;
+
+	// Noeuds plus gros que le rayon courant, tenus hors de la grille (voir run)
+	private boolean[] large;
+	private int[] largeNodes;
+
+	ForceSimulation(double[] x, double[] y, double[] radius, int[] from, int[] to, double[] weight) {
+		this.x = x;
+		this.y = y;
+		this.radius = radius;
+		this.from = from;
+		this.to = to;
+		this.weight = weight;
+	}
+
+	void setGroups(int[] group, int groupCount) {
+		this.group = group;
+		this.groupCount = groupCount;
+	}
+
+	void setCenter(double centerX, double centerY, double centerRadius) {
+		this.confined = true;
+		this.centerX = centerX;
+		this.centerY = centerY;
+		this.centerRadius = centerRadius;
+	}
+
+	void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	void run(int iterations, double initialTemperature) {
+		int n = x.length;
+		if (n == 0) {
+			return;
+		}
+
+		// Cellules dimensionnées sur le rayon courant (99e centile), pas sur le plus gros hub : sinon un seul noeud
+		// très appelé grossit toutes les cellules et la grille ne sépare plus rien (coût quadratique).
+		// Les quelques noeuds plus gros sont hors grille et comparés à tous les autres.
+		double[] sorted = radius.clone();
+		Arrays.sort(sorted);
+		double typicalRadius = sorted[Math.min(n - 1, (int) (n * 0.99))];
+		double meanRadius = 0;
+		for (double r : radius) {
+			meanRadius += r / n;
+		}
+		double k = 2 * meanRadius;
+		double cell = 2 * typicalRadius + 2 * k;
+		large = new boolean[n];
+		int largeCount = 0;
+		for (int i = 0; i < n; i++) {
+			if (radius[i] > typicalRadius) {
+				large[i] = true;
+				largeCount++;
+			}
+		}
+		largeNodes = new int[largeCount];
+		for (int i = 0, l = 0; i < n; i++) {
+			if (large[i]) {
+				largeNodes[l++] = i;
+			}
+		}
+
+		double[] dx = new double[n];
+		double[] dy = new double[n];
+		for (int iteration = 0; iteration < iterations; iteration++) {
+			double temperature = initialTemperature * (1 - (double) iteration / iterations) + 1;
+			Map<Long, List<Integer>> grid = grid(cell);
+
+			IntStream range = IntStream.range(0, n);
+			(parallel ? range.parallel() : range).forEach(i -> repulse(i, grid, cell, k, dx, dy));
+
+			attract(dx, dy);
+			gravity(dx, dy);
+
+			for (int i = 0; i < n; i++) {
+				double length = Math.sqrt(dx[i] * dx[i] + dy[i] * dy[i]);
+				if (length > 0) {
+					double step = Math.min(length, temperature);
+					x[i] += dx[i] / length * step;
+					y[i] += dy[i] / length * step;
+				}
+				if (confined) {
+					confine(i);
+				}
+			}
+		}
+
+		// Les forces laissent des chevauchements quand le graphe est dense : on les retire à la fin
+		removeOverlaps(cell);
+	}
+
+	// Ecarte deux à deux les disques qui se chevauchent, jusqu'à ce qu'il n'y en ait plus (ou 500 passes)
+	private void removeOverlaps(double cell) {
+		for (int pass = 0; pass < 500; pass++) {
+			Map<Long, List<Integer>> grid = grid(cell);
+			boolean moved = false;
+			for (int i = 0; i < x.length; i++) {
+				if (large[i]) {
+					continue;
+				}
+				long cx = (long) Math.floor(x[i] / cell);
+				long cy = (long) Math.floor(y[i] / cell);
+				for (long gx = cx - 1; gx <= cx + 1; gx++) {
+					for (long gy = cy - 1; gy <= cy + 1; gy++) {
+						List<Integer> neighbours = grid.get(cellKey(gx, gy));
+						if (neighbours == null) {
+							continue;
+						}
+						for (int j : neighbours) {
+							if (j > i) {
+								moved |= separate(i, j);
+							}
+						}
+					}
+				}
+			}
+			// Gros noeuds contre tous les autres, chaque paire de gros noeuds une seule fois
+			for (int i : largeNodes) {
+				for (int j = 0; j < x.length; j++) {
+					if (j != i && !(large[j] && j < i)) {
+						moved |= separate(i, j);
+					}
+				}
+			}
+			if (!moved) {
+				return;
+			}
+		}
+	}
+
+	private boolean separate(int i, int j) {
+		double ex = x[j] - x[i];
+		double ey = y[j] - y[i];
+		double distance = Math.sqrt(ex * ex + ey * ey);
+		double minimum = radius[i] + radius[j];
+		if (distance >= minimum) {
+			return false;
+		}
+		if (distance < 1e-6) {
+			ex = 1;
+			ey = (j - i) * 1e-3;
+			distance = Math.sqrt(ex * ex + ey * ey);
+		}
+		double push = (minimum - distance) / 2 + 0.01;
+		x[i] -= ex / distance * push;
+		y[i] -= ey / distance * push;
+		x[j] += ex / distance * push;
+		y[j] += ey / distance * push;
+		return true;
+	}
+
+	// Grille des noeuds de taille courante seulement
+	private Map<Long, List<Integer>> grid(double cell) {
+		Map<Long, List<Integer>> grid = new HashMap<Long, List<Integer>>();
+		for (int i = 0; i < x.length; i++) {
+			if (!large[i]) {
+				grid.computeIfAbsent(cellKey((long) Math.floor(x[i] / cell), (long) Math.floor(y[i] / cell)), key -> new ArrayList<Integer>()).add(i);
+			}
+		}
+		return grid;
+	}
+
+	private static long cellKey(long cx, long cy) {
+		return (cx << 32) ^ (cy & 0xFFFFFFFFL);
+	}
+
+	private void repulse(int i, Map<Long, List<Integer>> grid, double cell, double k, double[] dx, double[] dy) {
+		double[] force = new double[2];
+		if (large[i]) {
+			for (int j = 0; j < x.length; j++) {
+				repulse(i, j, k, force);
+			}
+		} else {
+			long cx = (long) Math.floor(x[i] / cell);
+			long cy = (long) Math.floor(y[i] / cell);
+			for (long gx = cx - 1; gx <= cx + 1; gx++) {
+				for (long gy = cy - 1; gy <= cy + 1; gy++) {
+					List<Integer> neighbours = grid.get(cellKey(gx, gy));
+					if (neighbours == null) {
+						continue;
+					}
+					for (int j : neighbours) {
+						repulse(i, j, k, force);
+					}
+				}
+			}
+			for (int j : largeNodes) {
+				repulse(i, j, k, force);
+			}
+		}
+		dx[i] = force[0];
+		dy[i] = force[1];
+	}
+
+	// Force exercée par j sur i, ajoutée à force
+	private void repulse(int i, int j, double k, double[] force) {
+		if (j == i) {
+			return;
+		}
+		double ex = x[i] - x[j];
+		double ey = y[i] - y[j];
+		double distance = Math.sqrt(ex * ex + ey * ey);
+		if (distance < 1e-6) {
+			// Deux points confondus : on les sépare de façon déterministe
+			ex = (i - j) * 1e-3;
+			ey = 1e-3;
+			distance = Math.abs(ex) + ey;
+		}
+		double minimum = radius[i] + radius[j];
+		double strength = k * k / distance;
+		if (distance < minimum) {
+			strength += (minimum - distance) * 2;
+		}
+		force[0] += ex / distance * strength;
+		force[1] += ey / distance * strength;
+	}
+
+	private void attract(double[] dx, double[] dy) {
+		for (int e = 0; e < from.length; e++) {
+			int a = from[e];
+			int b = to[e];
+			double ex = x[b] - x[a];
+			double ey = y[b] - y[a];
+			double distance = Math.sqrt(ex * ex + ey * ey);
+			double rest = radius[a] + radius[b];
+			if (distance <= rest) {
+				continue;
+			}
+			double force = (distance - rest) * 0.1 * weight[e];
+			dx[a] += ex / distance * force;
+			dy[a] += ey / distance * force;
+			dx[b] -= ex / distance * force;
+			dy[b] -= ey / distance * force;
+		}
+	}
+
+	// Attire chaque noeud vers le centre de son groupe (paquetage) et, plus faiblement, vers l'origine
+	private void gravity(double[] dx, double[] dy) {
+		double[] groupX = null;
+		double[] groupY = null;
+		if (group != null) {
+			groupX = new double[groupCount];
+			groupY = new double[groupCount];
+			int[] groupSize = new int[groupCount];
+			for (int i = 0; i < x.length; i++) {
+				groupX[group[i]] += x[i];
+				groupY[group[i]] += y[i];
+				groupSize[group[i]]++;
+			}
+			for (int g = 0; g < groupCount; g++) {
+				groupX[g] /= Math.max(1, groupSize[g]);
+				groupY[g] /= Math.max(1, groupSize[g]);
+			}
+		}
+
+		double originX = confined ? centerX : 0;
+		double originY = confined ? centerY : 0;
+		for (int i = 0; i < x.length; i++) {
+			dx[i] += (originX - x[i]) * 0.01;
+			dy[i] += (originY - y[i]) * 0.01;
+			if (groupX != null) {
+				dx[i] += (groupX[group[i]] - x[i]) * 0.05;
+				dy[i] += (groupY[group[i]] - y[i]) * 0.05;
+			}
+		}
+	}
+
+	private void confine(int i) {
+		double ex = x[i] - centerX;
+		double ey = y[i] - centerY;
+		double distance = Math.sqrt(ex * ex + ey * ey);
+		double limit = Math.max(0, centerRadius - radius[i]);
+		if (distance > limit && distance > 0) {
+			x[i] = centerX + ex / distance * limit;
+			y[i] = centerY + ey / distance * limit;
+		}
+	}
+}
@@ -0,0 +1,215 @@
+package callGraph.render;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import callGraph.CallGraph;
+import callGraph.MethodKeys;
+import callGraph.SymbolTable;
+
+// Placement multiniveau du graphe d'appel, sans Graphviz :
+// 1. les méthodes sont regroupées par classe déclarante, les classes par paquetage ;
+// 2. le graphe réduit des classes est placé par forces (Fruchterman-Reingold, répulsion sur grille,
+//    attraction le long des appels entre classes, gravité vers le centre du paquetage) ;
+// 3. les méthodes sont placées dans leur classe (spirale puis quelques itérations locales).
+// Les deux étapes de forces sont parallélisées sur les coeurs disponibles.
+public class GraphLayout {
+	static final double NODE_SPACING = 30;
+	static final int CLUSTER_ITERATIONS = 300;
+	static final int LOCAL_ITERATIONS = 50;
+	static final int LOCAL_LIMIT = 300;
+
+	// Position de chaque noeud (NaN pour les noeuds isolés, non dessinés)
+	final double[] x;
+	final double[] y;
+	final BitSet nodes;
+
+	// Classes (clusters) et paquetages
+	final int[] clusterOf;
+	final List<String> clusterNames = new ArrayList<String>();
+	final List<String> packageNames = new ArrayList<String>();
+	double[] clusterX;
+	double[] clusterY;
+	double[] clusterRadius;
+	int[] packageOf;
+
+	private GraphLayout(int nodeCount) {
+		x = new double[nodeCount];
+		y = new double[nodeCount];
+		clusterOf = new int[nodeCount];
+		nodes = new BitSet(nodeCount);
+	}
+
+	public static GraphLayout compute(CallGraph graph) {
+		GraphLayout layout = new GraphLayout(graph.nodeCount());
+		layout.buildClusters(graph);
+		layout.placeClusters(graph);
+		layout.placeMembers(graph);
+		return layout;
+	}
+
+	private void buildClusters(CallGraph graph) {
+		for (int node = 0; node < graph.nodeCount(); node++) {
+			if (graph.outDegree(node) > 0) {
+				nodes.set(node);
+				for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+					nodes.set(graph.target(edge));
+				}
+			}
+		}
+
+		SymbolTable clusters = new SymbolTable();
+		SymbolTable packages = new SymbolTable();
+		List<Integer> clusterPackages = new ArrayList<Integer>();
+		for (int node = 0; node < graph.nodeCount(); node++) {
+			x[node] = Double.NaN;
+			y[node] = Double.NaN;
+			if (!nodes.get(node)) {
+				clusterOf[node] = -1;
+				continue;
+			}
+			String declaringClass = MethodKeys.declaringClass(graph.name(node));
+			int before = clusters.size();
+			clusterOf[node] = clusters.intern(declaringClass);
+			if (clusters.size() > before) {
+				int dot = declaringClass.lastIndexOf('.');
+				clusterPackages.add(packages.intern(dot < 0 ? "" : declaringClass.substring(0, dot)));
+			}
+		}
+
+		for (int c = 0; c < clusters.size(); c++) {
+			clusterNames.add(clusters.name(c));
+		}
+		for (int p = 0; p < packages.size(); p++) {
+			packageNames.add(packages.name(p));
+		}
+		packageOf = clusterPackages.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	private void placeClusters(CallGraph graph) {
+		int count = clusterNames.size();
+		int[] sizes = new int[count];
+		for (int node = nodes.nextSetBit(0); node >= 0; node = nodes.nextSetBit(node + 1)) {
+			sizes[clusterOf[node]]++;
+		}
+		clusterRadius = new double[count];
+		for (int c = 0; c < count; c++) {
+			clusterRadius[c] = NODE_SPACING * (1 + Math.sqrt(sizes[c]));
+		}
+
+		// Graphe réduit : poids des appels entre deux classes différentes
+		Map<Long, Integer> weights = new HashMap<Long, Integer>();
+		for (int node = nodes.nextSetBit(0); node >= 0; node = nodes.nextSetBit(node + 1)) {
+			for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+				int a = clusterOf[node];
+				int b = clusterOf[graph.target(edge)];
+				if (a != b) {
+					weights.merge(((long) Math.min(a, b) << 32) | Math.max(a, b), 1, Integer::sum);
+				}
+			}
+		}
+		int[] from = new int[weights.size()];
+		int[] to = new int[weights.size()];
+		double[] weight = new double[weights.size()];
+		int e = 0;
+		for (Map.Entry<Long, Integer> entry : weights.entrySet()) {
+			from[e] = (int) (entry.getKey() >>> 32);
+			to[e] = (int) (long) entry.getKey();
+			weight[e] = 1 + Math.log(entry.getValue());
+			e++;
+		}
+
+		// Position initiale : les classes d'un même paquetage démarrent côte à côte
+		double spread = NODE_SPACING * 4 * Math.sqrt(count + 1);
+		clusterX = new double[count];
+		clusterY = new double[count];
+		for (int c = 0; c < count; c++) {
+			double packageAngle = 2 * Math.PI * packageOf[c] / Math.max(1, packageNames.size());
+			double jitter = 2 * Math.PI * c / Math.max(1, count);
+			clusterX[c] = spread * Math.cos(packageAngle) + clusterRadius[c] * Math.cos(jitter);
+			clusterY[c] = spread * Math.sin(packageAngle) + clusterRadius[c] * Math.sin(jitter);
+		}
+
+		ForceSimulation simulation = new ForceSimulation(clusterX, clusterY, clusterRadius, from, to, weight);
+		simulation.setGroups(packageOf, packageNames.size());
+		simulation.run(CLUSTER_ITERATIONS, spread);
+	}
+
+	private void placeMembers(CallGraph graph) {
+		int count = clusterNames.size();
+		List<List<Integer>> members = new ArrayList<List<Integer>>(count);
+		for (int c = 0; c < count; c++) {
+			members.add(new ArrayList<Integer>());
+		}
+		for (int node = nodes.nextSetBit(0); node >= 0; node = nodes.nextSetBit(node + 1)) {
+			members.get(clusterOf[node]).add(node);
+		}
+
+		// Chaque classe est indépendante : placement en parallèle
+		IntStream.range(0, count).parallel().forEach(c -> placeCluster(graph, c, members.get(c)));
+	}
+
+	private void placeCluster(CallGraph graph, int cluster, List<Integer> members) {
+		int size = members.size();
+		double[] localX = new double[size];
+		double[] localY = new double[size];
+		double[] radius = new double[size];
+		double golden = Math.PI * (3 - Math.sqrt(5));
+		for (int i = 0; i < size; i++) {
+			double r = NODE_SPACING * Math.sqrt(i + 0.5);
+			localX[i] = clusterX[cluster] + r * Math.cos(i * golden);
+			localY[i] = clusterY[cluster] + r * Math.sin(i * golden);
+			radius[i] = NODE_SPACING / 2;
+		}
+
+		if (size > 1 && size <= LOCAL_LIMIT) {
+			Map<Integer, Integer> local = new HashMap<Integer, Integer>();
+			for (int i = 0; i < size; i++) {
+				local.put(members.get(i), i);
+			}
+			List<int[]> edges = new ArrayList<int[]>();
+			for (int i = 0; i < size; i++) {
+				int node = members.get(i);
+				for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+					Integer j = local.get(graph.target(edge));
+					if (j != null && j != i) {
+						edges.add(new int[] { i, j });
+					}
+				}
+			}
+			int[] from = new int[edges.size()];
+			int[] to = new int[edges.size()];
+			double[] weight = new double[edges.size()];
+			for (int e = 0; e < edges.size(); e++) {
+				from[e] = edges.get(e)[0];
+				to[e] = edges.get(e)[1];
+				weight[e] = 1;
+			}
+			ForceSimulation simulation = new ForceSimulation(localX, localY, radius, from, to, weight);
+			simulation.setCenter(clusterX[cluster], clusterY[cluster], clusterRadius[cluster]);
+			simulation.setParallel(false);
+			simulation.run(LOCAL_ITERATIONS, clusterRadius[cluster] / 4);
+		}
+
+		for (int i = 0; i < size; i++) {
+			x[members.get(i)] = localX[i];
+			y[members.get(i)] = localY[i];
+		}
+	}
+
+	public double x(int node) {
+		return x[node];
+	}
+
+	public double y(int node) {
+		return y[node];
+	}
+
+	public boolean isDrawn(int node) {
+		return nodes.get(node);
+	}
+}
@@ -0,0 +1,95 @@
+package callGraph.render;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import callGraph.CallGraph;
+import callGraph.MethodKeys;
+import callGraph.export.GraphExport;
+
+// Rendu SVG du graphe d'appel à partir de GraphLayout : un disque par classe, un point par méthode,
+// un segment par appel. Le fichier est écrit en flux, le nom complet apparaît en info-bulle.
+public class SvgRenderer {
+	static final String CLASS_COLOR = "lightblue";
+	static final String METHOD_COLOR = "lightgreen";
+	static final double MARGIN = 60;
+
+	public static Path render(CallGraph graph, Path file) throws IOException {
+		return render(graph, GraphLayout.compute(graph), file);
+	}
+
+	public static Path render(CallGraph graph, GraphLayout layout, Path file) throws IOException {
+		double minX = Double.MAX_VALUE;
+		double minY = Double.MAX_VALUE;
+		double maxX = -Double.MAX_VALUE;
+		double maxY = -Double.MAX_VALUE;
+		for (int c = 0; c < layout.clusterNames.size(); c++) {
+			minX = Math.min(minX, layout.clusterX[c] - layout.clusterRadius[c]);
+			minY = Math.min(minY, layout.clusterY[c] - layout.clusterRadius[c]);
+			maxX = Math.max(maxX, layout.clusterX[c] + layout.clusterRadius[c]);
+			maxY = Math.max(maxY, layout.clusterY[c] + layout.clusterRadius[c]);
+		}
+		if (minX > maxX) {
+			minX = minY = 0;
+			maxX = maxY = 0;
+		}
+
+		try (Writer out = new OutputStreamWriter(GraphExport.open(file, false), StandardCharsets.UTF_8)) {
+			double width = maxX - minX + 2 * MARGIN;
+			double height = maxY - minY + 2 * MARGIN;
+			out.write("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"" + format(minX - MARGIN) + " " + format(minY - MARGIN)
+					+ " " + format(width) + " " + format(height) + "\" width=\"" + format(width) + "\" height=\"" + format(height) + "\">\n");
+			out.write("<rect x=\"" + format(minX - MARGIN) + "\" y=\"" + format(minY - MARGIN) + "\" width=\"" + format(width)
+					+ "\" height=\"" + format(height) + "\" fill=\"white\"/>\n");
+
+			out.write("<g fill=\"#f3f6fa\" stroke=\"#9ab\" stroke-width=\"1\">\n");
+			for (int c = 0; c < layout.clusterNames.size(); c++) {
+				out.write("<circle cx=\"" + format(layout.clusterX[c]) + "\" cy=\"" + format(layout.clusterY[c]) + "\" r=\""
+						+ format(layout.clusterRadius[c]) + "\"><title>" + escape(layout.clusterNames.get(c)) + "</title></circle>\n");
+			}
+			out.write("</g>\n");
+
+			out.write("<g stroke=\"#567\" stroke-opacity=\"0.35\" stroke-width=\"0.8\">\n");
+			for (int node = 0; node < graph.nodeCount(); node++) {
+				for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+					int target = graph.target(edge);
+					out.write("<line x1=\"" + format(layout.x(node)) + "\" y1=\"" + format(layout.y(node)) + "\" x2=\""
+							+ format(layout.x(target)) + "\" y2=\"" + format(layout.y(target)) + "\"/>\n");
+				}
+			}
+			out.write("</g>\n");
+
+			out.write("<g stroke=\"#333\" stroke-width=\"0.5\">\n");
+			for (int node = 0; node < graph.nodeCount(); node++) {
+				if (!layout.isDrawn(node)) {
+					continue;
+				}
+				String name = graph.name(node);
+				String color = Character.isUpperCase(MethodKeys.simpleName(name).charAt(0)) ? CLASS_COLOR : METHOD_COLOR;
+				out.write("<circle cx=\"" + format(layout.x(node)) + "\" cy=\"" + format(layout.y(node)) + "\" r=\"6\" fill=\""
+						+ color + "\"><title>" + escape(name) + "</title></circle>\n");
+			}
+			out.write("</g>\n");
+
+			out.write("<g font-family=\"sans-serif\" font-size=\"12\" text-anchor=\"middle\" fill=\"#234\">\n");
+			for (int c = 0; c < layout.clusterNames.size(); c++) {
+				String name = layout.clusterNames.get(c);
+				out.write("<text x=\"" + format(layout.clusterX[c]) + "\" y=\"" + format(layout.clusterY[c] - layout.clusterRadius[c] - 4)
+						+ "\">" + escape(name.isEmpty() ? "?" : name) + "</text>\n");
+			}
+			out.write("</g>\n</svg>\n");
+		}
+		return file;
+	}
+
+	private static String format(double value) {
+		return String.valueOf(Math.round(value * 10) / 10.0);
+	}
+
+	private static String escape(String text) {
+		return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+	}
+}
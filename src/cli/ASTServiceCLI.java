@@ -1,7 +1,24 @@
 package cli;
 
+import callGraph.CallGraph;
 import callGraph.CallGraphGenerator;
+import callGraph.analysis.CallGraphIndex;
+import callGraph.export.ExportFormat;
+import callGraph.export.GraphExport;
+import facts.FactCache;
+import facts.FactIndex;
+import facts.FileFacts;
+import facts.LiveProjectView;
+import facts.ProjectWatcher;
+import facts.Snapshot;
+import facts.SnapshotWriter;
+import instrumentation.Instrumentation;
+import metrics.MetricsExport;
+import metrics.MetricsTable;
 import parser.Parser;
+import parser.classpath.ClasspathResolver;
+import ranking.ClassMetric;
+import ranking.RankingEngine;
 import utils.ColorHelper;
 
 import javax.swing.*;
@@ -9,14 +26,28 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.List;
 
 import static org.fusesource.jansi.Ansi.ansi;
 
 public class ASTServiceCLI extends AbstractMain {
     private static String PROJECT_PATH;
 
+    // Faits du projet sélectionné, partagés par les options 2 et 3
+    private static FactCache factCache;
+
+    // Instantané de la dernière analyse, utilisé tant que le projet n'a pas changé (voir Snapshot)
+    private static Snapshot snapshot;
+
     public static IntegerInputProcessor inputProcessor;
     private static final String QUIT = "0";
+    private static final String EXPORT_DIRECTORY = "resources/graphs/export";
+    private static final String METRICS_DIRECTORY = "resources/metrics";
 
     public boolean isProjectSelected() {
         return PROJECT_PATH != null;
@@ -33,6 +64,7 @@ public class ASTServiceCLI extends AbstractMain {
                 userInput = inputReader.readLine();
                 processUserInput(inputReader, userInput);
             } while (!userInput.equals(QUIT));
+            Instrumentation.finish(System.out);
             System.exit(0);
         } catch (IOException e) {
             e.printStackTrace();
@@ -48,6 +80,12 @@ public class ASTServiceCLI extends AbstractMain {
             System.out.println(ColorHelper.info("1. Changer de projet"));
             System.out.println(ColorHelper.info("2. Voir les statistiques sur le projet"));
             System.out.println(ColorHelper.info("3. Voir le graphe d'appel du projet"));
+            System.out.println(ColorHelper.info("4. Vérifier l'index incrémental (reconstruction complète)"));
+            System.out.println(ColorHelper.info("5. Mode surveillance (statistiques et graphe mis à jour en direct)"));
+            System.out.println(ColorHelper.info("6. Exporter le graphe d'appel (DOT, GraphML, binaire)"));
+            System.out.println(ColorHelper.info("7. Classer les classes (top % par métrique et intersection)"));
+            System.out.println(ColorHelper.info("8. Exporter les métriques (CSV et binaire en colonnes)"));
+            System.out.println(ColorHelper.info("9. Interroger le graphe d'appel (cycles, atteignabilité, fan-in/fan-out, chemins)"));
         } else {
             System.out.println(ColorHelper.info("1. Sélectionner un projet"));
         }
@@ -65,8 +103,7 @@ public class ASTServiceCLI extends AbstractMain {
 
                 case "2":
                     if (isProjectSelected()) {
-                        Parser p = new Parser();
-                        p.main(new String[]{PROJECT_PATH});
+                        displayStatistics();
                     } else {
                         System.err.println(ansi().fgCyan().a("Erreur: Aucun projet sélectionné."));
                     }
@@ -74,7 +111,55 @@ public class ASTServiceCLI extends AbstractMain {
 
                 case "3":
                     if (isProjectSelected()) {
-                        CallGraphGenerator.generateCallGraph(PROJECT_PATH);
+                        CallGraphGenerator.generateCallGraph(PROJECT_PATH, graph());
+                    } else {
+                        System.err.println(ColorHelper.error("Erreur: Aucun projet sélectionné."));
+                    }
+                    break;
+
+                case "4":
+                    if (isProjectSelected()) {
+                        verifyIndex();
+                    } else {
+                        System.err.println(ColorHelper.error("Erreur: Aucun projet sélectionné."));
+                    }
+                    break;
+
+                case "5":
+                    if (isProjectSelected()) {
+                        watchProject(reader);
+                    } else {
+                        System.err.println(ColorHelper.error("Erreur: Aucun projet sélectionné."));
+                    }
+                    break;
+
+                case "6":
+                    if (isProjectSelected()) {
+                        exportCallGraph(reader);
+                    } else {
+                        System.err.println(ColorHelper.error("Erreur: Aucun projet sélectionné."));
+                    }
+                    break;
+
+                case "7":
+                    if (isProjectSelected()) {
+                        rankClasses(reader);
+                    } else {
+                        System.err.println(ColorHelper.error("Erreur: Aucun projet sélectionné."));
+                    }
+                    break;
+
+                case "8":
+                    if (isProjectSelected()) {
+                        exportMetrics();
+                    } else {
+                        System.err.println(ColorHelper.error("Erreur: Aucun projet sélectionné."));
+                    }
+                    break;
+
+                case "9":
+                    if (isProjectSelected()) {
+                        queryCallGraph(reader);
                     } else {
                         System.err.println(ColorHelper.error("Erreur: Aucun projet sélectionné."));
                     }
@@ -94,6 +179,188 @@ public class ASTServiceCLI extends AbstractMain {
     }
 
 
+    // Compare l'index incrémental à une analyse complète du projet
+    private void verifyIndex() throws IOException {
+        List<String> mismatches = cache().verifyAgainstRebuild();
+        if (mismatches.isEmpty()) {
+            System.out.println("[⚫] Index incrémental conforme à la reconstruction complète");
+        } else {
+            System.err.println(ColorHelper.error("Erreur: " + mismatches.size() + " fichier(s) diffèrent de la reconstruction complète"));
+            for (String path : mismatches) {
+                System.err.println("    " + path);
+            }
+        }
+    }
+
+    // Surveille le projet jusqu'à ce que l'utilisateur appuie sur Entrée
+    private void watchProject(BufferedReader reader) throws IOException {
+        LiveProjectView view = new LiveProjectView(cache().facts());
+        try (ProjectWatcher watcher = new ProjectWatcher(factCache, view).start()) {
+            System.out.println(ColorHelper.warning("Surveillance de " + PROJECT_PATH + " (Entrée pour arrêter)"));
+            reader.readLine();
+        }
+    }
+
+    // Export en flux du graphe d'appel, complet ou partitionné
+    private void exportCallGraph(BufferedReader reader) throws IOException {
+        System.out.println(ColorHelper.info("Format : 1. DOT  2. GraphML  3. Binaire (.cgel)"));
+        String choice = reader.readLine();
+        ExportFormat format = "2".equals(choice) ? ExportFormat.GRAPHML : "3".equals(choice) ? ExportFormat.BINARY : ExportFormat.DOT;
+
+        System.out.println(ColorHelper.info("Partitionner : 0. Non  1. Par paquetage  2. Par classe"));
+        choice = reader.readLine();
+
+        System.out.println(ColorHelper.info("Compresser en gzip ? (o/n)"));
+        boolean gzip = "o".equalsIgnoreCase(reader.readLine());
+
+        CallGraph graph = graph();
+        Path output;
+        if ("1".equals(choice) || "2".equals(choice)) {
+            GraphExport.Partition partition = "1".equals(choice) ? GraphExport.Partition.PACKAGE : GraphExport.Partition.CLASS;
+            output = GraphExport.exportPartitioned(graph, format, Paths.get(EXPORT_DIRECTORY, "partitions"), partition, gzip);
+        } else {
+            String name = "callgraph." + format.getExtension() + (gzip ? ".gz" : "");
+            output = GraphExport.export(graph, format, Paths.get(EXPORT_DIRECTORY, name), gzip);
+        }
+        System.out.println("\n Graphe d'appel exporté: " + ColorHelper.info(output.toString()));
+    }
+
+    // Top % des classes selon deux métriques et classes présentes dans les deux classements
+    private void rankClasses(BufferedReader reader) throws IOException {
+        ClassMetric first = readMetric(reader);
+        ClassMetric second = readMetric(reader);
+        System.out.println(ColorHelper.info("Pourcentage de classes à garder :"));
+        int percent = inputProcessor.process();
+
+        RankingEngine engine = RankingEngine.fromTable(metricsTable());
+        long start = System.nanoTime();
+        BitSet topFirst = engine.topPercent(first, percent);
+        BitSet topSecond = engine.topPercent(second, percent);
+        BitSet both = RankingEngine.and(topFirst, topSecond);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println();
+        Parser.printClasses("[⚫] " + percent + "% de classes avec le plus de " + first.getLabel() + ": ", engine.names(topFirst, first));
+        Parser.printClasses("[⚫] " + percent + "% de classes avec le plus de " + second.getLabel() + ": ", engine.names(topSecond, second));
+        Parser.printClasses("[⚫] Classes qui sont dans les deux catégories: ", engine.names(both, first));
+        System.out.println("[⚫] " + engine.size() + " classes classées en " + ColorHelper.info(String.format("%.2f ms", elapsed / 1e6)) + "\n");
+    }
+
+    // Table de métriques en CSV (classes, méthodes) et en fichier binaire colonne par colonne
+    private void exportMetrics() throws IOException {
+        MetricsTable table = metricsTable();
+        Path directory = Paths.get(METRICS_DIRECTORY);
+        MetricsExport.exportCsv(table, directory);
+        Path binary = MetricsExport.exportBinary(table, directory.resolve("metrics.colm"));
+        System.out.println("\n Métriques exportées: " + ColorHelper.info(directory.resolve("classes.csv") + ", "
+                + directory.resolve("methods.csv") + ", " + binary));
+        System.out.println("[⚫] " + table.classRows() + " classes, " + table.methodRows() + " méthodes\n");
+    }
+
+    // Index construit une fois à l'entrée du sous-menu, chaque requête y répond ensuite directement
+    private void queryCallGraph(BufferedReader reader) throws IOException {
+        CallGraphIndex index = CallGraphIndex.build(graph());
+        System.out.println("[⚫] Index construit en " + ColorHelper.info(String.format("%.2f ms", index.getBuildNanos() / 1e6))
+                + " (" + index.getGraph().nodeCount() + " méthodes, " + index.componentCount() + " composantes)");
+
+        String choice;
+        do {
+            System.out.println(ColorHelper.info("1. Cycles de récursion  2. Fan-in / fan-out  3. Atteignabilité  4. Plus court chemin  5. Méthodes atteignables  0. Retour"));
+            choice = reader.readLine();
+            if (choice == null) {
+                return;
+            }
+            long start = System.nanoTime();
+            switch (choice) {
+                case "1":
+                    List<int[]> cycles = index.recursionCycles();
+                    System.out.println("[⚫] " + cycles.size() + " cycle(s) de récursion");
+                    for (int[] cycle : cycles.subList(0, Math.min(20, cycles.size()))) {
+                        System.out.println("    " + String.join(" <-> ", index.names(cycle)));
+                    }
+                    break;
+                case "2":
+                    System.out.println("[⚫] Méthodes les plus appelées (fan-in) :");
+                    for (int node : index.topFanIn(10)) {
+                        System.out.println("    " + index.fanIn(node) + "\t" + index.name(node));
+                    }
+                    System.out.println("[⚫] Méthodes qui appellent le plus (fan-out) :");
+                    for (int node : index.topFanOut(10)) {
+                        System.out.println("    " + index.fanOut(node) + "\t" + index.name(node));
+                    }
+                    break;
+                case "3":
+                case "4": {
+                    int from = readMethod(reader, index, "Méthode de départ :");
+                    int to = from < 0 ? -1 : readMethod(reader, index, "Méthode d'arrivée :");
+                    if (to < 0) {
+                        break;
+                    }
+                    start = System.nanoTime();
+                    if ("3".equals(choice)) {
+                        System.out.println("[⚫] " + index.name(from) + (index.reaches(from, to) ? " atteint " : " n'atteint pas ") + index.name(to));
+                    } else {
+                        int[] path = index.shortestPath(from, to);
+                        System.out.println(path.length == 0 ? "[⚫] Aucun chemin d'appel" : "[⚫] " + String.join(" -> ", index.names(path)));
+                    }
+                    break;
+                }
+                case "5": {
+                    int from = readMethod(reader, index, "Méthode de départ :");
+                    if (from < 0) {
+                        break;
+                    }
+                    start = System.nanoTime();
+                    BitSet reachable = index.reachableFrom(from);
+                    System.out.println("[⚫] " + reachable.cardinality() + " méthode(s) atteignable(s) depuis " + index.name(from));
+                    int shown = 0;
+                    for (int node = reachable.nextSetBit(0); node >= 0 && shown++ < 20; node = reachable.nextSetBit(node + 1)) {
+                        System.out.println("    " + index.name(node));
+                    }
+                    break;
+                }
+                default:
+                    continue;
+            }
+            System.out.println("[⚫] Réponse en " + ColorHelper.info(String.format("%.3f ms", (System.nanoTime() - start) / 1e6)) + "\n");
+        } while (!QUIT.equals(choice));
+    }
+
+    // Clé exacte ou fragment de clé ; en cas de plusieurs correspondances, l'utilisateur choisit
+    private int readMethod(BufferedReader reader, CallGraphIndex index, String prompt) throws IOException {
+        System.out.println(ColorHelper.info(prompt));
+        List<Integer> matches = index.resolve(reader.readLine().trim());
+        if (matches.isEmpty()) {
+            System.err.println(ColorHelper.error("Erreur: Aucune méthode ne correspond."));
+            return -1;
+        }
+        if (matches.size() == 1) {
+            return matches.get(0);
+        }
+        int shown = Math.min(20, matches.size());
+        for (int i = 0; i < shown; i++) {
+            System.out.println("    " + (i + 1) + ". " + index.name(matches.get(i)));
+        }
+        int choice = inputProcessor.process();
+        return choice >= 1 && choice <= shown ? matches.get(choice - 1) : -1;
+    }
+
+    private ClassMetric readMetric(BufferedReader reader) throws IOException {
+        ClassMetric[] metrics = ClassMetric.values();
+        StringBuilder choices = new StringBuilder("Métrique :");
+        for (int i = 0; i < metrics.length; i++) {
+            choices.append("  ").append(i + 1).append(". ").append(metrics[i].getLabel());
+        }
+        System.out.println(ColorHelper.info(choices.toString()));
+        String choice = reader.readLine();
+        for (int i = 0; i < metrics.length; i++) {
+            if (String.valueOf(i + 1).equals(choice)) {
+                return metrics[i];
+            }
+        }
+        return ClassMetric.METHODS;
+    }
+
     // Méthode pour sélectionner le projet
     private void selectProject(BufferedReader reader) throws IOException {
         System.out.println("");
@@ -115,7 +382,77 @@ public class ASTServiceCLI extends AbstractMain {
         if (projectPath != null) {
             PROJECT_PATH = projectPath;
             System.out.println(ColorHelper.warning("Chemin du projet Java validé : " + PROJECT_PATH));
+            if (ClasspathResolver.enabled) {
+                System.out.println(ColorHelper.info("Classpath : " + ClasspathResolver.resolve(PROJECT_PATH).summary()));
+            }
+
+            factCache = null;
+            snapshot = null;
+            if (!openSnapshot()) {
+                // Analyse unique du projet, les options du menu répondent ensuite depuis le cache
+                saveSnapshot(cache().facts());
+            }
+        }
+    }
+
+    // Instantané encore valide : ouvert sans reparser ni relire l'index des faits
+    private boolean openSnapshot() {
+        Path path = Snapshot.forProject(PROJECT_PATH);
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+        long start = System.nanoTime();
+        try {
+            Snapshot opened = Snapshot.open(path);
+            if (!opened.isFresh(Parser.getJavaFilesForFolder(new File(PROJECT_PATH)))) {
+                System.out.println(ColorHelper.warning("Instantané périmé, le projet a changé : nouvelle analyse"));
+                return false;
+            }
+            snapshot = opened;
+            System.out.println("[⚫] Instantané du " + new Date(opened.getCreatedAt()) + " ouvert en "
+                    + ColorHelper.info(String.format("%.1f ms", (System.nanoTime() - start) / 1e6))
+                    + " (" + opened.fileCount() + " fichiers, " + opened.classCount() + " classes, " + opened.edgeCount() + " arcs)");
+            return true;
+        } catch (IOException e) {
+            System.err.println(ColorHelper.error("Erreur: instantané illisible (" + e.getMessage() + ") : nouvelle analyse"));
+            return false;
+        }
+    }
+
+    private void saveSnapshot(List<FileFacts> facts) {
+        try {
+            Path path = SnapshotWriter.write(Snapshot.forProject(PROJECT_PATH), PROJECT_PATH, facts);
+            System.out.println("[⚫] Instantané enregistré : " + ColorHelper.info(path.toString()));
+        } catch (IOException e) {
+            System.err.println(ColorHelper.error("Erreur: instantané non enregistré (" + e.getMessage() + ")"));
+        }
+    }
+
+    // Cache des faits, créé à la première option qui doit relire les sources ; il remplace alors l'instantané
+    private FactCache cache() throws IOException {
+        if (factCache == null) {
+            factCache = new FactCache(PROJECT_PATH, Parser.threads, FactIndex.forProject(PROJECT_PATH).load());
+            snapshot = null;
+        }
+        return factCache;
+    }
+
+    private MetricsTable metricsTable() throws IOException {
+        return snapshot != null ? snapshot.metricsTable() : cache().metricsTable();
+    }
+
+    private CallGraph graph() throws IOException {
+        return snapshot != null ? snapshot.graph() : cache().graph();
+    }
+
+    // Depuis un instantané, les agrégats sont lus dans son en-tête sans reconstruire la table
+    private void displayStatistics() throws IOException {
+        if (snapshot == null) {
+            Parser.displayStatistics(cache().metricsTable());
+            return;
         }
+        Parser.displayStatistics(snapshot.classCount(), snapshot.amountLines(), snapshot.methodCount(), snapshot.packages(),
+                snapshot.amountLinesByMethods(), snapshot.amountAttributs(), snapshot.quantiles());
     }
 
     // Ouvrir l'explorateur de fichiers pour sélectionner un répertoire
@@ -0,0 +1,49 @@
+package facts;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+// Empreinte du contenu d'un fichier, calculée comme un identifiant de blob git (SHA-1 de "blob <taille>\0" + contenu)
+public class ContentHash {
+	public static final int LENGTH = 20;
+
+	public static byte[] of(File file) throws IOException {
+		return of(Files.readAllBytes(file.toPath()));
+	}
+
+	public static byte[] of(byte[] content) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			digest.update(("blob " + content.length + "\0").getBytes(StandardCharsets.US_ASCII));
+			return digest.digest(content);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	public static boolean same(byte[] a, byte[] b) {
+		return Arrays.equals(a, b);
+	}
+
+	// Inverse de toHex (identifiants d'objets git par exemple)
+	public static byte[] fromHex(String hex) {
+		byte[] hash = new byte[hex.length() / 2];
+		for (int i = 0; i < hash.length; i++) {
+			hash[i] = (byte) ((Character.digit(hex.charAt(2 * i), 16) << 4) | Character.digit(hex.charAt(2 * i + 1), 16));
+		}
+		return hash;
+	}
+
+	public static String toHex(byte[] hash) {
+		StringBuilder builder = new StringBuilder(hash.length * 2);
+		for (byte b : hash) {
+			builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return builder.toString();
+	}
+}
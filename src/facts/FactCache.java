@@ -0,0 +1,298 @@
+package facts;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import callGraph.CallGraph;
+import callGraph.SymbolTable;
+import metrics.MetricsTable;
+import parser.AnalysisEnvironment;
+import parser.AnalysisProfile;
+import parser.ParallelAnalyzer;
+import parser.Parser;
+import parser.ProjectMetrics;
+
+// Cache des faits d'un projet, construit à la sélection du projet et partagé par toutes les options du menu.
+// Une entrée est invalidée quand la date de modification du fichier change. Pas de limite d'entrées :
+// facts() rend de toute façon les faits de chaque fichier, une éviction ne ferait que forcer une relecture.
+//
+// Les noms sont internés dans une SymbolTable propre au cache (celle de l'index s'il y en a un), jamais dans
+// SymbolTable.shared() : en mode surveillance, chaque modification ajoute des noms que plus aucun fichier ne porte
+// ensuite. Quand la table a doublé depuis le dernier compactage, les faits vivants sont réinternés dans une table
+// neuve ; les listes déjà rendues gardent l'ancienne table, libérée avec elles.
+public class FactCache {
+	static final int COMPACT_MIN_SYMBOLS = 1 << 14;
+
+	private final String projectPath;
+	private final int threads;
+	private final Map<String, FileFacts> entries = new HashMap<String, FileFacts>();
+
+	// Ordre des fichiers lors du dernier calcul complet, complété par les fichiers créés ensuite
+	private final Set<String> order = new LinkedHashSet<String>();
+
+	// Index persistant optionnel : évite de reparser d'une exécution à l'autre
+	private final FactIndex index;
+
+	private SymbolTable symbols;
+	// Noms dans la table juste après le dernier compactage (ou la lecture de l'index)
+	private int compactedSymbols;
+
+	// Incrémentée à chaque résultat de facts() ou update() : ordonne les publications de plusieurs appelants
+	private long generation;
+
+	public FactCache(String projectPath, int threads) {
+		this(projectPath, threads, null);
+	}
+
+	public FactCache(String projectPath, int threads, FactIndex index) {
+		this.projectPath = projectPath;
+		this.threads = threads;
+		this.index = index;
+		this.symbols = index != null ? index.getSymbols() : new SymbolTable();
+		this.compactedSymbols = symbols.size();
+	}
+
+	// Faits de tous les fichiers du projet, dans l'ordre de getJavaFilesForFolder.
+	// Seuls les fichiers nouveaux ou dont le contenu a changé sont reparsés : un fichier
+	// touché sans modification est reconnu par son empreinte.
+	public synchronized List<FileFacts> facts() throws IOException {
+		List<File> javaFiles = Parser.getJavaFilesForFolder(new File(projectPath));
+		FileFacts[] result = new FileFacts[javaFiles.size()];
+		long[] lastModified = new long[javaFiles.size()];
+		byte[][] hashes = new byte[javaFiles.size()][];
+
+		List<File> stale = new ArrayList<File>();
+		Map<String, Integer> staleIndexes = new HashMap<String, Integer>();
+		Set<String> present = new HashSet<String>();
+		for (int i = 0; i < result.length; i++) {
+			File file = javaFiles.get(i);
+			String path = file.getAbsolutePath();
+			present.add(path);
+			lastModified[i] = file.lastModified();
+
+			FileFacts known = entries.get(path);
+			if (known == null && index != null) {
+				known = index.get(path);
+			}
+
+			if (known != null && known.getLastModified() == lastModified[i]) {
+				result[i] = known;
+			} else {
+				hashes[i] = ContentHash.of(file);
+				if (known != null && ContentHash.same(known.getContentHash(), hashes[i])) {
+					result[i] = known.withLastModified(lastModified[i]);
+				} else {
+					staleIndexes.put(path, i);
+					stale.add(file);
+					continue;
+				}
+			}
+			remember(result[i]);
+		}
+
+		// Les fichiers supprimés disparaissent du cache et de l'index
+		entries.keySet().retainAll(present);
+		if (index != null) {
+			index.retainAll(present);
+		}
+
+		if (!stale.isEmpty()) {
+			parse(stale, staleIndexes, lastModified, hashes, result);
+			for (int i : staleIndexes.values()) {
+				remember(result[i]);
+			}
+		}
+
+		if (index != null) {
+			index.save();
+		}
+
+		compactIfGrown();
+		List<FileFacts> facts = new ArrayList<FileFacts>(result.length);
+		order.clear();
+		for (FileFacts fileFacts : result) {
+			facts.add(entries.get(fileFacts.getPath()));
+			order.add(fileFacts.getPath());
+		}
+		generation++;
+		return facts;
+	}
+
+	// Mise à jour ciblée : seuls les fichiers indiqués sont relus, sans reparcourir l'arborescence.
+	// Si une entrée manque (cache invalidé entre-temps) on retombe sur facts().
+	public synchronized List<FileFacts> update(Collection<File> changed) throws IOException {
+		if (order.isEmpty()) {
+			return facts();
+		}
+
+		List<File> stale = new ArrayList<File>();
+		Map<String, Integer> staleIndexes = new HashMap<String, Integer>();
+		List<Long> staleModified = new ArrayList<Long>();
+		List<byte[]> staleHashes = new ArrayList<byte[]>();
+		for (File file : changed) {
+			String path = file.getAbsolutePath();
+			if (!file.isFile()) {
+				order.remove(path);
+				entries.remove(path);
+				if (index != null) {
+					index.remove(path);
+				}
+				continue;
+			}
+
+			FileFacts known = entries.get(path);
+			byte[] hash = ContentHash.of(file);
+			if (known != null && ContentHash.same(known.getContentHash(), hash)) {
+				remember(known.withLastModified(file.lastModified()));
+				continue;
+			}
+			order.add(path);
+			staleIndexes.put(path, stale.size());
+			stale.add(file);
+			staleModified.add(file.lastModified());
+			staleHashes.add(hash);
+		}
+
+		if (!stale.isEmpty()) {
+			long[] lastModified = new long[stale.size()];
+			for (int i = 0; i < lastModified.length; i++) {
+				lastModified[i] = staleModified.get(i);
+			}
+			FileFacts[] result = new FileFacts[stale.size()];
+			parse(stale, staleIndexes, lastModified, staleHashes.toArray(new byte[0][]), result);
+			for (FileFacts fileFacts : result) {
+				remember(fileFacts);
+			}
+		}
+
+		if (index != null) {
+			index.save();
+		}
+
+		compactIfGrown();
+		List<FileFacts> facts = new ArrayList<FileFacts>(order.size());
+		for (String path : order) {
+			FileFacts fileFacts = entries.get(path);
+			if (fileFacts == null) {
+				return facts();
+			}
+			facts.add(fileFacts);
+		}
+		generation++;
+		return facts;
+	}
+
+	private void remember(FileFacts facts) {
+		entries.put(facts.getPath(), facts);
+		if (index != null) {
+			index.put(facts);
+		}
+	}
+
+	// Réinterne les faits du cache et de l'index dans une table neuve quand l'ancienne a doublé
+	private void compactIfGrown() {
+		if (symbols.size() <= 2 * Math.max(compactedSymbols, COMPACT_MIN_SYMBOLS)) {
+			return;
+		}
+		SymbolTable target = new SymbolTable();
+		// Un même FileFacts est souvent à la fois dans entries et dans l'index : une seule copie
+		IdentityHashMap<FileFacts, FileFacts> rebound = new IdentityHashMap<FileFacts, FileFacts>();
+		entries.replaceAll((path, facts) -> rebound.computeIfAbsent(facts, known -> known.rebind(target)));
+		if (index != null) {
+			index.rebind(target, facts -> rebound.computeIfAbsent(facts, known -> known.rebind(target)));
+		}
+		symbols = target;
+		compactedSymbols = target.size();
+	}
+
+	private void parse(List<File> stale, Map<String, Integer> staleIndexes, long[] lastModified, byte[][] hashes, FileFacts[] result) throws IOException {
+		AnalysisEnvironment environment = AnalysisEnvironment.forProfile(projectPath, AnalysisProfile.FACTS);
+		if (threads <= 1) {
+			Parser.parseAll(environment, stale, (path, parse) -> {
+				int i = staleIndexes.get(new File(path).getAbsolutePath());
+				result[i] = FileFacts.extract(symbols, path, lastModified[i], hashes[i], parse);
+			});
+		} else {
+			new ParallelAnalyzer(environment, threads).analyze(stale, (staleIndex, parse) -> {
+				String path = stale.get(staleIndex).getAbsolutePath();
+				int i = staleIndexes.get(path);
+				result[i] = FileFacts.extract(symbols, path, lastModified[i], hashes[i], parse);
+			});
+		}
+	}
+
+	// Compare les faits issus du cache et de l'index à une reconstruction complète du projet.
+	// Retourne les chemins des fichiers dont les faits diffèrent (liste vide si l'index est sain).
+	public List<String> verifyAgainstRebuild() throws IOException {
+		List<FileFacts> incremental = facts();
+		List<FileFacts> rebuilt = new FactCache(projectPath, threads).facts();
+
+		List<String> mismatches = new ArrayList<String>();
+		for (int i = 0; i < Math.max(incremental.size(), rebuilt.size()); i++) {
+			if (i >= incremental.size() || i >= rebuilt.size() || !incremental.get(i).sameFacts(rebuilt.get(i))) {
+				mismatches.add(i < rebuilt.size() ? rebuilt.get(i).getPath() : incremental.get(i).getPath());
+			}
+		}
+		return mismatches;
+	}
+
+	public ProjectMetrics projectMetrics() throws IOException {
+		ProjectMetrics projectMetrics = new ProjectMetrics();
+		for (FileFacts fileFacts : facts()) {
+			projectMetrics.add(fileFacts.toMetrics());
+		}
+		return projectMetrics;
+	}
+
+	public MetricsTable metricsTable() throws IOException {
+		return MetricsTable.fromFacts(facts());
+	}
+
+	public CallGraph graph() throws IOException {
+		return FileFacts.graph(facts());
+	}
+
+	// Fichiers connus sous un répertoire (supprimé ou renommé : il n'existe plus pour le parcourir)
+	public synchronized List<File> pathsUnder(File directory) {
+		String prefix = directory.getAbsolutePath() + File.separator;
+		List<File> files = new ArrayList<File>();
+		for (String path : order) {
+			if (path.startsWith(prefix)) {
+				files.add(new File(path));
+			}
+		}
+		return files;
+	}
+
+	// Génération du dernier résultat : à lire dans un bloc synchronized (cache) avec l'appel
+	// à facts() ou update(), pour qu'elle corresponde bien à la liste obtenue
+	public synchronized long generation() {
+		return generation;
+	}
+
+	public synchronized void invalidate() {
+		entries.clear();
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	// Table des faits rendus par le prochain facts() ou update()
+	public synchronized SymbolTable getSymbols() {
+		return symbols;
+	}
+
+	public String getProjectPath() {
+		return projectPath;
+	}
+}
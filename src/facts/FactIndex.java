@@ -0,0 +1,126 @@
+package facts;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+import callGraph.SymbolTable;
+
+// Index persistant des faits par fichier (chemin + empreinte du contenu), relu au lancement suivant
+// pour ne reparser que les fichiers ajoutés ou modifiés.
+//
+// Les faits relus ont leur propre SymbolTable, reprise par le FactCache qui utilise l'index.
+//
+// Format : "ASTI" | version (int) | nombre d'entrées (int) | entrées FactsCodec
+public class FactIndex {
+	public static final int VERSION = 7;
+	private static final int MAGIC = 0x41535449; // "ASTI"
+
+	private final File file;
+	private final Map<String, FileFacts> entries = new HashMap<String, FileFacts>();
+	private SymbolTable symbols = new SymbolTable();
+	private boolean dirty = false;
+
+	public FactIndex(File file) {
+		this.file = file;
+	}
+
+	// Un index par projet, rangé à côté des graphes générés
+	public static FactIndex forProject(String projectPath) {
+		String name = ContentHash.toHex(ContentHash.of(new File(projectPath).getAbsolutePath().getBytes(StandardCharsets.UTF_8)));
+		return new FactIndex(new File("resources/index/" + name + ".idx"));
+	}
+
+	// Charge l'index par mapping mémoire ; un index absent, corrompu ou d'une autre version est ignoré
+	public synchronized FactIndex load() {
+		entries.clear();
+		symbols = new SymbolTable();
+		if (!file.isFile()) {
+			return this;
+		}
+
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (in.remaining() < 12 || in.getInt() != MAGIC || in.getInt() != VERSION) {
+				return this;
+			}
+			int count = in.getInt();
+			for (int i = 0; i < count; i++) {
+				FileFacts facts = FactsCodec.read(in, symbols);
+				entries.put(facts.getPath(), facts);
+			}
+		} catch (IOException | RuntimeException e) {
+			entries.clear();
+		}
+		dirty = false;
+		return this;
+	}
+
+	public synchronized FileFacts get(String path) {
+		return entries.get(path);
+	}
+
+	public synchronized void put(FileFacts facts) {
+		FileFacts previous = entries.put(facts.getPath(), facts);
+		dirty |= previous != facts;
+	}
+
+	public synchronized void remove(String path) {
+		dirty |= entries.remove(path) != null;
+	}
+
+	public synchronized void retainAll(Set<String> paths) {
+		dirty |= entries.keySet().retainAll(paths);
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	// Table des faits relus par load()
+	public synchronized SymbolTable getSymbols() {
+		return symbols;
+	}
+
+	// Compactage du FactCache : chaque entrée est remplacée par ses faits réinternés dans target.
+	// Le contenu ne change pas, l'index n'a pas à être réécrit.
+	public synchronized void rebind(SymbolTable target, UnaryOperator<FileFacts> rebound) {
+		entries.replaceAll((path, facts) -> rebound.apply(facts));
+		symbols = target;
+	}
+
+	// Réécrit l'index dans un fichier temporaire puis le remplace
+	public synchronized void save() throws IOException {
+		if (!dirty) {
+			return;
+		}
+		file.getParentFile().mkdirs();
+		File tmp = new File(file.getPath() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp), 1 << 16))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(entries.size());
+			for (FileFacts facts : entries.values()) {
+				FactsCodec.write(out, facts);
+			}
+		}
+		Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		dirty = false;
+	}
+
+	public File getFile() {
+		return file;
+	}
+}
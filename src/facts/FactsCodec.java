@@ -0,0 +1,108 @@
+package facts;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import callGraph.SymbolTable;
+
+// Encodage binaire compact des FileFacts (pas de sérialisation Java) : entiers bruts et chaînes UTF-8 préfixées
+public class FactsCodec {
+
+	public static void write(DataOutputStream out, FileFacts facts) throws IOException {
+		writeString(out, facts.path);
+		out.writeLong(facts.lastModified);
+		out.write(facts.contentHash);
+		out.writeInt(facts.amountLines);
+		out.writeInt(facts.amountAttributs);
+		writeSymbols(out, facts.symbols, facts.packages);
+		writeSymbols(out, facts.symbols, facts.typeNames);
+		writeInts(out, facts.typeMethods);
+		writeInts(out, facts.typeFields);
+		writeInts(out, facts.typeLines);
+		writeInts(out, facts.typeParams);
+		writeSymbols(out, facts.symbols, facts.methodNames);
+		writeInts(out, facts.methodParams);
+		writeInts(out, facts.methodLines);
+		writeInts(out, facts.methodTypes);
+		writeInts(out, facts.methodComplexity);
+		writeInts(out, facts.methodNesting);
+		writeInts(out, facts.methodStatements);
+		writeInts(out, facts.methodInvocations);
+		writeSymbols(out, facts.symbols, facts.callers);
+		writeSymbols(out, facts.symbols, facts.callees);
+	}
+
+	// Noms internés dans symbols, la table de l'index ou du cache qui relit les faits
+	public static FileFacts read(ByteBuffer in, SymbolTable symbols) {
+		String path = readString(in);
+		long lastModified = in.getLong();
+		byte[] contentHash = new byte[ContentHash.LENGTH];
+		in.get(contentHash);
+
+		FileFacts facts = new FileFacts(symbols, path, lastModified, contentHash);
+		facts.amountLines = in.getInt();
+		facts.amountAttributs = in.getInt();
+		facts.packages = readSymbols(in, symbols);
+		facts.typeNames = readSymbols(in, symbols);
+		facts.typeMethods = readInts(in);
+		facts.typeFields = readInts(in);
+		facts.typeLines = readInts(in);
+		facts.typeParams = readInts(in);
+		facts.methodNames = readSymbols(in, symbols);
+		facts.methodParams = readInts(in);
+		facts.methodLines = readInts(in);
+		facts.methodTypes = readInts(in);
+		facts.methodComplexity = readInts(in);
+		facts.methodNesting = readInts(in);
+		facts.methodStatements = readInts(in);
+		facts.methodInvocations = readInts(in);
+		facts.callers = readSymbols(in, symbols);
+		facts.callees = readSymbols(in, symbols);
+		return facts;
+	}
+
+	static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	static String readString(ByteBuffer in) {
+		byte[] bytes = new byte[in.getInt()];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	// Noms internés : écrits comme des chaînes (les identifiants ne valent que pour ce processus),
+	// relus directement en symboles sans créer de String
+	static void writeSymbols(DataOutputStream out, SymbolTable symbols, int[] ids) throws IOException {
+		out.writeInt(ids.length);
+		for (int id : ids) {
+			symbols.write(out, id);
+		}
+	}
+
+	static int[] readSymbols(ByteBuffer in, SymbolTable symbols) {
+		int[] ids = new int[in.getInt()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = symbols.intern(in, in.getInt());
+		}
+		return ids;
+	}
+
+	static void writeInts(DataOutputStream out, int[] values) throws IOException {
+		out.writeInt(values.length);
+		for (int value : values) {
+			out.writeInt(value);
+		}
+	}
+
+	static int[] readInts(ByteBuffer in) {
+		int[] values = new int[in.getInt()];
+		in.asIntBuffer().get(values);
+		in.position(in.position() + values.length * Integer.BYTES);
+		return values;
+	}
+}
@@ -0,0 +1,115 @@
+package facts;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.MethodInvocation;
+import org.eclipse.jdt.core.dom.SuperMethodInvocation;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+
+import callGraph.SymbolTable;
+import visitor.FileMetrics;
+import visitor.MetricsCollector;
+import visitor.collector.CallEdgeCollector;
+
+// Collecteur qui relève types, méthodes et invocations pendant le parcours de MetricsVisitor
+public class FactsCollector implements MetricsCollector {
+	CompilationUnit unit;
+	List<String> typeNames = new ArrayList<String>();
+	List<Integer> typeMethods = new ArrayList<Integer>();
+	List<Integer> typeFields = new ArrayList<Integer>();
+	List<Integer> typeLines = new ArrayList<Integer>();
+	List<Integer> typeParams = new ArrayList<Integer>();
+	List<String> methodNames = new ArrayList<String>();
+	List<Integer> methodParams = new ArrayList<Integer>();
+	List<Integer> methodLines = new ArrayList<Integer>();
+	List<Integer> methodTypes = new ArrayList<Integer>();
+
+	// Indice de chaque type déclaré, pour rattacher les méthodes à leur classe
+	IdentityHashMap<TypeDeclaration, Integer> typeIndexes = new IdentityHashMap<TypeDeclaration, Integer>();
+
+	// Table où sont internés les noms, celle des FileFacts remplis
+	final SymbolTable symbols;
+
+	// Arcs du graphe d'appel relevés pendant le même parcours
+	final CallEdgeCollector edges;
+
+	FactsCollector(SymbolTable symbols) {
+		this.symbols = symbols;
+		this.edges = new CallEdgeCollector(symbols);
+	}
+
+	@Override
+	public void startUnit(CompilationUnit unit, FileMetrics metrics) {
+		this.unit = unit;
+	}
+
+	@Override
+	public void visitType(TypeDeclaration node, FileMetrics metrics) {
+		typeIndexes.put(node, typeNames.size());
+		typeNames.add(String.valueOf(node.getName()));
+		typeMethods.add(node.getMethods().length);
+		typeFields.add(node.getFields().length);
+
+		int start = node.getStartPosition();
+		typeLines.add(unit.getLineNumber(start + node.getLength()) - unit.getLineNumber(start) + 1);
+		int params = 0;
+		for (MethodDeclaration method : node.getMethods()) {
+			params += method.parameters().size();
+		}
+		typeParams.add(params);
+	}
+
+	@Override
+	public void visitMethod(MethodDeclaration node, FileMetrics metrics) {
+		int start = node.getStartPosition();
+		int end = start + node.getLength();
+		methodNames.add(node.getName().toString());
+		methodParams.add(node.parameters().size());
+		methodLines.add(unit.getLineNumber(end) - unit.getLineNumber(start));
+		// -1 pour les méthodes de classes anonymes ou d'enums
+		methodTypes.add(typeIndexes.getOrDefault(node.getParent(), -1));
+		edges.visitMethod(node, metrics);
+	}
+
+	@Override
+	public void endVisitMethod(MethodDeclaration node, FileMetrics metrics) {
+		edges.endVisitMethod(node, metrics);
+	}
+
+	@Override
+	public void visitInvocation(MethodInvocation node, FileMetrics metrics) {
+		edges.visitInvocation(node, metrics);
+	}
+
+	@Override
+	public void visitSuperInvocation(SuperMethodInvocation node, FileMetrics metrics) {
+		edges.visitSuperInvocation(node, metrics);
+	}
+
+	void fill(FileFacts facts) {
+		facts.typeNames = symbols.intern(typeNames);
+		facts.typeMethods = toArray(typeMethods);
+		facts.typeFields = toArray(typeFields);
+		facts.typeLines = toArray(typeLines);
+		facts.typeParams = toArray(typeParams);
+		facts.methodNames = symbols.intern(methodNames);
+		facts.methodParams = toArray(methodParams);
+		facts.methodLines = toArray(methodLines);
+		facts.methodTypes = toArray(methodTypes);
+
+		facts.callers = edges.getCallers();
+		facts.callees = edges.getCallees();
+	}
+
+	static int[] toArray(List<Integer> values) {
+		int[] result = new int[values.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = values.get(i);
+		}
+		return result;
+	}
+}
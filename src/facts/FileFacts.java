@@ -0,0 +1,318 @@
+package facts;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+import callGraph.CallGraph;
+import callGraph.CallGraphBuilder;
+import callGraph.SymbolTable;
+import visitor.FileMetrics;
+import visitor.MethodMetric;
+import visitor.MetricsVisitor;
+
+// Faits compacts extraits d'un fichier : suffisent pour les statistiques et le graphe d'appel sans garder l'AST.
+// Les noms sont des symboles d'une SymbolTable désignée par les faits eux-mêmes : celle du FactCache ou du projet
+// qui les a produits, SymbolTable.shared() pour les analyses ponctuelles. Une liste de faits n'en mélange jamais deux.
+public class FileFacts {
+	final SymbolTable symbols;
+	final String path;
+	final long lastModified;
+	final byte[] contentHash;
+
+	// Valeurs "fichier" reprises telles quelles de FileMetrics
+	// Tous les noms (paquetages, types, méthodes, clés d'appel) sont des symboles de symbols
+	int amountLines;
+	int amountAttributs;
+	int[] packages;
+
+	// Types déclarés : nom, nombre de méthodes, d'attributs, de lignes et de paramètres (toutes méthodes)
+	int[] typeNames;
+	int[] typeMethods;
+	int[] typeFields;
+	int[] typeLines;
+	int[] typeParams;
+
+	// Méthodes déclarées : nom, nombre de paramètres, nombre de lignes, indice du type déclarant (-1 si aucun)
+	int[] methodNames;
+	int[] methodParams;
+	int[] methodLines;
+	int[] methodTypes;
+	// Même ordre : complexité cyclomatique, profondeur d'imbrication, instructions, invocations (ComplexityCollector)
+	int[] methodComplexity;
+	int[] methodNesting;
+	int[] methodStatements;
+	int[] methodInvocations;
+
+	// Invocations : appelant[i] -> appelé[i], clés complètes issues des bindings (MethodKeys)
+	int[] callers;
+	int[] callees;
+
+	FileFacts(SymbolTable symbols, String path, long lastModified, byte[] contentHash) {
+		this.symbols = symbols;
+		this.path = path;
+		this.lastModified = lastModified;
+		this.contentHash = contentHash;
+	}
+
+	// Un seul parcours de l'unité pour les métriques et les faits
+	public static FileFacts extract(String path, long lastModified, byte[] contentHash, CompilationUnit unit) {
+		return extract(SymbolTable.shared(), path, lastModified, contentHash, unit);
+	}
+
+	public static FileFacts extract(SymbolTable symbols, String path, long lastModified, byte[] contentHash, CompilationUnit unit) {
+		FileFacts facts = new FileFacts(symbols, path, lastModified, contentHash);
+		FactsCollector collector = new FactsCollector(symbols);
+		FileMetrics metrics = MetricsVisitor.collect(unit, collector);
+
+		facts.amountLines = metrics.getAmountLines();
+		facts.amountAttributs = metrics.getAmountAttributs();
+		facts.packages = symbols.intern(new ArrayList<String>(metrics.getPackages()));
+		collector.fill(facts);
+		facts.methodComplexity = methodColumn(metrics, MethodMetric.COMPLEXITY);
+		facts.methodNesting = methodColumn(metrics, MethodMetric.NESTING);
+		facts.methodStatements = methodColumn(metrics, MethodMetric.STATEMENTS);
+		facts.methodInvocations = methodColumn(metrics, MethodMetric.INVOCATIONS);
+		return facts;
+	}
+
+	private static int[] methodColumn(FileMetrics metrics, MethodMetric metric) {
+		int[] values = new int[metrics.getMethodRows()];
+		for (int row = 0; row < values.length; row++) {
+			values[row] = metrics.getMethodValue(row, metric);
+		}
+		return values;
+	}
+
+	// Reconstruit les métriques du fichier comme si MetricsVisitor venait de le parcourir
+	public FileMetrics toMetrics() {
+		FileMetrics metrics = new FileMetrics();
+		metrics.setAmountClass(typeNames.length);
+		metrics.setAmountLines(amountLines);
+		metrics.setAmountMethods(methodNames.length);
+		metrics.setAmountAttributs(amountAttributs);
+
+		int linesByMethods = 0;
+		int params = 0;
+		for (int i = 0; i < methodNames.length; i++) {
+			linesByMethods += methodLines[i];
+			params += methodParams[i];
+		}
+		metrics.setAmountLinesByMethods(linesByMethods);
+		metrics.setAmountParams(params);
+		for (int i = 0; i < methodNames.length; i++) {
+			int row = metrics.addMethodRow();
+			metrics.setMethodValue(row, MethodMetric.PARAMETERS, methodParams[i]);
+			metrics.setMethodValue(row, MethodMetric.LINES, methodLines[i]);
+			metrics.setMethodValue(row, MethodMetric.COMPLEXITY, methodComplexity[i]);
+			metrics.setMethodValue(row, MethodMetric.NESTING, methodNesting[i]);
+			metrics.setMethodValue(row, MethodMetric.STATEMENTS, methodStatements[i]);
+			metrics.setMethodValue(row, MethodMetric.INVOCATIONS, methodInvocations[i]);
+		}
+
+		for (int p : packages) {
+			metrics.getPackages().add(symbols.name(p));
+		}
+		for (int i = 0; i < typeNames.length; i++) {
+			String name = symbols.name(typeNames[i]);
+			metrics.getClassesMethods().put(name, typeMethods[i]);
+			metrics.getClassesAttributes().put(name, typeFields[i]);
+		}
+		return metrics;
+	}
+
+	public static CallGraph graph(Collection<FileFacts> facts) {
+		CallGraphBuilder builder = new CallGraphBuilder(symbols(facts));
+		for (FileFacts fileFacts : facts) {
+			builder.addAll(fileFacts.callers, fileFacts.callees);
+		}
+		return builder.build();
+	}
+
+	// Table commune à une liste de faits (shared() si la liste est vide)
+	public static SymbolTable symbols(Collection<FileFacts> facts) {
+		SymbolTable symbols = null;
+		for (FileFacts fileFacts : facts) {
+			if (symbols == null) {
+				symbols = fileFacts.symbols;
+			} else if (fileFacts.symbols != symbols) {
+				throw new IllegalArgumentException("faits issus de deux tables de symboles : " + fileFacts.path);
+			}
+		}
+		return symbols != null ? symbols : SymbolTable.shared();
+	}
+
+	// Mêmes faits, noms réinternés dans target (compactage de la table d'un FactCache)
+	public FileFacts rebind(SymbolTable target) {
+		FileFacts copy = withLastModified(target, lastModified);
+		copy.packages = rebind(packages, target);
+		copy.typeNames = rebind(typeNames, target);
+		copy.methodNames = rebind(methodNames, target);
+		copy.callers = rebind(callers, target);
+		copy.callees = rebind(callees, target);
+		return copy;
+	}
+
+	private int[] rebind(int[] ids, SymbolTable target) {
+		int[] rebound = new int[ids.length];
+		for (int i = 0; i < ids.length; i++) {
+			byte[] name = symbols.bytes(ids[i]);
+			rebound[i] = target.intern(name, 0, name.length);
+		}
+		return rebound;
+	}
+
+	// Mêmes faits pour un fichier touché sans changement de contenu
+	public FileFacts withLastModified(long lastModified) {
+		return withLastModified(symbols, lastModified);
+	}
+
+	private FileFacts withLastModified(SymbolTable symbols, long lastModified) {
+		FileFacts copy = new FileFacts(symbols, path, lastModified, contentHash);
+		copy.amountLines = amountLines;
+		copy.amountAttributs = amountAttributs;
+		copy.packages = packages;
+		copy.typeNames = typeNames;
+		copy.typeMethods = typeMethods;
+		copy.typeFields = typeFields;
+		copy.typeLines = typeLines;
+		copy.typeParams = typeParams;
+		copy.methodNames = methodNames;
+		copy.methodParams = methodParams;
+		copy.methodLines = methodLines;
+		copy.methodTypes = methodTypes;
+		copy.methodComplexity = methodComplexity;
+		copy.methodNesting = methodNesting;
+		copy.methodStatements = methodStatements;
+		copy.methodInvocations = methodInvocations;
+		copy.callers = callers;
+		copy.callees = callees;
+		return copy;
+	}
+
+	// Compare les faits extraits (pas la date de modification) ; les noms par leur texte si les tables diffèrent
+	public boolean sameFacts(FileFacts other) {
+		return path.equals(other.path)
+				&& Arrays.equals(contentHash, other.contentHash)
+				&& amountLines == other.amountLines
+				&& amountAttributs == other.amountAttributs
+				&& sameSymbols(packages, other, other.packages)
+				&& sameSymbols(typeNames, other, other.typeNames)
+				&& Arrays.equals(typeMethods, other.typeMethods)
+				&& Arrays.equals(typeFields, other.typeFields)
+				&& Arrays.equals(typeLines, other.typeLines)
+				&& Arrays.equals(typeParams, other.typeParams)
+				&& sameSymbols(methodNames, other, other.methodNames)
+				&& Arrays.equals(methodParams, other.methodParams)
+				&& Arrays.equals(methodLines, other.methodLines)
+				&& Arrays.equals(methodTypes, other.methodTypes)
+				&& Arrays.equals(methodComplexity, other.methodComplexity)
+				&& Arrays.equals(methodNesting, other.methodNesting)
+				&& Arrays.equals(methodStatements, other.methodStatements)
+				&& Arrays.equals(methodInvocations, other.methodInvocations)
+				&& sameSymbols(callers, other, other.callers)
+				&& sameSymbols(callees, other, other.callees);
+	}
+
+	private boolean sameSymbols(int[] ids, FileFacts other, int[] otherIds) {
+		if (symbols == other.symbols || ids.length != otherIds.length) {
+			return Arrays.equals(ids, otherIds);
+		}
+		for (int i = 0; i < ids.length; i++) {
+			if (!Arrays.equals(symbols.bytes(ids[i]), other.symbols.bytes(otherIds[i]))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public SymbolTable getSymbols() {
+		return symbols;
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	public long getLastModified() {
+		return lastModified;
+	}
+
+	public byte[] getContentHash() {
+		return contentHash;
+	}
+
+	public int[] getTypeNames() {
+		return typeNames;
+	}
+
+	public int[] getTypeMethods() {
+		return typeMethods;
+	}
+
+	public int[] getTypeFields() {
+		return typeFields;
+	}
+
+	public int[] getTypeLines() {
+		return typeLines;
+	}
+
+	public int[] getTypeParams() {
+		return typeParams;
+	}
+
+	public int[] getMethodNames() {
+		return methodNames;
+	}
+
+	public int[] getMethodParams() {
+		return methodParams;
+	}
+
+	public int[] getMethodLines() {
+		return methodLines;
+	}
+
+	public int[] getMethodTypes() {
+		return methodTypes;
+	}
+
+	public int[] getMethodComplexity() {
+		return methodComplexity;
+	}
+
+	public int[] getMethodNesting() {
+		return methodNesting;
+	}
+
+	public int[] getMethodStatements() {
+		return methodStatements;
+	}
+
+	public int[] getMethodInvocations() {
+		return methodInvocations;
+	}
+
+	public int getAmountLines() {
+		return amountLines;
+	}
+
+	public int getAmountAttributs() {
+		return amountAttributs;
+	}
+
+	public int[] getPackages() {
+		return packages;
+	}
+
+	public int[] getCallers() {
+		return callers;
+	}
+
+	public int[] getCallees() {
+		return callees;
+	}
+}
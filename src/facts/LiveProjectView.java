@@ -0,0 +1,89 @@
+package facts;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import callGraph.CallGraph;
+import callGraph.CallGraphGenerator;
+import callGraph.DenseIds;
+import callGraph.EdgeBuffer;
+import callGraph.SymbolTable;
+import metrics.MetricsTable;
+import parser.Parser;
+import utils.ColorHelper;
+
+// Vue tenue à jour par ProjectWatcher : statistiques réaffichées et callgraph.dot réécrit à chaque lot.
+// Les arcs sont comptés par fichier, seuls ceux des fichiers modifiés sont retirés puis ajoutés.
+// Si le FactCache a compacté sa table de symboles, les compteurs sont repris de zéro sur la nouvelle.
+public class LiveProjectView implements ProjectWatcher.Listener {
+	public static final String DOT_PATH = "resources/graphs/callgraph.dot";
+
+	private final Map<String, FileFacts> current = new HashMap<String, FileFacts>();
+	private DenseIds nodes;
+	private final Map<Long, Integer> edgeCounts = new HashMap<Long, Integer>();
+
+	public LiveProjectView(List<FileFacts> initialFacts) {
+		nodes = new DenseIds(FileFacts.symbols(initialFacts));
+		for (FileFacts facts : initialFacts) {
+			current.put(facts.getPath(), facts);
+			count(facts, 1);
+		}
+	}
+
+	@Override
+	public synchronized void onUpdate(List<FileFacts> facts, Set<File> changed, long generation) {
+		long start = System.nanoTime();
+
+		SymbolTable symbols = FileFacts.symbols(facts);
+		if (symbols != nodes.getSymbols()) {
+			current.clear();
+			edgeCounts.clear();
+			nodes = new DenseIds(symbols);
+		}
+		Set<String> present = new HashSet<String>();
+		for (FileFacts fileFacts : facts) {
+			present.add(fileFacts.getPath());
+			FileFacts previous = current.put(fileFacts.getPath(), fileFacts);
+			if (previous != fileFacts) {
+				if (previous != null) {
+					count(previous, -1);
+				}
+				count(fileFacts, 1);
+			}
+		}
+		current.values().removeIf(previous -> {
+			if (!present.contains(previous.getPath())) {
+				count(previous, -1);
+				return true;
+			}
+			return false;
+		});
+
+		System.out.println("\n" + ColorHelper.info(changed.size() + " fichier(s) modifié(s)"));
+		Parser.displayStatistics(MetricsTable.fromFacts(facts));
+		try {
+			EdgeBuffer edges = new EdgeBuffer();
+			for (long edge : edgeCounts.keySet()) {
+				edges.add(EdgeBuffer.from(edge), EdgeBuffer.to(edge));
+			}
+			CallGraphGenerator.writeDotFile(CallGraph.build(nodes, edges), DOT_PATH);
+		} catch (IOException e) {
+			onError(e);
+		}
+		System.out.println("[⚫] Mise à jour en " + (System.nanoTime() - start) / 1_000_000 + " ms");
+	}
+
+	private void count(FileFacts facts, int delta) {
+		int[] callers = facts.getCallers();
+		int[] callees = facts.getCallees();
+		for (int i = 0; i < callers.length; i++) {
+			long edge = EdgeBuffer.pack(nodes.intern(callers[i]), nodes.intern(callees[i]));
+			edgeCounts.merge(edge, delta, (a, b) -> a + b == 0 ? null : a + b);
+		}
+	}
+}
@@ -0,0 +1,166 @@
+package facts;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Surveille l'arborescence src du projet et réanalyse en arrière-plan les fichiers modifiés.
+// Les rafales (checkout git, remplacement massif) sont regroupées : on attend DEBOUNCE_MS sans
+// nouvel évènement, sans jamais retarder un lot de plus de MAX_DELAY_MS.
+public class ProjectWatcher implements Closeable {
+	public static final long DEBOUNCE_MS = 150;
+	public static final long MAX_DELAY_MS = 500;
+
+	public interface Listener {
+		// generation : FactCache.generation() de facts, pour écarter une liste plus ancienne que celle déjà publiée
+		void onUpdate(List<FileFacts> facts, Set<File> changed, long generation);
+
+		default void onError(Exception e) {
+			e.printStackTrace();
+		}
+	}
+
+	private final FactCache cache;
+	private final Listener listener;
+	private final WatchService watchService;
+	private final Map<WatchKey, Path> directories = new ConcurrentHashMap<WatchKey, Path>();
+	private final Thread thread;
+	private volatile boolean running = true;
+
+	public ProjectWatcher(FactCache cache, Listener listener) throws IOException {
+		this.cache = cache;
+		this.listener = listener;
+		this.watchService = FileSystems.getDefault().newWatchService();
+		registerAll(Paths.get(cache.getProjectPath()), null);
+
+		thread = new Thread(this::loop, "project-watcher");
+		thread.setDaemon(true);
+	}
+
+	public ProjectWatcher start() {
+		thread.start();
+		return this;
+	}
+
+	private void loop() {
+		Set<File> pending = new LinkedHashSet<File>();
+		boolean overflow = false;
+		long firstPending = 0;
+
+		while (running) {
+			WatchKey key;
+			try {
+				key = pending.isEmpty() && !overflow ? watchService.take() : watchService.poll(DEBOUNCE_MS, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException | ClosedWatchServiceException e) {
+				return;
+			}
+
+			if (key != null) {
+				if (pending.isEmpty() && !overflow) {
+					firstPending = System.currentTimeMillis();
+				}
+				overflow |= collect(key, pending);
+			}
+
+			boolean quiet = key == null;
+			boolean tooLate = System.currentTimeMillis() - firstPending >= MAX_DELAY_MS;
+			if ((!pending.isEmpty() || overflow) && (quiet || tooLate)) {
+				flush(pending, overflow);
+				pending = new LinkedHashSet<File>();
+				overflow = false;
+			}
+		}
+	}
+
+	// Retourne vrai si des évènements ont été perdus (il faut alors tout revérifier)
+	private boolean collect(WatchKey key, Set<File> pending) {
+		Path directory = directories.get(key);
+		boolean overflow = false;
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				overflow = true;
+				continue;
+			}
+			Path child = directory.resolve((Path) event.context());
+			if (Files.isDirectory(child)) {
+				if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+					try {
+						registerAll(child, pending);
+					} catch (IOException e) {
+						overflow = true;
+					}
+				}
+			} else if (child.getFileName().toString().endsWith(".java")) {
+				pending.add(child.toFile());
+			} else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+				// Répertoire supprimé ou renommé (paquetage déplacé) : ses fichiers disparaissent du cache
+				pending.addAll(cache.pathsUnder(child.toFile()));
+			}
+		}
+		if (!key.reset()) {
+			directories.remove(key);
+		}
+		return overflow;
+	}
+
+	private void flush(Set<File> pending, boolean overflow) {
+		try {
+			List<FileFacts> facts;
+			long generation;
+			synchronized (cache) {
+				facts = overflow ? cache.facts() : cache.update(pending);
+				generation = cache.generation();
+			}
+			listener.onUpdate(facts, pending, generation);
+		} catch (IOException | RuntimeException e) {
+			listener.onError(e);
+		}
+	}
+
+	// Enregistre un répertoire et ses sous-répertoires ; les fichiers déjà présents d'un
+	// répertoire nouvellement créé sont ajoutés au lot courant
+	private void registerAll(Path root, Set<File> pending) throws IOException {
+		Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+				WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+						StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+				directories.put(key, dir);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+				if (pending != null && file.getFileName().toString().endsWith(".java")) {
+					pending.add(file.toFile());
+				}
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	@Override
+	public void close() throws IOException {
+		running = false;
+		thread.interrupt();
+		watchService.close();
+	}
+}
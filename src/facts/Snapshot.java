@@ -0,0 +1,423 @@
+package facts;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import callGraph.CallGraph;
+import callGraph.DenseIds;
+import callGraph.SymbolTable;
+import metrics.MethodQuantiles;
+import metrics.MetricsTable;
+
+// Instantané de l'analyse complète d'un projet, relu par mapping mémoire sans tout désérialiser :
+// les agrégats de Parser.displayStatistics sont lus dans l'en-tête, un nom n'est décodé que lorsqu'on le demande,
+// faits, table de métriques et graphe d'appel ne sont reconstruits qu'au premier accès.
+//
+// Format (entiers big-endian) :
+//   "ASTS" | version | nb sections | (offset long, longueur long) par section | sections alignées sur 8 octets
+//   META          chemin du projet, date, nb fichiers, classes, méthodes, paquetages, lignes,
+//                 lignes des méthodes (long), attributs (long), max paramètres d'une méthode, noeuds, arcs
+//   SYMBOLS       table des noms (SymbolTable.writeTo) : recherche par hachage directement dans le fichier
+//   FILES         72 octets par fichier : chemin, date, empreinte (20), lignes, attributs,
+//                 puis (début, nombre) dans FILE_PACKAGES, CLASSES, METHODS et FILE_EDGES
+//   FILE_PACKAGES nom par paquetage déclaré
+//   CLASSES       24 octets par classe : nom, fichier, lignes, méthodes, attributs, paramètres
+//   METHODS       36 octets par méthode : nom, ligne de classe (-1 si aucune), fichier, paramètres, lignes,
+//                 complexité cyclomatique, profondeur d'imbrication, instructions, invocations
+//   FILE_EDGES    (appelant, appelé) par invocation
+//   GRAPH         nb noeuds, nb arcs, nom par noeud, offsets[nb noeuds + 1], cibles (CSR de CallGraph)
+//   PACKAGES      noms des paquetages distincts
+//   QUANTILES     MethodQuantiles.writeTo : distribution par méthode sans relire METHODS
+public class Snapshot {
+	public static final int MAGIC = 0x41535453; // "ASTS"
+	public static final int VERSION = 4;
+
+	static final int META = 0;
+	static final int SYMBOLS = 1;
+	static final int FILES = 2;
+	static final int FILE_PACKAGES = 3;
+	static final int CLASSES = 4;
+	static final int METHODS = 5;
+	static final int FILE_EDGES = 6;
+	static final int GRAPH = 7;
+	static final int PACKAGES = 8;
+	static final int QUANTILES = 9;
+	static final int SECTIONS = 10;
+
+	static final int HEADER_SIZE = 12;
+	static final int ENTRY_SIZE = 16;
+	static final int FILE_RECORD = 72;
+	static final int CLASS_RECORD = 24;
+	static final int METHOD_RECORD = 36;
+
+	private final Path file;
+	private final MappedByteBuffer buffer;
+	private final long[] sections = new long[SECTIONS];
+
+	// En-tête META, lu à l'ouverture
+	private final String projectPath;
+	private final long createdAt;
+	private final int fileCount;
+	private final int classCount;
+	private final int methodCount;
+	private final int packageCount;
+	private final int amountLines;
+	private final long amountLinesByMethods;
+	private final long amountAttributs;
+	private final int maxParamsPerMethod;
+	private final int nodeCount;
+	private final int edgeCount;
+
+	// Table des noms : positions des tableaux dans le fichier
+	private final int symbolCount;
+	private final int slotCount;
+	private final int symbolOffsets;
+	private final int symbolHashes;
+	private final int symbolSlots;
+	private final int symbolBytes;
+
+	// Table propre à l'instantané : faits, métriques et graphe relus n'agrandissent pas SymbolTable.shared(),
+	// qui vit autant que la CLI, et sont libérés avec l'instantané
+	private final SymbolTable symbols = new SymbolTable();
+	// Symboles du fichier -> symboles de symbols, traduits à la demande (-1 = pas encore)
+	private int[] translated;
+	// Curseur réservé aux reconstructions (méthodes synchronisées) : pas de duplicate() par lecture
+	private final ByteBuffer cursor;
+
+	private List<FileFacts> facts;
+	private MetricsTable table;
+	private CallGraph graph;
+
+	private Snapshot(Path file, MappedByteBuffer buffer) throws IOException {
+		this.file = file;
+		this.buffer = buffer;
+		this.cursor = buffer.duplicate();
+		if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+			throw new IOException(file + " n'est pas un instantané");
+		}
+		if (buffer.getInt(4) != VERSION) {
+			throw new IOException(file + " : version d'instantané " + buffer.getInt(4) + " (attendue : " + VERSION + ")");
+		}
+		if (buffer.getInt(8) != SECTIONS) {
+			throw new IOException(file + " : instantané incomplet");
+		}
+		for (int s = 0; s < SECTIONS; s++) {
+			sections[s] = buffer.getLong(HEADER_SIZE + s * ENTRY_SIZE);
+		}
+
+		int symbols = section(SYMBOLS);
+		symbolCount = buffer.getInt(symbols);
+		slotCount = buffer.getInt(symbols + 4);
+		symbolOffsets = symbols + 8;
+		symbolHashes = symbolOffsets + (symbolCount + 1) * 4;
+		symbolSlots = symbolHashes + symbolCount * 4;
+		symbolBytes = symbolSlots + slotCount * 4;
+
+		int meta = section(META);
+		projectPath = name(buffer.getInt(meta));
+		createdAt = buffer.getLong(meta + 4);
+		fileCount = buffer.getInt(meta + 12);
+		classCount = buffer.getInt(meta + 16);
+		methodCount = buffer.getInt(meta + 20);
+		packageCount = buffer.getInt(meta + 24);
+		amountLines = buffer.getInt(meta + 28);
+		amountLinesByMethods = buffer.getLong(meta + 32);
+		amountAttributs = buffer.getLong(meta + 40);
+		maxParamsPerMethod = buffer.getInt(meta + 48);
+		nodeCount = buffer.getInt(meta + 52);
+		edgeCount = buffer.getInt(meta + 56);
+	}
+
+	// Un instantané par projet, à côté des index
+	public static Path forProject(String projectPath) {
+		String name = ContentHash.toHex(ContentHash.of(new File(projectPath).getAbsolutePath().getBytes(StandardCharsets.UTF_8)));
+		return Paths.get("resources", "snapshots", name + ".snap");
+	}
+
+	public static Snapshot open(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException(file + " est trop gros pour être mappé (" + channel.size() + " octets)");
+			}
+			// Le mapping reste valide après la fermeture du canal
+			return new Snapshot(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} catch (IndexOutOfBoundsException e) {
+			throw new IOException(file + " : instantané tronqué", e);
+		}
+	}
+
+	// Même liste de fichiers et mêmes dates de modification que l'analyse enregistrée
+	public boolean isFresh(List<File> javaFiles) {
+		if (javaFiles.size() != fileCount) {
+			return false;
+		}
+		Map<String, Long> recorded = new HashMap<String, Long>(fileCount * 2);
+		for (int f = 0; f < fileCount; f++) {
+			recorded.put(filePath(f), fileLastModified(f));
+		}
+		for (File javaFile : javaFiles) {
+			Long lastModified = recorded.get(javaFile.getAbsolutePath());
+			if (lastModified == null || lastModified != javaFile.lastModified()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Noms
+
+	public String name(int symbol) {
+		int start = buffer.getInt(symbolOffsets + symbol * 4);
+		int end = buffer.getInt(symbolOffsets + (symbol + 1) * 4);
+		byte[] bytes = new byte[end - start];
+		ByteBuffer view = buffer.duplicate();
+		view.position(symbolBytes + start);
+		view.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	// Même sondage que SymbolTable, dans le fichier ; -1 si le nom est absent
+	public int find(String name) {
+		byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+		int hash = SymbolTable.hash(bytes, 0, bytes.length);
+		int mask = slotCount - 1;
+		for (int slot = SymbolTable.mix(hash) & mask; ; slot = (slot + 1) & mask) {
+			int symbol = buffer.getInt(symbolSlots + slot * 4) - 1;
+			if (symbol < 0) {
+				return -1;
+			}
+			if (buffer.getInt(symbolHashes + symbol * 4) == hash && name(symbol).equals(name)) {
+				return symbol;
+			}
+		}
+	}
+
+	// Symbole équivalent dans la table de l'instantané, interné depuis les octets mappés sans passer par String
+	private int translate(int symbol) {
+		if (translated == null) {
+			translated = new int[symbolCount];
+			Arrays.fill(translated, -1);
+		}
+		if (translated[symbol] < 0) {
+			int start = buffer.getInt(symbolOffsets + symbol * 4);
+			int end = buffer.getInt(symbolOffsets + (symbol + 1) * 4);
+			cursor.position(symbolBytes + start);
+			translated[symbol] = symbols.intern(cursor, end - start);
+		}
+		return translated[symbol];
+	}
+
+	// Fichiers, classes et méthodes, lus ligne par ligne
+
+	public String filePath(int file) {
+		return name(buffer.getInt(fileRecord(file)));
+	}
+
+	public long fileLastModified(int file) {
+		return buffer.getLong(fileRecord(file) + 4);
+	}
+
+	public String className(int row) {
+		return name(buffer.getInt(section(CLASSES) + row * CLASS_RECORD));
+	}
+
+	public String methodName(int row) {
+		return name(buffer.getInt(section(METHODS) + row * METHOD_RECORD));
+	}
+
+	public Set<String> packages() {
+		Set<String> packages = new LinkedHashSet<String>();
+		int start = section(PACKAGES);
+		for (int p = 0; p < packageCount; p++) {
+			packages.add(name(buffer.getInt(start + p * 4)));
+		}
+		return packages;
+	}
+
+	// Reconstructions complètes, faites une fois au premier accès
+
+	public synchronized List<FileFacts> facts() {
+		if (facts != null) {
+			return facts;
+		}
+		int classes = section(CLASSES);
+		int methods = section(METHODS);
+		int filePackages = section(FILE_PACKAGES);
+		int fileEdges = section(FILE_EDGES);
+		List<FileFacts> result = new ArrayList<FileFacts>(fileCount);
+		for (int f = 0; f < fileCount; f++) {
+			int record = fileRecord(f);
+			byte[] hash = new byte[ContentHash.LENGTH];
+			cursor.position(record + 12);
+			cursor.get(hash);
+
+			FileFacts fileFacts = new FileFacts(symbols, name(buffer.getInt(record)), buffer.getLong(record + 4), hash);
+			fileFacts.amountLines = buffer.getInt(record + 32);
+			fileFacts.amountAttributs = buffer.getInt(record + 36);
+
+			int packageStart = buffer.getInt(record + 40);
+			fileFacts.packages = new int[buffer.getInt(record + 44)];
+			for (int p = 0; p < fileFacts.packages.length; p++) {
+				fileFacts.packages[p] = translate(buffer.getInt(filePackages + (packageStart + p) * 4));
+			}
+
+			int classStart = buffer.getInt(record + 48);
+			int types = buffer.getInt(record + 52);
+			fileFacts.typeNames = new int[types];
+			fileFacts.typeLines = new int[types];
+			fileFacts.typeMethods = new int[types];
+			fileFacts.typeFields = new int[types];
+			fileFacts.typeParams = new int[types];
+			for (int t = 0; t < types; t++) {
+				int row = classes + (classStart + t) * CLASS_RECORD;
+				fileFacts.typeNames[t] = translate(buffer.getInt(row));
+				fileFacts.typeLines[t] = buffer.getInt(row + 8);
+				fileFacts.typeMethods[t] = buffer.getInt(row + 12);
+				fileFacts.typeFields[t] = buffer.getInt(row + 16);
+				fileFacts.typeParams[t] = buffer.getInt(row + 20);
+			}
+
+			int methodStart = buffer.getInt(record + 56);
+			int count = buffer.getInt(record + 60);
+			fileFacts.methodNames = new int[count];
+			fileFacts.methodTypes = new int[count];
+			fileFacts.methodParams = new int[count];
+			fileFacts.methodLines = new int[count];
+			fileFacts.methodComplexity = new int[count];
+			fileFacts.methodNesting = new int[count];
+			fileFacts.methodStatements = new int[count];
+			fileFacts.methodInvocations = new int[count];
+			for (int m = 0; m < count; m++) {
+				int row = methods + (methodStart + m) * METHOD_RECORD;
+				int classRow = buffer.getInt(row + 4);
+				fileFacts.methodNames[m] = translate(buffer.getInt(row));
+				fileFacts.methodTypes[m] = classRow < 0 ? -1 : classRow - classStart;
+				fileFacts.methodParams[m] = buffer.getInt(row + 12);
+				fileFacts.methodLines[m] = buffer.getInt(row + 16);
+				fileFacts.methodComplexity[m] = buffer.getInt(row + 20);
+				fileFacts.methodNesting[m] = buffer.getInt(row + 24);
+				fileFacts.methodStatements[m] = buffer.getInt(row + 28);
+				fileFacts.methodInvocations[m] = buffer.getInt(row + 32);
+			}
+
+			int edgeStart = buffer.getInt(record + 64);
+			int edges = buffer.getInt(record + 68);
+			fileFacts.callers = new int[edges];
+			fileFacts.callees = new int[edges];
+			for (int e = 0; e < edges; e++) {
+				int pair = fileEdges + (edgeStart + e) * 8;
+				fileFacts.callers[e] = translate(buffer.getInt(pair));
+				fileFacts.callees[e] = translate(buffer.getInt(pair + 4));
+			}
+			result.add(fileFacts);
+		}
+		facts = result;
+		return facts;
+	}
+
+	public synchronized MetricsTable metricsTable() {
+		if (table == null) {
+			table = MetricsTable.fromFacts(facts());
+		}
+		return table;
+	}
+
+	// Le CSR est copié en bloc ; seuls les noms des noeuds passent par la table de l'instantané
+	public synchronized CallGraph graph() {
+		if (graph != null) {
+			return graph;
+		}
+		int start = section(GRAPH);
+		int nodes = buffer.getInt(start);
+		int edges = buffer.getInt(start + 4);
+		DenseIds ids = new DenseIds(symbols);
+		for (int node = 0; node < nodes; node++) {
+			ids.intern(translate(buffer.getInt(start + 8 + node * 4)));
+		}
+		int[] offsets = new int[nodes + 1];
+		int[] targets = new int[edges];
+		cursor.position(start + 8 + nodes * 4);
+		cursor.asIntBuffer().get(offsets);
+		cursor.position(cursor.position() + offsets.length * 4);
+		cursor.asIntBuffer().get(targets);
+		graph = CallGraph.of(ids, offsets, targets);
+		return graph;
+	}
+
+	private int section(int section) {
+		return (int) sections[section];
+	}
+
+	private int fileRecord(int file) {
+		return section(FILES) + file * FILE_RECORD;
+	}
+
+	public Path getFile() {
+		return file;
+	}
+
+	public String getProjectPath() {
+		return projectPath;
+	}
+
+	public long getCreatedAt() {
+		return createdAt;
+	}
+
+	public int fileCount() {
+		return fileCount;
+	}
+
+	public int classCount() {
+		return classCount;
+	}
+
+	public int methodCount() {
+		return methodCount;
+	}
+
+	public int amountLines() {
+		return amountLines;
+	}
+
+	public long amountLinesByMethods() {
+		return amountLinesByMethods;
+	}
+
+	public long amountAttributs() {
+		return amountAttributs;
+	}
+
+	public int maxParamsPerMethod() {
+		return maxParamsPerMethod;
+	}
+
+	// Résumé relu à chaque appel : quelques Ko, sans reconstruire les faits
+	public MethodQuantiles quantiles() {
+		ByteBuffer view = buffer.duplicate();
+		view.position(section(QUANTILES));
+		return MethodQuantiles.read(view);
+	}
+
+	public int nodeCount() {
+		return nodeCount;
+	}
+
+	public int edgeCount() {
+		return edgeCount;
+	}
+}
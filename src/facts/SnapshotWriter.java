@@ -0,0 +1,231 @@
+package facts;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+
+import callGraph.CallGraph;
+import callGraph.DenseIds;
+import callGraph.SymbolTable;
+import metrics.MetricsTable;
+
+// Écrit l'état complet d'une analyse dans un instantané (format décrit dans Snapshot).
+// Les noms sont renumérotés dans une table propre au fichier : les symboles des faits (FileFacts.getSymbols)
+// ne valent que pour le processus qui les a créés.
+public class SnapshotWriter {
+	private final SymbolTable symbols = new SymbolTable();
+	private final DenseIds shared;
+	private int[] local = new int[256];
+
+	private SnapshotWriter(SymbolTable factSymbols) {
+		this.shared = new DenseIds(factSymbols);
+	}
+
+	public static Path write(Path file, String projectPath, List<FileFacts> facts) throws IOException {
+		return new SnapshotWriter(FileFacts.symbols(facts)).writeSnapshot(file, projectPath, facts);
+	}
+
+	private Path writeSnapshot(Path file, String projectPath, List<FileFacts> facts) throws IOException {
+		MetricsTable table = MetricsTable.fromFacts(facts);
+		CallGraph graph = FileFacts.graph(facts);
+
+		Section files = new Section();
+		Section filePackages = new Section();
+		Section classes = new Section();
+		Section methods = new Section();
+		Section fileEdges = new Section();
+		int classRow = 0;
+		int methodRow = 0;
+		int packageRow = 0;
+		int edgeRow = 0;
+		for (int f = 0; f < facts.size(); f++) {
+			FileFacts fileFacts = facts.get(f);
+			files.writeInt(symbols.intern(fileFacts.path));
+			files.writeLong(fileFacts.lastModified);
+			files.write(fileFacts.contentHash != null ? fileFacts.contentHash : new byte[ContentHash.LENGTH]);
+			files.writeInt(fileFacts.amountLines);
+			files.writeInt(fileFacts.amountAttributs);
+			files.writeInt(packageRow);
+			files.writeInt(fileFacts.packages.length);
+			files.writeInt(classRow);
+			files.writeInt(fileFacts.typeNames.length);
+			files.writeInt(methodRow);
+			files.writeInt(fileFacts.methodNames.length);
+			files.writeInt(edgeRow);
+			files.writeInt(fileFacts.callers.length);
+
+			for (int p : fileFacts.packages) {
+				filePackages.writeInt(symbol(p));
+			}
+			for (int t = 0; t < fileFacts.typeNames.length; t++) {
+				classes.writeInt(symbol(fileFacts.typeNames[t]));
+				classes.writeInt(f);
+				classes.writeInt(fileFacts.typeLines[t]);
+				classes.writeInt(fileFacts.typeMethods[t]);
+				classes.writeInt(fileFacts.typeFields[t]);
+				classes.writeInt(fileFacts.typeParams[t]);
+			}
+			for (int m = 0; m < fileFacts.methodNames.length; m++) {
+				int type = fileFacts.methodTypes[m];
+				methods.writeInt(symbol(fileFacts.methodNames[m]));
+				methods.writeInt(type < 0 ? -1 : classRow + type);
+				methods.writeInt(f);
+				methods.writeInt(fileFacts.methodParams[m]);
+				methods.writeInt(fileFacts.methodLines[m]);
+				methods.writeInt(fileFacts.methodComplexity[m]);
+				methods.writeInt(fileFacts.methodNesting[m]);
+				methods.writeInt(fileFacts.methodStatements[m]);
+				methods.writeInt(fileFacts.methodInvocations[m]);
+			}
+			for (int e = 0; e < fileFacts.callers.length; e++) {
+				fileEdges.writeInt(symbol(fileFacts.callers[e]));
+				fileEdges.writeInt(symbol(fileFacts.callees[e]));
+			}
+			packageRow += fileFacts.packages.length;
+			classRow += fileFacts.typeNames.length;
+			methodRow += fileFacts.methodNames.length;
+			edgeRow += fileFacts.callers.length;
+		}
+
+		Section callGraph = new Section();
+		callGraph.writeInt(graph.nodeCount());
+		callGraph.writeInt(graph.edgeCount());
+		for (int node = 0; node < graph.nodeCount(); node++) {
+			callGraph.writeInt(symbol(graph.getNodes().symbol(node)));
+		}
+		for (int node = 0; node <= graph.nodeCount(); node++) {
+			callGraph.writeInt(node < graph.nodeCount() ? graph.firstEdge(node) : graph.edgeCount());
+		}
+		for (int edge = 0; edge < graph.edgeCount(); edge++) {
+			callGraph.writeInt(graph.target(edge));
+		}
+
+		Section packages = new Section();
+		for (String name : table.packages()) {
+			packages.writeInt(symbols.intern(name));
+		}
+
+		Section meta = new Section();
+		meta.writeInt(symbols.intern(projectPath));
+		meta.writeLong(System.currentTimeMillis());
+		meta.writeInt(facts.size());
+		meta.writeInt(table.amountClass());
+		meta.writeInt(table.amountMethods());
+		meta.writeInt(table.packages().size());
+		meta.writeInt(table.amountLines());
+		meta.writeLong(table.amountLinesByMethods());
+		meta.writeLong(table.amountAttributs());
+		meta.writeInt(table.maxParamsPerMethod());
+		meta.writeInt(graph.nodeCount());
+		meta.writeInt(graph.edgeCount());
+
+		Section quantiles = new Section();
+		ByteArrayOutputStream sketches = new ByteArrayOutputStream();
+		table.quantiles().writeTo(new DataOutputStream(sketches));
+		quantiles.write(sketches.toByteArray());
+
+		// La table des noms en dernier : toutes les sections y ont ajouté les leurs
+		Section names = new Section();
+		ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+		symbols.writeTo(new DataOutputStream(encoded));
+		names.write(encoded.toByteArray());
+
+		Section[] sections = new Section[Snapshot.SECTIONS];
+		sections[Snapshot.META] = meta;
+		sections[Snapshot.SYMBOLS] = names;
+		sections[Snapshot.FILES] = files;
+		sections[Snapshot.FILE_PACKAGES] = filePackages;
+		sections[Snapshot.CLASSES] = classes;
+		sections[Snapshot.METHODS] = methods;
+		sections[Snapshot.FILE_EDGES] = fileEdges;
+		sections[Snapshot.GRAPH] = callGraph;
+		sections[Snapshot.PACKAGES] = packages;
+		sections[Snapshot.QUANTILES] = quantiles;
+		return save(file, sections);
+	}
+
+	// En-tête, table des sections (offset, longueur) puis sections alignées sur 8 octets ;
+	// écrit dans un fichier temporaire puis renommé pour qu'un lecteur ne voie jamais un instantané partiel
+	private static Path save(Path file, Section[] sections) throws IOException {
+		if (file.getParent() != null) {
+			Files.createDirectories(file.getParent());
+		}
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+			out.writeInt(Snapshot.MAGIC);
+			out.writeInt(Snapshot.VERSION);
+			out.writeInt(sections.length);
+			long offset = align(Snapshot.HEADER_SIZE + (long) sections.length * Snapshot.ENTRY_SIZE);
+			for (Section section : sections) {
+				out.writeLong(offset);
+				out.writeLong(section.size());
+				offset = align(offset + section.size());
+			}
+			long written = Snapshot.HEADER_SIZE + (long) sections.length * Snapshot.ENTRY_SIZE;
+			for (Section section : sections) {
+				out.write(new byte[(int) (align(written) - written)]);
+				written = align(written);
+				out.write(section.buffer.array(), 0, section.size());
+				written += section.size();
+			}
+		}
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		return file;
+	}
+
+	private static long align(long offset) {
+		return (offset + 7) & ~7L;
+	}
+
+	// Symbole des faits -> identifiant dans la table du fichier
+	private int symbol(int sharedSymbol) {
+		int dense = shared.find(sharedSymbol);
+		if (dense < 0) {
+			dense = shared.intern(sharedSymbol);
+			if (dense == local.length) {
+				local = Arrays.copyOf(local, dense * 2);
+			}
+			byte[] name = shared.getSymbols().bytes(sharedSymbol);
+			local[dense] = symbols.intern(name, 0, name.length);
+		}
+		return local[dense];
+	}
+
+	// Section construite en mémoire : tampon extensible, entiers écrits sans passer par un flux synchronisé
+	private static class Section {
+		ByteBuffer buffer = ByteBuffer.allocate(1 << 12);
+
+		void writeInt(int value) {
+			ensure(4).putInt(value);
+		}
+
+		void writeLong(long value) {
+			ensure(8).putLong(value);
+		}
+
+		void write(byte[] bytes) {
+			ensure(bytes.length).put(bytes);
+		}
+
+		int size() {
+			return buffer.position();
+		}
+
+		private ByteBuffer ensure(int bytes) {
+			if (buffer.remaining() < bytes) {
+				ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+				buffer.flip();
+				grown.put(buffer);
+				buffer = grown;
+			}
+			return buffer;
+		}
+	}
+}
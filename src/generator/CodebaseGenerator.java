@@ -0,0 +1,159 @@
+package generator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+// Générateur déterministe d'arbres de sources Java : paquetages pkgNNNN, classes ClassNNNN avec champs
+// et méthodes statiques methodN(int a0, ...) qui s'appellent entre elles selon la forme de graphe choisie.
+//
+// Chaque classe a son propre générateur aléatoire dérivé de la graine et de son indice : les fichiers
+// sont écrits en parallèle mais leur contenu ne dépend que de la configuration.
+public class CodebaseGenerator {
+	private final GeneratorConfig config;
+	// Nombre de paramètres de chaque méthode (indice global classe * méthodesParClasse + méthode),
+	// connu d'avance pour que les appels passent le bon nombre d'arguments
+	private final int[] paramCounts;
+
+	public CodebaseGenerator(GeneratorConfig config) {
+		this.config = config;
+		this.paramCounts = new int[config.methodCount()];
+		SplittableRandom random = new SplittableRandom(config.seed);
+		for (int i = 0; i < paramCounts.length; i++) {
+			paramCounts[i] = random.nextInt(config.maxParams + 1);
+		}
+	}
+
+	public static GeneratedCodebase generateTemp(GeneratorConfig config) throws IOException {
+		return new CodebaseGenerator(config).generate(Files.createTempDirectory("synthetic-"));
+	}
+
+	public GeneratedCodebase generate(Path root) throws IOException {
+		LongAdder lines = new LongAdder();
+		LongAdder invocations = new LongAdder();
+		LongAdder edges = new LongAdder();
+		for (int p = 0; p < config.packages; p++) {
+			Files.createDirectories(root.resolve(packageName(p)));
+		}
+		try {
+			IntStream.range(0, config.classCount()).parallel().forEach(c -> {
+				StringBuilder source = new StringBuilder(1024);
+				long[] counts = writeClass(c, source);
+				invocations.add(counts[0]);
+				edges.add(counts[1]);
+				int count = 0;
+				for (int i = 0; i < source.length(); i++) {
+					if (source.charAt(i) == '\n') {
+						count++;
+					}
+				}
+				lines.add(count);
+				Path file = root.resolve(packageName(c / config.classesPerPackage)).resolve(className(c) + ".java");
+				try {
+					Files.write(file, source.toString().getBytes(StandardCharsets.UTF_8));
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		return new GeneratedCodebase(root, config, lines.sum(), invocations.sum(), edges.sum());
+	}
+
+	// Source d'une classe ; retourne { appels écrits, arcs distincts appelant -> appelé }
+	private long[] writeClass(int c, StringBuilder out) {
+		SplittableRandom random = new SplittableRandom(config.seed * 0x9E3779B97F4A7C15L + c);
+		long invocations = 0;
+		long edges = 0;
+		int[] targets = new int[2 * config.invocationsPerMethod + 1];
+
+		out.append("package ").append(packageName(c / config.classesPerPackage)).append(";\n\n");
+		out.append("public class ").append(className(c)).append(" {\n");
+		for (int f = 0; f < config.fieldsPerClass; f++) {
+			out.append("\tprivate int field").append(f).append(" = ").append(random.nextInt(100)).append(";\n");
+		}
+
+		for (int m = 0; m < config.methodsPerClass; m++) {
+			int self = c * config.methodsPerClass + m;
+			out.append("\n\tpublic static int method").append(m).append('(');
+			for (int a = 0; a < paramCounts[self]; a++) {
+				out.append(a > 0 ? ", " : "").append("int a").append(a);
+			}
+			out.append(") {\n\t\tint result = ").append(paramCounts[self] > 0 ? "a0" : "0").append(";\n");
+
+			int calls = random.nextInt(2 * config.invocationsPerMethod + 1);
+			int distinct = 0;
+			for (int i = 0; i < calls; i++) {
+				int target = callee(c, random);
+				if (target < 0) {
+					break;
+				}
+				boolean seen = false;
+				for (int t = 0; t < distinct && !seen; t++) {
+					seen = targets[t] == target;
+				}
+				if (!seen) {
+					targets[distinct++] = target;
+				}
+				int targetClass = target / config.methodsPerClass;
+				out.append("\t\tresult += ");
+				if (targetClass != c) {
+					out.append(packageName(targetClass / config.classesPerPackage)).append('.').append(className(targetClass)).append('.');
+				}
+				out.append("method").append(target % config.methodsPerClass).append('(');
+				for (int a = 0; a < paramCounts[target]; a++) {
+					out.append(a > 0 ? ", " : "").append(a == 0 ? "result" : String.valueOf(random.nextInt(10)));
+				}
+				out.append(");\n");
+				invocations++;
+			}
+			edges += distinct;
+			out.append("\t\treturn result;\n\t}\n");
+		}
+		out.append("}\n");
+		return new long[] { invocations, edges };
+	}
+
+	// Méthode appelée (indice global), -1 si la forme n'autorise aucun appel depuis cette classe
+	private int callee(int c, SplittableRandom random) {
+		int methods = config.methodCount();
+		switch (config.shape) {
+			case LAYERED: {
+				int classes = config.classCount();
+				int layers = Math.max(1, Math.min(config.layers, classes));
+				int layer = (int) ((long) c * layers / classes);
+				int first = (int) (((long) (layer + 1) * classes + layers - 1) / layers);
+				if (first >= classes) {
+					return -1;
+				}
+				int targetClass = first + random.nextInt(classes - first);
+				return targetClass * config.methodsPerClass + random.nextInt(config.methodsPerClass);
+			}
+			case SCALE_FREE: {
+				double u = random.nextDouble();
+				return (int) (methods * u * u * u);
+			}
+			default:
+				return random.nextInt(methods);
+		}
+	}
+
+	static String packageName(int p) {
+		return "pkg" + pad(p);
+	}
+
+	static String className(int c) {
+		return "Class" + pad(c);
+	}
+
+	private static String pad(int value) {
+		String digits = String.valueOf(value);
+		return digits.length() >= 4 ? digits : "0000".substring(digits.length()) + digits;
+	}
+}
@@ -0,0 +1,63 @@
+package generator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+// Arbre généré et ce qu'il contient, pour vérifier les résultats de l'analyse
+public class GeneratedCodebase {
+	private final Path root;
+	private final GeneratorConfig config;
+	private final long lines;
+	private final long invocations;
+	private final long edges;
+
+	GeneratedCodebase(Path root, GeneratorConfig config, long lines, long invocations, long edges) {
+		this.root = root;
+		this.config = config;
+		this.lines = lines;
+		this.invocations = invocations;
+		this.edges = edges;
+	}
+
+	public Path getRoot() {
+		return root;
+	}
+
+	public GeneratorConfig getConfig() {
+		return config;
+	}
+
+	public int getClasses() {
+		return config.classCount();
+	}
+
+	public int getMethods() {
+		return config.methodCount();
+	}
+
+	public int getPackages() {
+		return config.packages;
+	}
+
+	public long getLines() {
+		return lines;
+	}
+
+	public long getInvocations() {
+		return invocations;
+	}
+
+	// Arcs distincts appelant -> appelé attendus dans le graphe d'appel
+	public long getEdges() {
+		return edges;
+	}
+
+	public void delete() throws IOException {
+		try (Stream<Path> paths = Files.walk(root)) {
+			paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+	}
+}
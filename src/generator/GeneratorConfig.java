@@ -0,0 +1,75 @@
+package generator;
+
+// Paramètres du générateur ; même configuration (graine comprise) = même arbre de sources, octet pour octet
+public class GeneratorConfig {
+	long seed = 42;
+	int packages = 10;
+	int classesPerPackage = 20;
+	int methodsPerClass = 10;
+	int fieldsPerClass = 5;
+	int maxParams = 3;
+	int invocationsPerMethod = 3;
+	int layers = 8;
+	GraphShape shape = GraphShape.RANDOM;
+
+	public GeneratorConfig withSeed(long seed) {
+		this.seed = seed;
+		return this;
+	}
+
+	public GeneratorConfig withPackages(int packages) {
+		this.packages = packages;
+		return this;
+	}
+
+	public GeneratorConfig withClassesPerPackage(int classesPerPackage) {
+		this.classesPerPackage = classesPerPackage;
+		return this;
+	}
+
+	public GeneratorConfig withMethodsPerClass(int methodsPerClass) {
+		this.methodsPerClass = methodsPerClass;
+		return this;
+	}
+
+	public GeneratorConfig withFieldsPerClass(int fieldsPerClass) {
+		this.fieldsPerClass = fieldsPerClass;
+		return this;
+	}
+
+	public GeneratorConfig withMaxParams(int maxParams) {
+		this.maxParams = maxParams;
+		return this;
+	}
+
+	// Nombre moyen d'appels par méthode (tiré entre 0 et 2 x densité)
+	public GeneratorConfig withInvocationsPerMethod(int invocationsPerMethod) {
+		this.invocationsPerMethod = invocationsPerMethod;
+		return this;
+	}
+
+	public GeneratorConfig withShape(GraphShape shape) {
+		this.shape = shape;
+		return this;
+	}
+
+	public GeneratorConfig withLayers(int layers) {
+		this.layers = layers;
+		return this;
+	}
+
+	public int classCount() {
+		return packages * classesPerPackage;
+	}
+
+	public int methodCount() {
+		return classCount() * methodsPerClass;
+	}
+
+	@Override
+	public String toString() {
+		return "seed=" + seed + " packages=" + packages + " classes/package=" + classesPerPackage + " methods/class=" + methodsPerClass
+				+ " fields/class=" + fieldsPerClass + " maxParams=" + maxParams + " invocations/method=" + invocationsPerMethod
+				+ " shape=" + shape;
+	}
+}
@@ -0,0 +1,11 @@
+package generator;
+
+// Forme du graphe d'appel généré
+public enum GraphShape {
+	// Appelé tiré uniformément parmi toutes les méthodes : cycles et récursion possibles
+	RANDOM,
+	// Classes réparties en couches, une méthode n'appelle que les couches suivantes : graphe sans cycle
+	LAYERED,
+	// Tirage biaisé vers les premières méthodes : quelques méthodes très appelées (fan-in élevé)
+	SCALE_FREE
+}
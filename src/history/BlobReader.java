@@ -0,0 +1,81 @@
+package history;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+// Lecture de blobs par "git cat-file --batch" : un seul processus pour toutes les lectures d'un thread,
+// le contenu est copié dans un tableau réutilisé (valide jusqu'à la lecture suivante).
+public class BlobReader implements AutoCloseable {
+	private final Process process;
+	private final OutputStream requests;
+	private final InputStream responses;
+	private byte[] content = new byte[64 * 1024];
+	private int size;
+
+	BlobReader(Process process) {
+		this.process = process;
+		this.requests = process.getOutputStream();
+		this.responses = new BufferedInputStream(process.getInputStream(), 1 << 16);
+	}
+
+	// Lit le blob ; son contenu est ensuite disponible dans content()[0, size())
+	public void read(String blob) throws IOException {
+		requests.write((blob + "\n").getBytes(StandardCharsets.US_ASCII));
+		requests.flush();
+
+		// "<objet> <type> <taille>\n" puis le contenu et un saut de ligne, ou "<objet> missing\n"
+		String[] header = line().split(" ");
+		if (header.length != 3) {
+			throw new IOException("blob introuvable : " + blob);
+		}
+		size = Integer.parseInt(header[2]);
+		if (content.length < size) {
+			content = new byte[Math.max(size, content.length * 2)];
+		}
+		int read = 0;
+		while (read < size) {
+			int n = responses.read(content, read, size - read);
+			if (n < 0) {
+				throw new EOFException("blob tronqué : " + blob);
+			}
+			read += n;
+		}
+		if (responses.read() != '\n') {
+			throw new IOException("réponse de git cat-file inattendue pour " + blob);
+		}
+	}
+
+	public byte[] content() {
+		return content;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	private String line() throws IOException {
+		StringBuilder line = new StringBuilder(64);
+		int c;
+		while ((c = responses.read()) != '\n') {
+			if (c < 0) {
+				throw new EOFException("git cat-file s'est arrêté");
+			}
+			line.append((char) c);
+		}
+		return line.toString();
+	}
+
+	@Override
+	public void close() {
+		try {
+			requests.close();
+		} catch (IOException e) {
+			// le processus est arrêté de toute façon
+		}
+		process.destroy();
+	}
+}
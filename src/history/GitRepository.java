@@ -0,0 +1,153 @@
+package history;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Dépôt git local, lu hors ligne avec la commande git : liste des commits, arbres et contenus des blobs.
+// Aucun checkout : le répertoire de travail n'est jamais modifié.
+public class GitRepository {
+	private final File directory;
+
+	public static class Commit {
+		final int index;
+		final String id;
+		final long time;
+		final String subject;
+
+		Commit(int index, String id, long time, String subject) {
+			this.index = index;
+			this.id = id;
+			this.time = time;
+			this.subject = subject;
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		// Date du commit, en secondes depuis l'époque
+		public long getTime() {
+			return time;
+		}
+
+		public String getSubject() {
+			return subject;
+		}
+	}
+
+	// Fichier d'un arbre : chemin dans le dépôt et identifiant du blob (SHA-1, identique à ContentHash)
+	public static class Entry {
+		final String path;
+		final String blob;
+
+		Entry(String path, String blob) {
+			this.path = path;
+			this.blob = blob;
+		}
+
+		public String getPath() {
+			return path;
+		}
+
+		public String getBlob() {
+			return blob;
+		}
+	}
+
+	public GitRepository(File directory) throws IOException {
+		this.directory = directory;
+		if (!"true".equals(new String(run("rev-parse", "--is-inside-work-tree"), StandardCharsets.UTF_8).trim())
+				&& !"true".equals(new String(run("rev-parse", "--is-bare-repository"), StandardCharsets.UTF_8).trim())) {
+			throw new IOException(directory + " n'est pas un dépôt git");
+		}
+	}
+
+	// Commits de la branche principale (premier parent uniquement), du plus ancien au plus récent.
+	// maxCount > 0 : seulement les maxCount derniers.
+	public List<Commit> commits(String revision, int maxCount) throws IOException {
+		List<String> args = new ArrayList<String>(Arrays.asList("log", "--first-parent", "--reverse", "--format=%H%x09%ct%x09%s"));
+		if (maxCount > 0) {
+			args.add("--max-count=" + maxCount);
+		}
+		args.add(revision);
+		args.add("--");
+
+		List<Commit> commits = new ArrayList<Commit>();
+		for (String line : new String(run(args.toArray(new String[0])), StandardCharsets.UTF_8).split("\n")) {
+			if (line.isEmpty()) {
+				continue;
+			}
+			String[] parts = line.split("\t", 3);
+			commits.add(new Commit(commits.size(), parts[0], Long.parseLong(parts[1]), parts.length > 2 ? parts[2] : ""));
+		}
+		return commits;
+	}
+
+	// Fichiers .java de l'arbre du commit, limités au sous-dossier s'il est donné
+	public List<Entry> javaFiles(String commit, String subdirectory) throws IOException {
+		byte[] output = subdirectory == null
+				? run("ls-tree", "-r", "-z", commit)
+				: run("ls-tree", "-r", "-z", commit, "--", subdirectory);
+
+		// "<mode> <type> <objet>\t<chemin>\0"
+		List<Entry> entries = new ArrayList<Entry>();
+		int start = 0;
+		for (int i = 0; i < output.length; i++) {
+			if (output[i] != 0) {
+				continue;
+			}
+			String record = new String(output, start, i - start, StandardCharsets.UTF_8);
+			start = i + 1;
+			int tab = record.indexOf('\t');
+			String[] header = record.substring(0, tab).split(" ");
+			String path = record.substring(tab + 1);
+			if ("blob".equals(header[1]) && path.endsWith(".java")) {
+				entries.add(new Entry(path, header[2]));
+			}
+		}
+		return entries;
+	}
+
+	// Lecteur de blobs persistant (un processus git cat-file par lecteur, donc par thread)
+	public BlobReader openReader() throws IOException {
+		return new BlobReader(command("cat-file", "--batch").start());
+	}
+
+	public File getDirectory() {
+		return directory;
+	}
+
+	private ProcessBuilder command(String... args) {
+		List<String> command = new ArrayList<String>();
+		command.add("git");
+		command.add("-C");
+		command.add(directory.getAbsolutePath());
+		command.addAll(Arrays.asList(args));
+		return new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD);
+	}
+
+	private byte[] run(String... args) throws IOException {
+		Process process = command(args).start();
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (InputStream in = process.getInputStream()) {
+			in.transferTo(output);
+		}
+		try {
+			int status = process.waitFor();
+			if (status != 0) {
+				throw new IOException("git " + String.join(" ", args) + " a échoué (code " + status + ")");
+			}
+		} catch (InterruptedException e) {
+			process.destroy();
+			Thread.currentThread().interrupt();
+			throw new IOException("git interrompu", e);
+		}
+		return output.toByteArray();
+	}
+}
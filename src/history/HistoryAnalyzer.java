@@ -0,0 +1,218 @@
+package history;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+import facts.ContentHash;
+import facts.FactIndex;
+import facts.FileFacts;
+import instrumentation.Instrumentation;
+import parser.AnalysisEnvironment;
+import parser.BindingLevel;
+import parser.SourceReader;
+
+// Série temporelle des métriques sur l'historique d'un dépôt, sans checkout.
+//
+// Les faits d'un fichier ne dépendent que du contenu de son blob : ils sont rangés par identifiant de blob
+// (index persistant d'une exécution à l'autre) et un blob n'est parsé qu'une fois, quel que soit le nombre
+// de commits qui le contiennent. Chaque commit est ensuite réassemblé à partir des faits en cache ;
+// les commits sont indépendants et traités en parallèle, les lignes écrites dans l'ordre de l'historique.
+// newBlobs (blobs absents de tous les commits précédents de la liste) est compté à ce moment-là,
+// pour ne pas dépendre de la tâche qui a demandé un blob la première.
+//
+// L'analyse est syntaxique : résoudre les bindings demanderait l'arbre complet et le classpath de chaque
+// commit. Le graphe d'appel est donc construit sur les noms simples des méthodes (voir MethodKeys).
+public class HistoryAnalyzer {
+	private final GitRepository repository;
+	private final String subdirectory;
+	private final int threads;
+	private final FactIndex store;
+	private final AnalysisEnvironment environment = new AnalysisEnvironment((String) null, BindingLevel.SYNTAX_ONLY);
+
+	// Un futur par blob : deux commits qui demandent le même blob en même temps attendent le même parsing
+	private final ConcurrentHashMap<String, CompletableFuture<FileFacts>> blobs = new ConcurrentHashMap<String, CompletableFuture<FileFacts>>();
+	private final AtomicInteger parsed = new AtomicInteger();
+	private final AtomicInteger reused = new AtomicInteger();
+
+	// Ressources d'un thread : processus git cat-file, tampons de décodage et parser JDT
+	private final ThreadLocal<Worker> worker = new ThreadLocal<Worker>();
+	private final ConcurrentLinkedQueue<Worker> workers = new ConcurrentLinkedQueue<Worker>();
+
+	// Point d'un commit et identifiants de ses blobs, le temps de compter ceux qui sont nouveaux
+	private static class Computed {
+		final HistoryPoint point;
+		final List<String> blobs;
+
+		Computed(HistoryPoint point, List<String> blobs) {
+			this.point = point;
+			this.blobs = blobs;
+		}
+	}
+
+	private static class Worker implements AutoCloseable {
+		final BlobReader blobs;
+		final SourceReader reader = new SourceReader();
+		final ASTParser parser = ASTParser.newParser(AST.JLS4);
+
+		Worker(BlobReader blobs) {
+			this.blobs = blobs;
+		}
+
+		@Override
+		public void close() {
+			blobs.close();
+			reader.close();
+		}
+	}
+
+	public HistoryAnalyzer(GitRepository repository, String subdirectory, int threads, FactIndex store) {
+		this.repository = repository;
+		this.subdirectory = subdirectory;
+		this.threads = Math.max(1, threads);
+		this.store = store;
+	}
+
+	// Analyse les commits et écrit une ligne CSV par commit, dans l'ordre de la liste
+	public List<HistoryPoint> run(List<GitRepository.Commit> commits, Writer out) throws IOException {
+		out.write(HistoryPoint.CSV_HEADER + "\n");
+		List<HistoryPoint> points = new ArrayList<HistoryPoint>(commits.size());
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Computed>> futures = new ArrayList<Future<Computed>>(commits.size());
+			for (GitRepository.Commit commit : commits) {
+				futures.add(executor.submit(() -> point(commit)));
+			}
+			Set<String> seen = new HashSet<String>();
+			for (Future<Computed> future : futures) {
+				Computed computed = future.get();
+				HistoryPoint point = computed.point;
+				int created = 0;
+				for (String blob : computed.blobs) {
+					created += seen.add(blob) ? 1 : 0;
+				}
+				point.newBlobs = created;
+				points.add(point);
+				out.write(point.toCsv() + "\n");
+			}
+			out.flush();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Analyse de l'historique interrompue", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			// Erreur levée par le thread qui parsait un blob partagé
+			while (cause instanceof CompletionException && cause.getCause() != null) {
+				cause = cause.getCause();
+			}
+			throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+		} finally {
+			executor.shutdownNow();
+			for (Worker w : workers) {
+				w.close();
+			}
+			workers.clear();
+		}
+		return points;
+	}
+
+	private Computed point(GitRepository.Commit commit) throws IOException {
+		List<GitRepository.Entry> entries = repository.javaFiles(commit.id, subdirectory);
+		List<FileFacts> facts = new ArrayList<FileFacts>(entries.size());
+		List<String> ids = new ArrayList<String>(entries.size());
+		for (GitRepository.Entry entry : entries) {
+			CompletableFuture<FileFacts> pending = blobs.get(entry.blob);
+			if (pending == null) {
+				CompletableFuture<FileFacts> mine = new CompletableFuture<FileFacts>();
+				pending = blobs.putIfAbsent(entry.blob, mine);
+				if (pending == null) {
+					pending = mine;
+					resolve(entry, mine);
+				}
+			}
+			facts.add(pending.join());
+			ids.add(entry.blob);
+		}
+		return new Computed(new HistoryPoint(commit, facts), ids);
+	}
+
+	// Faits du blob : relus dans l'index persistant, sinon parsés
+	private void resolve(GitRepository.Entry entry, CompletableFuture<FileFacts> result) throws IOException {
+		try {
+			FileFacts facts = store.get(entry.blob);
+			if (facts == null) {
+				facts = parse(entry);
+				store.put(facts);
+				parsed.incrementAndGet();
+			} else {
+				reused.incrementAndGet();
+			}
+			result.complete(facts);
+		} catch (Throwable e) {
+			// Y compris une Error : sinon le futur reste en attente et join() bloque les autres commits
+			result.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	private FileFacts parse(GitRepository.Entry entry) throws IOException {
+		Worker current = worker();
+		long start = Instrumentation.start();
+		current.blobs.read(entry.blob);
+		char[] content = current.reader.read(current.blobs.content(), current.blobs.size());
+		long read = Instrumentation.start();
+
+		environment.configure(current.parser);
+		current.parser.setSource(content);
+		CompilationUnit unit = (CompilationUnit) current.parser.createAST(null);
+		long parsedAt = Instrumentation.start();
+		// Clé = identifiant du blob : les faits sont partagés par tous les chemins et commits qui le contiennent
+		FileFacts facts = FileFacts.extract(store.getSymbols(), entry.blob, 0, ContentHash.fromHex(entry.blob), unit);
+		if (Instrumentation.isEnabled()) {
+			Instrumentation.file(entry.path + "@" + entry.blob.substring(0, 8), current.blobs.size(),
+					read - start, parsedAt - read, System.nanoTime() - parsedAt);
+		}
+		return facts;
+	}
+
+	private Worker worker() throws IOException {
+		Worker current = worker.get();
+		if (current == null) {
+			current = new Worker(repository.openReader());
+			worker.set(current);
+			workers.add(current);
+		}
+		return current;
+	}
+
+	// Blobs distincts rencontrés
+	public int distinctBlobs() {
+		return blobs.size();
+	}
+
+	// Blobs parsés pendant cette exécution
+	public int parsedBlobs() {
+		return parsed.get();
+	}
+
+	// Blobs relus dans l'index persistant
+	public int reusedBlobs() {
+		return reused.get();
+	}
+}
@@ -0,0 +1,109 @@
+package history;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import facts.ContentHash;
+import facts.FactIndex;
+import instrumentation.Instrumentation;
+
+// Mode historique : métriques du projet à chaque commit d'un dépôt git local (voir HistoryAnalyzer).
+//
+//   --history <dépôt>           dépôt git (aucun checkout, le répertoire de travail n'est pas touché)
+//   --rev <révision>            dernier commit analysé (défaut : HEAD), historique en premier parent
+//   --subdir <chemin>           seulement les fichiers sous ce chemin du dépôt (ex. src/main/java)
+//   --max N                     seulement les N derniers commits
+//   --threads N                 commits traités en parallèle (défaut : nombre de processeurs)
+//   --output <fichier>          CSV produit (défaut : resources/history/<dépôt>.csv)
+//
+// Les faits par blob sont conservés dans resources/index/history-<empreinte>.idx : une nouvelle exécution
+// sur le même dépôt ne parse que les blobs apparus depuis.
+public class HistoryMain {
+
+	public static boolean isHistory(String[] args) {
+		for (String arg : args) {
+			if ("--history".equals(arg)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public static void main(String[] args) {
+		System.exit(run(args));
+	}
+
+	public static int run(String[] args) {
+		String repository = null;
+		String revision = "HEAD";
+		String subdirectory = null;
+		String output = null;
+		int maxCount = 0;
+		int threads = Runtime.getRuntime().availableProcessors();
+		try {
+			for (int i = 0; i < args.length; i++) {
+				if ("--history".equals(args[i]) && i + 1 < args.length) {
+					repository = args[++i];
+				} else if ("--rev".equals(args[i]) && i + 1 < args.length) {
+					revision = args[++i];
+				} else if ("--subdir".equals(args[i]) && i + 1 < args.length) {
+					subdirectory = args[++i];
+				} else if ("--max".equals(args[i]) && i + 1 < args.length) {
+					maxCount = Integer.parseInt(args[++i]);
+				} else if ("--threads".equals(args[i]) && i + 1 < args.length) {
+					threads = Integer.parseInt(args[++i]);
+				} else if ("--output".equals(args[i]) && i + 1 < args.length) {
+					output = args[++i];
+				}
+			}
+		} catch (NumberFormatException e) {
+			System.err.println("Erreur: " + e.getMessage());
+			repository = null;
+		}
+		if (repository == null) {
+			System.err.println("Usage: --history <dépôt> [--rev R] [--subdir chemin] [--max N] [--threads N] [--output fichier.csv]");
+			return 2;
+		}
+
+		File directory = new File(repository).getAbsoluteFile();
+		File csv = new File(output != null ? output : "resources/history/" + directory.getName() + ".csv");
+		try {
+			Instrumentation.configure(args);
+		} catch (IllegalArgumentException e) {
+			System.err.println("Erreur: " + e.getMessage());
+			return 2;
+		}
+		long start = System.nanoTime();
+		try {
+			GitRepository git = new GitRepository(directory);
+			List<GitRepository.Commit> commits = git.commits(revision, maxCount);
+			String name = ContentHash.toHex(ContentHash.of(directory.getPath().getBytes(StandardCharsets.UTF_8)));
+			FactIndex store = new FactIndex(new File("resources/index/history-" + name + ".idx")).load();
+
+			HistoryAnalyzer analyzer = new HistoryAnalyzer(git, subdirectory, threads, store);
+			if (csv.getParentFile() != null) {
+				csv.getParentFile().mkdirs();
+			}
+			try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(csv), StandardCharsets.UTF_8))) {
+				analyzer.run(commits, out);
+			}
+			store.save();
+
+			System.out.println(commits.size() + " commits, " + analyzer.distinctBlobs() + " blobs distincts ("
+					+ analyzer.parsedBlobs() + " parsés, " + analyzer.reusedBlobs() + " relus dans l'index) en "
+					+ (System.nanoTime() - start) / 1_000_000 + " ms -> " + csv.getPath());
+		} catch (IOException e) {
+			System.err.println("Erreur: " + e.getMessage());
+			return 1;
+		} finally {
+			Instrumentation.finish(System.err);
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,82 @@
+package history;
+
+import java.util.List;
+
+import callGraph.CallGraph;
+import facts.FileFacts;
+import metrics.MetricsTable;
+import visitor.MethodMetric;
+
+// Mesures du projet à un commit : les valeurs de Parser.displayStatistics et la taille du graphe d'appel
+public class HistoryPoint {
+	public static final String CSV_HEADER = "commit,time,files,classes,lines,methods,packages,avgMethodsPerClass,"
+			+ "avgLinesPerMethod,avgAttributesPerClass,maxParameters,p90Complexity,maxComplexity,nodes,edges,newBlobs,subject";
+
+	final GitRepository.Commit commit;
+	final int files;
+	final int classes;
+	final int lines;
+	final int methods;
+	final int packages;
+	final double avgMethodsPerClass;
+	final double avgLinesPerMethod;
+	final double avgAttributesPerClass;
+	final int maxParameters;
+	final int p90Complexity;
+	final int maxComplexity;
+	final int nodes;
+	final int edges;
+	// Blobs absents des commits précédents de la série, renseigné par HistoryAnalyzer dans l'ordre de l'historique
+	int newBlobs;
+
+	// Reconstruit à partir des faits en cache, sans AST
+	HistoryPoint(GitRepository.Commit commit, List<FileFacts> facts) {
+		MetricsTable table = MetricsTable.fromFacts(facts);
+		CallGraph graph = FileFacts.graph(facts);
+		this.commit = commit;
+		this.files = facts.size();
+		this.classes = table.amountClass();
+		this.lines = table.amountLines();
+		this.methods = table.amountMethods();
+		this.packages = table.packages().size();
+		// Mêmes arrondis que BatchRunner.stats ; 0 plutôt que NaN pour un commit sans classe
+		this.avgMethodsPerClass = classes == 0 ? 0 : Math.ceil((double) methods / classes);
+		this.avgLinesPerMethod = methods == 0 ? 0 : Math.ceil((double) table.amountLinesByMethods() / methods);
+		this.avgAttributesPerClass = classes == 0 ? 0 : Math.ceil((double) table.amountAttributs() / classes);
+		this.maxParameters = table.maxParamsPerMethod();
+		this.p90Complexity = table.quantiles().get(MethodMetric.COMPLEXITY).quantile(0.9);
+		this.maxComplexity = table.quantiles().get(MethodMetric.COMPLEXITY).max();
+		this.nodes = graph.nodeCount();
+		this.edges = graph.edgeCount();
+	}
+
+	public String toCsv() {
+		return commit.id + "," + commit.time + "," + files + "," + classes + "," + lines + "," + methods + "," + packages + ","
+				+ (long) avgMethodsPerClass + "," + (long) avgLinesPerMethod + "," + (long) avgAttributesPerClass + ","
+				+ maxParameters + "," + p90Complexity + "," + maxComplexity + "," + nodes + "," + edges + "," + newBlobs + "," + quote(commit.subject);
+	}
+
+	private static String quote(String value) {
+		return "\"" + value.replace("\"", "\"\"") + "\"";
+	}
+
+	public GitRepository.Commit getCommit() {
+		return commit;
+	}
+
+	public int getFiles() {
+		return files;
+	}
+
+	public int getNodes() {
+		return nodes;
+	}
+
+	public int getEdges() {
+		return edges;
+	}
+
+	public int getNewBlobs() {
+		return newBlobs;
+	}
+}
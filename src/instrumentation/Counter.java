@@ -0,0 +1,19 @@
+package instrumentation;
+
+public enum Counter {
+	FILES("fichiers analysés"),
+	BYTES("octets lus"),
+	AST_NODES("noeuds d'AST visités"),
+	METHODS("méthodes"),
+	EDGES("arcs du graphe d'appel");
+
+	private final String label;
+
+	Counter(String label) {
+		this.label = label;
+	}
+
+	public String getLabel() {
+		return label;
+	}
+}
@@ -0,0 +1,305 @@
+package instrumentation;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+// Chronomètres par phase, compteurs et classement des fichiers les plus lents, pour tout le pipeline.
+//
+// Désactivée (par défaut), chaque point de mesure se réduit à la lecture d'un booléen : ni nanoTime,
+// ni allocation. Activée par --instrument (voir configure), avec un résumé en fin d'exécution,
+// un export JSON facultatif (--metrics-json) et des événements JFR (tp1.Phase, tp1.SlowFile)
+// visibles dans tout enregistrement Flight Recorder en cours.
+public class Instrumentation {
+	public static final int DEFAULT_SLOWEST = 10;
+
+	// Positionné au démarrage, avant que les workers ne soient créés
+	static boolean enabled = false;
+	static int slowestCount = DEFAULT_SLOWEST;
+	static Path jsonOutput;
+
+	private static final LongAdder[] phaseNanos = adders(Phase.values().length);
+	private static final LongAdder[] phaseCalls = adders(Phase.values().length);
+	private static final LongAdder[] counters = adders(Counter.values().length);
+	// Tas min borné : la racine est le plus rapide des N fichiers les plus lents
+	private static final PriorityQueue<FileTiming> slowest = new PriorityQueue<FileTiming>();
+
+	// Mesures d'un fichier
+	public static class FileTiming implements Comparable<FileTiming> {
+		final String path;
+		final long bytes;
+		final long read;
+		final long parse;
+		final long visit;
+
+		FileTiming(String path, long bytes, long read, long parse, long visit) {
+			this.path = path;
+			this.bytes = bytes;
+			this.read = read;
+			this.parse = parse;
+			this.visit = visit;
+		}
+
+		public long total() {
+			return read + parse + visit;
+		}
+
+		@Override
+		public int compareTo(FileTiming other) {
+			return Long.compare(total(), other.total());
+		}
+	}
+
+	private static LongAdder[] adders(int count) {
+		LongAdder[] adders = new LongAdder[count];
+		for (int i = 0; i < count; i++) {
+			adders[i] = new LongAdder();
+		}
+		return adders;
+	}
+
+	private static int parseSlowest(String value) {
+		try {
+			int parsed = Integer.parseInt(value);
+			if (parsed >= 0) {
+				return parsed;
+			}
+		} catch (NumberFormatException e) {
+			// même message que pour une valeur négative
+		}
+		throw new IllegalArgumentException("--slowest " + value + " invalide (entier >= 0 attendu)");
+	}
+
+	// --instrument : active les mesures ; --slowest N : taille du classement ; --metrics-json <fichier> : export JSON
+	// Lève IllegalArgumentException si la valeur de --slowest n'est pas un entier >= 0
+	public static void configure(String[] args) {
+		for (int i = 0; i < args.length; i++) {
+			if ("--instrument".equals(args[i])) {
+				enabled = true;
+			} else if ("--slowest".equals(args[i]) && i + 1 < args.length) {
+				slowestCount = parseSlowest(args[++i]);
+			} else if ("--metrics-json".equals(args[i]) && i + 1 < args.length) {
+				jsonOutput = Paths.get(args[++i]);
+				enabled = true;
+			}
+		}
+	}
+
+	public static void enable(int slowest) {
+		slowestCount = slowest;
+		enabled = true;
+	}
+
+	public static void disable() {
+		enabled = false;
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	public static long start() {
+		return enabled ? System.nanoTime() : 0L;
+	}
+
+	public static void end(Phase phase, long start) {
+		if (!enabled) {
+			return;
+		}
+		long elapsed = System.nanoTime() - start;
+		phaseNanos[phase.ordinal()].add(elapsed);
+		phaseCalls[phase.ordinal()].increment();
+		if (phase.isGlobal()) {
+			PhaseEvent event = new PhaseEvent();
+			if (event.isEnabled()) {
+				event.phase = phase.name();
+				event.elapsed = elapsed;
+				event.commit();
+			}
+		}
+	}
+
+	// Durée déjà mesurée par l'appelant (ex. parsing par lot, découpé entre deux callbacks)
+	public static void add(Phase phase, long elapsedNanos) {
+		if (enabled) {
+			phaseNanos[phase.ordinal()].add(elapsedNanos);
+			phaseCalls[phase.ordinal()].increment();
+		}
+	}
+
+	public static void count(Counter counter, long amount) {
+		if (enabled) {
+			counters[counter.ordinal()].add(amount);
+		}
+	}
+
+	// Fin d'un fichier : phases, compteurs et classement des plus lents (avec un événement JFR s'il y entre)
+	public static void file(String path, long bytes, long readNanos, long parseNanos, long visitNanos) {
+		if (!enabled) {
+			return;
+		}
+		add(Phase.READ, readNanos);
+		add(Phase.PARSE, parseNanos);
+		add(Phase.VISIT, visitNanos);
+		counters[Counter.FILES.ordinal()].increment();
+		counters[Counter.BYTES.ordinal()].add(bytes);
+
+		FileTiming timing = new FileTiming(path, bytes, readNanos, parseNanos, visitNanos);
+		boolean ranked;
+		synchronized (slowest) {
+			ranked = slowest.size() < slowestCount || (slowestCount > 0 && timing.total() > slowest.peek().total());
+			if (ranked) {
+				slowest.add(timing);
+				if (slowest.size() > slowestCount) {
+					slowest.poll();
+				}
+			}
+		}
+		if (ranked) {
+			SlowFileEvent event = new SlowFileEvent();
+			if (event.isEnabled()) {
+				event.path = path;
+				event.bytes = bytes;
+				event.read = readNanos;
+				event.parse = parseNanos;
+				event.visit = visitNanos;
+				event.commit();
+			}
+		}
+	}
+
+	public static List<FileTiming> slowestFiles() {
+		List<FileTiming> files;
+		synchronized (slowest) {
+			files = new ArrayList<FileTiming>(slowest);
+		}
+		Collections.sort(files, Collections.reverseOrder());
+		return files;
+	}
+
+	public static long phaseNanos(Phase phase) {
+		return phaseNanos[phase.ordinal()].sum();
+	}
+
+	public static long phaseCalls(Phase phase) {
+		return phaseCalls[phase.ordinal()].sum();
+	}
+
+	public static long counter(Counter counter) {
+		return counters[counter.ordinal()].sum();
+	}
+
+	public static void reset() {
+		for (LongAdder adder : phaseNanos) {
+			adder.reset();
+		}
+		for (LongAdder adder : phaseCalls) {
+			adder.reset();
+		}
+		for (LongAdder adder : counters) {
+			adder.reset();
+		}
+		synchronized (slowest) {
+			slowest.clear();
+		}
+	}
+
+	// Résumé de fin d'exécution (et export JSON si demandé) ; sans effet si les mesures sont désactivées
+	public static void finish(PrintStream out) {
+		if (!enabled) {
+			return;
+		}
+		printSummary(out);
+		if (jsonOutput != null) {
+			try {
+				writeJson(jsonOutput);
+				out.println("Mesures exportées: " + jsonOutput);
+			} catch (IOException e) {
+				out.println("Erreur: export des mesures impossible : " + e.getMessage());
+			}
+		}
+	}
+
+	public static void printSummary(PrintStream out) {
+		long total = 0;
+		for (Phase phase : Phase.values()) {
+			total += phaseNanos(phase);
+		}
+
+		out.println("\nMesures par phase (temps cumulés sur tous les threads):\n");
+		out.println(String.format("%-26s %10s %12s %12s %7s", "phase", "appels", "total (ms)", "moyenne (µs)", "%"));
+		for (Phase phase : Phase.values()) {
+			long nanos = phaseNanos(phase);
+			long calls = phaseCalls(phase);
+			out.println(String.format(Locale.ROOT, "%-26s %10d %12.1f %12.1f %6.1f%%", phase.getLabel(), calls, nanos / 1e6,
+					calls == 0 ? 0.0 : nanos / 1e3 / calls, total == 0 ? 0.0 : 100.0 * nanos / total));
+		}
+
+		out.println();
+		for (Counter counter : Counter.values()) {
+			out.println(String.format("%-26s %12d", counter.getLabel(), counter(counter)));
+		}
+
+		List<FileTiming> files = slowestFiles();
+		if (!files.isEmpty()) {
+			out.println("\n" + files.size() + " fichiers les plus lents:\n");
+			out.println(String.format("%10s %10s %10s %10s  %s", "total (ms)", "parse (ms)", "visite (ms)", "octets", "fichier"));
+			for (FileTiming file : files) {
+				out.println(String.format(Locale.ROOT, "%10.1f %10.1f %10.1f %10d  %s", file.total() / 1e6, file.parse / 1e6, file.visit / 1e6,
+						file.bytes, file.path));
+			}
+		}
+		out.println();
+	}
+
+	public static void writeJson(Path path) throws IOException {
+		if (path.getParent() != null) {
+			Files.createDirectories(path.getParent());
+		}
+		try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+			out.write("{\n  \"phases\": {");
+			Phase[] phases = Phase.values();
+			for (int i = 0; i < phases.length; i++) {
+				out.write((i > 0 ? "," : "") + "\n    \"" + phases[i].name().toLowerCase() + "\": {\"calls\": " + phaseCalls(phases[i])
+						+ ", \"nanos\": " + phaseNanos(phases[i]) + "}");
+			}
+			out.write("\n  },\n  \"counters\": {");
+			Counter[] all = Counter.values();
+			for (int i = 0; i < all.length; i++) {
+				out.write((i > 0 ? "," : "") + "\n    \"" + all[i].name().toLowerCase() + "\": " + counter(all[i]));
+			}
+			out.write("\n  },\n  \"slowestFiles\": [");
+			List<FileTiming> files = slowestFiles();
+			for (int i = 0; i < files.size(); i++) {
+				FileTiming file = files.get(i);
+				out.write((i > 0 ? "," : "") + "\n    {\"path\": " + quote(file.path) + ", \"bytes\": " + file.bytes + ", \"readNanos\": " + file.read
+						+ ", \"parseNanos\": " + file.parse + ", \"visitNanos\": " + file.visit + "}");
+			}
+			out.write("\n  ]\n}\n");
+		}
+	}
+
+	private static String quote(String value) {
+		StringBuilder quoted = new StringBuilder("\"");
+		for (char c : value.toCharArray()) {
+			if (c == '"' || c == '\\') {
+				quoted.append('\\').append(c);
+			} else if (c < 0x20) {
+				quoted.append(String.format("\\u%04x", (int) c));
+			} else {
+				quoted.append(c);
+			}
+		}
+		return quoted.append('"').toString();
+	}
+}
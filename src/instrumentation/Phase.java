@@ -0,0 +1,28 @@
+package instrumentation;
+
+// Étapes chronométrées du pipeline ; les étapes "globales" ont en plus un événement JFR à chaque passage
+public enum Phase {
+	DISCOVERY("recherche des fichiers", true),
+	READ("lecture des fichiers", false),
+	PARSE("parsing JDT", false),
+	VISIT("visite et extraction", false),
+	GRAPH_BUILD("construction du graphe", true),
+	DOT_WRITE("écriture DOT", true),
+	RENDER("rendu de l'image", true);
+
+	private final String label;
+	private final boolean global;
+
+	Phase(String label, boolean global) {
+		this.label = label;
+		this.global = global;
+	}
+
+	public String getLabel() {
+		return label;
+	}
+
+	public boolean isGlobal() {
+		return global;
+	}
+}
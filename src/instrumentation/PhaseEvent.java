@@ -0,0 +1,20 @@
+package instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("tp1.Phase")
+@Label("Phase d'analyse")
+@Category({ "TP1", "Analyse" })
+@Description("Durée d'une étape globale du pipeline (recherche des fichiers, graphe, DOT, rendu)")
+class PhaseEvent extends jdk.jfr.Event {
+	@Label("Phase")
+	String phase;
+
+	@Label("Durée")
+	@Timespan(Timespan.NANOSECONDS)
+	long elapsed;
+}
@@ -0,0 +1,33 @@
+package instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("tp1.SlowFile")
+@Label("Fichier lent")
+@Category({ "TP1", "Analyse" })
+@Description("Fichier entré dans le classement des N fichiers les plus lents à analyser")
+class SlowFileEvent extends jdk.jfr.Event {
+	@Label("Fichier")
+	String path;
+
+	@Label("Taille")
+	@DataAmount(DataAmount.BYTES)
+	long bytes;
+
+	@Label("Lecture")
+	@Timespan(Timespan.NANOSECONDS)
+	long read;
+
+	@Label("Parsing")
+	@Timespan(Timespan.NANOSECONDS)
+	long parse;
+
+	@Label("Visite")
+	@Timespan(Timespan.NANOSECONDS)
+	long visit;
+}
@@ -0,0 +1,58 @@
+package metrics;
+
+import java.util.Arrays;
+
+// Colonne d'entiers primitifs extensible (pas de boxing)
+public class IntColumn {
+	private final String name;
+	private int[] values = new int[256];
+	private int size = 0;
+
+	public IntColumn(String name) {
+		this.name = name;
+	}
+
+	public void add(int value) {
+		if (size == values.length) {
+			values = Arrays.copyOf(values, values.length * 2);
+		}
+		values[size++] = value;
+	}
+
+	public int get(int row) {
+		return values[row];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long sum() {
+		long sum = 0;
+		for (int i = 0; i < size; i++) {
+			sum += values[i];
+		}
+		return sum;
+	}
+
+	public int max() {
+		int max = 0;
+		for (int i = 0; i < size; i++) {
+			max = Math.max(max, values[i]);
+		}
+		return max;
+	}
+
+	// Tableau interne (taille >= size()) : lecture seule, pour les exports et les classements
+	int[] array() {
+		return values;
+	}
+
+	public int[] toArray() {
+		return Arrays.copyOf(values, size);
+	}
+}
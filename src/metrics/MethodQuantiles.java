@@ -0,0 +1,58 @@
+package metrics;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import visitor.FileMetrics;
+import visitor.MethodMetric;
+
+// Un QuantileSketch par MethodMetric : p50/p90/p99/max de toutes les méthodes vues, sans garder les valeurs
+public class MethodQuantiles {
+	private static final MethodMetric[] METRICS = MethodMetric.values();
+
+	private final QuantileSketch[] sketches = new QuantileSketch[MethodMetric.COUNT];
+
+	public MethodQuantiles() {
+		for (int m = 0; m < sketches.length; m++) {
+			sketches[m] = new QuantileSketch();
+		}
+	}
+
+	public void add(MethodMetric metric, int value) {
+		sketches[metric.ordinal()].add(value);
+	}
+
+	// Toutes les méthodes d'un fichier (lignes remplies par ComplexityCollector)
+	public void add(FileMetrics metrics) {
+		for (int row = 0; row < metrics.getMethodRows(); row++) {
+			for (MethodMetric metric : METRICS) {
+				add(metric, metrics.getMethodValue(row, metric));
+			}
+		}
+	}
+
+	public void merge(MethodQuantiles other) {
+		for (int m = 0; m < sketches.length; m++) {
+			sketches[m].merge(other.sketches[m]);
+		}
+	}
+
+	public QuantileSketch get(MethodMetric metric) {
+		return sketches[metric.ordinal()];
+	}
+
+	public void writeTo(DataOutput out) throws IOException {
+		for (QuantileSketch sketch : sketches) {
+			sketch.writeTo(out);
+		}
+	}
+
+	public static MethodQuantiles read(ByteBuffer in) {
+		MethodQuantiles quantiles = new MethodQuantiles();
+		for (int m = 0; m < quantiles.sketches.length; m++) {
+			quantiles.sketches[m] = QuantileSketch.read(in);
+		}
+		return quantiles;
+	}
+}
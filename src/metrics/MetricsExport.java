@@ -0,0 +1,135 @@
+package metrics;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import callGraph.export.GraphExport;
+
+// Export de MetricsTable : CSV lisibles (classes.csv, methods.csv) et fichier binaire en colonnes (metrics.colm).
+//
+// Format colm : "COLM" | version | nb dictionnaires | dictionnaires (nom, nb, chaînes UTF-8 préfixées)
+//               | nb colonnes | colonnes (nom de table, nom de colonne, nb lignes, int32 bruts)
+// Les colonnes sont copiées en bloc depuis les int[] vers un tampon direct réutilisé, sans formatage.
+public class MetricsExport {
+	public static final int MAGIC = 0x434F4C4D; // "COLM"
+	public static final int VERSION = 1;
+	static final int BUFFER_SIZE = 1 << 16;
+
+	public static void exportCsv(MetricsTable table, Path directory) throws IOException {
+		Files.createDirectories(directory);
+		try (Writer out = new OutputStreamWriter(GraphExport.open(directory.resolve("classes.csv"), false), StandardCharsets.UTF_8)) {
+			out.write("class,file,lines,methods,fields,parameters\n");
+			for (int row = 0; row < table.classRows(); row++) {
+				out.write(csv(table.classNames.name(table.classId.get(row))) + "," + csv(table.fileNames.name(table.classFile.get(row)))
+						+ "," + table.classLines.get(row) + "," + table.classMethods.get(row) + "," + table.classFields.get(row)
+						+ "," + table.classParams.get(row) + "\n");
+			}
+		}
+		try (Writer out = new OutputStreamWriter(GraphExport.open(directory.resolve("methods.csv"), false), StandardCharsets.UTF_8)) {
+			out.write("method,class,file,parameters,line_span,complexity,nesting,statements,invocations\n");
+			for (int row = 0; row < table.methodRows(); row++) {
+				int classRow = table.methodClass.get(row);
+				String className = classRow < 0 ? "" : table.classNames.name(table.classId.get(classRow));
+				out.write(csv(table.methodNames.name(table.methodId.get(row))) + "," + csv(className) + ","
+						+ csv(table.fileNames.name(table.methodFile.get(row))) + "," + table.methodParams.get(row)
+						+ "," + table.methodLines.get(row) + "," + table.methodComplexity.get(row) + "," + table.methodNesting.get(row)
+						+ "," + table.methodStatements.get(row) + "," + table.methodInvocations.get(row) + "\n");
+			}
+		}
+	}
+
+	public static Path exportBinary(MetricsTable table, Path file) throws IOException {
+		if (file.getParent() != null) {
+			Files.createDirectories(file.getParent());
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+			buffer.putInt(MAGIC).putInt(VERSION);
+
+			String[][] dictionaries = { table.fileNames.names(), table.classNames.names(), table.methodNames.names(), table.packageNames.names() };
+			String[] dictionaryNames = { "files", "classes", "methods", "packages" };
+			buffer.putInt(dictionaries.length);
+			for (int d = 0; d < dictionaries.length; d++) {
+				putString(channel, buffer, dictionaryNames[d]);
+				ensure(channel, buffer, 4);
+				buffer.putInt(dictionaries[d].length);
+				for (String name : dictionaries[d]) {
+					putString(channel, buffer, name);
+				}
+			}
+
+			IntColumn[] columns = { table.fileLines, table.fileAttributs, table.fileParams,
+					table.classId, table.classFile, table.classLines, table.classMethods, table.classFields, table.classParams,
+					table.methodId, table.methodClass, table.methodFile, table.methodParams, table.methodLines,
+					table.methodComplexity, table.methodNesting, table.methodStatements, table.methodInvocations };
+			String[] owners = { "files", "files", "files",
+					"classes", "classes", "classes", "classes", "classes", "classes",
+					"methods", "methods", "methods", "methods", "methods",
+					"methods", "methods", "methods", "methods" };
+			ensure(channel, buffer, 4);
+			buffer.putInt(columns.length);
+			for (int c = 0; c < columns.length; c++) {
+				putString(channel, buffer, owners[c]);
+				putString(channel, buffer, columns[c].getName());
+				ensure(channel, buffer, 4);
+				buffer.putInt(columns[c].size());
+				putInts(channel, buffer, columns[c].array(), columns[c].size());
+			}
+			drain(channel, buffer);
+		}
+		return file;
+	}
+
+	// Copie en bloc des entiers (IntBuffer sur le tampon direct), vidé dans le canal à chaque remplissage
+	private static void putInts(FileChannel channel, ByteBuffer buffer, int[] values, int size) throws IOException {
+		int offset = 0;
+		while (offset < size) {
+			ensure(channel, buffer, Integer.BYTES);
+			int count = Math.min(size - offset, buffer.remaining() / Integer.BYTES);
+			buffer.asIntBuffer().put(values, offset, count);
+			buffer.position(buffer.position() + count * Integer.BYTES);
+			offset += count;
+		}
+	}
+
+	private static void putString(FileChannel channel, ByteBuffer buffer, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		ensure(channel, buffer, 4);
+		buffer.putInt(bytes.length);
+		int offset = 0;
+		while (offset < bytes.length) {
+			ensure(channel, buffer, 1);
+			int count = Math.min(bytes.length - offset, buffer.remaining());
+			buffer.put(bytes, offset, count);
+			offset += count;
+		}
+	}
+
+	private static void ensure(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+		if (buffer.remaining() < bytes) {
+			drain(channel, buffer);
+		}
+	}
+
+	private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	private static String csv(String value) {
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+			return value;
+		}
+		return "\"" + value.replace("\"", "\"\"") + "\"";
+	}
+}
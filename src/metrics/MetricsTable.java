@@ -0,0 +1,219 @@
+package metrics;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import callGraph.DenseIds;
+import callGraph.SymbolTable;
+import facts.FileFacts;
+import visitor.MethodMetric;
+
+// Table de métriques en colonnes primitives, une ligne par fichier, par classe déclarée et par méthode.
+// Les noms (fichiers, classes, méthodes, paquetages) sont internés : les colonnes ne contiennent que des int.
+// Classes, méthodes et paquetages sont déjà des symboles de la table des faits (FileFacts.getSymbols) : ils ne sont
+// que renumérotés, sans relire ni hacher les noms.
+public class MetricsTable {
+	final SymbolTable fileNames = new SymbolTable();
+	final DenseIds classNames;
+	final DenseIds methodNames;
+	final DenseIds packageNames;
+
+	// Fichiers : valeurs "fichier" historiques de Parser (lignes de la dernière classe, attributs de la dernière classe)
+	final IntColumn fileLines = new IntColumn("lines");
+	final IntColumn fileAttributs = new IntColumn("attributes");
+	final IntColumn fileParams = new IntColumn("parameters");
+
+	// Classes : une ligne par TypeDeclaration
+	final IntColumn classId = new IntColumn("class");
+	final IntColumn classFile = new IntColumn("file");
+	final IntColumn classLines = new IntColumn("lines");
+	final IntColumn classMethods = new IntColumn("methods");
+	final IntColumn classFields = new IntColumn("fields");
+	final IntColumn classParams = new IntColumn("parameters");
+
+	// Méthodes : une ligne par MethodDeclaration
+	final IntColumn methodId = new IntColumn("method");
+	final IntColumn methodClass = new IntColumn("class_row");
+	final IntColumn methodFile = new IntColumn("file");
+	final IntColumn methodParams = new IntColumn("parameters");
+	final IntColumn methodLines = new IntColumn("line_span");
+	final IntColumn methodComplexity = new IntColumn("complexity");
+	final IntColumn methodNesting = new IntColumn("nesting");
+	final IntColumn methodStatements = new IntColumn("statements");
+	final IntColumn methodInvocations = new IntColumn("invocations");
+
+	// Quantiles des métriques par méthode, tenus à jour ligne par ligne
+	final MethodQuantiles quantiles = new MethodQuantiles();
+
+	public MetricsTable() {
+		this(SymbolTable.shared());
+	}
+
+	// symbols : table des faits qui seront ajoutés
+	public MetricsTable(SymbolTable symbols) {
+		classNames = new DenseIds(symbols);
+		methodNames = new DenseIds(symbols);
+		packageNames = new DenseIds(symbols);
+	}
+
+	public static MetricsTable fromFacts(List<FileFacts> facts) {
+		MetricsTable table = new MetricsTable(FileFacts.symbols(facts));
+		for (FileFacts fileFacts : facts) {
+			table.add(fileFacts);
+		}
+		return table;
+	}
+
+	public void add(FileFacts facts) {
+		if (facts.getSymbols() != classNames.getSymbols()) {
+			throw new IllegalArgumentException("faits d'une autre table de symboles : " + facts.getPath());
+		}
+		int file = fileNames.intern(facts.getPath());
+		fileLines.add(facts.getAmountLines());
+		fileAttributs.add(facts.getAmountAttributs());
+		for (int p : facts.getPackages()) {
+			packageNames.intern(p);
+		}
+
+		int firstClassRow = classId.size();
+		int[] typeNames = facts.getTypeNames();
+		for (int t = 0; t < typeNames.length; t++) {
+			classId.add(classNames.intern(typeNames[t]));
+			classFile.add(file);
+			classLines.add(facts.getTypeLines()[t]);
+			classMethods.add(facts.getTypeMethods()[t]);
+			classFields.add(facts.getTypeFields()[t]);
+			classParams.add(facts.getTypeParams()[t]);
+		}
+
+		int params = 0;
+		int[] names = facts.getMethodNames();
+		for (int m = 0; m < names.length; m++) {
+			int type = facts.getMethodTypes()[m];
+			methodId.add(methodNames.intern(names[m]));
+			methodClass.add(type < 0 ? -1 : firstClassRow + type);
+			methodFile.add(file);
+			methodParams.add(facts.getMethodParams()[m]);
+			methodLines.add(facts.getMethodLines()[m]);
+			methodComplexity.add(facts.getMethodComplexity()[m]);
+			methodNesting.add(facts.getMethodNesting()[m]);
+			methodStatements.add(facts.getMethodStatements()[m]);
+			methodInvocations.add(facts.getMethodInvocations()[m]);
+			params += facts.getMethodParams()[m];
+
+			quantiles.add(MethodMetric.PARAMETERS, facts.getMethodParams()[m]);
+			quantiles.add(MethodMetric.LINES, facts.getMethodLines()[m]);
+			quantiles.add(MethodMetric.COMPLEXITY, facts.getMethodComplexity()[m]);
+			quantiles.add(MethodMetric.NESTING, facts.getMethodNesting()[m]);
+			quantiles.add(MethodMetric.STATEMENTS, facts.getMethodStatements()[m]);
+			quantiles.add(MethodMetric.INVOCATIONS, facts.getMethodInvocations()[m]);
+		}
+		fileParams.add(params);
+	}
+
+	// Agrégats affichés par Parser.displayStatistics
+
+	public int amountClass() {
+		return classId.size();
+	}
+
+	public int amountLines() {
+		return (int) fileLines.sum();
+	}
+
+	public int amountMethods() {
+		return methodId.size();
+	}
+
+	public long amountLinesByMethods() {
+		return methodLines.sum();
+	}
+
+	public long amountAttributs() {
+		return fileAttributs.sum();
+	}
+
+	// Somme des paramètres du fichier qui en déclare le plus (valeur historique de getMethodParams, qui additionne) :
+	// ce n'est pas un maximum par méthode, voir maxParamsPerMethod
+	public int maxParamsPerFile() {
+		return fileParams.max();
+	}
+
+	public int maxParamsPerMethod() {
+		return methodParams.max();
+	}
+
+	public MethodQuantiles quantiles() {
+		return quantiles;
+	}
+
+	public Set<String> packages() {
+		Set<String> packages = new LinkedHashSet<String>();
+		for (int p = 0; p < packageNames.size(); p++) {
+			packages.add(packageNames.name(p));
+		}
+		return packages;
+	}
+
+	// Colonne d'une métrique par classe, dédoublonnée par nom (dernière déclaration gagnante, comme les maps de Parser)
+	public String[] distinctClassNames() {
+		return classNames.names();
+	}
+
+	public int[] distinctClassColumn(IntColumn column) {
+		int[] values = new int[classNames.size()];
+		for (int row = 0; row < classId.size(); row++) {
+			values[classId.get(row)] = column.get(row);
+		}
+		return values;
+	}
+
+	public int classRows() {
+		return classId.size();
+	}
+
+	public int methodRows() {
+		return methodId.size();
+	}
+
+	public IntColumn getClassLines() {
+		return classLines;
+	}
+
+	public IntColumn getClassMethods() {
+		return classMethods;
+	}
+
+	public IntColumn getClassFields() {
+		return classFields;
+	}
+
+	public IntColumn getClassParams() {
+		return classParams;
+	}
+
+	public IntColumn getMethodParams() {
+		return methodParams;
+	}
+
+	public IntColumn getMethodLines() {
+		return methodLines;
+	}
+
+	public IntColumn getMethodComplexity() {
+		return methodComplexity;
+	}
+
+	public IntColumn getMethodNesting() {
+		return methodNesting;
+	}
+
+	public IntColumn getMethodStatements() {
+		return methodStatements;
+	}
+
+	public IntColumn getMethodInvocations() {
+		return methodInvocations;
+	}
+}
@@ -0,0 +1,134 @@
+package metrics;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+// Résumé de quantiles en mémoire constante pour des valeurs entières positives (histogramme log-linéaire) :
+// valeurs exactes jusqu'à 63, puis 32 sous-intervalles par puissance de 2, soit au plus 1/32 d'erreur relative.
+// Deux résumés se fusionnent en additionnant leurs compteurs : chaque thread remplit le sien, le total est le même
+// que si toutes les valeurs étaient passées par un seul résumé. Taille fixe (864 compteurs) quel que soit le volume.
+public class QuantileSketch {
+	static final int EXACT = 64;
+	static final int SUB_BITS = 5;
+	static final int SUB = 1 << SUB_BITS;
+	// Puissances de 2 de 2^6 à 2^30
+	static final int BUCKETS = EXACT + (31 - 6) * SUB;
+
+	private final long[] counts = new long[BUCKETS];
+	private long count = 0;
+	private long sum = 0;
+	private int min = Integer.MAX_VALUE;
+	private int max = 0;
+
+	public void add(int value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("valeur négative : " + value);
+		}
+		counts[bucket(value)]++;
+		count++;
+		sum += value;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+	}
+
+	public void merge(QuantileSketch other) {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] += other.counts[i];
+		}
+		count += other.count;
+		sum += other.sum;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+	}
+
+	// Plus petite borne v telle qu'au moins une fraction q des valeurs soit <= v (borne haute de l'intervalle,
+	// ramenée dans [min, max]) ; 0 si le résumé est vide
+	public int quantile(double q) {
+		if (count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(q * count));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return Math.max(min, Math.min(max, upper(i)));
+			}
+		}
+		return max;
+	}
+
+	public long count() {
+		return count;
+	}
+
+	public long sum() {
+		return sum;
+	}
+
+	public int min() {
+		return count == 0 ? 0 : min;
+	}
+
+	public int max() {
+		return max;
+	}
+
+	public double mean() {
+		return count == 0 ? 0 : (double) sum / count;
+	}
+
+	// Encodage creux : total, somme, min, max puis (intervalle, compteur) pour les intervalles non vides
+	public void writeTo(DataOutput out) throws IOException {
+		int used = 0;
+		for (long c : counts) {
+			if (c != 0) {
+				used++;
+			}
+		}
+		out.writeLong(count);
+		out.writeLong(sum);
+		out.writeInt(min);
+		out.writeInt(max);
+		out.writeInt(used);
+		for (int i = 0; i < BUCKETS; i++) {
+			if (counts[i] != 0) {
+				out.writeShort(i);
+				out.writeLong(counts[i]);
+			}
+		}
+	}
+
+	public static QuantileSketch read(ByteBuffer in) {
+		QuantileSketch sketch = new QuantileSketch();
+		sketch.count = in.getLong();
+		sketch.sum = in.getLong();
+		sketch.min = in.getInt();
+		sketch.max = in.getInt();
+		int used = in.getInt();
+		for (int i = 0; i < used; i++) {
+			int bucket = in.getShort();
+			sketch.counts[bucket] = in.getLong();
+		}
+		return sketch;
+	}
+
+	static int bucket(int value) {
+		if (value < EXACT) {
+			return value;
+		}
+		int exponent = 31 - Integer.numberOfLeadingZeros(value);
+		return EXACT + (exponent - 6) * SUB + ((value >>> (exponent - SUB_BITS)) & (SUB - 1));
+	}
+
+	// Plus grande valeur rangée dans l'intervalle
+	static int upper(int bucket) {
+		if (bucket < EXACT) {
+			return bucket;
+		}
+		int exponent = 6 + (bucket - EXACT) / SUB;
+		int lower = (SUB + (bucket - EXACT) % SUB) << (exponent - SUB_BITS);
+		return lower + (1 << (exponent - SUB_BITS)) - 1;
+	}
+}
@@ -0,0 +1,93 @@
+package parser;
+
+import java.util.Map;
+
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+
+import parser.classpath.ClasspathResolver;
+import parser.classpath.ProjectClasspath;
+
+// Environnement JDT d'un projet : racines de sources, classpath et niveau de résolution des bindings.
+// Immuable : plusieurs projets peuvent être analysés en même temps, chacun avec le sien.
+public class AnalysisEnvironment {
+	private final String[] sourcePaths;
+	private final String[] classpath;
+	private final BindingLevel bindingLevel;
+
+	public AnalysisEnvironment(String sourcePath, BindingLevel bindingLevel) {
+		this(new String[] { sourcePath }, new String[] { Parser.jrePath }, bindingLevel);
+	}
+
+	public AnalysisEnvironment(String[] sourcePaths, String[] classpath, BindingLevel bindingLevel) {
+		this.sourcePaths = sourcePaths.clone();
+		this.classpath = classpath.clone();
+		this.bindingLevel = bindingLevel;
+	}
+
+	// Environnement au niveau le plus bas qui suffit au profil
+	public static AnalysisEnvironment forProfile(String sourcePath, AnalysisProfile profile) {
+		return forProject(sourcePath, profile.getBindingLevel());
+	}
+
+	// Avec bindings : racines et jars lus dans le build du projet (voir ClasspathResolver) ; sinon rien à résoudre
+	public static AnalysisEnvironment forProject(String sourcePath, BindingLevel bindingLevel) {
+		if (sourcePath == null || !bindingLevel.covers(BindingLevel.FULL_BINDINGS) || !ClasspathResolver.enabled) {
+			return new AnalysisEnvironment(sourcePath, bindingLevel);
+		}
+		ProjectClasspath classpath = ClasspathResolver.resolve(sourcePath);
+		return new AnalysisEnvironment(classpath.sourceRootArray(), classpath.classpathEntries(), bindingLevel);
+	}
+
+	public ASTParser newParser() {
+		return configure(ASTParser.newParser(AST.JLS4));
+	}
+
+	// JDT remet le parser à zéro après chaque createAST : il faut le reconfigurer avant de le réutiliser.
+	// Sans bindings, ni environnement de noms ni JRE à charger : seule la syntaxe est analysée.
+	public ASTParser configure(ASTParser parser) {
+		parser.setKind(ASTParser.K_COMPILATION_UNIT);
+		Map<String, String> options = JavaCore.getOptions();
+		parser.setCompilerOptions(options);
+		if (!hasBindings()) {
+			return parser;
+		}
+
+		parser.setResolveBindings(true);
+		parser.setBindingsRecovery(true);
+
+		String[] encodings = new String[sourcePaths.length];
+		for (int i = 0; i < encodings.length; i++) {
+			encodings[i] = "UTF-8";
+		}
+		parser.setEnvironment(classpath, sourcePaths, encodings, true);
+		return parser;
+	}
+
+	// Pour une source passée en char[] : sans nom d'unité, JDT ne résout aucun binding (et les clés de
+	// MethodKeys retombent sur les noms simples). Le chemin absolu du fichier suffit comme nom.
+	public ASTParser configure(ASTParser parser, String unitName) {
+		configure(parser);
+		if (hasBindings() && unitName != null) {
+			parser.setUnitName(unitName);
+		}
+		return parser;
+	}
+
+	public boolean hasBindings() {
+		return bindingLevel.covers(BindingLevel.FULL_BINDINGS);
+	}
+
+	public BindingLevel getBindingLevel() {
+		return bindingLevel;
+	}
+
+	public String[] getSourcePaths() {
+		return sourcePaths.clone();
+	}
+
+	public String[] getClasspath() {
+		return classpath.clone();
+	}
+}
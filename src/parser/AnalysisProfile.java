@@ -0,0 +1,30 @@
+package parser;
+
+// Ce qu'une analyse lit dans l'AST, et donc le niveau de bindings dont elle a besoin
+public enum AnalysisProfile {
+	// Classes, méthodes, attributs, lignes, paramètres, paquetages : tout se lit dans la syntaxe
+	STATISTICS(BindingLevel.SYNTAX_ONLY),
+	// Arcs identifiés par les clés complètes des méthodes (MethodKeys) : bindings nécessaires
+	CALL_GRAPH(BindingLevel.FULL_BINDINGS),
+	// Faits complets d'un fichier (statistiques et arcs), tels que gardés par FactCache
+	FACTS(BindingLevel.FULL_BINDINGS);
+
+	private final BindingLevel bindingLevel;
+
+	AnalysisProfile(BindingLevel bindingLevel) {
+		this.bindingLevel = bindingLevel;
+	}
+
+	public BindingLevel getBindingLevel() {
+		return bindingLevel;
+	}
+
+	// Niveau le plus bas qui satisfait toutes les analyses demandées
+	public static BindingLevel required(Iterable<AnalysisProfile> profiles) {
+		BindingLevel level = BindingLevel.SYNTAX_ONLY;
+		for (AnalysisProfile profile : profiles) {
+			level = BindingLevel.max(level, profile.getBindingLevel());
+		}
+		return level;
+	}
+}
@@ -0,0 +1,43 @@
+package parser;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Budget mémoire global pour les AST vivants, partagé entre toutes les analyses en cours.
+// La taille d'un AST est estimée à partir de la longueur du source ; un fichier plus gros que le budget
+// entier le prend en totalité et passe seul. Sémaphore équitable : les gros fichiers ne sont pas affamés.
+public class AstBudget {
+	// Estimation grossière : un AST JDT avec bindings occupe de l'ordre de 20 à 40 octets par caractère source
+	public static final int BYTES_PER_CHAR = 32;
+
+	private final Semaphore permits;
+	private final int capacityKb;
+	private final AtomicLong inUseKb = new AtomicLong();
+	private final AtomicLong peakKb = new AtomicLong();
+
+	public AstBudget(long maxBytes) {
+		this.capacityKb = (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxBytes / 1024));
+		this.permits = new Semaphore(capacityKb, true);
+	}
+
+	// Réserve la place d'un AST ; le nombre de permis pris doit être rendu par release
+	public int acquire(int sourceChars) throws InterruptedException {
+		int kb = (int) Math.min(capacityKb, Math.max(1, (long) sourceChars * BYTES_PER_CHAR / 1024));
+		permits.acquire(kb);
+		peakKb.accumulateAndGet(inUseKb.addAndGet(kb), Math::max);
+		return kb;
+	}
+
+	public void release(int kb) {
+		inUseKb.addAndGet(-kb);
+		permits.release(kb);
+	}
+
+	public long getCapacityBytes() {
+		return capacityKb * 1024L;
+	}
+
+	public long getPeakBytes() {
+		return peakKb.get() * 1024;
+	}
+}
@@ -0,0 +1,17 @@
+package parser;
+
+// Niveau de résolution demandé à JDT, du moins cher au plus cher
+public enum BindingLevel {
+	// Syntaxe seule : pas d'environnement de noms, pas de JRE, pas de bindings
+	SYNTAX_ONLY,
+	// Bindings résolus (et récupérés si incomplets) contre les sources du projet et le JRE
+	FULL_BINDINGS;
+
+	public boolean covers(BindingLevel other) {
+		return compareTo(other) >= 0;
+	}
+
+	public static BindingLevel max(BindingLevel a, BindingLevel b) {
+		return a.covers(b) ? a : b;
+	}
+}
@@ -0,0 +1,105 @@
+package parser;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import metrics.MethodQuantiles;
+import visitor.FileMetrics;
+
+// Equivalent thread-safe de ProjectMetrics : compteurs LongAdder et maps concurrentes.
+// L'ordre des maps et la valeur retenue pour un nom de classe en double sont ceux du mode séquentiel.
+public class ConcurrentProjectMetrics {
+	LongAdder amountClass = new LongAdder();
+	LongAdder amountLines = new LongAdder();
+	LongAdder amountMethods = new LongAdder();
+	LongAdder amountLinesByMethods = new LongAdder();
+	LongAdder amountAttributs = new LongAdder();
+	DoubleAccumulator maxParamAmount = new DoubleAccumulator(Math::max, 0);
+	Set<String> packages = ConcurrentHashMap.newKeySet();
+	ConcurrentHashMap<String, ClassSlot> classesMethods = new ConcurrentHashMap<String, ClassSlot>();
+	ConcurrentHashMap<String, ClassSlot> classesAttributes = new ConcurrentHashMap<String, ClassSlot>();
+
+	// Un résumé de quantiles par thread, sans verrou ; fusionnés dans toProjectMetrics
+	Queue<MethodQuantiles> workerQuantiles = new ConcurrentLinkedQueue<MethodQuantiles>();
+	ThreadLocal<MethodQuantiles> quantiles = ThreadLocal.withInitial(() -> {
+		MethodQuantiles local = new MethodQuantiles();
+		workerQuantiles.add(local);
+		return local;
+	});
+
+	// Position de première insertion (ordre de la LinkedHashMap) et valeur de la dernière écriture
+	static class ClassSlot {
+		final long first;
+		final long last;
+		final int value;
+
+		ClassSlot(long first, long last, int value) {
+			this.first = first;
+			this.last = last;
+			this.value = value;
+		}
+
+		static ClassSlot merge(ClassSlot a, ClassSlot b) {
+			ClassSlot latest = a.last >= b.last ? a : b;
+			return new ClassSlot(Math.min(a.first, b.first), latest.last, latest.value);
+		}
+	}
+
+	public void add(int fileIndex, FileMetrics metrics) {
+		amountClass.add(metrics.getAmountClass());
+		amountLines.add(metrics.getAmountLines());
+		amountMethods.add(metrics.getAmountMethods());
+		amountLinesByMethods.add(metrics.getAmountLinesByMethods());
+		amountAttributs.add(metrics.getAmountAttributs());
+		maxParamAmount.accumulate(metrics.getAmountParams());
+		packages.addAll(metrics.getPackages());
+		quantiles.get().add(metrics);
+		merge(fileIndex, metrics.getClassesMethods(), classesMethods);
+		merge(fileIndex, metrics.getClassesAttributes(), classesAttributes);
+	}
+
+	private static void merge(int fileIndex, Map<String, Integer> values, ConcurrentHashMap<String, ClassSlot> target) {
+		int ordinal = 0;
+		for (Map.Entry<String, Integer> entry : values.entrySet()) {
+			long position = ((long) fileIndex << 32) | ordinal++;
+			target.merge(entry.getKey(), new ClassSlot(position, position, entry.getValue()), ClassSlot::merge);
+		}
+	}
+
+	public ProjectMetrics toProjectMetrics() {
+		ProjectMetrics result = new ProjectMetrics();
+		result.amountClass = amountClass.intValue();
+		result.amountLines = amountLines.intValue();
+		result.amountMethods = amountMethods.doubleValue();
+		result.amountLinesByMethods = amountLinesByMethods.doubleValue();
+		result.amountAttributs = amountAttributs.doubleValue();
+		result.maxParamAmount = maxParamAmount.get();
+		result.packages.addAll(packages);
+		result.classesMethods = ordered(classesMethods);
+		result.classesAttributes = ordered(classesAttributes);
+		for (MethodQuantiles local : workerQuantiles) {
+			result.quantiles.merge(local);
+		}
+		return result;
+	}
+
+	private static Map<String, Integer> ordered(ConcurrentHashMap<String, ClassSlot> slots) {
+		List<Map.Entry<String, ClassSlot>> entries = new ArrayList<Map.Entry<String, ClassSlot>>(slots.entrySet());
+		entries.sort(Comparator.comparingLong(entry -> entry.getValue().first));
+
+		Map<String, Integer> result = new LinkedHashMap<String, Integer>();
+		for (Map.Entry<String, ClassSlot> entry : entries) {
+			result.put(entry.getKey(), entry.getValue().value);
+		}
+		return result;
+	}
+}
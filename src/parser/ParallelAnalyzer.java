@@ -0,0 +1,163 @@
+package parser;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+import instrumentation.Instrumentation;
+
+// Pipeline parallèle : lecture des fichiers -> file bornée -> N workers (un ASTParser chacun) -> extraction
+// Au plus maxInFlight sources lues attendent dans la file, et chaque worker ne tient qu'un AST à la fois :
+// au plus threads AST existent en même temps, quel que soit le nombre de fichiers.
+public class ParallelAnalyzer {
+
+	// Reçoit chaque unité avec l'indice de son fichier ; doit être thread-safe
+	public interface UnitConsumer {
+		void accept(int fileIndex, CompilationUnit unit);
+	}
+
+	static class Source {
+		final int index;
+		final char[] content;
+		// Chemin absolu : nom d'unité pour JDT (bindings) et nom du fichier pour Instrumentation
+		final String path;
+		// Mesures de la lecture, renseignées seulement si Instrumentation est active
+		final long bytes;
+		final long readNanos;
+
+		Source(int index, char[] content, String path, long bytes, long readNanos) {
+			this.index = index;
+			this.content = content;
+			this.path = path;
+			this.bytes = bytes;
+			this.readNanos = readNanos;
+		}
+	}
+
+	private static final Source END = new Source(-1, null, null, 0L, 0L);
+
+	private final int threads;
+	private final int maxInFlight;
+	private final AnalysisEnvironment environment;
+
+	// Environnement du projet courant de Parser, lu à la construction
+	public ParallelAnalyzer(int threads) {
+		this(threads, threads * 2);
+	}
+
+	public ParallelAnalyzer(int threads, int maxInFlight) {
+		this(Parser.environment(), threads, maxInFlight);
+	}
+
+	public ParallelAnalyzer(AnalysisEnvironment environment, int threads) {
+		this(environment, threads, threads * 2);
+	}
+
+	public ParallelAnalyzer(AnalysisEnvironment environment, int threads, int maxInFlight) {
+		this.threads = Math.max(1, threads);
+		this.maxInFlight = Math.max(1, maxInFlight);
+		this.environment = environment;
+	}
+
+	public void analyze(List<File> files, UnitConsumer consumer) throws IOException {
+		BlockingQueue<Source> queue = new ArrayBlockingQueue<Source>(maxInFlight);
+		AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		ExecutorService workers = Executors.newFixedThreadPool(threads);
+
+		try {
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			for (int t = 0; t < threads; t++) {
+				futures.add(workers.submit(() -> work(queue, failure, consumer)));
+			}
+
+			// La lecture se fait dans le thread appelant et bloque dès que la file est pleine
+			try (SourceReader reader = new SourceReader()) {
+				for (int i = 0; i < files.size(); i++) {
+					File file = files.get(i);
+					long start = Instrumentation.start();
+					char[] content = reader.read(file);
+					put(queue, futures, Instrumentation.isEnabled()
+							? new Source(i, content, file.getAbsolutePath(), reader.bytes(), System.nanoTime() - start)
+							: new Source(i, content, file.getAbsolutePath(), 0L, 0L));
+				}
+				for (int t = 0; t < threads; t++) {
+					put(queue, futures, END);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Analyse interrompue", e);
+			}
+
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Analyse interrompue", e);
+		} catch (ExecutionException e) {
+			throw new IOException(e.getCause());
+		} finally {
+			workers.shutdownNow();
+		}
+
+		Throwable error = failure.get();
+		if (error instanceof RuntimeException) {
+			throw (RuntimeException) error;
+		}
+		if (error instanceof Error) {
+			throw (Error) error;
+		}
+	}
+
+	// Ne bloque pas indéfiniment si plus aucun worker ne vide la file
+	private static void put(BlockingQueue<Source> queue, List<Future<?>> futures, Source source) throws IOException, InterruptedException {
+		while (!queue.offer(source, 100, TimeUnit.MILLISECONDS)) {
+			boolean alive = false;
+			for (Future<?> future : futures) {
+				alive |= !future.isDone();
+			}
+			if (!alive) {
+				throw new IOException("Plus aucun worker d'analyse actif");
+			}
+		}
+	}
+
+	private Void work(BlockingQueue<Source> queue, AtomicReference<Throwable> failure, UnitConsumer consumer) throws InterruptedException {
+		ASTParser parser = ASTParser.newParser(AST.JLS4);
+		while (true) {
+			Source source = queue.take();
+			if (source == END) {
+				return null;
+			}
+
+			try {
+				long start = Instrumentation.start();
+				environment.configure(parser, source.path);
+				parser.setSource(source.content);
+				CompilationUnit unit = (CompilationUnit) parser.createAST(null);
+				long parsed = Instrumentation.start();
+				consumer.accept(source.index, unit);
+				if (Instrumentation.isEnabled()) {
+					Instrumentation.file(source.path, source.bytes, source.readNanos, parsed - start, System.nanoTime() - parsed);
+				}
+			} catch (Throwable e) {
+				// StackOverflowError de JDT sur un fichier pathologique comprise : on continue à vider la file
+				// pour ne pas bloquer la lecture
+				failure.compareAndSet(null, e);
+			}
+		}
+	}
+}
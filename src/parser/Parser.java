@@ -3,17 +3,25 @@ package parser;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
-import org.apache.commons.io.FileUtils;
-import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.FileASTRequestor;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.MethodInvocation;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+import facts.FileFacts;
+import instrumentation.Instrumentation;
+import instrumentation.Phase;
+import metrics.MethodQuantiles;
+import metrics.MetricsTable;
+import metrics.QuantileSketch;
+import ranking.ClassMetric;
+import ranking.RankingEngine;
 import utils.ColorHelper;
 import visitor.*;
 
@@ -24,68 +32,186 @@ public class Parser {
 	public static String projectSourcePath;
 	public static final String jrePath = System.getProperty("java.home") + "/lib/jrt-fs.jar"; // Chemin dynamique
 
+	// Nombre de threads d'analyse (--threads), 1 = mode séquentiel
+	public static int threads = 1;
+
+	// Valeur de --threads : un entier >= 1
+	public static int parseThreads(String value) {
+		try {
+			int parsed = Integer.parseInt(value);
+			if (parsed >= 1) {
+				return parsed;
+			}
+		} catch (NumberFormatException e) {
+			// même message que pour une valeur < 1
+		}
+		throw new IllegalArgumentException("nombre de threads invalide " + value + " (entier >= 1 attendu)");
+	}
+
 	public static void main(String[] args) throws IOException {
 		projectSourcePath = args[0];
+		try {
+			Instrumentation.configure(args);
+		} catch (IllegalArgumentException e) {
+			System.err.println("Erreur: " + e.getMessage());
+			System.err.println("Usage: <dossier source> [--threads N] [--instrument] [--slowest N]");
+			System.exit(1);
+		}
+		for (int i = 1; i < args.length - 1; i++) {
+			if ("--threads".equals(args[i])) {
+				try {
+					threads = parseThreads(args[i + 1]);
+				} catch (IllegalArgumentException e) {
+					System.err.println("Erreur: " + e.getMessage());
+					System.err.println("Usage: <dossier source> [--threads N] [--instrument] [--slowest N]");
+					System.exit(1);
+				}
+			}
+		}
 
 		final File sourceFolder = new File(projectSourcePath);
 		ArrayList<File> javaFiles = getJavaFilesForFolder(sourceFolder);
 
-		// Variables pour les statistiques
-		int amountClass = 0;
-		int amountLines = 0;
-		double amountMethods = 0;
-		Set<String> packages = new HashSet<String>();
-		double amountLinesByMethods = 0;
-		double amountAttributs = 0;
-		double maxParamAmount = 0;
-
-		// Maps pour les méthodes et attributs des classes
-		Map<String, Integer> classesMethods = new LinkedHashMap<>();
-		Map<String, Integer> classesAttributes = new LinkedHashMap<>();
-
-		// Traitement de chaque fichier Java
-		for (File fileEntry : javaFiles) {
-			String content = FileUtils.readFileToString(fileEntry, "UTF-8"); // Assurez-vous d'utiliser l'encodage correct
-
-			CompilationUnit parse = parse(content.toCharArray());
-
-			amountClass += getNumberOfClasses(parse);
-			amountLines += getNumberOfLines(parse);
-			amountMethods += getNumberOfMethods(parse);
-			packages.addAll(getPackages(parse));
-			amountLinesByMethods += getNumberOfLinesByMethods(parse);
-			amountAttributs += getNumberOfAttributs(parse);
-			addClassMethods(parse, classesMethods);
-			addClassAttributes(parse, classesAttributes);
-			maxParamAmount = Math.max(getMethodParams(parse), maxParamAmount);
+		// Affichage des statistiques
+		displayStatistics(computeTable(javaFiles, threads));
+		Instrumentation.finish(System.out);
+	}
+
+	// Table de métriques du projet (une ligne par fichier, classe et méthode), dans l'ordre des fichiers.
+	// Statistiques seules : analyse syntaxique, sans bindings.
+	public static MetricsTable computeTable(List<File> javaFiles, int threads) throws IOException {
+		AnalysisEnvironment environment = AnalysisEnvironment.forProfile(projectSourcePath, AnalysisProfile.STATISTICS);
+		MetricsTable table = new MetricsTable();
+		if (threads <= 1) {
+			parseAll(environment, javaFiles, (path, parse) -> table.add(FileFacts.extract(path, 0L, null, parse)));
+			return table;
 		}
 
-		// Affichage des statistiques
-		displayStatistics(amountClass, amountLines, amountMethods, packages, amountLinesByMethods, amountAttributs, maxParamAmount);
+		FileFacts[] slots = new FileFacts[javaFiles.size()];
+		new ParallelAnalyzer(environment, threads).analyze(javaFiles,
+				(index, parse) -> slots[index] = FileFacts.extract(javaFiles.get(index).getAbsolutePath(), 0L, null, parse));
+		for (FileFacts facts : slots) {
+			if (facts != null) {
+				table.add(facts);
+			}
+		}
+		return table;
 	}
 
-	// Créer l'AST
-	public static CompilationUnit parse(char[] classSource) {
-		ASTParser parser = ASTParser.newParser(AST.JLS4); // Utiliser la version la plus récente
-		parser.setResolveBindings(true);
-		parser.setKind(ASTParser.K_COMPILATION_UNIT);
-		parser.setBindingsRecovery(true);
+	// Statistiques du projet : un parser réutilisé en séquentiel, un parser par thread sinon.
+	// Dans les deux cas chaque AST est oublié après usage et le résultat est identique.
+	public static ProjectMetrics computeMetrics(List<File> javaFiles, int threads) throws IOException {
+		return computeMetrics(AnalysisEnvironment.forProfile(projectSourcePath, AnalysisProfile.STATISTICS), javaFiles, threads);
+	}
 
-		Map<String, String> options = JavaCore.getOptions();
-		parser.setCompilerOptions(options);
+	public static ProjectMetrics computeMetrics(AnalysisEnvironment environment, List<File> javaFiles, int threads) throws IOException {
+		if (threads <= 1) {
+			ProjectMetrics projectMetrics = new ProjectMetrics();
+			parseAll(environment, javaFiles, (path, parse) -> projectMetrics.add(MetricsVisitor.collect(parse)));
+			return projectMetrics;
+		}
 
-		// Chemins d'accès aux sources et à la bibliothèque JRE
-		String[] sources = { projectSourcePath };
-		String[] classpath = { jrePath }; // Chemin vers jrt-fs.jar
+		ConcurrentProjectMetrics projectMetrics = new ConcurrentProjectMetrics();
+		new ParallelAnalyzer(environment, threads).analyze(javaFiles, (index, parse) -> projectMetrics.add(index, MetricsVisitor.collect(parse)));
+		return projectMetrics.toProjectMetrics();
+	}
 
-		parser.setEnvironment(classpath, sources, new String[] { "UTF-8" }, true);
+	// Créer l'AST ; sans chemin, JDT ne résout pas les bindings d'une source en mémoire
+	public static CompilationUnit parse(char[] classSource) {
+		return parse(null, classSource);
+	}
+
+	// Avec le chemin du fichier comme nom d'unité : bindings résolus dans l'environnement du projet
+	public static CompilationUnit parse(String path, char[] classSource) {
+		long start = Instrumentation.start();
+		ASTParser parser = environment().configure(ASTParser.newParser(AST.JLS4), path);
 		parser.setSource(classSource);
 
-		return (CompilationUnit) parser.createAST(null); // Créer et analyser
+		CompilationUnit unit = (CompilationUnit) parser.createAST(null); // Créer et analyser
+		Instrumentation.end(Phase.PARSE, start);
+		return unit;
+	}
+
+	// Créer les AST de tous les fichiers en un seul appel : l'environnement de noms et les bindings
+	// sont construits une seule fois puis partagés. Chaque unité est transmise au consumer dès
+	// qu'elle est prête et n'est pas conservée ensuite.
+	public static void parseAll(List<File> files, BiConsumer<String, CompilationUnit> consumer) {
+		createASTs(environment(), files, consumer);
+	}
+
+	// Même chose dans l'environnement donné ; sans bindings, les fichiers sont simplement parsés un par un
+	public static void parseAll(AnalysisEnvironment environment, List<File> files, BiConsumer<String, CompilationUnit> consumer) throws IOException {
+		if (environment.hasBindings()) {
+			createASTs(environment, files, consumer);
+			return;
+		}
+
+		ASTParser parser = ASTParser.newParser(AST.JLS4);
+		try (SourceReader reader = new SourceReader()) {
+			for (File file : files) {
+				long start = Instrumentation.start();
+				char[] content = reader.read(file);
+				long read = Instrumentation.start();
+				environment.configure(parser, file.getAbsolutePath());
+				parser.setSource(content);
+				CompilationUnit unit = (CompilationUnit) parser.createAST(null);
+				long parsed = Instrumentation.start();
+				consumer.accept(file.getAbsolutePath(), unit);
+				if (Instrumentation.isEnabled()) {
+					Instrumentation.file(file.getPath(), reader.bytes(), read - start, parsed - read, System.nanoTime() - parsed);
+				}
+			}
+		}
+	}
+
+	private static void createASTs(AnalysisEnvironment environment, List<File> files, BiConsumer<String, CompilationUnit> consumer) {
+		if (files.isEmpty()) {
+			return;
+		}
+
+		String[] paths = new String[files.size()];
+		String[] encodings = new String[files.size()];
+		for (int i = 0; i < paths.length; i++) {
+			paths[i] = files.get(i).getAbsolutePath();
+			encodings[i] = "UTF-8";
+		}
+
+		ASTParser parser = environment.newParser();
+		parser.createASTs(paths, encodings, new String[0], new FileASTRequestor() {
+			// JDT lit et parse entre deux callbacks : lecture et parsing ne sont pas séparables ici
+			long previous = Instrumentation.start();
+
+			@Override
+			public void acceptAST(String sourceFilePath, CompilationUnit ast) {
+				long parsed = Instrumentation.start();
+				consumer.accept(sourceFilePath, ast);
+				if (Instrumentation.isEnabled()) {
+					long visited = System.nanoTime();
+					Instrumentation.file(sourceFilePath, new File(sourceFilePath).length(), 0L, parsed - previous, visited - parsed);
+					previous = visited;
+				}
+			}
+		}, null);
+	}
+
+	// Environnement du projet courant (projectSourcePath), avec bindings : celui du menu et des commandes historiques
+	public static AnalysisEnvironment environment() {
+		return AnalysisEnvironment.forProject(projectSourcePath, BindingLevel.FULL_BINDINGS);
+	}
+
+	// Parser configuré pour le projet courant (bindings, options, environnement)
+	static ASTParser newParser() {
+		return environment().newParser(); // Utiliser la version la plus récente
+	}
+
+	// Statistiques lues directement dans les colonnes de la table de métriques
+	public static void displayStatistics(MetricsTable table) {
+		displayStatistics(table.amountClass(), table.amountLines(), table.amountMethods(), table.packages(),
+				table.amountLinesByMethods(), table.amountAttributs(), table.quantiles());
 	}
 
 	// Méthodes pour les statistiques (à ajouter)
-	public static void displayStatistics(int amountClass, int amountLines, double amountMethods, Set<String> packages, double amountLinesByMethods, double amountAttributs, double maxParamAmount) {
+	public static void displayStatistics(int amountClass, int amountLines, double amountMethods, Set<String> packages, double amountLinesByMethods, double amountAttributs, MethodQuantiles quantiles) {
 		System.out.println("\nStatistiques:\n");
 		System.out.println("[⚫] Nombre de classes de l’application: " + ColorHelper.info(String.valueOf(amountClass)));
 		System.out.println("[⚫] Nombre de lignes de code de l’application: " + ColorHelper.info(String.valueOf(amountLines)));
@@ -94,22 +220,27 @@ public class Parser {
 		System.out.println("[⚫] Nombre moyen de méthodes par classe: " + ColorHelper.info(String.valueOf(Math.ceil(amountMethods / amountClass))));
 		System.out.println("[⚫] Nombre moyen de lignes de code par méthode: " + ColorHelper.info(String.valueOf(Math.ceil(amountLinesByMethods / amountMethods))));
 		System.out.println("[⚫] Nombre moyen d’attributs par classe: " + ColorHelper.info(String.valueOf(Math.ceil(amountAttributs / amountClass))));
-		System.out.println("[⚫] Nombre maximal de paramètres par rapport à toutes les méthodes de l’application: " + ColorHelper.info(String.valueOf(maxParamAmount)));
+		System.out.println("[⚫] Nombre maximal de paramètres d’une méthode de l’application: " + ColorHelper.info(String.valueOf(quantiles.get(MethodMetric.PARAMETERS).max())));
+		displayQuantiles(quantiles);
+	}
+
+	// Distribution par méthode : médiane, p90, p99 et maximum de chaque MethodMetric
+	public static void displayQuantiles(MethodQuantiles quantiles) {
+		System.out.println("\nPar méthode (p50 / p90 / p99 / max):\n");
+		for (MethodMetric metric : MethodMetric.values()) {
+			QuantileSketch sketch = quantiles.get(metric);
+			System.out.println("[⚫] " + metric.getLabel() + ": " + ColorHelper.info(sketch.quantile(0.5) + " / " + sketch.quantile(0.9)
+					+ " / " + sketch.quantile(0.99) + " / " + sketch.max()));
+		}
 	}
 
 
 
 // read all java files from specific folder
 	public static ArrayList<File> getJavaFilesForFolder(final File folder) {
-		ArrayList<File> javaFiles = new ArrayList<File>();
-		for (File fileEntry : folder.listFiles()) {
-			if (fileEntry.isDirectory()) {
-				javaFiles.addAll(getJavaFilesForFolder(fileEntry));
-			} else if (fileEntry.getName().contains(".java")) {
-				javaFiles.add(fileEntry);
-			}
-		}
-
+		long start = Instrumentation.start();
+		ArrayList<File> javaFiles = SourceWalker.javaFiles(folder);
+		Instrumentation.end(Phase.DISCOVERY, start);
 		return javaFiles;
 	}
 
@@ -239,6 +370,7 @@ public class Parser {
 		}
 	}
 
+	// Somme (et non maximum) des paramètres des méthodes de l'unité
 	public static int getMethodParams(CompilationUnit parse) {
 		MethodDeclarationVisitor visitor = new MethodDeclarationVisitor();
 		parse.accept(visitor);
@@ -255,87 +387,46 @@ public class Parser {
 
 	// print 10% classes with more methods
 	public static void classesWithMoreMethods(List<String> listClassesWithMoreMethods, float percent, Map<String, Integer> classesMethods) {
-		int cmSize = classesMethods.size();
-		int nbToKeepM = (int) Math.ceil(cmSize*(percent/100));
-
-		while (listClassesWithMoreMethods.size() < nbToKeepM) {
-			int max = Collections.max(classesMethods.values());
-			listClassesWithMoreMethods.addAll(
-					classesMethods.entrySet().stream()
-							.filter(entry -> entry.getValue() == max)
-							.map(entry -> entry.getKey())
-							.collect(Collectors.toList())
-			);
-			for (String type : listClassesWithMoreMethods) {
-				classesMethods.remove(type);
-			}
-		}
-		System.out.print("[⚫] " + percent + "% de classes avec le plus de méthodes: ");
-		for (int i = 0; i < listClassesWithMoreMethods.size(); i++) {
-			System.out.print(ColorHelper.info(String.valueOf(listClassesWithMoreMethods.get(i) + " ")));
-		}
-		System.out.println();
+		RankingEngine engine = RankingEngine.fromMap(ClassMetric.METHODS, classesMethods);
+		listClassesWithMoreMethods.addAll(engine.names(engine.topPercent(ClassMetric.METHODS, percent), ClassMetric.METHODS));
+		printClasses("[⚫] " + percent + "% de classes avec le plus de méthodes: ", listClassesWithMoreMethods);
 	}
 
 	// print classes with more than X methods
 	public static void classesWithMoreThanXMethods(List<String> listClassesWithMoreThanXMethods, int x, Map<String, Integer> classesMethods) {
-		listClassesWithMoreThanXMethods.addAll(
-				classesMethods.entrySet().stream()
-						.filter(entry -> entry.getValue() > x)
-						.map(entry -> entry.getKey())
-						.collect(Collectors.toList())
-		);
-		System.out.print("[⚫] Classes qui possèdent plus de " + x + " methodes: ");
-		for (int i = 0; i < listClassesWithMoreThanXMethods.size(); i++) {
-			System.out.print(ColorHelper.info(String.valueOf(listClassesWithMoreThanXMethods.get(i) + " ")));
-		}
-		System.out.println();
+		RankingEngine engine = RankingEngine.fromMap(ClassMetric.METHODS, classesMethods);
+		listClassesWithMoreThanXMethods.addAll(engine.names(engine.moreThan(ClassMetric.METHODS, x)));
+		printClasses("[⚫] Classes qui possèdent plus de " + x + " methodes: ", listClassesWithMoreThanXMethods);
 	}
 
 	// print 10% classes with more attributes
 	public static void classesWithPercentAttributes(List<String> listClassesWithMoreAttributes, float percent, Map<String, Integer> classesAttributes) {
-		int caSize = classesAttributes.size();
-		int nbToKeepA = (int) Math.ceil(caSize*(percent/100));
-		while (listClassesWithMoreAttributes.size() < nbToKeepA) {
-			int max = Collections.max(classesAttributes.values());
-			listClassesWithMoreAttributes.addAll(
-					classesAttributes.entrySet().stream()
-							.filter(entry -> entry.getValue() == max)
-							.map(entry -> entry.getKey())
-							.collect(Collectors.toList())
-			);
-			for (String type : listClassesWithMoreAttributes) {
-				classesAttributes.remove(type);
-			}
-		}
-		System.out.print("[⚫] " + percent + "% de classes avec le plus d'attributs: ");
-		for (int i = 0; i < listClassesWithMoreAttributes.size(); i++) {
-			System.out.print(ColorHelper.info(String.valueOf(listClassesWithMoreAttributes.get(i) + " ")));
-		}
-		System.out.println();
+		RankingEngine engine = RankingEngine.fromMap(ClassMetric.ATTRIBUTES, classesAttributes);
+		listClassesWithMoreAttributes.addAll(engine.names(engine.topPercent(ClassMetric.ATTRIBUTES, percent), ClassMetric.ATTRIBUTES));
+		printClasses("[⚫] " + percent + "% de classes avec le plus d'attributs: ", listClassesWithMoreAttributes);
 	}
 
 	public static void inBoth(List<String> listClassesWithMoreMethods, List<String> listClassesWithMoreAttributes) {
+		// we go through the shortest list, the other one becomes a hash set
+		List<String> shortest = listClassesWithMoreMethods.size() <= listClassesWithMoreAttributes.size() ? listClassesWithMoreMethods : listClassesWithMoreAttributes;
+		Set<String> other = new HashSet<>(shortest == listClassesWithMoreMethods ? listClassesWithMoreAttributes : listClassesWithMoreMethods);
+
 		List<String> listClassesInBoth = new ArrayList<>();
-		// we go through the shortest list
-		if (listClassesWithMoreMethods.size() <= listClassesWithMoreAttributes.size()) {
-			for (int i = 0; i < listClassesWithMoreMethods.size(); i++) {
-				if (listClassesWithMoreAttributes.contains(listClassesWithMoreMethods.get(i))) {
-					listClassesInBoth.add(listClassesWithMoreMethods.get(i));
-				}
-			}
-		} else {
-			for (int i = 0; i < listClassesWithMoreAttributes.size(); i++) {
-				if (listClassesWithMoreMethods.contains(listClassesWithMoreAttributes.get(i))) {
-					listClassesInBoth.add(listClassesWithMoreAttributes.get(i));
-				}
+		for (String type : shortest) {
+			if (other.contains(type)) {
+				listClassesInBoth.add(type);
 			}
 		}
-		System.out.print("[⚫] Classes qui sont dans les deux catégories: ");
-		for (int i = 0; i < listClassesInBoth.size(); i++) {
-			System.out.print(ColorHelper.info(String.valueOf(listClassesInBoth.get(i) + " ")));
+		printClasses("[⚫] Classes qui sont dans les deux catégories: ", listClassesInBoth);
+		System.out.println();
+	}
+
+	public static void printClasses(String title, List<String> classes) {
+		System.out.print(title);
+		for (int i = 0; i < classes.size(); i++) {
+			System.out.print(ColorHelper.info(String.valueOf(classes.get(i) + " ")));
 		}
-		System.out.println("\n");
+		System.out.println();
 	}
 
 }
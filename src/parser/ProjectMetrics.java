@@ -0,0 +1,83 @@
+package parser;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import metrics.MethodQuantiles;
+import visitor.FileMetrics;
+
+// Totaux du projet, alimentés fichier par fichier sans garder les AST
+public class ProjectMetrics {
+	int amountClass = 0;
+	int amountLines = 0;
+	double amountMethods = 0;
+	Set<String> packages = new HashSet<String>();
+	double amountLinesByMethods = 0;
+	double amountAttributs = 0;
+	// Somme des paramètres du fichier qui en déclare le plus (historique) ; le maximum par méthode est dans quantiles
+	double maxParamAmount = 0;
+	MethodQuantiles quantiles = new MethodQuantiles();
+
+	// Maps pour les méthodes et attributs des classes
+	Map<String, Integer> classesMethods = new LinkedHashMap<>();
+	Map<String, Integer> classesAttributes = new LinkedHashMap<>();
+
+	public void add(FileMetrics metrics) {
+		amountClass += metrics.getAmountClass();
+		amountLines += metrics.getAmountLines();
+		amountMethods += metrics.getAmountMethods();
+		packages.addAll(metrics.getPackages());
+		amountLinesByMethods += metrics.getAmountLinesByMethods();
+		amountAttributs += metrics.getAmountAttributs();
+		classesMethods.putAll(metrics.getClassesMethods());
+		classesAttributes.putAll(metrics.getClassesAttributes());
+		maxParamAmount = Math.max(metrics.getAmountParams(), maxParamAmount);
+		quantiles.add(metrics);
+	}
+
+	public void display() {
+		Parser.displayStatistics(amountClass, amountLines, amountMethods, packages, amountLinesByMethods, amountAttributs, quantiles);
+	}
+
+	public int getAmountClass() {
+		return amountClass;
+	}
+
+	public int getAmountLines() {
+		return amountLines;
+	}
+
+	public double getAmountMethods() {
+		return amountMethods;
+	}
+
+	public Set<String> getPackages() {
+		return packages;
+	}
+
+	public double getAmountLinesByMethods() {
+		return amountLinesByMethods;
+	}
+
+	public double getAmountAttributs() {
+		return amountAttributs;
+	}
+
+	public double getMaxParamAmount() {
+		return maxParamAmount;
+	}
+
+	public MethodQuantiles getQuantiles() {
+		return quantiles;
+	}
+
+	public Map<String, Integer> getClassesMethods() {
+		return classesMethods;
+	}
+
+	public Map<String, Integer> getClassesAttributes() {
+		return classesAttributes;
+	}
+}
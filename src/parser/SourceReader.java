@@ -0,0 +1,125 @@
+package parser;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Lecture des sources sans passer par String : fichier -> ByteBuffer direct -> décodage UTF-8 dans un char[] réutilisé.
+// Un lecteur par thread (il n'est pas thread-safe) ; ses buffers directs viennent d'un pool commun et y retournent
+// à close(), les gros fichiers sont projetés en mémoire plutôt que copiés. Les octets invalides sont remplacés,
+// comme le faisait FileUtils.readFileToString.
+public class SourceReader implements AutoCloseable {
+	public static final int BUFFER_SIZE = 256 * 1024;
+	// Au-delà, le fichier est projeté (mmap) plutôt que lu dans le buffer du pool
+	public static final int MAP_THRESHOLD = 4 * 1024 * 1024;
+
+	private static final ConcurrentLinkedQueue<ByteBuffer> POOL = new ConcurrentLinkedQueue<ByteBuffer>();
+
+	private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+	private ByteBuffer buffer;
+	private char[] chars = new char[BUFFER_SIZE];
+	private int length;
+	private long bytes;
+
+	public SourceReader() {
+		buffer = POOL.poll();
+		if (buffer == null) {
+			buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		}
+	}
+
+	// Contenu du fichier dans un tableau à sa taille exacte, prêt pour ASTParser.setSource
+	// (setSource n'accepte pas de longueur : c'est la seule copie après le décodage)
+	public char[] read(File file) throws IOException {
+		return read(file.toPath());
+	}
+
+	public char[] read(Path path) throws IOException {
+		decode(path);
+		return Arrays.copyOf(chars, length);
+	}
+
+	// Contenu déjà en mémoire (blob git par exemple) : même décodage que pour un fichier
+	public char[] read(byte[] content, int size) throws IOException {
+		bytes = size;
+		if (chars.length < size) {
+			chars = new char[Math.max(size, chars.length * 2)];
+		}
+		decode(ByteBuffer.wrap(content, 0, size));
+		return Arrays.copyOf(chars, length);
+	}
+
+	// Décode le fichier dans le tableau interne : valide jusqu'au prochain appel, sur [0, length())
+	public void decode(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException(path + " est trop gros pour être analysé (" + size + " octets)");
+			}
+			bytes = size;
+			// Un octet UTF-8 donne au plus un char : size suffit
+			if (chars.length < size) {
+				chars = new char[Math.max((int) size, chars.length * 2)];
+			}
+
+			if (size > MAP_THRESHOLD) {
+				decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+				return;
+			}
+			if (buffer.capacity() < size) {
+				// Le buffer agrandi remplacera le petit dans le pool
+				buffer = ByteBuffer.allocateDirect(Integer.highestOneBit((int) size) << 1);
+			}
+			buffer.clear().limit((int) size);
+			while (buffer.position() < size && channel.read(buffer) >= 0) {
+				// lecture jusqu'à la fin du fichier
+			}
+			buffer.flip();
+			decode(buffer);
+		}
+	}
+
+	private void decode(ByteBuffer input) throws IOException {
+		CharBuffer output = CharBuffer.wrap(chars);
+		decoder.reset();
+		CoderResult result = decoder.decode(input, output, true);
+		if (result.isError()) {
+			result.throwException();
+		}
+		decoder.flush(output);
+		length = output.position();
+	}
+
+	public char[] chars() {
+		return chars;
+	}
+
+	public int length() {
+		return length;
+	}
+
+	// Taille en octets du dernier fichier lu
+	public long bytes() {
+		return bytes;
+	}
+
+	@Override
+	public void close() {
+		if (buffer != null) {
+			POOL.offer(buffer);
+			buffer = null;
+		}
+	}
+}
@@ -0,0 +1,214 @@
+package parser;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Recherche des fichiers .java : un dossier par tâche ForkJoin, les sous-dossiers sont parcourus en parallèle.
+//  - seuls les fichiers dont le nom finit par ".java" sont retenus (pas Foo.java.bak)
+//  - un dossier exclu n'est jamais ouvert : .git, target/ à côté d'un pom.xml, build/ à côté d'un build.gradle,
+//    et les motifs des .gitignore rencontrés (sous-ensemble : #, !, / final ou initial, jokers glob)
+//  - l'ordre est stable d'une exécution à l'autre : entrées de chaque dossier triées par nom, parcours préfixe
+public class SourceWalker {
+	static final Set<String> VCS_DIRECTORIES = new HashSet<String>(Arrays.asList(".git", ".svn", ".hg"));
+	static final Set<String> MAVEN_MARKERS = new HashSet<String>(Arrays.asList("pom.xml"));
+	static final Set<String> GRADLE_MARKERS = new HashSet<String>(Arrays.asList("build.gradle", "build.gradle.kts", "settings.gradle", "settings.gradle.kts"));
+
+	// Règle d'un .gitignore, relative au dossier qui le contient
+	static class Rule {
+		final Path base;
+		final PathMatcher matcher;
+		final boolean anchored;
+		final boolean directoryOnly;
+		final boolean negated;
+
+		Rule(Path base, String pattern) {
+			boolean negated = pattern.startsWith("!");
+			if (negated) {
+				pattern = pattern.substring(1);
+			}
+			boolean directoryOnly = pattern.endsWith("/");
+			if (directoryOnly) {
+				pattern = pattern.substring(0, pattern.length() - 1);
+			}
+			// Un motif contenant un / est relatif au dossier du .gitignore, sinon il vise le nom à toute profondeur
+			boolean anchored = pattern.contains("/");
+			if (pattern.startsWith("/")) {
+				pattern = pattern.substring(1);
+			}
+			this.base = base;
+			this.matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+			this.anchored = anchored;
+			this.directoryOnly = directoryOnly;
+			this.negated = negated;
+		}
+
+		boolean matches(Path path, boolean directory) {
+			if (directoryOnly && !directory) {
+				return false;
+			}
+			return anchored ? matcher.matches(base.relativize(path)) : matcher.matches(path.getFileName());
+		}
+	}
+
+	private final boolean useGitignore;
+
+	public SourceWalker() {
+		this(true);
+	}
+
+	public SourceWalker(boolean useGitignore) {
+		this.useGitignore = useGitignore;
+	}
+
+	// Point d'entrée historique : même contrat que l'ancien Parser.getJavaFilesForFolder
+	public static ArrayList<File> javaFiles(File folder) {
+		ArrayList<File> javaFiles = new ArrayList<File>();
+		for (Path path : new SourceWalker().walk(folder.toPath())) {
+			javaFiles.add(path.toFile());
+		}
+		return javaFiles;
+	}
+
+	public List<Path> walk(Path root) {
+		if (!Files.isDirectory(root)) {
+			return Collections.emptyList();
+		}
+		try {
+			return ForkJoinPool.commonPool().invoke(new DirectoryTask(root, Collections.<Rule>emptyList()));
+		} catch (UncheckedIOException e) {
+			throw new UncheckedIOException("Parcours de " + root + " impossible", e.getCause());
+		}
+	}
+
+	private class DirectoryTask extends RecursiveTask<List<Path>> {
+		private final Path directory;
+		private final List<Rule> inherited;
+
+		DirectoryTask(Path directory, List<Rule> inherited) {
+			this.directory = directory;
+			this.inherited = inherited;
+		}
+
+		@Override
+		protected List<Path> compute() {
+			List<Path> entries = new ArrayList<Path>();
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+				for (Path entry : stream) {
+					entries.add(entry);
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			Collections.sort(entries);
+
+			Set<String> names = new HashSet<String>();
+			for (Path entry : entries) {
+				names.add(entry.getFileName().toString());
+			}
+			List<Rule> rules = inherited;
+			if (useGitignore && names.contains(".gitignore")) {
+				rules = new ArrayList<Rule>(inherited);
+				rules.addAll(readRules(directory));
+			}
+
+			// Un résultat par entrée, dans l'ordre des noms : fichier retenu, sous-dossier à parcourir ou rien
+			List<Object> parts = new ArrayList<Object>(entries.size());
+			List<DirectoryTask> subtasks = new ArrayList<DirectoryTask>();
+			for (Path entry : entries) {
+				String name = entry.getFileName().toString();
+				BasicFileAttributes attributes;
+				try {
+					attributes = Files.readAttributes(entry, BasicFileAttributes.class);
+				} catch (IOException e) {
+					// Lien cassé ou entrée disparue pendant le parcours
+					continue;
+				}
+				boolean directory = attributes.isDirectory();
+				if (ignored(entry, name, directory, names, rules)) {
+					continue;
+				}
+				if (directory) {
+					DirectoryTask subtask = new DirectoryTask(entry, rules);
+					subtasks.add(subtask);
+					parts.add(subtask);
+				} else if (attributes.isRegularFile() && name.endsWith(".java")) {
+					parts.add(entry);
+				}
+			}
+			invokeAll(subtasks);
+
+			List<Path> javaFiles = new ArrayList<Path>();
+			for (Object part : parts) {
+				if (part instanceof Path) {
+					javaFiles.add((Path) part);
+				} else {
+					javaFiles.addAll(((DirectoryTask) part).join());
+				}
+			}
+			return javaFiles;
+		}
+	}
+
+	private static boolean ignored(Path entry, String name, boolean directory, Set<String> siblings, List<Rule> rules) {
+		if (directory) {
+			if (VCS_DIRECTORIES.contains(name)) {
+				return true;
+			}
+			// Sorties de build, seulement à côté du fichier de build : un package "build" reste parcouru
+			if ("target".equals(name) && !Collections.disjoint(siblings, MAVEN_MARKERS)) {
+				return true;
+			}
+			if ("build".equals(name) && !Collections.disjoint(siblings, GRADLE_MARKERS)) {
+				return true;
+			}
+		}
+		// Comme git : la dernière règle qui correspond l'emporte
+		boolean ignored = false;
+		for (Rule rule : rules) {
+			if (rule.matches(entry, directory)) {
+				ignored = !rule.negated;
+			}
+		}
+		return ignored;
+	}
+
+	static List<Rule> readRules(Path directory) {
+		List<String> lines;
+		try {
+			lines = Files.readAllLines(directory.resolve(".gitignore"), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			// .gitignore illisible : on parcourt sans ses règles
+			return Collections.emptyList();
+		}
+
+		List<Rule> rules = new ArrayList<Rule>();
+		for (String line : lines) {
+			String pattern = line.trim();
+			if (pattern.isEmpty() || pattern.startsWith("#")) {
+				continue;
+			}
+			try {
+				rules.add(new Rule(directory, pattern));
+			} catch (IllegalArgumentException e) {
+				// Motif que le glob NIO ne sait pas lire : ignoré
+			}
+		}
+		return rules;
+	}
+}
@@ -0,0 +1,267 @@
+package parser.classpath;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import facts.ContentHash;
+import parser.SourceReader;
+import parser.SourceWalker;
+
+// Environnement de bindings d'un projet à partir de son build, sans réseau :
+//  1. racine du projet : dossier de build (pom.xml, build.gradle, settings.gradle) le plus haut au-dessus des sources
+//  2. modules (Maven <modules>, Gradle include) : leurs sources deviennent des racines, leurs dépendances sont réunies
+//  3. fermeture transitive dans le dépôt local (DependencyResolver), résultat gardé dans resources/index/<projet>.cp
+//  4. seuls les jars dont un package est importé par les sources sont donnés à JDT, avec leurs dépendances
+// Le résultat est mémorisé pour la durée du processus : le mode surveillance ne relit pas le build à chaque lot.
+public class ClasspathResolver {
+	// --no-classpath : retour à l'environnement historique (sources + JRE)
+	public static volatile boolean enabled = true;
+
+	private static final Map<String, ProjectClasspath> RESOLVED = new ConcurrentHashMap<String, ProjectClasspath>();
+
+	public static ProjectClasspath resolve(String sourcePath) {
+		String key = new File(sourcePath).getAbsolutePath();
+		return RESOLVED.computeIfAbsent(key, ClasspathResolver::compute);
+	}
+
+	public static void forget(String sourcePath) {
+		RESOLVED.remove(new File(sourcePath).getAbsolutePath());
+	}
+
+	private static ProjectClasspath compute(String sourcePath) {
+		Path source = Paths.get(sourcePath);
+		Path root = projectRoot(source);
+		if (root == null) {
+			return ProjectClasspath.sourceOnly(sourcePath);
+		}
+
+		File cacheFile = new File("resources/index/"
+				+ ContentHash.toHex(ContentHash.of(sourcePath.getBytes(StandardCharsets.UTF_8))) + ".cp");
+		ProjectClasspath full = ProjectClasspath.load(cacheFile);
+		if (full == null || !full.isFresh(LocalRepository.defaults())) {
+			try {
+				full = fromBuild(root, source);
+				full.save(cacheFile);
+			} catch (IOException | RuntimeException e) {
+				// Build illisible : on analyse comme avant plutôt que d'échouer
+				return ProjectClasspath.sourceOnly(sourcePath);
+			}
+		}
+		if (full.jars.isEmpty()) {
+			return full;
+		}
+
+		JarIndex index = JarIndex.shared();
+		ProjectClasspath pruned = full.prune(referencedPackages(full.sourceRoots), index);
+		try {
+			index.save();
+		} catch (IOException e) {
+			// Index non écrit : les jars seront relus au prochain lancement
+		}
+		return pruned;
+	}
+
+	// Dossier de build le plus haut d'une suite ininterrompue de dossiers de build au-dessus des sources
+	static Path projectRoot(Path source) {
+		Path root = null;
+		boolean inBuild = false;
+		for (Path directory = source.toAbsolutePath().normalize(); directory != null; directory = directory.getParent()) {
+			boolean build = isBuildDirectory(directory);
+			if (build) {
+				root = directory;
+				inBuild = true;
+			} else if (inBuild) {
+				break;
+			}
+		}
+		return root;
+	}
+
+	static boolean isBuildDirectory(Path directory) {
+		return Files.isRegularFile(directory.resolve("pom.xml")) || GradleBuild.isGradleProject(directory);
+	}
+
+	static ProjectClasspath fromBuild(Path root, Path source) throws IOException {
+		ProjectClasspath classpath = new ProjectClasspath();
+		String sourcePath = source.toAbsolutePath().normalize().toString();
+		classpath.sourceRoots.add(sourcePath);
+		// Sources de test analysées (dossier src entier par exemple) : leurs dépendances sont utiles
+		boolean includeTests = !sourcePath.replace(File.separatorChar, '/').contains("/src/main/");
+
+		LocalRepository repository = LocalRepository.defaults();
+		DependencyResolver resolver = new DependencyResolver(repository);
+		List<Coordinate> direct = new ArrayList<Coordinate>();
+		Map<String, Coordinate> managed = new LinkedHashMap<String, Coordinate>();
+		Set<String> modules = new HashSet<String>();
+
+		for (Path module : modules(root, resolver)) {
+			Path pomFile = module.resolve("pom.xml");
+			String mainSources = "src/main/java";
+			if (Files.isRegularFile(pomFile)) {
+				PomModel pom = resolver.pom(pomFile);
+				classpath.stamp(pomFile.toFile());
+				modules.add(pom.getCoordinate().key());
+				direct.addAll(pom.getDependencies());
+				for (Map.Entry<String, Coordinate> entry : pom.getManagedVersions().entrySet()) {
+					managed.putIfAbsent(entry.getKey(), entry.getValue());
+				}
+				if (pom.getSourceDirectory() != null) {
+					mainSources = pom.getSourceDirectory();
+				}
+			} else {
+				direct.addAll(GradleBuild.dependencies(module));
+				for (String name : GradleBuild.BUILD_FILES) {
+					stampIfPresent(classpath, module.resolve(name));
+				}
+				stampIfPresent(classpath, module.resolve("gradle.properties"));
+			}
+			addSourceRoot(classpath, module.resolve(mainSources));
+			addSourceRoot(classpath, module.resolve("target/generated-sources/annotations"));
+			addSourceRoot(classpath, module.resolve("build/generated/sources/annotationProcessor/java/main"));
+		}
+		for (String name : GradleBuild.SETTINGS_FILES) {
+			stampIfPresent(classpath, root.resolve(name));
+		}
+
+		DependencyResolver.Resolution resolution = resolver.resolve(direct, managed, modules, includeTests);
+		for (Map.Entry<String, Path> jar : resolution.jars.entrySet()) {
+			classpath.jars.put(jar.getKey(), jar.getValue().toString());
+		}
+		classpath.edges.putAll(resolution.edges);
+		for (Coordinate missing : resolution.unresolved) {
+			classpath.unresolved.add(missing.toString());
+		}
+		return classpath;
+	}
+
+	// Racine puis modules, récursivement (Maven) ou d'après settings.gradle (Gradle)
+	static List<Path> modules(Path root, DependencyResolver resolver) throws IOException {
+		List<Path> modules = new ArrayList<Path>();
+		List<Path> pending = new ArrayList<Path>();
+		pending.add(root);
+		Set<Path> seen = new HashSet<Path>();
+		while (!pending.isEmpty()) {
+			Path module = pending.remove(pending.size() - 1).toAbsolutePath().normalize();
+			if (!seen.add(module) || !isBuildDirectory(module)) {
+				continue;
+			}
+			modules.add(module);
+			Path pomFile = module.resolve("pom.xml");
+			if (Files.isRegularFile(pomFile)) {
+				for (String child : resolver.pom(pomFile).getModules()) {
+					pending.add(module.resolve(child));
+				}
+			}
+			for (String child : GradleBuild.includedProjects(module)) {
+				pending.add(module.resolve(child));
+			}
+		}
+		return modules;
+	}
+
+	// Une racine contenue dans une autre (ou la contenant) ferait voir deux fois les mêmes types à JDT
+	private static void addSourceRoot(ProjectClasspath classpath, Path directory) {
+		if (!Files.isDirectory(directory)) {
+			return;
+		}
+		Path candidate = directory.toAbsolutePath().normalize();
+		for (String existing : classpath.sourceRoots) {
+			Path root = Paths.get(existing);
+			if (candidate.startsWith(root) || root.startsWith(candidate)) {
+				return;
+			}
+		}
+		classpath.sourceRoots.add(candidate.toString());
+	}
+
+	private static void stampIfPresent(ProjectClasspath classpath, Path file) {
+		if (Files.isRegularFile(file)) {
+			classpath.stamp(file.toFile());
+		}
+	}
+
+	// Noms (et préfixes) cités par les imports des sources : un import a.b.C retient les packages a, a.b et a.b.C
+	static Set<String> referencedPackages(List<String> sourceRoots) {
+		Set<String> names = new HashSet<String>();
+		SourceWalker walker = new SourceWalker();
+		try (SourceReader reader = new SourceReader()) {
+			for (String root : sourceRoots) {
+				for (Path file : walker.walk(Paths.get(root))) {
+					try {
+						reader.decode(file);
+					} catch (IOException e) {
+						continue;
+					}
+					addImports(reader.chars(), reader.length(), names);
+				}
+			}
+		}
+		return names;
+	}
+
+	// Parcourt l'en-tête du fichier ligne par ligne et s'arrête à la première déclaration de type
+	static void addImports(char[] chars, int length, Set<String> names) {
+		// Dans un commentaire /* ... */ ouvert sur une ligne précédente : ses lignes (licence...) ne terminent pas l'en-tête
+		boolean inComment = false;
+		int line = 0;
+		while (line < length) {
+			int end = line;
+			while (end < length && chars[end] != '\n') {
+				end++;
+			}
+			int start = line;
+			while (start < end && Character.isWhitespace(chars[start])) {
+				start++;
+			}
+			String text = new String(chars, start, end - start).trim();
+			line = end + 1;
+
+			// Retire les commentaires de bloc en tête de ligne ; ce qui les suit sur la même ligne est examiné
+			while (true) {
+				if (inComment) {
+					int close = text.indexOf("*/");
+					if (close < 0) {
+						text = "";
+						break;
+					}
+					text = text.substring(close + 2).trim();
+					inComment = false;
+				} else if (text.startsWith("/*")) {
+					text = text.substring(2);
+					inComment = true;
+				} else {
+					break;
+				}
+			}
+
+			if (text.startsWith("import ")) {
+				String name = text.substring("import ".length()).trim();
+				if (name.startsWith("static ")) {
+					name = name.substring("static ".length()).trim();
+				}
+				int semicolon = name.indexOf(';');
+				if (semicolon >= 0) {
+					name = name.substring(0, semicolon).trim();
+				}
+				for (int dot = name.indexOf('.'); dot > 0; dot = name.indexOf('.', dot + 1)) {
+					names.add(name.substring(0, dot));
+				}
+				names.add(name);
+			} else if (!(text.isEmpty() || text.startsWith("package ") || text.startsWith("//") || text.startsWith("@"))) {
+				return;
+			}
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package parser.classpath;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+// Dépendance Maven (groupId:artifactId:version) avec sa portée et ses exclusions, telle que déclarée
+public class Coordinate {
+	public static final String COMPILE = "compile";
+	public static final String PROVIDED = "provided";
+	public static final String RUNTIME = "runtime";
+	public static final String TEST = "test";
+	public static final String SYSTEM = "system";
+	public static final String IMPORT = "import";
+
+	private final String groupId;
+	private final String artifactId;
+	private final String version;
+	private final String scope;
+	private final String type;
+	private final boolean optional;
+	// Clés groupId:artifactId exclues des dépendances transitives ("*" accepté des deux côtés)
+	private final Set<String> exclusions;
+
+	public Coordinate(String groupId, String artifactId, String version) {
+		this(groupId, artifactId, version, COMPILE, "jar", false, Collections.<String>emptySet());
+	}
+
+	public Coordinate(String groupId, String artifactId, String version, String scope, String type, boolean optional, Set<String> exclusions) {
+		this.groupId = groupId;
+		this.artifactId = artifactId;
+		this.version = version;
+		this.scope = scope == null || scope.isEmpty() ? COMPILE : scope;
+		this.type = type == null || type.isEmpty() ? "jar" : type;
+		this.optional = optional;
+		this.exclusions = exclusions;
+	}
+
+	public Coordinate withVersion(String version) {
+		return new Coordinate(groupId, artifactId, version, scope, type, optional, exclusions);
+	}
+
+	public Coordinate withScope(String scope) {
+		return new Coordinate(groupId, artifactId, version, scope, type, optional, exclusions);
+	}
+
+	// Exclusions du chemin parcouru jusqu'ici : elles s'appliquent à toute la sous-arborescence
+	public Coordinate withExclusions(Set<String> inherited) {
+		if (inherited.isEmpty()) {
+			return this;
+		}
+		Set<String> merged = new HashSet<String>(exclusions);
+		merged.addAll(inherited);
+		return new Coordinate(groupId, artifactId, version, scope, type, optional, merged);
+	}
+
+	public boolean excludes(Coordinate dependency) {
+		return exclusions.contains(dependency.key()) || exclusions.contains(dependency.groupId + ":*")
+				|| exclusions.contains("*:" + dependency.artifactId) || exclusions.contains("*:*");
+	}
+
+	public String key() {
+		return groupId + ":" + artifactId;
+	}
+
+	public String getGroupId() {
+		return groupId;
+	}
+
+	public String getArtifactId() {
+		return artifactId;
+	}
+
+	public String getVersion() {
+		return version;
+	}
+
+	public String getScope() {
+		return scope;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public boolean isOptional() {
+		return optional;
+	}
+
+	public Set<String> getExclusions() {
+		return exclusions;
+	}
+
+	@Override
+	public String toString() {
+		return key() + ":" + version;
+	}
+}
@@ -0,0 +1,108 @@
+package parser.classpath;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Fermeture transitive des dépendances, comme Maven : parcours en largeur, la déclaration la plus proche
+// d'un groupId:artifactId gagne, les dépendances optionnelles, test et provided ne sont pas transitives,
+// le dependencyManagement du projet s'impose à tout l'arbre. Tout est lu dans le dépôt local.
+public class DependencyResolver {
+	private final LocalRepository repository;
+	private final Map<Path, PomModel> poms = new HashMap<Path, PomModel>();
+
+	// Résultat : artefacts retenus dans l'ordre du parcours et arcs artefact -> ses dépendances directes
+	public static class Resolution {
+		final Map<String, Coordinate> artifacts = new LinkedHashMap<String, Coordinate>();
+		final Map<String, Path> jars = new LinkedHashMap<String, Path>();
+		final Map<String, List<String>> edges = new LinkedHashMap<String, List<String>>();
+		final List<Coordinate> unresolved = new ArrayList<Coordinate>();
+	}
+
+	private static class Step {
+		final Coordinate coordinate;
+		final String from;
+
+		Step(Coordinate coordinate, String from) {
+			this.coordinate = coordinate;
+			this.from = from;
+		}
+	}
+
+	public DependencyResolver(LocalRepository repository) {
+		this.repository = repository;
+	}
+
+	public PomModel pom(Path file) throws IOException {
+		return PomModel.effective(file, repository, poms);
+	}
+
+	// direct : dépendances déclarées par le projet ; managed : son dependencyManagement ; ignored : modules du projet
+	public Resolution resolve(List<Coordinate> direct, Map<String, Coordinate> managed, Set<String> ignored, boolean includeTests) {
+		Resolution resolution = new Resolution();
+		Deque<Step> queue = new ArrayDeque<Step>();
+		for (Coordinate coordinate : direct) {
+			String scope = coordinate.getScope();
+			if (Coordinate.SYSTEM.equals(scope) || Coordinate.IMPORT.equals(scope) || (!includeTests && Coordinate.TEST.equals(scope))) {
+				continue;
+			}
+			queue.add(new Step(coordinate, null));
+		}
+
+		while (!queue.isEmpty()) {
+			Step step = queue.poll();
+			Coordinate coordinate = step.coordinate;
+			String key = coordinate.key();
+			if (step.from != null) {
+				resolution.edges.get(step.from).add(key);
+			}
+			if (ignored.contains(key) || resolution.artifacts.containsKey(key)) {
+				continue;
+			}
+			if (coordinate.getVersion() == null || coordinate.getVersion().contains("${")) {
+				coordinate = coordinate.withVersion(repository.latestVersion(coordinate.getGroupId(), coordinate.getArtifactId()));
+			}
+			resolution.artifacts.put(key, coordinate);
+			resolution.edges.put(key, new ArrayList<String>());
+
+			Path jar = "jar".equals(coordinate.getType()) || "bundle".equals(coordinate.getType()) ? repository.jar(coordinate) : null;
+			if (jar != null) {
+				resolution.jars.put(key, jar);
+			} else if (!"pom".equals(coordinate.getType())) {
+				resolution.unresolved.add(coordinate);
+			}
+
+			Path pomFile = repository.pom(coordinate);
+			if (pomFile == null) {
+				continue;
+			}
+			PomModel pom;
+			try {
+				pom = pom(pomFile);
+			} catch (IOException e) {
+				// pom local corrompu : l'artefact reste, ses dépendances sont ignorées
+				continue;
+			}
+			for (Coordinate dependency : pom.getDependencies()) {
+				String scope = dependency.getScope();
+				if (dependency.isOptional() || !(Coordinate.COMPILE.equals(scope) || Coordinate.RUNTIME.equals(scope))
+						|| coordinate.excludes(dependency)) {
+					continue;
+				}
+				Coordinate override = managed.get(dependency.key());
+				if (override != null && override.getVersion() != null) {
+					dependency = dependency.withVersion(override.getVersion());
+				}
+				queue.add(new Step(dependency.withExclusions(coordinate.getExclusions()), key));
+			}
+		}
+		return resolution;
+	}
+}
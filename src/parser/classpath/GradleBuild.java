@@ -0,0 +1,122 @@
+package parser.classpath;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Lecture textuelle d'un build.gradle / build.gradle.kts : sans exécuter Gradle, on ne voit que les dépendances
+// écrites en notation "groupe:artefact:version" et les variables simples (gradle.properties, ext, val).
+// Les dépendances calculées par un plugin ou un catalogue de versions ne sont pas vues.
+public class GradleBuild {
+	private static final Pattern DEPENDENCY = Pattern.compile(
+			"\\b(api|implementation|compile|compileOnly|runtimeOnly|runtime|testImplementation|testCompileOnly|testRuntimeOnly|testCompile)"
+					+ "\\s*\\(?\\s*['\"]([^'\":\\s]+):([^'\":\\s]+)(?::([^'\"@\\s]+))?(?:@[^'\"]*)?['\"]");
+	private static final Pattern VARIABLE = Pattern.compile("(?:ext\\.|val\\s+|def\\s+|set\\(\\s*['\"])?(\\w+)['\"]?\\s*[=,]\\s*['\"]([^'\"$]+)['\"]");
+	private static final Pattern INCLUDE = Pattern.compile("\\binclude\\b(.*)");
+	private static final Pattern QUOTED = Pattern.compile("['\"]:?([^'\"]+)['\"]");
+
+	public static final List<String> BUILD_FILES = Collections.unmodifiableList(Arrays.asList("build.gradle", "build.gradle.kts"));
+	public static final List<String> SETTINGS_FILES = Collections.unmodifiableList(Arrays.asList("settings.gradle", "settings.gradle.kts"));
+
+	// Dépendances déclarées dans le fichier de build du dossier (liste vide sans fichier de build)
+	public static List<Coordinate> dependencies(Path projectDirectory) throws IOException {
+		Path buildFile = first(projectDirectory, BUILD_FILES);
+		if (buildFile == null) {
+			return Collections.emptyList();
+		}
+		String script = new String(Files.readAllBytes(buildFile), StandardCharsets.UTF_8);
+		Map<String, String> variables = variables(projectDirectory, script);
+
+		List<Coordinate> dependencies = new ArrayList<Coordinate>();
+		Matcher matcher = DEPENDENCY.matcher(script);
+		while (matcher.find()) {
+			String configuration = matcher.group(1);
+			String version = matcher.group(4);
+			if (version != null && version.startsWith("$")) {
+				version = variables.get(version.replaceAll("[${}]", ""));
+			}
+			dependencies.add(new Coordinate(matcher.group(2), matcher.group(3), version, scope(configuration), "jar", false,
+					Collections.<String>emptySet()));
+		}
+		return dependencies;
+	}
+
+	// Sous-projets listés par settings.gradle (":a:b" devient le dossier a/b)
+	public static List<String> includedProjects(Path rootDirectory) throws IOException {
+		Path settings = first(rootDirectory, SETTINGS_FILES);
+		if (settings == null) {
+			return Collections.emptyList();
+		}
+		List<String> projects = new ArrayList<String>();
+		for (String line : Files.readAllLines(settings, StandardCharsets.UTF_8)) {
+			Matcher include = INCLUDE.matcher(line);
+			if (include.find()) {
+				Matcher quoted = QUOTED.matcher(include.group(1));
+				while (quoted.find()) {
+					projects.add(quoted.group(1).replace(':', '/'));
+				}
+			}
+		}
+		return projects;
+	}
+
+	public static boolean isGradleProject(Path directory) {
+		return first(directory, BUILD_FILES) != null || first(directory, SETTINGS_FILES) != null;
+	}
+
+	static Path first(Path directory, List<String> names) {
+		for (String name : names) {
+			Path candidate = directory.resolve(name);
+			if (Files.isRegularFile(candidate)) {
+				return candidate;
+			}
+		}
+		return null;
+	}
+
+	private static Map<String, String> variables(Path projectDirectory, String script) throws IOException {
+		Map<String, String> variables = new HashMap<String, String>();
+		// gradle.properties du projet puis de ses parents, le plus proche l'emporte
+		for (Path directory = projectDirectory; directory != null; directory = directory.getParent()) {
+			Path file = directory.resolve("gradle.properties");
+			if (Files.isRegularFile(file)) {
+				Properties properties = new Properties();
+				try (InputStream in = Files.newInputStream(file)) {
+					properties.load(in);
+				}
+				for (String name : properties.stringPropertyNames()) {
+					variables.putIfAbsent(name, properties.getProperty(name));
+				}
+			}
+		}
+		Matcher matcher = VARIABLE.matcher(script);
+		while (matcher.find()) {
+			variables.put(matcher.group(1), matcher.group(2));
+		}
+		return variables;
+	}
+
+	private static String scope(String configuration) {
+		if (configuration.startsWith("test")) {
+			return Coordinate.TEST;
+		}
+		if ("compileOnly".equals(configuration)) {
+			return Coordinate.PROVIDED;
+		}
+		if (configuration.startsWith("runtime")) {
+			return Coordinate.RUNTIME;
+		}
+		return Coordinate.COMPILE;
+	}
+}
@@ -0,0 +1,155 @@
+package parser.classpath;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+// Index persistant des packages fournis par chaque jar, partagé par tous les projets analysés.
+// Un jar n'est relu que si sa taille ou sa date de modification a changé ; les jars du dépôt local
+// ne bougent pas, le scan n'est donc payé qu'une fois par jar et par machine.
+//
+// Format : "JARI" | version (int) | nombre de jars (int) | par jar : chemin, taille, date, nombre de packages, packages
+public class JarIndex {
+	public static final int VERSION = 1;
+	private static final int MAGIC = 0x4A415249; // "JARI"
+
+	private static final JarIndex SHARED = new JarIndex(new File("resources/index/jars.idx")).load();
+
+	static class Entry {
+		final long size;
+		final long lastModified;
+		final String[] packages;
+
+		Entry(long size, long lastModified, String[] packages) {
+			this.size = size;
+			this.lastModified = lastModified;
+			this.packages = packages;
+		}
+	}
+
+	private final File file;
+	private final Map<String, Entry> entries = new HashMap<String, Entry>();
+	private boolean dirty = false;
+	private int scanned = 0;
+
+	public JarIndex(File file) {
+		this.file = file;
+	}
+
+	public static JarIndex shared() {
+		return SHARED;
+	}
+
+	// Même lecture que FactIndex : mapping mémoire, index absent ou d'une autre version ignoré
+	public synchronized JarIndex load() {
+		entries.clear();
+		if (!file.isFile()) {
+			return this;
+		}
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (in.remaining() < 12 || in.getInt() != MAGIC || in.getInt() != VERSION) {
+				return this;
+			}
+			int count = in.getInt();
+			for (int i = 0; i < count; i++) {
+				String path = readString(in);
+				long size = in.getLong();
+				long lastModified = in.getLong();
+				String[] packages = new String[in.getInt()];
+				for (int p = 0; p < packages.length; p++) {
+					packages[p] = readString(in);
+				}
+				entries.put(path, new Entry(size, lastModified, packages));
+			}
+		} catch (IOException | RuntimeException e) {
+			entries.clear();
+		}
+		dirty = false;
+		return this;
+	}
+
+	// Packages du jar (avec '.' comme séparateur), relus seulement si le jar a changé
+	public synchronized String[] packages(File jar) {
+		String path = jar.getAbsolutePath();
+		Entry known = entries.get(path);
+		if (known != null && known.size == jar.length() && known.lastModified == jar.lastModified()) {
+			return known.packages;
+		}
+
+		Set<String> packages = new TreeSet<String>();
+		try (ZipFile zip = new ZipFile(jar)) {
+			Enumeration<? extends ZipEntry> zipEntries = zip.entries();
+			while (zipEntries.hasMoreElements()) {
+				String name = zipEntries.nextElement().getName();
+				int slash = name.lastIndexOf('/');
+				if (name.endsWith(".class") && slash > 0 && !name.startsWith("META-INF/")) {
+					packages.add(name.substring(0, slash).replace('/', '.'));
+				}
+			}
+		} catch (IOException e) {
+			// Jar illisible : aucun package, il ne sera jamais retenu
+		}
+		Entry entry = new Entry(jar.length(), jar.lastModified(), packages.toArray(new String[0]));
+		entries.put(path, entry);
+		dirty = true;
+		scanned++;
+		return entry.packages;
+	}
+
+	public synchronized void save() throws IOException {
+		if (!dirty) {
+			return;
+		}
+		file.getParentFile().mkdirs();
+		File tmp = new File(file.getPath() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp), 1 << 16))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(entries.size());
+			for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+				writeString(out, entry.getKey());
+				out.writeLong(entry.getValue().size);
+				out.writeLong(entry.getValue().lastModified);
+				out.writeInt(entry.getValue().packages.length);
+				for (String name : entry.getValue().packages) {
+					writeString(out, name);
+				}
+			}
+		}
+		Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		dirty = false;
+	}
+
+	// Jars relus depuis le chargement (0 quand l'index était à jour)
+	public synchronized int getScanned() {
+		return scanned;
+	}
+
+	static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	static String readString(MappedByteBuffer in) {
+		byte[] bytes = new byte[in.getInt()];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
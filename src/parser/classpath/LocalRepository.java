@@ -0,0 +1,91 @@
+package parser.classpath;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+// Artefacts déjà téléchargés sur la machine, sans accès réseau : dépôt Maven local (~/.m2/repository)
+// puis cache Gradle (~/.gradle/caches/modules-2/files-2.1). Un artefact absent des deux reste non résolu.
+public class LocalRepository {
+	private final Path maven;
+	private final Path gradle;
+
+	public LocalRepository(Path maven, Path gradle) {
+		this.maven = maven;
+		this.gradle = gradle;
+	}
+
+	// -Dmaven.repo.local et GRADLE_USER_HOME sont respectés comme par les outils de build
+	public static LocalRepository defaults() {
+		String home = System.getProperty("user.home");
+		String mavenLocal = System.getProperty("maven.repo.local");
+		Path maven = mavenLocal != null ? Paths.get(mavenLocal) : Paths.get(home, ".m2", "repository");
+		String gradleHome = System.getenv("GRADLE_USER_HOME");
+		Path gradle = (gradleHome != null ? Paths.get(gradleHome) : Paths.get(home, ".gradle")).resolve("caches/modules-2/files-2.1");
+		return new LocalRepository(maven, gradle);
+	}
+
+	public Path jar(Coordinate coordinate) {
+		return find(coordinate.getGroupId(), coordinate.getArtifactId(), coordinate.getVersion(), "jar");
+	}
+
+	public Path pom(Coordinate coordinate) {
+		return find(coordinate.getGroupId(), coordinate.getArtifactId(), coordinate.getVersion(), "pom");
+	}
+
+	public Path find(String groupId, String artifactId, String version, String extension) {
+		if (version == null) {
+			return null;
+		}
+		String name = artifactId + "-" + version + "." + extension;
+		Path inMaven = maven.resolve(groupId.replace('.', File.separatorChar)).resolve(artifactId).resolve(version).resolve(name);
+		if (Files.isRegularFile(inMaven)) {
+			return inMaven;
+		}
+		// Gradle range chaque fichier dans un dossier nommé par son SHA-1
+		File[] hashes = gradle.resolve(groupId).resolve(artifactId).resolve(version).toFile().listFiles();
+		if (hashes != null) {
+			for (File hash : hashes) {
+				File candidate = new File(hash, name);
+				if (candidate.isFile()) {
+					return candidate.toPath();
+				}
+			}
+		}
+		return null;
+	}
+
+	// Version la plus récente présente localement, pour une dépendance déclarée sans version
+	public String latestVersion(String groupId, String artifactId) {
+		List<String> versions = new ArrayList<String>();
+		addChildren(maven.resolve(groupId.replace('.', File.separatorChar)).resolve(artifactId), versions);
+		addChildren(gradle.resolve(groupId).resolve(artifactId), versions);
+		String latest = null;
+		for (String version : versions) {
+			if (latest == null || Versions.compare(version, latest) > 0) {
+				latest = version;
+			}
+		}
+		return latest;
+	}
+
+	private static void addChildren(Path directory, List<String> names) {
+		File[] children = directory.toFile().listFiles(File::isDirectory);
+		if (children != null) {
+			for (File child : children) {
+				names.add(child.getName());
+			}
+		}
+	}
+
+	public Path getMaven() {
+		return maven;
+	}
+
+	public Path getGradle() {
+		return gradle;
+	}
+}
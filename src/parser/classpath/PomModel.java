@@ -0,0 +1,319 @@
+package parser.classpath;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+// Lecture d'un pom.xml et construction de son modèle effectif : héritage du parent, propriétés ${...},
+// dependencyManagement (BOM importés compris). Seul ce qui sert au classpath est lu : pas de profils ni de plugins.
+public class PomModel {
+	private static final Pattern PROPERTY = Pattern.compile("\\$\\{([^}]+)\\}");
+
+	// Dépendance telle qu'écrite, avant interpolation et dependencyManagement
+	static class Declared {
+		String groupId;
+		String artifactId;
+		String version;
+		String scope;
+		String type;
+		boolean optional;
+		Set<String> exclusions = new HashSet<String>();
+	}
+
+	final Path file;
+	String groupId;
+	String artifactId;
+	String version;
+	String packaging;
+	Declared parent;
+	String parentRelativePath;
+	final Map<String, String> properties = new LinkedHashMap<String, String>();
+	final List<Declared> managed = new ArrayList<Declared>();
+	final List<Declared> dependencies = new ArrayList<Declared>();
+	final List<String> modules = new ArrayList<String>();
+	String sourceDirectory;
+	String testSourceDirectory;
+
+	// Modèle effectif (rempli par effective())
+	private final Map<String, Coordinate> managedVersions = new LinkedHashMap<String, Coordinate>();
+	private final List<Coordinate> resolvedDependencies = new ArrayList<Coordinate>();
+
+	private PomModel(Path file) {
+		this.file = file;
+	}
+
+	public static PomModel read(Path file) throws IOException {
+		Document document;
+		try {
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+			factory.setExpandEntityReferences(false);
+			DocumentBuilder builder = factory.newDocumentBuilder();
+			document = builder.parse(file.toFile());
+		} catch (Exception e) {
+			throw new IOException("pom illisible : " + file, e);
+		}
+
+		PomModel model = new PomModel(file);
+		Element project = document.getDocumentElement();
+		model.groupId = text(project, "groupId");
+		model.artifactId = text(project, "artifactId");
+		model.version = text(project, "version");
+		model.packaging = text(project, "packaging");
+
+		Element parent = child(project, "parent");
+		if (parent != null) {
+			model.parent = declared(parent);
+			model.parentRelativePath = text(parent, "relativePath");
+		}
+
+		Element properties = child(project, "properties");
+		if (properties != null) {
+			for (Element property : children(properties)) {
+				model.properties.put(property.getTagName(), property.getTextContent().trim());
+			}
+		}
+
+		Element management = child(project, "dependencyManagement");
+		if (management != null && child(management, "dependencies") != null) {
+			for (Element dependency : children(child(management, "dependencies"))) {
+				model.managed.add(declared(dependency));
+			}
+		}
+		if (child(project, "dependencies") != null) {
+			for (Element dependency : children(child(project, "dependencies"))) {
+				model.dependencies.add(declared(dependency));
+			}
+		}
+		if (child(project, "modules") != null) {
+			for (Element module : children(child(project, "modules"))) {
+				model.modules.add(module.getTextContent().trim());
+			}
+		}
+
+		Element build = child(project, "build");
+		if (build != null) {
+			model.sourceDirectory = text(build, "sourceDirectory");
+			model.testSourceDirectory = text(build, "testSourceDirectory");
+		}
+		return model;
+	}
+
+	// Modèle effectif : parent (dossier relativePath s'il correspond, sinon dépôt local), propriétés, BOM
+	public static PomModel effective(Path file, LocalRepository repository, Map<Path, PomModel> cache) throws IOException {
+		Path key = file.toAbsolutePath().normalize();
+		PomModel known = cache.get(key);
+		if (known != null) {
+			return known;
+		}
+		PomModel model = read(key);
+		// Inséré avant la résolution : un cycle de parents ou de BOM s'arrête ici au lieu de boucler
+		cache.put(key, model);
+
+		PomModel parent = null;
+		if (model.parent != null) {
+			Path relative = key.getParent().resolve(model.parentRelativePath != null ? model.parentRelativePath : "../pom.xml");
+			if (Files.isDirectory(relative)) {
+				relative = relative.resolve("pom.xml");
+			}
+			if (Files.isRegularFile(relative)) {
+				PomModel candidate = read(relative);
+				if (model.parent.artifactId.equals(candidate.artifactId)) {
+					parent = effective(relative, repository, cache);
+				}
+			}
+			if (parent == null) {
+				Path inRepository = repository.find(model.parent.groupId, model.parent.artifactId, model.parent.version, "pom");
+				if (inRepository != null) {
+					parent = effective(inRepository, repository, cache);
+				}
+			}
+			if (model.groupId == null) {
+				model.groupId = model.parent.groupId;
+			}
+			if (model.version == null) {
+				model.version = model.parent.version;
+			}
+		}
+
+		Map<String, String> properties = new LinkedHashMap<String, String>();
+		if (parent != null) {
+			properties.putAll(parent.properties);
+		}
+		properties.putAll(model.properties);
+		properties.put("project.groupId", model.groupId);
+		properties.put("project.artifactId", model.artifactId);
+		properties.put("project.version", model.version);
+		properties.put("pom.groupId", model.groupId);
+		properties.put("pom.version", model.version);
+		if (model.parent != null) {
+			properties.put("project.parent.groupId", model.parent.groupId);
+			properties.put("project.parent.version", model.parent.version);
+		}
+		model.properties.clear();
+		model.properties.putAll(properties);
+
+		if (parent != null) {
+			model.managedVersions.putAll(parent.managedVersions);
+		}
+		for (Declared declared : model.managed) {
+			Coordinate managed = model.coordinate(declared, null);
+			if (Coordinate.IMPORT.equals(managed.getScope()) && "pom".equals(managed.getType())) {
+				Path bom = repository.pom(managed);
+				if (bom != null) {
+					for (Coordinate imported : effective(bom, repository, cache).managedVersions.values()) {
+						model.managedVersions.putIfAbsent(imported.key(), imported);
+					}
+				}
+			} else {
+				model.managedVersions.put(managed.key(), managed);
+			}
+		}
+
+		if (parent != null) {
+			model.resolvedDependencies.addAll(parent.resolvedDependencies);
+		}
+		for (Declared declared : model.dependencies) {
+			model.resolvedDependencies.add(model.coordinate(declared, model.managedVersions));
+		}
+		return model;
+	}
+
+	// Interpolation puis valeurs manquantes (version, portée, exclusions) prises dans dependencyManagement
+	private Coordinate coordinate(Declared declared, Map<String, Coordinate> managedVersions) {
+		String groupId = interpolate(declared.groupId);
+		String artifactId = interpolate(declared.artifactId);
+		String version = interpolate(declared.version);
+		String scope = interpolate(declared.scope);
+		Set<String> exclusions = declared.exclusions;
+
+		Coordinate managed = managedVersions != null ? managedVersions.get(groupId + ":" + artifactId) : null;
+		if (managed != null) {
+			if (version == null) {
+				version = managed.getVersion();
+			}
+			if (scope == null) {
+				scope = managed.getScope();
+			}
+			if (exclusions.isEmpty()) {
+				exclusions = managed.getExclusions();
+			}
+		}
+		return new Coordinate(groupId, artifactId, version, scope, interpolate(declared.type), declared.optional, exclusions);
+	}
+
+	String interpolate(String value) {
+		if (value == null || value.indexOf('$') < 0) {
+			return value;
+		}
+		// Quelques passes suffisent pour les propriétés définies par d'autres propriétés
+		for (int pass = 0; pass < 5 && value.indexOf('$') >= 0; pass++) {
+			Matcher matcher = PROPERTY.matcher(value);
+			StringBuffer result = new StringBuffer();
+			while (matcher.find()) {
+				String replacement = properties.get(matcher.group(1));
+				if (replacement == null) {
+					replacement = System.getProperty(matcher.group(1), matcher.group());
+				}
+				matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+			}
+			matcher.appendTail(result);
+			if (result.toString().equals(value)) {
+				break;
+			}
+			value = result.toString();
+		}
+		return value;
+	}
+
+	private static Declared declared(Element element) {
+		Declared declared = new Declared();
+		declared.groupId = text(element, "groupId");
+		declared.artifactId = text(element, "artifactId");
+		declared.version = text(element, "version");
+		declared.scope = text(element, "scope");
+		declared.type = text(element, "type");
+		declared.optional = "true".equals(text(element, "optional"));
+		Element exclusions = child(element, "exclusions");
+		if (exclusions != null) {
+			for (Element exclusion : children(exclusions)) {
+				declared.exclusions.add(text(exclusion, "groupId") + ":" + text(exclusion, "artifactId"));
+			}
+		}
+		return declared;
+	}
+
+	private static Element child(Element parent, String name) {
+		for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+			if (node instanceof Element && name.equals(((Element) node).getTagName())) {
+				return (Element) node;
+			}
+		}
+		return null;
+	}
+
+	private static List<Element> children(Element parent) {
+		List<Element> elements = new ArrayList<Element>();
+		for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+			if (node instanceof Element) {
+				elements.add((Element) node);
+			}
+		}
+		return elements;
+	}
+
+	private static String text(Element parent, String name) {
+		Element element = child(parent, name);
+		return element == null ? null : element.getTextContent().trim();
+	}
+
+	public Coordinate getCoordinate() {
+		return new Coordinate(groupId, artifactId, version);
+	}
+
+	public Path getFile() {
+		return file;
+	}
+
+	public String getPackaging() {
+		return packaging == null ? "jar" : packaging;
+	}
+
+	public List<String> getModules() {
+		return Collections.unmodifiableList(modules);
+	}
+
+	public String getSourceDirectory() {
+		return interpolate(sourceDirectory);
+	}
+
+	public String getTestSourceDirectory() {
+		return interpolate(testSourceDirectory);
+	}
+
+	// Dépendances directes effectives (héritées du parent comprises)
+	public List<Coordinate> getDependencies() {
+		return Collections.unmodifiableList(resolvedDependencies);
+	}
+
+	public Map<String, Coordinate> getManagedVersions() {
+		return Collections.unmodifiableMap(managedVersions);
+	}
+}
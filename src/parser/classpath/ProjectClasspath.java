@@ -0,0 +1,226 @@
+package parser.classpath;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import parser.Parser;
+
+// Environnement résolu d'un projet : racines de sources, jars des dépendances (clé groupId:artifactId),
+// graphe des dépendances entre artefacts et fichiers de build lus (taille + date) pour savoir s'il est périmé.
+//
+// Format du cache : "TPCP" | version (int) | fichiers de build | racines | jars | arcs | non résolus
+public class ProjectClasspath {
+	public static final int VERSION = 1;
+	private static final int MAGIC = 0x54504350; // "TPCP"
+
+	final List<String> sourceRoots = new ArrayList<String>();
+	final Map<String, String> jars = new LinkedHashMap<String, String>();
+	final Map<String, List<String>> edges = new LinkedHashMap<String, List<String>>();
+	final List<String> unresolved = new ArrayList<String>();
+	// Fichier de build -> { taille, date de modification }
+	final Map<String, long[]> stamps = new LinkedHashMap<String, long[]>();
+
+	ProjectClasspath() {
+	}
+
+	// Projet sans fichier de build reconnu : ses sources et le JRE, comme avant
+	public static ProjectClasspath sourceOnly(String sourcePath) {
+		ProjectClasspath classpath = new ProjectClasspath();
+		classpath.sourceRoots.add(sourcePath);
+		return classpath;
+	}
+
+	// Entrées pour ASTParser.setEnvironment : le JRE puis les jars dans l'ordre de résolution
+	public String[] classpathEntries() {
+		List<String> entries = new ArrayList<String>();
+		entries.add(Parser.jrePath);
+		entries.addAll(jars.values());
+		return entries.toArray(new String[0]);
+	}
+
+	public String[] sourceRootArray() {
+		return sourceRoots.toArray(new String[0]);
+	}
+
+	// Garde les jars qui fournissent un package référencé par les sources, puis leurs dépendances
+	// (nécessaires pour résoudre les supertypes et les signatures des types retenus)
+	public ProjectClasspath prune(Set<String> referencedPackages, JarIndex index) {
+		Deque<String> pending = new ArrayDeque<String>();
+		for (Map.Entry<String, String> jar : jars.entrySet()) {
+			for (String name : index.packages(new File(jar.getValue()))) {
+				if (referencedPackages.contains(name)) {
+					pending.add(jar.getKey());
+					break;
+				}
+			}
+		}
+		Set<String> kept = new HashSet<String>();
+		while (!pending.isEmpty()) {
+			String key = pending.poll();
+			if (kept.add(key) && edges.containsKey(key)) {
+				pending.addAll(edges.get(key));
+			}
+		}
+
+		ProjectClasspath pruned = copy();
+		pruned.jars.keySet().retainAll(kept);
+		return pruned;
+	}
+
+	private ProjectClasspath copy() {
+		ProjectClasspath copy = new ProjectClasspath();
+		copy.sourceRoots.addAll(sourceRoots);
+		copy.jars.putAll(jars);
+		copy.edges.putAll(edges);
+		copy.unresolved.addAll(unresolved);
+		copy.stamps.putAll(stamps);
+		return copy;
+	}
+
+	// Valide tant qu'aucun fichier de build n'a bougé, que les jars sont toujours là et qu'aucune
+	// dépendance restée non résolue n'est apparue depuis dans le dépôt local. Seules ces dépendances
+	// sont recherchées : un projet dont un artefact manque à jamais ne relit pas son build à chaque lancement.
+	boolean isFresh(LocalRepository repository) {
+		for (Map.Entry<String, long[]> stamp : stamps.entrySet()) {
+			File file = new File(stamp.getKey());
+			if (file.length() != stamp.getValue()[0] || file.lastModified() != stamp.getValue()[1]) {
+				return false;
+			}
+		}
+		for (String jar : jars.values()) {
+			if (!new File(jar).isFile()) {
+				return false;
+			}
+		}
+		for (String coordinate : unresolved) {
+			if (appeared(coordinate, repository)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// coordinate : groupId:artifactId:version (Coordinate.toString), version "null" si aucune n'était connue
+	private static boolean appeared(String coordinate, LocalRepository repository) {
+		String[] parts = coordinate.split(":");
+		if (parts.length < 3) {
+			return false;
+		}
+		if ("null".equals(parts[2])) {
+			return repository.latestVersion(parts[0], parts[1]) != null;
+		}
+		return repository.find(parts[0], parts[1], parts[2], "jar") != null;
+	}
+
+	void stamp(File buildFile) {
+		stamps.put(buildFile.getAbsolutePath(), new long[] { buildFile.length(), buildFile.lastModified() });
+	}
+
+	static ProjectClasspath load(File file) {
+		if (!file.isFile()) {
+			return null;
+		}
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (in.remaining() < 8 || in.getInt() != MAGIC || in.getInt() != VERSION) {
+				return null;
+			}
+			ProjectClasspath classpath = new ProjectClasspath();
+			for (int i = in.getInt(); i > 0; i--) {
+				String path = JarIndex.readString(in);
+				classpath.stamps.put(path, new long[] { in.getLong(), in.getLong() });
+			}
+			for (int i = in.getInt(); i > 0; i--) {
+				classpath.sourceRoots.add(JarIndex.readString(in));
+			}
+			for (int i = in.getInt(); i > 0; i--) {
+				classpath.jars.put(JarIndex.readString(in), JarIndex.readString(in));
+			}
+			for (int i = in.getInt(); i > 0; i--) {
+				String from = JarIndex.readString(in);
+				List<String> targets = new ArrayList<String>();
+				for (int t = in.getInt(); t > 0; t--) {
+					targets.add(JarIndex.readString(in));
+				}
+				classpath.edges.put(from, targets);
+			}
+			for (int i = in.getInt(); i > 0; i--) {
+				classpath.unresolved.add(JarIndex.readString(in));
+			}
+			return classpath;
+		} catch (IOException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	void save(File file) throws IOException {
+		file.getParentFile().mkdirs();
+		File tmp = new File(file.getPath() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp), 1 << 16))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(stamps.size());
+			for (Map.Entry<String, long[]> stamp : stamps.entrySet()) {
+				JarIndex.writeString(out, stamp.getKey());
+				out.writeLong(stamp.getValue()[0]);
+				out.writeLong(stamp.getValue()[1]);
+			}
+			out.writeInt(sourceRoots.size());
+			for (String root : sourceRoots) {
+				JarIndex.writeString(out, root);
+			}
+			out.writeInt(jars.size());
+			for (Map.Entry<String, String> jar : jars.entrySet()) {
+				JarIndex.writeString(out, jar.getKey());
+				JarIndex.writeString(out, jar.getValue());
+			}
+			out.writeInt(edges.size());
+			for (Map.Entry<String, List<String>> edge : edges.entrySet()) {
+				JarIndex.writeString(out, edge.getKey());
+				out.writeInt(edge.getValue().size());
+				for (String target : edge.getValue()) {
+					JarIndex.writeString(out, target);
+				}
+			}
+			out.writeInt(unresolved.size());
+			for (String coordinate : unresolved) {
+				JarIndex.writeString(out, coordinate);
+			}
+		}
+		Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	public List<String> getSourceRoots() {
+		return Collections.unmodifiableList(sourceRoots);
+	}
+
+	public Map<String, String> getJars() {
+		return Collections.unmodifiableMap(jars);
+	}
+
+	public List<String> getUnresolved() {
+		return Collections.unmodifiableList(unresolved);
+	}
+
+	public String summary() {
+		return sourceRoots.size() + " racine(s) de sources, " + jars.size() + " jar(s)"
+				+ (unresolved.isEmpty() ? "" : ", " + unresolved.size() + " dépendance(s) absente(s) du dépôt local");
+	}
+}
@@ -0,0 +1,45 @@
+package parser.classpath;
+
+// Comparaison de versions Maven simplifiée : segments numériques comparés comme des nombres,
+// les qualificatifs (-SNAPSHOT, -rc1 ...) passent avant la version finale
+public class Versions {
+
+	public static int compare(String a, String b) {
+		String[] left = a.split("[.\\-]");
+		String[] right = b.split("[.\\-]");
+		for (int i = 0; i < Math.max(left.length, right.length); i++) {
+			String l = i < left.length ? left[i] : null;
+			String r = i < right.length ? right[i] : null;
+			if (l == null) {
+				return isNumber(r) ? -1 : 1;
+			}
+			if (r == null) {
+				return isNumber(l) ? 1 : -1;
+			}
+			int result;
+			if (isNumber(l) && isNumber(r)) {
+				result = Long.compare(Long.parseLong(l), Long.parseLong(r));
+			} else if (isNumber(l) != isNumber(r)) {
+				result = isNumber(l) ? 1 : -1;
+			} else {
+				result = l.compareToIgnoreCase(r);
+			}
+			if (result != 0) {
+				return result;
+			}
+		}
+		return 0;
+	}
+
+	private static boolean isNumber(String segment) {
+		if (segment.isEmpty() || segment.length() > 18) {
+			return false;
+		}
+		for (int i = 0; i < segment.length(); i++) {
+			if (!Character.isDigit(segment.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,19 @@
+package ranking;
+
+// Métriques par classe disponibles pour les classements
+public enum ClassMetric {
+	METHODS("méthodes"),
+	ATTRIBUTES("attributs"),
+	LINES("lignes de code"),
+	PARAMETERS("paramètres");
+
+	private final String label;
+
+	ClassMetric(String label) {
+		this.label = label;
+	}
+
+	public String getLabel() {
+		return label;
+	}
+}
@@ -0,0 +1,256 @@
+package ranking;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import facts.FileFacts;
+import metrics.MetricsTable;
+
+// Classements sur les métriques par classe : top-K par tas borné, seuils de percentile par sélection,
+// et combinaisons de classements par opérations sur des BitSet (un bit par classe).
+//
+// Une classe est identifiée par son indice (ordre de première apparition, comme les LinkedHashMap de Parser) ;
+// pour un nom présent plusieurs fois, c'est la dernière valeur qui compte.
+public class RankingEngine {
+	private final String[] names;
+	private final Map<ClassMetric, int[]> columns = new EnumMap<ClassMetric, int[]>(ClassMetric.class);
+
+	public RankingEngine(String[] names) {
+		this.names = names;
+	}
+
+	public RankingEngine withMetric(ClassMetric metric, int[] values) {
+		if (values.length != names.length) {
+			throw new IllegalArgumentException("Colonne " + metric + " de taille " + values.length + " pour " + names.length + " classes");
+		}
+		columns.put(metric, values);
+		return this;
+	}
+
+	// Une seule métrique, depuis une map nom -> valeur (classesMethods, classesAttributes)
+	public static RankingEngine fromMap(ClassMetric metric, Map<String, Integer> values) {
+		String[] names = values.keySet().toArray(new String[0]);
+		int[] column = new int[names.length];
+		int i = 0;
+		for (int value : values.values()) {
+			column[i++] = value;
+		}
+		return new RankingEngine(names).withMetric(metric, column);
+	}
+
+	// Toutes les métriques, depuis les faits du projet
+	public static RankingEngine fromFacts(List<FileFacts> facts) {
+		return fromTable(MetricsTable.fromFacts(facts));
+	}
+
+	// Toutes les métriques, depuis les colonnes de la table (une valeur par nom de classe, dernière déclaration gagnante)
+	public static RankingEngine fromTable(MetricsTable table) {
+		return new RankingEngine(table.distinctClassNames())
+				.withMetric(ClassMetric.METHODS, table.distinctClassColumn(table.getClassMethods()))
+				.withMetric(ClassMetric.ATTRIBUTES, table.distinctClassColumn(table.getClassFields()))
+				.withMetric(ClassMetric.LINES, table.distinctClassColumn(table.getClassLines()))
+				.withMetric(ClassMetric.PARAMETERS, table.distinctClassColumn(table.getClassParams()));
+	}
+
+	public int size() {
+		return names.length;
+	}
+
+	public String name(int clazz) {
+		return names[clazz];
+	}
+
+	public int value(ClassMetric metric, int clazz) {
+		return column(metric)[clazz];
+	}
+
+	// Les k classes de plus forte valeur, triées par valeur décroissante (tas min de taille k : O(n log k))
+	public int[] topK(ClassMetric metric, int k) {
+		int[] values = column(metric);
+		k = Math.min(k, values.length);
+		if (k <= 0) {
+			return new int[0];
+		}
+
+		int[] heap = new int[k];
+		int size = 0;
+		for (int i = 0; i < values.length; i++) {
+			if (size < k) {
+				heap[size] = i;
+				siftUp(heap, size++, values);
+			} else if (before(i, heap[0], values)) {
+				heap[0] = i;
+				siftDown(heap, size, values);
+			}
+		}
+
+		// Vidage du tas : du plus faible au plus fort
+		int[] result = new int[k];
+		for (int i = k - 1; i >= 0; i--) {
+			result[i] = heap[0];
+			heap[0] = heap[--size];
+			siftDown(heap, size, values);
+		}
+		return result;
+	}
+
+	// Valeur du k-ième plus grand élément, k = ceil(n * percent / 100) (sélection en O(n) en moyenne)
+	public int percentileThreshold(ClassMetric metric, double percent) {
+		int[] values = column(metric);
+		int k = (int) Math.ceil(values.length * (percent / 100));
+		if (k <= 0) {
+			return Integer.MAX_VALUE;
+		}
+		int[] copy = Arrays.copyOf(values, values.length);
+		return select(copy, copy.length - Math.min(k, copy.length));
+	}
+
+	// Les percent% classes de plus forte valeur ; les ex aequo au seuil sont tous gardés
+	public BitSet topPercent(ClassMetric metric, double percent) {
+		return atLeast(metric, percentileThreshold(metric, percent));
+	}
+
+	public BitSet atLeast(ClassMetric metric, int threshold) {
+		int[] values = column(metric);
+		BitSet result = new BitSet(values.length);
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] >= threshold) {
+				result.set(i);
+			}
+		}
+		return result;
+	}
+
+	public BitSet moreThan(ClassMetric metric, int x) {
+		return x == Integer.MAX_VALUE ? new BitSet() : atLeast(metric, x + 1);
+	}
+
+	public static BitSet and(BitSet a, BitSet b) {
+		BitSet result = (BitSet) a.clone();
+		result.and(b);
+		return result;
+	}
+
+	public static BitSet or(BitSet a, BitSet b) {
+		BitSet result = (BitSet) a.clone();
+		result.or(b);
+		return result;
+	}
+
+	public static BitSet andNot(BitSet a, BitSet b) {
+		BitSet result = (BitSet) a.clone();
+		result.andNot(b);
+		return result;
+	}
+
+	// Noms des classes sélectionnées, par valeur décroissante puis ordre d'apparition
+	public List<String> names(BitSet selection, ClassMetric metric) {
+		int[] values = column(metric);
+		Integer[] order = new Integer[selection.cardinality()];
+		int n = 0;
+		for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+			order[n++] = i;
+		}
+		Arrays.sort(order, (a, b) -> values[a] != values[b] ? Integer.compare(values[b], values[a]) : Integer.compare(a, b));
+
+		List<String> result = new ArrayList<String>(order.length);
+		for (int i : order) {
+			result.add(names[i]);
+		}
+		return result;
+	}
+
+	// Noms des classes sélectionnées, dans l'ordre d'apparition
+	public List<String> names(BitSet selection) {
+		List<String> result = new ArrayList<String>(selection.cardinality());
+		for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+			result.add(names[i]);
+		}
+		return result;
+	}
+
+	private int[] column(ClassMetric metric) {
+		int[] column = columns.get(metric);
+		if (column == null) {
+			throw new IllegalArgumentException("Métrique non disponible : " + metric);
+		}
+		return column;
+	}
+
+	// Ordre du classement : valeur décroissante, puis première apparition
+	private static boolean before(int a, int b, int[] values) {
+		return values[a] != values[b] ? values[a] > values[b] : a < b;
+	}
+
+	private static void siftUp(int[] heap, int i, int[] values) {
+		while (i > 0) {
+			int parent = (i - 1) / 2;
+			if (!before(heap[parent], heap[i], values)) {
+				return;
+			}
+			swap(heap, i, parent);
+			i = parent;
+		}
+	}
+
+	private static void siftDown(int[] heap, int size, int[] values) {
+		int i = 0;
+		while (true) {
+			int weakest = i;
+			int left = 2 * i + 1;
+			int right = left + 1;
+			if (left < size && before(heap[weakest], heap[left], values)) {
+				weakest = left;
+			}
+			if (right < size && before(heap[weakest], heap[right], values)) {
+				weakest = right;
+			}
+			if (weakest == i) {
+				return;
+			}
+			swap(heap, i, weakest);
+			i = weakest;
+		}
+	}
+
+	private static void swap(int[] array, int i, int j) {
+		int tmp = array[i];
+		array[i] = array[j];
+		array[j] = tmp;
+	}
+
+	// Quickselect : valeur de rang k (0 = plus petite) ; modifie le tableau
+	private static int select(int[] values, int k) {
+		int low = 0;
+		int high = values.length - 1;
+		while (low < high) {
+			int pivot = values[(low + high) >>> 1];
+			int i = low;
+			int j = high;
+			while (i <= j) {
+				while (values[i] < pivot) {
+					i++;
+				}
+				while (values[j] > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					swap(values, i++, j--);
+				}
+			}
+			if (k <= j) {
+				high = j;
+			} else if (k >= i) {
+				low = i;
+			} else {
+				return values[k];
+			}
+		}
+		return values[k];
+	}
+}
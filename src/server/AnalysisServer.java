@@ -0,0 +1,372 @@
+package server;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.InetAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import batch.BatchRunner;
+import batch.RecordWriter.Record;
+import callGraph.analysis.CallGraphIndex;
+import facts.ContentHash;
+import facts.FactCache;
+import facts.FactIndex;
+import facts.FileFacts;
+import facts.ProjectWatcher;
+import ranking.ClassMetric;
+import ranking.RankingEngine;
+
+// Serveur d'analyse : un projet chargé une fois (faits en cache, environnement JDT résolu, JIT chaud),
+// interrogé en HTTP sur l'interface loopback uniquement. Toutes les réponses sont des objets JSON.
+//
+//   GET  /status                               version de l'instantané, fichiers, date de mise à jour
+//   GET  /stats                                mêmes valeurs que Parser.displayStatistics
+//   GET  /ranking?metric=methods&percent=10    classes du top P % (ou &top=K) pour une métrique
+//   GET  /ranking/both?percent=10              classes dans le top P % en méthodes et en attributs
+//   GET  /callgraph                            noeuds et arcs
+//   GET  /callgraph/analytics                  composantes, cycles de récursion, top fan-in / fan-out
+//   GET  /callgraph/method?name=X              fan-in, fan-out et récursivité des méthodes correspondant à X
+//   GET  /callgraph/reaches?from=X&to=Y        atteignabilité et plus court chemin
+//   POST /refresh                              revérifie tout le projet (sinon ProjectWatcher suffit)
+//   POST /shutdown                             arrête le serveur
+//
+// Écouter sur 127.0.0.1 ne suffit pas contre une page web ouverte dans un navigateur local :
+//  - l'en-tête Host doit être 127.0.0.1:<port> ou localhost:<port> (rebinding DNS), un Origin éventuel aussi ;
+//  - les POST doivent porter l'en-tête X-Analysis-Token, jeton aléatoire tiré à chaque lancement et
+//    affiché au démarrage.
+//
+// Les requêtes sont servies en parallèle : elles lisent un ProjectState immuable, remplacé en bloc
+// à chaque lot de fichiers modifiés. Un état n'en remplace un autre que s'il vient d'une génération
+// plus récente du FactCache : un /refresh et le ProjectWatcher peuvent finir dans n'importe quel ordre.
+public class AnalysisServer implements Closeable {
+	public static final int DEFAULT_PORT = 7878;
+	public static final String TOKEN_HEADER = "X-Analysis-Token";
+
+	private final FactCache cache;
+	private final HttpServer http;
+	private final ExecutorService executor;
+	private final CountDownLatch stopped = new CountDownLatch(1);
+	private final long startedAt = System.currentTimeMillis();
+	private final String token = newToken();
+	private ProjectWatcher watcher;
+	private volatile ProjectState state;
+	private long publishedGeneration = -1;
+
+	// Requête invalide : réponse 400 plutôt que 500
+	static class BadRequest extends RuntimeException {
+		final int status;
+
+		BadRequest(int status, String message) {
+			super(message);
+			this.status = status;
+		}
+	}
+
+	interface Handler {
+		Record handle(ProjectState state, Map<String, String> query) throws IOException;
+	}
+
+	public AnalysisServer(String projectPath, int port, int threads) throws IOException {
+		this.cache = new FactCache(projectPath, threads, FactIndex.forProject(projectPath).load());
+		this.http = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		this.executor = Executors.newFixedThreadPool(Math.max(2, threads));
+		http.setExecutor(executor);
+
+		route("GET", "/status", this::status);
+		route("GET", "/stats", (current, query) -> BatchRunner.stats(current.getTable()));
+		route("GET", "/ranking", this::ranking);
+		route("GET", "/ranking/both", this::rankingBoth);
+		route("GET", "/callgraph", (current, query) -> new Record("callgraph")
+				.field("nodes", current.getGraph().nodeCount())
+				.field("edges", current.getGraph().edgeCount()));
+		route("GET", "/callgraph/analytics", (current, query) -> BatchRunner.analytics(current.index()));
+		route("GET", "/callgraph/method", this::method);
+		route("GET", "/callgraph/reaches", this::reaches);
+		route("POST", "/refresh", (current, query) -> {
+			refresh();
+			return status(state, query);
+		});
+		route("POST", "/shutdown", (current, query) -> {
+			stopped.countDown();
+			return new Record("shutdown").field("ok", true);
+		});
+		// Tout le reste : 404 en JSON plutôt que la page HTML par défaut
+		http.createContext("/", exchange -> {
+			try {
+				checkOrigin(exchange);
+				respond(exchange, 404, new Record("error").field("message", "ressource inconnue : " + exchange.getRequestURI().getPath()).toJson(), 0);
+			} catch (BadRequest e) {
+				respond(exchange, e.status, new Record("error").field("message", e.getMessage()).toJson(), 0);
+			}
+		});
+	}
+
+	// Analyse initiale (ou relecture de l'index persistant), surveillance des sources puis ouverture du port
+	public AnalysisServer start() throws IOException {
+		refresh();
+		watcher = new ProjectWatcher(cache, new ProjectWatcher.Listener() {
+			@Override
+			public void onUpdate(List<FileFacts> facts, Set<File> changed, long generation) {
+				publish(generation, facts);
+			}
+
+			@Override
+			public void onError(Exception e) {
+				System.err.println("Erreur: mise à jour incrémentale impossible : " + e);
+			}
+		}).start();
+		http.start();
+		return this;
+	}
+
+	// Faits et génération lus sous le verrou du cache, pour qu'ils aillent ensemble
+	private void refresh() throws IOException {
+		List<FileFacts> facts;
+		long generation;
+		synchronized (cache) {
+			facts = cache.facts();
+			generation = cache.generation();
+		}
+		publish(generation, facts);
+	}
+
+	// Une liste plus ancienne que l'état publié (publication concurrente arrivée après) est ignorée
+	private synchronized void publish(long generation, List<FileFacts> facts) {
+		if (generation <= publishedGeneration) {
+			return;
+		}
+		state = new ProjectState(state == null ? 1 : state.getVersion() + 1, facts);
+		publishedGeneration = generation;
+	}
+
+	private static String newToken() {
+		byte[] bytes = new byte[16];
+		new SecureRandom().nextBytes(bytes);
+		return ContentHash.toHex(bytes);
+	}
+
+	public void awaitShutdown() throws InterruptedException {
+		stopped.await();
+	}
+
+	public int getPort() {
+		return http.getAddress().getPort();
+	}
+
+	public ProjectState getState() {
+		return state;
+	}
+
+	public String getToken() {
+		return token;
+	}
+
+	@Override
+	public void close() throws IOException {
+		http.stop(0);
+		executor.shutdownNow();
+		if (watcher != null) {
+			watcher.close();
+		}
+		stopped.countDown();
+	}
+
+	private void route(String method, String path, Handler handler) {
+		http.createContext(path, exchange -> {
+			long start = System.nanoTime();
+			int status = 200;
+			String body;
+			try {
+				// Les contextes sont des préfixes : /ranking ne doit pas répondre à /ranking/xyz
+				if (!exchange.getRequestURI().getPath().equals(path)) {
+					throw new BadRequest(404, "ressource inconnue : " + exchange.getRequestURI().getPath());
+				}
+				checkOrigin(exchange);
+				if (!method.equals(exchange.getRequestMethod())) {
+					throw new BadRequest(405, "méthode attendue : " + method);
+				}
+				if ("POST".equals(method) && !validToken(exchange.getRequestHeaders().getFirst(TOKEN_HEADER))) {
+					throw new BadRequest(403, "jeton absent ou invalide (en-tête " + TOKEN_HEADER + ")");
+				}
+				body = handler.handle(state, query(exchange)).toJson();
+			} catch (BadRequest e) {
+				status = e.status;
+				body = new Record("error").field("message", e.getMessage()).toJson();
+			} catch (IOException | RuntimeException e) {
+				status = 500;
+				body = new Record("error").field("message", String.valueOf(e)).toJson();
+			}
+			respond(exchange, status, body, System.nanoTime() - start);
+		});
+	}
+
+	// Host et Origin doivent désigner ce serveur sur la boucle locale, sous l'un de ses noms
+	private void checkOrigin(HttpExchange exchange) {
+		int port = getPort();
+		String host = exchange.getRequestHeaders().getFirst("Host");
+		if (host == null || !(host.equals("127.0.0.1:" + port) || host.equals("localhost:" + port))) {
+			throw new BadRequest(403, "hôte refusé : " + host);
+		}
+		String origin = exchange.getRequestHeaders().getFirst("Origin");
+		if (origin != null && !(origin.equals("http://127.0.0.1:" + port) || origin.equals("http://localhost:" + port))) {
+			throw new BadRequest(403, "origine refusée : " + origin);
+		}
+	}
+
+	// Comparaison en temps constant : la durée de la réponse ne dit rien du jeton
+	private boolean validToken(String candidate) {
+		return candidate != null && MessageDigest.isEqual(candidate.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body, long nanos) throws IOException {
+		byte[] bytes = (body + "\n").getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		exchange.getResponseHeaders().set("X-Elapsed-Micros", String.valueOf(nanos / 1000));
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	static Map<String, String> query(HttpExchange exchange) throws UnsupportedEncodingException {
+		Map<String, String> parameters = new HashMap<String, String>();
+		String raw = exchange.getRequestURI().getRawQuery();
+		if (raw == null) {
+			return parameters;
+		}
+		for (String pair : raw.split("&")) {
+			int equals = pair.indexOf('=');
+			String name = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), "UTF-8");
+			String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), "UTF-8");
+			parameters.put(name, value);
+		}
+		return parameters;
+	}
+
+	private Record status(ProjectState current, Map<String, String> query) {
+		return new Record("status")
+				.field("project", cache.getProjectPath())
+				.field("version", current.getVersion())
+				.field("files", current.getFiles())
+				.field("updatedAt", current.getCreatedAt())
+				.field("uptimeMs", System.currentTimeMillis() - startedAt)
+				.field("graphIndexed", current.hasIndex());
+	}
+
+	private Record ranking(ProjectState current, Map<String, String> query) {
+		ClassMetric metric = metric(query.getOrDefault("metric", "methods"));
+		RankingEngine engine = current.getRanking();
+		List<String> names;
+		if (query.containsKey("top")) {
+			int[] top = engine.topK(metric, integer(query, "top"));
+			names = new ArrayList<String>();
+			for (int clazz : top) {
+				names.add(engine.name(clazz) + " (" + engine.value(metric, clazz) + ")");
+			}
+		} else {
+			names = engine.names(engine.topPercent(metric, percent(query)), metric);
+		}
+		return new Record("ranking").field("metric", metric.name().toLowerCase()).field("classes", names);
+	}
+
+	private Record rankingBoth(ProjectState current, Map<String, String> query) {
+		RankingEngine engine = current.getRanking();
+		double percent = percent(query);
+		BitSet both = RankingEngine.and(engine.topPercent(ClassMetric.METHODS, percent), engine.topPercent(ClassMetric.ATTRIBUTES, percent));
+		return new Record("ranking").field("percent", percent).field("classes", engine.names(both, ClassMetric.METHODS));
+	}
+
+	private Record method(ProjectState current, Map<String, String> query) {
+		CallGraphIndex index = current.index();
+		List<String> described = new ArrayList<String>();
+		for (int node : nodes(index, required(query, "name"))) {
+			described.add(index.name(node) + " (fan-in " + index.fanIn(node) + ", fan-out " + index.fanOut(node)
+					+ (index.isRecursive(node) ? ", récursive" : "") + ")");
+		}
+		return new Record("method").field("matches", described);
+	}
+
+	private Record reaches(ProjectState current, Map<String, String> query) {
+		CallGraphIndex index = current.index();
+		int from = single(index, required(query, "from"));
+		int to = single(index, required(query, "to"));
+		boolean reaches = index.reaches(from, to);
+		Record record = new Record("reaches").field("from", index.name(from)).field("to", index.name(to)).field("reaches", reaches);
+		if (reaches) {
+			record.field("path", index.names(index.shortestPath(from, to)));
+		}
+		return record;
+	}
+
+	private static List<Integer> nodes(CallGraphIndex index, String name) {
+		List<Integer> nodes = index.resolve(name);
+		if (nodes.isEmpty()) {
+			throw new BadRequest(404, "aucune méthode ne correspond à " + name);
+		}
+		return nodes;
+	}
+
+	private static int single(CallGraphIndex index, String name) {
+		List<Integer> nodes = nodes(index, name);
+		if (nodes.size() > 1) {
+			List<String> candidates = new ArrayList<String>();
+			for (int node : nodes.subList(0, Math.min(10, nodes.size()))) {
+				candidates.add(index.name(node));
+			}
+			throw new BadRequest(400, nodes.size() + " méthodes correspondent à " + name + " : " + candidates);
+		}
+		return nodes.get(0);
+	}
+
+	private static ClassMetric metric(String name) {
+		try {
+			return ClassMetric.valueOf(name.toUpperCase());
+		} catch (IllegalArgumentException e) {
+			throw new BadRequest(400, "métrique inconnue : " + name + " (attendu : " + Arrays.toString(ClassMetric.values()).toLowerCase() + ")");
+		}
+	}
+
+	private static double percent(Map<String, String> query) {
+		try {
+			return Double.parseDouble(query.getOrDefault("percent", "10"));
+		} catch (NumberFormatException e) {
+			throw new BadRequest(400, "pourcentage invalide : " + query.get("percent"));
+		}
+	}
+
+	private static int integer(Map<String, String> query, String name) {
+		try {
+			return Integer.parseInt(query.get(name));
+		} catch (NumberFormatException e) {
+			throw new BadRequest(400, name + " doit être un entier");
+		}
+	}
+
+	private static String required(Map<String, String> query, String name) {
+		String value = query.get(name);
+		if (value == null || value.isEmpty()) {
+			throw new BadRequest(400, "paramètre manquant : " + name);
+		}
+		return value;
+	}
+}
@@ -0,0 +1,72 @@
+package server;
+
+import java.util.List;
+
+import callGraph.CallGraph;
+import callGraph.analysis.CallGraphIndex;
+import facts.FileFacts;
+import metrics.MetricsTable;
+import ranking.RankingEngine;
+
+// Vue figée du projet à un instant : les requêtes lisent l'instantané courant sans verrou,
+// une mise à jour en construit un nouveau et le publie d'un coup (voir AnalysisServer.publish).
+// L'index du graphe (SCC, fermeture) n'est calculé qu'à la première requête qui en a besoin.
+public class ProjectState {
+	private final long version;
+	private final long createdAt;
+	private final int files;
+	private final MetricsTable table;
+	private final RankingEngine ranking;
+	private final CallGraph graph;
+	private volatile CallGraphIndex index;
+
+	ProjectState(long version, List<FileFacts> facts) {
+		this.version = version;
+		this.createdAt = System.currentTimeMillis();
+		this.files = facts.size();
+		this.table = MetricsTable.fromFacts(facts);
+		this.ranking = RankingEngine.fromTable(table);
+		this.graph = FileFacts.graph(facts);
+	}
+
+	public CallGraphIndex index() {
+		CallGraphIndex built = index;
+		if (built == null) {
+			synchronized (this) {
+				if (index == null) {
+					index = CallGraphIndex.build(graph);
+				}
+				built = index;
+			}
+		}
+		return built;
+	}
+
+	public boolean hasIndex() {
+		return index != null;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public long getCreatedAt() {
+		return createdAt;
+	}
+
+	public int getFiles() {
+		return files;
+	}
+
+	public MetricsTable getTable() {
+		return table;
+	}
+
+	public RankingEngine getRanking() {
+		return ranking;
+	}
+
+	public CallGraph getGraph() {
+		return graph;
+	}
+}
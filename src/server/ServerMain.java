@@ -0,0 +1,94 @@
+package server;
+
+import java.io.File;
+import java.io.IOException;
+
+import instrumentation.Instrumentation;
+import parser.Parser;
+import parser.classpath.ClasspathResolver;
+
+// Mode serveur : analyse le projet une fois puis répond aux requêtes HTTP sur 127.0.0.1 (voir AnalysisServer).
+//
+//   --serve <chemin>            projet Java (son dossier src s'il existe)
+//   --port N                    port d'écoute (défaut : 7878, 0 = port libre choisi par le système)
+//   --threads N                 threads d'analyse et de réponse (défaut : 4)
+//
+// Exemple : curl 'http://127.0.0.1:7878/ranking?metric=attributes&top=5'
+// Les POST (/refresh, /shutdown) demandent le jeton affiché au démarrage :
+//           curl -X POST -H 'X-Analysis-Token: <jeton>' 'http://127.0.0.1:7878/refresh'
+public class ServerMain {
+
+	public static boolean isServer(String[] args) {
+		for (String arg : args) {
+			if ("--serve".equals(arg)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public static void main(String[] args) {
+		System.exit(run(args));
+	}
+
+	public static int run(String[] args) {
+		String project = null;
+		int port = AnalysisServer.DEFAULT_PORT;
+		int threads = 4;
+		try {
+			for (int i = 0; i < args.length; i++) {
+				if ("--serve".equals(args[i]) && i + 1 < args.length) {
+					project = args[++i];
+				} else if ("--port".equals(args[i]) && i + 1 < args.length) {
+					port = Integer.parseInt(args[++i]);
+				} else if ("--threads".equals(args[i]) && i + 1 < args.length) {
+					threads = Integer.parseInt(args[++i]);
+				} else if ("--no-classpath".equals(args[i])) {
+					ClasspathResolver.enabled = false;
+				}
+			}
+		} catch (NumberFormatException e) {
+			System.err.println("Erreur: " + e.getMessage());
+			project = null;
+		}
+		if (project == null) {
+			System.err.println("Usage: --serve <chemin> [--port N] [--threads N]");
+			return 2;
+		}
+
+		File source = new File(project, "src").isDirectory() ? new File(project, "src") : new File(project);
+		if (!source.isDirectory()) {
+			System.err.println("Erreur: " + project + " n'est pas un dossier");
+			return 2;
+		}
+		Parser.projectSourcePath = source.getAbsolutePath();
+		try {
+			Instrumentation.configure(args);
+		} catch (IllegalArgumentException e) {
+			System.err.println("Erreur: " + e.getMessage());
+			return 2;
+		}
+
+		long start = System.nanoTime();
+		try (AnalysisServer server = new AnalysisServer(source.getAbsolutePath(), port, threads).start()) {
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				try {
+					server.close();
+				} catch (IOException e) {
+					// arrêt de la JVM : rien de plus à faire
+				}
+			}));
+			System.out.println("Serveur prêt sur http://127.0.0.1:" + server.getPort() + " (" + server.getState().getFiles()
+					+ " fichiers, " + (System.nanoTime() - start) / 1_000_000 + " ms)");
+			System.out.println("Jeton pour les POST (en-tête " + AnalysisServer.TOKEN_HEADER + ") : " + server.getToken());
+			server.awaitShutdown();
+		} catch (IOException e) {
+			System.err.println("Erreur: serveur arrêté : " + e);
+			return 1;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		Instrumentation.finish(System.err);
+		return 0;
+	}
+}
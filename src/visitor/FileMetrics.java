@@ -0,0 +1,119 @@
+package visitor;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Métriques d'un fichier, remplies en un seul parcours par MetricsVisitor
+public class FileMetrics {
+	int amountClass = 0;
+	int amountLines = 0;
+	int amountMethods = 0;
+	int amountLinesByMethods = 0;
+	int amountAttributs = 0;
+	int amountParams = 0;
+	Set<String> packages = new LinkedHashSet<String>();
+	Map<String, Integer> classesMethods = new LinkedHashMap<String, Integer>();
+	Map<String, Integer> classesAttributes = new LinkedHashMap<String, Integer>();
+
+	// Une ligne de MethodMetric.COUNT valeurs par méthode, dans l'ordre de déclaration (ComplexityCollector)
+	int[] methodValues = new int[0];
+	int methodRows = 0;
+
+	// Métriques supplémentaires ajoutées par des collecteurs externes
+	Map<String, Long> extras = new LinkedHashMap<String, Long>();
+
+	public int getAmountClass() {
+		return amountClass;
+	}
+
+	public void setAmountClass(int amountClass) {
+		this.amountClass = amountClass;
+	}
+
+	public int getAmountLines() {
+		return amountLines;
+	}
+
+	public void setAmountLines(int amountLines) {
+		this.amountLines = amountLines;
+	}
+
+	public int getAmountMethods() {
+		return amountMethods;
+	}
+
+	public void setAmountMethods(int amountMethods) {
+		this.amountMethods = amountMethods;
+	}
+
+	public int getAmountLinesByMethods() {
+		return amountLinesByMethods;
+	}
+
+	public void setAmountLinesByMethods(int amountLinesByMethods) {
+		this.amountLinesByMethods = amountLinesByMethods;
+	}
+
+	public int getAmountAttributs() {
+		return amountAttributs;
+	}
+
+	public void setAmountAttributs(int amountAttributs) {
+		this.amountAttributs = amountAttributs;
+	}
+
+	public int getAmountParams() {
+		return amountParams;
+	}
+
+	public void setAmountParams(int amountParams) {
+		this.amountParams = amountParams;
+	}
+
+	public Set<String> getPackages() {
+		return packages;
+	}
+
+	public Map<String, Integer> getClassesMethods() {
+		return classesMethods;
+	}
+
+	public Map<String, Integer> getClassesAttributes() {
+		return classesAttributes;
+	}
+
+	// Réserve la ligne d'une méthode (toutes valeurs à 0) et retourne son indice
+	public int addMethodRow() {
+		if ((methodRows + 1) * MethodMetric.COUNT > methodValues.length) {
+			methodValues = Arrays.copyOf(methodValues, Math.max(8, methodRows * 2) * MethodMetric.COUNT);
+		}
+		return methodRows++;
+	}
+
+	public void setMethodValue(int row, MethodMetric metric, int value) {
+		methodValues[row * MethodMetric.COUNT + metric.ordinal()] = value;
+	}
+
+	public int getMethodValue(int row, MethodMetric metric) {
+		return methodValues[row * MethodMetric.COUNT + metric.ordinal()];
+	}
+
+	public int getMethodRows() {
+		return methodRows;
+	}
+
+	public void addExtra(String name, long delta) {
+		extras.merge(name, delta, Long::sum);
+	}
+
+	public long getExtra(String name) {
+		return extras.getOrDefault(name, 0L);
+	}
+
+	public Map<String, Long> getExtras() {
+		return extras;
+	}
+}
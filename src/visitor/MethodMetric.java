@@ -0,0 +1,23 @@
+package visitor;
+
+// Métriques relevées pour chaque méthode pendant le parcours de MetricsVisitor (voir ComplexityCollector)
+public enum MethodMetric {
+	PARAMETERS("paramètres"),
+	LINES("lignes de code"),
+	COMPLEXITY("complexité cyclomatique"),
+	NESTING("profondeur d’imbrication"),
+	STATEMENTS("instructions"),
+	INVOCATIONS("invocations");
+
+	public static final int COUNT = values().length;
+
+	private final String label;
+
+	MethodMetric(String label) {
+		this.label = label;
+	}
+
+	public String getLabel() {
+		return label;
+	}
+}
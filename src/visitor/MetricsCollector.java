@@ -0,0 +1,45 @@
+package visitor;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.MethodInvocation;
+import org.eclipse.jdt.core.dom.PackageDeclaration;
+import org.eclipse.jdt.core.dom.SuperMethodInvocation;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+
+// Un collecteur reçoit les noeuds rencontrés par MetricsVisitor au lieu de reparcourir l'AST
+public interface MetricsCollector {
+
+	default void startUnit(CompilationUnit unit, FileMetrics metrics) {
+	}
+
+	default void visitPackage(PackageDeclaration node, FileMetrics metrics) {
+	}
+
+	default void visitType(TypeDeclaration node, FileMetrics metrics) {
+	}
+
+	default void visitMethod(MethodDeclaration node, FileMetrics metrics) {
+	}
+
+	default void endVisitMethod(MethodDeclaration node, FileMetrics metrics) {
+	}
+
+	default void visitInvocation(MethodInvocation node, FileMetrics metrics) {
+	}
+
+	default void visitSuperInvocation(SuperMethodInvocation node, FileMetrics metrics) {
+	}
+
+	// Chaque noeud, avant (visitNode) et après (endVisitNode) ses enfants : pour les métriques
+	// qui dépendent de nombreux types de noeuds sans ajouter une méthode par type
+	default void visitNode(ASTNode node, FileMetrics metrics) {
+	}
+
+	default void endVisitNode(ASTNode node, FileMetrics metrics) {
+	}
+
+	default void endUnit(CompilationUnit unit, FileMetrics metrics) {
+	}
+}
@@ -0,0 +1,139 @@
+package visitor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.MethodInvocation;
+import org.eclipse.jdt.core.dom.PackageDeclaration;
+import org.eclipse.jdt.core.dom.SuperMethodInvocation;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+
+import instrumentation.Counter;
+import instrumentation.Instrumentation;
+import visitor.collector.ComplexityCollector;
+import visitor.collector.MethodMetricsCollector;
+import visitor.collector.PackageMetricsCollector;
+import visitor.collector.TypeMetricsCollector;
+
+// Visiteur unique : un seul parcours de l'AST, les collecteurs se partagent les noeuds
+public class MetricsVisitor extends ASTVisitor {
+	List<MetricsCollector> collectors = new ArrayList<MetricsCollector>();
+	FileMetrics metrics = new FileMetrics();
+	CompilationUnit unit;
+	int walks = 0;
+	// Noeuds et méthodes de l'unité en cours, remontés à Instrumentation en fin d'unité
+	int nodes = 0;
+	int methods = 0;
+
+	public MetricsVisitor(MetricsCollector... collectors) {
+		this.collectors.addAll(Arrays.asList(collectors));
+	}
+
+	// Collecteurs reproduisant les anciens helpers de Parser, plus les métriques par méthode
+	public static MetricsVisitor withDefaultCollectors() {
+		return new MetricsVisitor(new TypeMetricsCollector(), new MethodMetricsCollector(), new PackageMetricsCollector(),
+				new ComplexityCollector());
+	}
+
+	// Parcourt l'unité une seule fois et retourne ses métriques
+	public static FileMetrics collect(CompilationUnit unit, MetricsCollector... extraCollectors) {
+		MetricsVisitor visitor = withDefaultCollectors();
+		visitor.addCollectors(extraCollectors);
+		unit.accept(visitor);
+		return visitor.getMetrics();
+	}
+
+	public MetricsVisitor addCollectors(MetricsCollector... extraCollectors) {
+		collectors.addAll(Arrays.asList(extraCollectors));
+		return this;
+	}
+
+	public void preVisit(ASTNode node) {
+		nodes++;
+		for (MetricsCollector collector : collectors) {
+			collector.visitNode(node, metrics);
+		}
+	}
+
+	public void postVisit(ASTNode node) {
+		for (MetricsCollector collector : collectors) {
+			collector.endVisitNode(node, metrics);
+		}
+	}
+
+	public boolean visit(CompilationUnit node) {
+		unit = node;
+		metrics = new FileMetrics();
+		walks++;
+		nodes = 1;
+		methods = 0;
+		for (MetricsCollector collector : collectors) {
+			collector.startUnit(node, metrics);
+		}
+		return super.visit(node);
+	}
+
+	public void endVisit(CompilationUnit node) {
+		for (MetricsCollector collector : collectors) {
+			collector.endUnit(node, metrics);
+		}
+		Instrumentation.count(Counter.AST_NODES, nodes);
+		Instrumentation.count(Counter.METHODS, methods);
+	}
+
+	public boolean visit(PackageDeclaration node) {
+		for (MetricsCollector collector : collectors) {
+			collector.visitPackage(node, metrics);
+		}
+		return super.visit(node);
+	}
+
+	public boolean visit(TypeDeclaration node) {
+		for (MetricsCollector collector : collectors) {
+			collector.visitType(node, metrics);
+		}
+		return super.visit(node);
+	}
+
+	public boolean visit(MethodDeclaration node) {
+		methods++;
+		for (MetricsCollector collector : collectors) {
+			collector.visitMethod(node, metrics);
+		}
+		return super.visit(node);
+	}
+
+	public void endVisit(MethodDeclaration node) {
+		for (MetricsCollector collector : collectors) {
+			collector.endVisitMethod(node, metrics);
+		}
+	}
+
+	public boolean visit(MethodInvocation node) {
+		for (MetricsCollector collector : collectors) {
+			collector.visitInvocation(node, metrics);
+		}
+		return super.visit(node);
+	}
+
+	public boolean visit(SuperMethodInvocation node) {
+		for (MetricsCollector collector : collectors) {
+			collector.visitSuperInvocation(node, metrics);
+		}
+		return super.visit(node);
+	}
+
+	public FileMetrics getMetrics() {
+		return metrics;
+	}
+
+	// Nombre de parcours complets de CompilationUnit effectués par ce visiteur
+	public int getWalks() {
+		return walks;
+	}
+}
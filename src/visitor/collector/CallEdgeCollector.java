@@ -0,0 +1,77 @@
+package visitor.collector;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.MethodInvocation;
+import org.eclipse.jdt.core.dom.SuperMethodInvocation;
+
+import callGraph.MethodKeys;
+import callGraph.SymbolTable;
+import visitor.FileMetrics;
+import visitor.MetricsCollector;
+
+// Relève les arcs appelant -> appelé avec les clés issues des bindings.
+// Une invocation est attribuée à la méthode qui la contient directement (classes anonymes comprises).
+public class CallEdgeCollector implements MetricsCollector {
+	Deque<String> enclosingMethods = new ArrayDeque<String>();
+	Set<List<String>> edges = new LinkedHashSet<List<String>>();
+	private final SymbolTable symbols;
+
+	public CallEdgeCollector() {
+		this(SymbolTable.shared());
+	}
+
+	public CallEdgeCollector(SymbolTable symbols) {
+		this.symbols = symbols;
+	}
+
+	@Override
+	public void visitMethod(MethodDeclaration node, FileMetrics metrics) {
+		enclosingMethods.push(MethodKeys.of(node.resolveBinding(), node.getName().toString()));
+	}
+
+	@Override
+	public void endVisitMethod(MethodDeclaration node, FileMetrics metrics) {
+		enclosingMethods.pop();
+	}
+
+	@Override
+	public void visitInvocation(MethodInvocation node, FileMetrics metrics) {
+		add(MethodKeys.of(node.resolveMethodBinding(), node.getName().toString()));
+	}
+
+	@Override
+	public void visitSuperInvocation(SuperMethodInvocation node, FileMetrics metrics) {
+		add(MethodKeys.of(node.resolveMethodBinding(), node.getName().toString()));
+	}
+
+	private void add(String callee) {
+		// Invocations hors méthode (initialiseurs de champs) : pas d'appelant
+		if (!enclosingMethods.isEmpty()) {
+			edges.add(List.of(enclosingMethods.peek(), callee));
+		}
+	}
+
+	// Appelants puis appelés, en symboles de la table du collecteur (un seul verrou par liste)
+	public int[] getCallers() {
+		return endpoints(0);
+	}
+
+	public int[] getCallees() {
+		return endpoints(1);
+	}
+
+	private int[] endpoints(int side) {
+		List<String> names = new ArrayList<String>(edges.size());
+		for (List<String> edge : edges) {
+			names.add(edge.get(side));
+		}
+		return symbols.intern(names);
+	}
+}
@@ -0,0 +1,140 @@
+package visitor.collector;
+
+import java.util.Arrays;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.IfStatement;
+import org.eclipse.jdt.core.dom.InfixExpression;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.SwitchCase;
+
+import visitor.FileMetrics;
+import visitor.MethodMetric;
+import visitor.MetricsCollector;
+
+// Une ligne de MethodMetric par méthode, dans le même parcours que les autres collecteurs :
+// - complexité cyclomatique : 1 + if, for, while, do, case (hors default), catch, ?: et chaque && / ||
+// - profondeur d'imbrication : if, boucles, switch, try et synchronized imbriqués ; un "else if" reste au même niveau
+// - instructions : toutes les Statement sauf les blocs
+// - invocations : MethodInvocation et SuperMethodInvocation
+// Les noeuds d'une classe anonyme sont comptés pour ses propres méthodes, pas pour la méthode englobante.
+public class ComplexityCollector implements MetricsCollector {
+	CompilationUnit unit;
+
+	// Pile des méthodes en cours : ligne dans FileMetrics, complexité, profondeur courante et maximale,
+	// instructions et invocations, FRAME entiers par méthode
+	static final int FRAME = 6;
+	int[] frames = new int[FRAME * 4];
+	int depth = 0;
+
+	@Override
+	public void startUnit(CompilationUnit unit, FileMetrics metrics) {
+		this.unit = unit;
+		depth = 0;
+	}
+
+	@Override
+	public void visitMethod(MethodDeclaration node, FileMetrics metrics) {
+		if ((depth + 1) * FRAME > frames.length) {
+			frames = Arrays.copyOf(frames, frames.length * 2);
+		}
+		int row = metrics.addMethodRow();
+		int start = node.getStartPosition();
+		int end = start + node.getLength();
+		metrics.setMethodValue(row, MethodMetric.PARAMETERS, node.parameters().size());
+		metrics.setMethodValue(row, MethodMetric.LINES, unit.getLineNumber(end) - unit.getLineNumber(start));
+
+		int frame = depth * FRAME;
+		frames[frame] = row;
+		frames[frame + 1] = 1;
+		frames[frame + 2] = 0;
+		frames[frame + 3] = 0;
+		frames[frame + 4] = 0;
+		frames[frame + 5] = 0;
+		depth++;
+	}
+
+	@Override
+	public void endVisitMethod(MethodDeclaration node, FileMetrics metrics) {
+		depth--;
+		int frame = depth * FRAME;
+		int row = frames[frame];
+		metrics.setMethodValue(row, MethodMetric.COMPLEXITY, frames[frame + 1]);
+		metrics.setMethodValue(row, MethodMetric.NESTING, frames[frame + 3]);
+		metrics.setMethodValue(row, MethodMetric.STATEMENTS, frames[frame + 4]);
+		metrics.setMethodValue(row, MethodMetric.INVOCATIONS, frames[frame + 5]);
+	}
+
+	@Override
+	public void visitNode(ASTNode node, FileMetrics metrics) {
+		if (depth == 0) {
+			return;
+		}
+		int frame = (depth - 1) * FRAME;
+		int type = node.getNodeType();
+		switch (type) {
+		case ASTNode.IF_STATEMENT:
+		case ASTNode.FOR_STATEMENT:
+		case ASTNode.ENHANCED_FOR_STATEMENT:
+		case ASTNode.WHILE_STATEMENT:
+		case ASTNode.DO_STATEMENT:
+		case ASTNode.CATCH_CLAUSE:
+		case ASTNode.CONDITIONAL_EXPRESSION:
+			frames[frame + 1]++;
+			break;
+		case ASTNode.SWITCH_CASE:
+			if (!((SwitchCase) node).isDefault()) {
+				frames[frame + 1]++;
+			}
+			break;
+		case ASTNode.INFIX_EXPRESSION:
+			InfixExpression infix = (InfixExpression) node;
+			if (infix.getOperator() == InfixExpression.Operator.CONDITIONAL_AND
+					|| infix.getOperator() == InfixExpression.Operator.CONDITIONAL_OR) {
+				// a && b && c : un seul noeud, deux opérateurs
+				frames[frame + 1] += 1 + infix.extendedOperands().size();
+			}
+			break;
+		case ASTNode.METHOD_INVOCATION:
+		case ASTNode.SUPER_METHOD_INVOCATION:
+			frames[frame + 5]++;
+			break;
+		default:
+			break;
+		}
+		if (type != ASTNode.BLOCK && node instanceof Statement) {
+			frames[frame + 4]++;
+		}
+		if (nests(node)) {
+			frames[frame + 2]++;
+			frames[frame + 3] = Math.max(frames[frame + 3], frames[frame + 2]);
+		}
+	}
+
+	@Override
+	public void endVisitNode(ASTNode node, FileMetrics metrics) {
+		if (depth > 0 && nests(node)) {
+			frames[(depth - 1) * FRAME + 2]--;
+		}
+	}
+
+	private static boolean nests(ASTNode node) {
+		switch (node.getNodeType()) {
+		case ASTNode.IF_STATEMENT:
+			ASTNode parent = node.getParent();
+			return !(parent instanceof IfStatement && ((IfStatement) parent).getElseStatement() == node);
+		case ASTNode.FOR_STATEMENT:
+		case ASTNode.ENHANCED_FOR_STATEMENT:
+		case ASTNode.WHILE_STATEMENT:
+		case ASTNode.DO_STATEMENT:
+		case ASTNode.SWITCH_STATEMENT:
+		case ASTNode.TRY_STATEMENT:
+		case ASTNode.SYNCHRONIZED_STATEMENT:
+			return true;
+		default:
+			return false;
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package visitor.collector;
+
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+
+import visitor.FileMetrics;
+import visitor.MetricsCollector;
+
+// Remplace getNumberOfMethods, getNumberOfLinesByMethods et getMethodParams
+public class MethodMetricsCollector implements MetricsCollector {
+	CompilationUnit unit;
+
+	@Override
+	public void startUnit(CompilationUnit unit, FileMetrics metrics) {
+		this.unit = unit;
+	}
+
+	@Override
+	public void visitMethod(MethodDeclaration node, FileMetrics metrics) {
+		metrics.setAmountMethods(metrics.getAmountMethods() + 1);
+		metrics.setAmountParams(metrics.getAmountParams() + node.parameters().size());
+
+		int start = node.getStartPosition(); // first character position
+		int end = start + node.getLength(); // last character position
+		metrics.setAmountLinesByMethods(metrics.getAmountLinesByMethods()
+				+ unit.getLineNumber(end) - unit.getLineNumber(start));
+	}
+}
@@ -0,0 +1,15 @@
+package visitor.collector;
+
+import org.eclipse.jdt.core.dom.PackageDeclaration;
+
+import visitor.FileMetrics;
+import visitor.MetricsCollector;
+
+// Remplace getPackages
+public class PackageMetricsCollector implements MetricsCollector {
+
+	@Override
+	public void visitPackage(PackageDeclaration node, FileMetrics metrics) {
+		metrics.getPackages().add(node.getName().getFullyQualifiedName());
+	}
+}
@@ -0,0 +1,37 @@
+package visitor.collector;
+
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+
+import visitor.FileMetrics;
+import visitor.MetricsCollector;
+
+// Remplace getNumberOfClasses, getNumberOfLines, getNumberOfAttributs, addClassMethods et addClassAttributes
+public class TypeMetricsCollector implements MetricsCollector {
+	int lastTypeLength;
+	int lastTypeFields;
+
+	@Override
+	public void startUnit(CompilationUnit unit, FileMetrics metrics) {
+		lastTypeLength = 0;
+		lastTypeFields = 0;
+	}
+
+	@Override
+	public void visitType(TypeDeclaration node, FileMetrics metrics) {
+		metrics.setAmountClass(metrics.getAmountClass() + 1);
+		int fields = node.getFields().length;
+		metrics.getClassesMethods().put(String.valueOf(node.getName()), node.getMethods().length);
+		metrics.getClassesAttributes().put(String.valueOf(node.getName()), fields);
+
+		// Comme TypeDeclarationVisitor : on garde la dernière classe visitée
+		lastTypeLength = node.getLength();
+		lastTypeFields = fields;
+	}
+
+	@Override
+	public void endUnit(CompilationUnit unit, FileMetrics metrics) {
+		metrics.setAmountLines(unit.getLineNumber(lastTypeLength));
+		metrics.setAmountAttributs(lastTypeFields);
+	}
+}